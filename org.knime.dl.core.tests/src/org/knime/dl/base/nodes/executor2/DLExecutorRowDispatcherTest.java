@@ -0,0 +1,294 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.base.nodes.executor2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.streamable.RowOutput;
+
+/**
+ * Tests the distribution of rows among the workers of the executor and the reordering of their results.
+ */
+public class DLExecutorRowDispatcherTest {
+
+    private static final DataTableSpec SPEC =
+        new DataTableSpec(new DataColumnSpecCreator("value", IntCell.TYPE).createSpec());
+
+    private ExecutorService m_workers;
+
+    @Before
+    public void setUp() {
+        m_workers = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        m_workers.shutdownNow();
+    }
+
+    @Test
+    public void testOutputIsInInputOrderAcrossWorkers() throws Exception {
+        final int numRows = 1000;
+        final int numWorkers = 4;
+        final DLListRowInput source = new DLListRowInput(numRows);
+        final DLListRowOutput target = new DLListRowOutput();
+        final DLExecutorRowDispatcher dispatcher =
+            new DLExecutorRowDispatcher(source, target, numRows, 7, 2 * numWorkers, new ExecutionMonitor());
+        final List<Future<Integer>> workers = new ArrayList<>();
+        for (int i = 0; i < numWorkers; i++) {
+            final DLExecutorRowDispatcher.DLWorkerChannel channel = dispatcher.createChannel();
+            final Random random = new Random(i);
+            workers.add(m_workers.submit(() -> {
+                int numProcessed = 0;
+                DataRow row;
+                while ((row = channel.getInput().poll()) != null) {
+                    // simulate workers of different speed to make chunks complete out of order
+                    Thread.sleep(random.nextInt(2));
+                    channel.getOutput().push(new DefaultRow(row.getKey(),
+                        new IntCell(2 * ((IntCell)row.getCell(0)).getIntValue())));
+                    numProcessed++;
+                }
+                return numProcessed;
+            }));
+        }
+        int numProcessed = 0;
+        for (final Future<Integer> worker : workers) {
+            numProcessed += worker.get(30, TimeUnit.SECONDS);
+        }
+        dispatcher.close();
+        assertEquals(numRows, numProcessed);
+        assertTrue(source.m_closed);
+        assertTrue(target.m_closed);
+        assertEquals(numRows, target.m_rows.size());
+        for (int i = 0; i < numRows; i++) {
+            final DataRow row = target.m_rows.get(i);
+            assertEquals(RowKey.createRowKey((long)i), row.getKey());
+            assertEquals(2 * i, ((IntCell)row.getCell(0)).getIntValue());
+        }
+    }
+
+    @Test
+    public void testPendingChunksAreBounded() throws Exception {
+        final DLListRowInput source = new DLListRowInput(10);
+        final DLListRowOutput target = new DLListRowOutput();
+        // one row per chunk, at most two chunks in progress or waiting to be emitted
+        final DLExecutorRowDispatcher dispatcher =
+            new DLExecutorRowDispatcher(source, target, 10, 1, 2, new ExecutionMonitor());
+        final DLExecutorRowDispatcher.DLWorkerChannel slowWorker = dispatcher.createChannel();
+        final DLExecutorRowDispatcher.DLWorkerChannel fastWorker = dispatcher.createChannel();
+
+        final DataRow row0 = slowWorker.getInput().poll();
+        final DataRow row1 = fastWorker.getInput().poll();
+        fastWorker.getOutput().push(row1);
+        // chunk 1 cannot be emitted before chunk 0, both still count as pending
+        assertTrue(target.m_rows.isEmpty());
+        final Future<DataRow> blockedPoll = m_workers.submit(() -> fastWorker.getInput().poll());
+        Thread.sleep(200);
+        assertFalse("Worker must wait until pending chunks were emitted.", blockedPoll.isDone());
+
+        // the worker that holds the chunk all others are waiting for is never blocked
+        final DataRow row2 = slowWorker.getInput().poll();
+        assertEquals(RowKey.createRowKey(2L), row2.getKey());
+
+        slowWorker.getOutput().push(row0);
+        final DataRow row3 = blockedPoll.get(10, TimeUnit.SECONDS);
+        assertEquals(RowKey.createRowKey(3L), row3.getKey());
+        assertEquals(2, target.m_rows.size());
+        assertEquals(row0.getKey(), target.m_rows.get(0).getKey());
+        assertEquals(row1.getKey(), target.m_rows.get(1).getKey());
+
+        slowWorker.getOutput().push(row2);
+        fastWorker.getOutput().push(row3);
+        assertEquals(4, target.m_rows.size());
+    }
+
+    @Test
+    public void testBufferedChunksAreBoundedIfWorkersPollAhead() throws Exception {
+        final int numRows = 100;
+        final int maxPendingChunks = 4;
+        final DLListRowInput source = new DLListRowInput(numRows);
+        final DLListRowOutput target = new DLListRowOutput();
+        final DLExecutorRowDispatcher dispatcher =
+            new DLExecutorRowDispatcher(source, target, numRows, 2, maxPendingChunks, new ExecutionMonitor());
+        final CountDownLatch stall = new CountDownLatch(1);
+        final Future<Integer> stalledWorker = m_workers.submit(pollingAheadWorker(dispatcher.createChannel(), stall));
+        // make sure the stalled worker holds the first chunk
+        while (source.m_nextRow == 0) {
+            Thread.sleep(1);
+        }
+        final Future<Integer> fastWorker =
+            m_workers.submit(pollingAheadWorker(dispatcher.createChannel(), new CountDownLatch(0)));
+        Thread.sleep(200);
+        assertFalse("Worker must wait until buffered chunks were emitted.", fastWorker.isDone());
+        assertTrue(dispatcher.getNumBufferedChunks() <= maxPendingChunks);
+        assertTrue(target.m_rows.isEmpty());
+
+        stall.countDown();
+        final int numProcessed = stalledWorker.get(30, TimeUnit.SECONDS) + fastWorker.get(30, TimeUnit.SECONDS);
+        dispatcher.close();
+        assertEquals(numRows, numProcessed);
+        assertEquals(0, dispatcher.getNumBufferedChunks());
+        assertEquals(numRows, target.m_rows.size());
+        for (int i = 0; i < numRows; i++) {
+            assertEquals(RowKey.createRowKey((long)i), target.m_rows.get(i).getKey());
+        }
+    }
+
+    /**
+     * Mimics the execution session which checks for further input before it pushes the results of the current row.
+     */
+    private static Callable<Integer> pollingAheadWorker(final DLExecutorRowDispatcher.DLWorkerChannel channel,
+        final CountDownLatch stall) {
+        return () -> {
+            int numProcessed = 0;
+            DataRow row = channel.getInput().poll();
+            while (row != null) {
+                final DataRow next = channel.getInput().poll();
+                stall.await();
+                channel.getOutput().push(row);
+                numProcessed++;
+                row = next;
+            }
+            return numProcessed;
+        };
+    }
+
+    @Test
+    public void testWorkerWithoutInputReceivesNoRows() throws Exception {
+        final DLListRowInput source = new DLListRowInput(3);
+        final DLListRowOutput target = new DLListRowOutput();
+        final DLExecutorRowDispatcher dispatcher =
+            new DLExecutorRowDispatcher(source, target, 3, 5, 2, new ExecutionMonitor());
+        final DLExecutorRowDispatcher.DLWorkerChannel first = dispatcher.createChannel();
+        final DLExecutorRowDispatcher.DLWorkerChannel second = dispatcher.createChannel();
+        final List<DataRow> rows = new ArrayList<>();
+        DataRow row;
+        while ((row = first.getInput().poll()) != null) {
+            rows.add(row);
+        }
+        assertEquals(3, rows.size());
+        assertNull(second.getInput().poll());
+        for (final DataRow r : rows) {
+            first.getOutput().push(r);
+        }
+        dispatcher.close();
+        assertEquals(3, target.m_rows.size());
+    }
+
+    private static final class DLListRowInput extends RowInput {
+
+        private final List<DataRow> m_rows;
+
+        private volatile int m_nextRow;
+
+        private boolean m_closed;
+
+        private DLListRowInput(final int numRows) {
+            final List<DataRow> rows = new ArrayList<>(numRows);
+            for (int i = 0; i < numRows; i++) {
+                rows.add(new DefaultRow(RowKey.createRowKey((long)i), new IntCell(i)));
+            }
+            m_rows = rows;
+        }
+
+        @Override
+        public DataTableSpec getDataTableSpec() {
+            return SPEC;
+        }
+
+        @Override
+        public DataRow poll() {
+            return m_nextRow < m_rows.size() ? m_rows.get(m_nextRow++) : null;
+        }
+
+        @Override
+        public void close() {
+            m_closed = true;
+        }
+    }
+
+    private static final class DLListRowOutput extends RowOutput {
+
+        private final List<DataRow> m_rows = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile boolean m_closed;
+
+        @Override
+        public void push(final DataRow row) {
+            m_rows.add(row);
+        }
+
+        @Override
+        public void close() {
+            m_closed = true;
+        }
+    }
+}
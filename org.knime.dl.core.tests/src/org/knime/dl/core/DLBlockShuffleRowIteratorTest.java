@@ -0,0 +1,187 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.dl.core.DLShuffleDataTableRowIterator.DLBlockShuffleRowIterator;
+
+/**
+ * Tests the {@link DLShuffleStrategy#BLOCK block} shuffle strategy of {@link DLShuffleDataTableRowIterator}.
+ */
+public class DLBlockShuffleRowIteratorTest {
+
+    @Test
+    public void testEachRowIsReturnedOncePerEpoch() {
+        final DLCountingTable table = new DLCountingTable(1003);
+        final Random random = new Random(42);
+        int[] previousOrder = null;
+        for (int epoch = 0; epoch < 3; epoch++) {
+            final int[] order = readEpoch(new DLBlockShuffleRowIterator(table::read, table.m_size, 10, random));
+            final int[] sorted = order.clone();
+            Arrays.sort(sorted);
+            for (int i = 0; i < sorted.length; i++) {
+                assertEquals(i, sorted[i]);
+            }
+            assertFalse("Rows must be shuffled.", Arrays.equals(sorted, order));
+            if (previousOrder != null) {
+                assertFalse("Each epoch must have a new order.", Arrays.equals(previousOrder, order));
+            }
+            previousOrder = order;
+        }
+        assertEquals(0, table.m_numOpenIterators);
+    }
+
+    @Test
+    public void testBlocksAreContiguous() {
+        final DLCountingTable table = new DLCountingTable(95);
+        final int[] order = readEpoch(new DLBlockShuffleRowIterator(table::read, table.m_size, 10, new Random(7)));
+        // the rows of each block are returned one after another
+        int numRuns = 1;
+        for (int i = 1; i < order.length; i++) {
+            if (order[i] / 10 != order[i - 1] / 10) {
+                numRuns++;
+            }
+        }
+        assertEquals(10, numRuns);
+    }
+
+    @Test
+    public void testRowsReadPerEpochAreBounded() {
+        final DLCountingTable table = new DLCountingTable(100_000);
+        readEpoch(new DLBlockShuffleRowIterator(table::read, table.m_size, 100, new Random(3)));
+        // reading each of the 1000 blocks separately would read about 50 million rows
+        final long maxNumRowsRead = table.m_size * (DLBlockShuffleRowIterator.MAX_NUM_SEGMENTS + 1) / 2;
+        assertTrue("Read " + table.m_numRowsRead + " rows.", table.m_numRowsRead <= maxNumRowsRead);
+    }
+
+    @Test
+    public void testSmallAndEmptyTables() {
+        final DLCountingTable single = new DLCountingTable(1);
+        assertArrayEquals(new int[]{0},
+            readEpoch(new DLBlockShuffleRowIterator(single::read, single.m_size, 10, new Random(0))));
+        final DLCountingTable empty = new DLCountingTable(0);
+        assertArrayEquals(new int[0],
+            readEpoch(new DLBlockShuffleRowIterator(empty::read, empty.m_size, 10, new Random(0))));
+        assertEquals(0, empty.m_numRowsRead);
+    }
+
+    private static int[] readEpoch(final DLBlockShuffleRowIterator iterator) {
+        final int[] order;
+        try {
+            final List<Integer> values = new ArrayList<>();
+            while (iterator.hasNext()) {
+                values.add(((IntCell)iterator.next().getCell(0)).getIntValue());
+            }
+            order = values.stream().mapToInt(Integer::intValue).toArray();
+        } finally {
+            iterator.close();
+        }
+        return order;
+    }
+
+    /**
+     * Mimics a row-based table which has to read all preceding rows in order to start reading at a given row.
+     */
+    private static final class DLCountingTable {
+
+        private final long m_size;
+
+        private long m_numRowsRead;
+
+        private int m_numOpenIterators;
+
+        private DLCountingTable(final long size) {
+            m_size = size;
+        }
+
+        private CloseableRowIterator read(final long fromRowIndex) {
+            m_numRowsRead += fromRowIndex;
+            m_numOpenIterators++;
+            return new CloseableRowIterator() {
+
+                private long m_next = fromRowIndex;
+
+                private boolean m_closed;
+
+                @Override
+                public boolean hasNext() {
+                    return m_next < m_size;
+                }
+
+                @Override
+                public DataRow next() {
+                    m_numRowsRead++;
+                    final long index = m_next++;
+                    return new DefaultRow(RowKey.createRowKey(index), new IntCell((int)index));
+                }
+
+                @Override
+                public void close() {
+                    if (!m_closed) {
+                        m_closed = true;
+                        m_numOpenIterators--;
+                    }
+                }
+            };
+        }
+    }
+}
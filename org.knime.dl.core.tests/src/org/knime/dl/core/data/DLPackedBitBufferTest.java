@@ -0,0 +1,164 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.knime.dl.testing.DLTestUtil.DOUBLE_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.FLOAT_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.alternatingBooleanArray;
+import static org.knime.dl.testing.DLTestUtil.booleanRange;
+import static org.knime.dl.testing.DLTestUtil.toDouble;
+import static org.knime.dl.testing.DLTestUtil.toFloat;
+
+import java.nio.BufferOverflowException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class DLPackedBitBufferTest {
+
+    @Test
+    public void testPutBoolean() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(10)) {
+            buffer.put(true);
+            buffer.put(false);
+            assertEquals(2, buffer.size());
+            assertTrue(buffer.readNextBit());
+            assertFalse(buffer.readNextBit());
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testPutBooleanOverflow() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(1)) {
+            buffer.put(true);
+            buffer.put(false);
+        }
+    }
+
+    @Test
+    public void testPutAllWordsUnaligned() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(200)) {
+            final long[] words = new long[]{0xABCDEF0123456789L, 0x0123456789ABCDEFL};
+            buffer.zeroPad(3);
+            buffer.putAll(words, 100);
+            final boolean[] expected = new boolean[200];
+            for (int i = 0; i < 100; i++) {
+                expected[3 + i] = (words[i / 64] & (1L << (i % 64))) != 0;
+            }
+            assertEquals(103, buffer.size());
+            assertArrayEquals(expected, buffer.toBitArray());
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testPutAllWordsOverflow() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(10)) {
+            buffer.putAll(new long[]{-1L}, 11);
+        }
+    }
+
+    @Test
+    public void testResetWriteClearsBits() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(70)) {
+            buffer.putAll(new long[]{-1L, -1L}, 70);
+            buffer.reset();
+            buffer.zeroPad(70);
+            assertArrayEquals(new boolean[70], buffer.toBitArray());
+        }
+    }
+
+    @Test
+    public void testReadToFloatArray() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(130)) {
+            final boolean[] expected = booleanRange(130);
+            buffer.putAll(expected);
+            final float[] filled = new float[expected.length];
+            buffer.readToFloatArray(filled, 0, filled.length);
+            assertArrayEquals(toFloat(expected), filled, FLOAT_EPSILON);
+            Arrays.fill(filled, 1);
+            expected[0] = true;
+            buffer.resetRead();
+            buffer.readNextBit();
+            buffer.readToFloatArray(filled, 1, 129);
+            assertArrayEquals(toFloat(expected), filled, FLOAT_EPSILON);
+        }
+    }
+
+    @Test
+    public void testToDoubleArray() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(130)) {
+            final boolean[] expected = alternatingBooleanArray(130);
+            buffer.putAll(expected);
+            assertArrayEquals(toDouble(expected), buffer.toDoubleArray(), DOUBLE_EPSILON);
+        }
+    }
+
+    @Test
+    public void testReadToPackedByteArray() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(12)) {
+            buffer.putAll(new boolean[]{true, false, true, true, false, false, false, false, false, true, true, true});
+            final byte[] packed = new byte[2];
+            buffer.readToPackedByteArray(packed, 0, 12);
+            assertArrayEquals(new byte[]{(byte)0b10110000, (byte)0b01110000}, packed);
+        }
+    }
+
+    @Test
+    public void testGetStorageUnpacks() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(10)) {
+            final boolean[] expected = alternatingBooleanArray(10);
+            buffer.putAll(expected);
+            assertTrue(buffer.isPacked());
+            assertArrayEquals(expected, buffer.getStorageForReading(0, 10));
+            assertFalse(buffer.isPacked());
+        }
+    }
+}
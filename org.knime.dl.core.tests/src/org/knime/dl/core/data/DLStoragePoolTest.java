@@ -0,0 +1,120 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class DLStoragePoolTest {
+
+    private static final int LENGTH = DLStoragePool.MIN_POOLED_BYTES / Float.BYTES;
+
+    @Test
+    public void testReleasedStorageIsReusedZeroed() {
+        final DLStoragePool pool = new DLStoragePool(4L * DLStoragePool.MIN_POOLED_BYTES);
+        final float[] storage = pool.borrow(float[].class, LENGTH);
+        storage[LENGTH - 1] = 42f;
+        pool.release(storage);
+        assertEquals(DLStoragePool.MIN_POOLED_BYTES, pool.getNumBytes());
+        final float[] reused = pool.borrow(float[].class, LENGTH);
+        assertSame(storage, reused);
+        assertEquals(0f, reused[LENGTH - 1], 0f);
+        assertEquals(0, pool.getNumBytes());
+    }
+
+    @Test
+    public void testStorageIsPooledPerTypeAndLength() {
+        final DLStoragePool pool = new DLStoragePool(4L * DLStoragePool.MIN_POOLED_BYTES);
+        final float[] storage = pool.borrow(float[].class, LENGTH);
+        pool.release(storage);
+        assertNotSame(storage, pool.borrow(float[].class, LENGTH + 1));
+        assertEquals(LENGTH, pool.borrow(int[].class, LENGTH).length);
+        assertSame(storage, pool.borrow(float[].class, LENGTH));
+    }
+
+    @Test
+    public void testSmallStorageIsNotPooled() {
+        final DLStoragePool pool = new DLStoragePool(4L * DLStoragePool.MIN_POOLED_BYTES);
+        final float[] storage = pool.borrow(float[].class, 10);
+        pool.release(storage);
+        assertEquals(0, pool.getNumBytes());
+        assertNotSame(storage, pool.borrow(float[].class, 10));
+    }
+
+    @Test
+    public void testOldestStorageIsEvictedWhenFull() {
+        final DLStoragePool pool = new DLStoragePool(2L * DLStoragePool.MIN_POOLED_BYTES);
+        final float[] first = new float[LENGTH];
+        final float[] second = new float[LENGTH];
+        final float[] third = new float[LENGTH];
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+        assertEquals(2L * DLStoragePool.MIN_POOLED_BYTES, pool.getNumBytes());
+        assertSame(third, pool.borrow(float[].class, LENGTH));
+        assertSame(second, pool.borrow(float[].class, LENGTH));
+        assertNotSame(first, pool.borrow(float[].class, LENGTH));
+    }
+
+    @Test
+    public void testClear() {
+        final DLStoragePool pool = new DLStoragePool(4L * DLStoragePool.MIN_POOLED_BYTES);
+        pool.release(new double[LENGTH]);
+        pool.clear();
+        assertEquals(0, pool.getNumBytes());
+    }
+
+    @Test
+    public void testDisabledPool() {
+        final DLStoragePool pool = new DLStoragePool(0);
+        pool.release(new float[LENGTH]);
+        assertEquals(0, pool.getNumBytes());
+    }
+}
@@ -0,0 +1,73 @@
+package org.knime.dl.core.data.convert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.knime.dl.testing.DLTestUtil.DOUBLE_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.createTensor;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.vector.doublevector.DoubleVectorCellFactory;
+import org.knime.core.data.vector.doublevector.DoubleVectorValue;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableFloatBuffer;
+
+public class DLDoubleTensorToDoubleVectorCellConverterFactoryTest {
+
+	@Test
+	public void testConvert() {
+		final DLDoubleTensorToDoubleVectorCellConverterFactory factory =
+				new DLDoubleTensorToDoubleVectorCellConverterFactory();
+		final DLTensorToDataCellConverter<DLReadableDoubleBuffer, DataCell> converter = factory.createConverter();
+		final DLTensor<DLReadableDoubleBuffer> input = (DLTensor<DLReadableDoubleBuffer>) createTensor(Float.class, 2,
+				3);
+		final DLWritableFloatBuffer buffer = (DLWritableFloatBuffer) input.getBuffer();
+		buffer.putAll(new float[] { 0f, 1.5f, -2f, 3f, 0f / 0f, 1f / 0f });
+
+		final DataCell[] output = new DataCell[2];
+
+		converter.convert(input, output, null);
+
+		final DoubleVectorValue first = (DoubleVectorValue) output[0];
+		final DoubleVectorValue second = (DoubleVectorValue) output[1];
+		assertEquals(3, first.getLength());
+		assertEquals(0d, first.getValue(0), DOUBLE_EPSILON);
+		assertEquals(1.5d, first.getValue(1), DOUBLE_EPSILON);
+		assertEquals(-2d, first.getValue(2), DOUBLE_EPSILON);
+		assertEquals(3, second.getLength());
+		assertEquals(3d, second.getValue(0), DOUBLE_EPSILON);
+		assertTrue(Double.isNaN(second.getValue(1)));
+		assertTrue(Double.isInfinite(second.getValue(2)));
+	}
+
+	@Test
+	public void testGetDestCount() {
+		final DLDoubleTensorToDoubleVectorCellConverterFactory factory =
+				new DLDoubleTensorToDoubleVectorCellConverterFactory();
+		final long[] shape = { 3 };
+		final DLDefaultTensorSpec spec = new DLDefaultTensorSpec(new DLDefaultTensorId("1"), "Tspec", 1,
+				new DLDefaultFixedTensorShape(shape), Double.class, DLDimensionOrder.TCDHW);
+
+		assertTrue(factory.getDestCount(spec).isPresent());
+		assertEquals(1l, factory.getDestCount(spec).getAsLong());
+	}
+
+	@Test
+	public void testGetBufferType() {
+		final DLDoubleTensorToDoubleVectorCellConverterFactory factory =
+				new DLDoubleTensorToDoubleVectorCellConverterFactory();
+		assertEquals(DLReadableDoubleBuffer.class, factory.getBufferType());
+	}
+
+	@Test
+	public void testGetDestType() {
+		final DLDoubleTensorToDoubleVectorCellConverterFactory factory =
+				new DLDoubleTensorToDoubleVectorCellConverterFactory();
+		assertEquals(DoubleVectorCellFactory.TYPE, factory.getDestType());
+	}
+}
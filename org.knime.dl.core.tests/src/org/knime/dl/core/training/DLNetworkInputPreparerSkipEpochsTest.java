@@ -0,0 +1,314 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.training;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLNetworkFixedSizeInputPreparer;
+import org.knime.dl.core.DLRowIterator;
+import org.knime.dl.core.DLSessionMonitor;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLDefaultDoubleBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLDoubleValueToDoubleTensorConverterFactory;
+import org.knime.dl.testing.DLTestUtil;
+
+/**
+ * Tests that {@link DLNetworkFixedSizeInputPreparer#skipEpochs(int, DLSessionMonitor) skipping epochs} yields the same
+ * batches as preparing all batches of the skipped epochs.
+ */
+public class DLNetworkInputPreparerSkipEpochsTest {
+
+    private static final DLTensorId TENSOR_ID = new DLDefaultTensorId("input");
+
+    private static final int NUM_ROWS = 10;
+
+    private static final int BATCH_SIZE = 3;
+
+    private static final long SEED = 4711;
+
+    @Test
+    public void testSkipEpochsOfTrainingInputPreparer() throws Exception {
+        for (int numSkippedEpochs = 0; numSkippedEpochs < 4; numSkippedEpochs++) {
+            assertSkipMatchesContinuousRun(() -> createTrainingInputPreparer(true), numSkippedEpochs);
+        }
+    }
+
+    @Test
+    public void testSkipEpochsOfCachingInputPreparer() throws Exception {
+        for (int numSkippedEpochs = 0; numSkippedEpochs < 4; numSkippedEpochs++) {
+            assertSkipMatchesContinuousRun(() -> new DLCachingNetworkInputPreparer(createTrainingInputPreparer(false),
+                NUM_ROWS, BATCH_SIZE, new Random(SEED)), numSkippedEpochs);
+        }
+    }
+
+    @Test
+    public void testSkipEpochsReportsProgress() throws Exception {
+        final DLTestSessionMonitor monitor = new DLTestSessionMonitor();
+        try (final DLNetworkFixedSizeInputPreparer preparer = createTrainingInputPreparer(true)) {
+            assertTrue(preparer.supportsSkippingEpochs());
+            preparer.skipEpochs(2, monitor);
+        }
+        assertEquals(1.0, monitor.getProgress().getAsDouble(), 0.0);
+    }
+
+    @Test(expected = DLCanceledExecutionException.class)
+    public void testSkipEpochsOfTrainingInputPreparerIsCancelable() throws Exception {
+        final DLTestSessionMonitor monitor = new DLTestSessionMonitor();
+        monitor.cancel();
+        try (final DLNetworkFixedSizeInputPreparer preparer = createTrainingInputPreparer(true)) {
+            preparer.skipEpochs(1, monitor);
+        }
+    }
+
+    @Test(expected = DLCanceledExecutionException.class)
+    public void testSkipEpochsOfCachingInputPreparerIsCancelable() throws Exception {
+        final DLTestSessionMonitor monitor = new DLTestSessionMonitor();
+        monitor.cancel();
+        try (final DLNetworkFixedSizeInputPreparer preparer = new DLCachingNetworkInputPreparer(
+            createTrainingInputPreparer(false), NUM_ROWS, BATCH_SIZE, new Random(SEED))) {
+            preparer.skipEpochs(1, monitor);
+        }
+    }
+
+    private static void assertSkipMatchesContinuousRun(final DLPreparerSupplier supplier, final int numSkippedEpochs)
+        throws Exception {
+        final List<double[]> expected;
+        try (final DLNetworkFixedSizeInputPreparer preparer = supplier.get()) {
+            for (int epoch = 0; epoch < numSkippedEpochs; epoch++) {
+                prepareEpoch(preparer);
+            }
+            expected = prepareEpoch(preparer);
+        }
+        final List<double[]> actual;
+        try (final DLNetworkFixedSizeInputPreparer preparer = supplier.get()) {
+            preparer.skipEpochs(numSkippedEpochs, new DLTestSessionMonitor());
+            actual = prepareEpoch(preparer);
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals("Batch " + i + " after skipping " + numSkippedEpochs + " epochs.", expected.get(i),
+                actual.get(i), 0.0);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<double[]> prepareEpoch(final DLNetworkFixedSizeInputPreparer preparer) throws Exception {
+        final List<double[]> batches = new ArrayList<>();
+        try (final DLTensor<DLDefaultDoubleBuffer> tensor =
+            (DLTensor<DLDefaultDoubleBuffer>)DLTestUtil.createTensor(double.class, BATCH_SIZE, 1)) {
+            final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = new HashMap<>();
+            input.put(TENSOR_ID, tensor);
+            for (long batchIndex = 0; batchIndex < preparer.getNumBatches(); batchIndex++) {
+                tensor.getBuffer().reset();
+                preparer.prepare(input, batchIndex);
+                batches.add(tensor.getBuffer().toDoubleArray());
+            }
+        }
+        return batches;
+    }
+
+    private static DLKnimeNetworkTrainingInputPreparer createTrainingInputPreparer(final boolean shuffle) {
+        final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converters = new HashMap<>();
+        converters.put(TENSOR_ID, new DLDoubleValueToDoubleTensorConverterFactory());
+        return new DLKnimeNetworkTrainingInputPreparer(new DLTestRowIterator(shuffle ? new Random(SEED) : null),
+            BATCH_SIZE, converters);
+    }
+
+    @FunctionalInterface
+    private interface DLPreparerSupplier {
+
+        DLNetworkFixedSizeInputPreparer get() throws Exception;
+    }
+
+    /**
+     * Iterates over the rows <code>0, ..., NUM_ROWS - 1</code> and, like the shuffling iterators, reshuffles them on
+     * each reset if a random number generator is given.
+     */
+    private static final class DLTestRowIterator implements DLRowIterator {
+
+        private final List<DataRow> m_rows = new ArrayList<>(NUM_ROWS);
+
+        private final Random m_random;
+
+        private int m_position = 0;
+
+        private DLTestRowIterator(final Random random) {
+            for (int i = 0; i < NUM_ROWS; i++) {
+                m_rows.add(new DefaultRow(RowKey.createRowKey((long)i), new DoubleCell(i)));
+            }
+            m_random = random;
+            if (m_random != null) {
+                Collections.shuffle(m_rows, m_random);
+            }
+        }
+
+        @Override
+        public long size() {
+            return NUM_ROWS;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return m_position < NUM_ROWS;
+        }
+
+        @Override
+        public DataRow peek() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return m_rows.get(m_position);
+        }
+
+        @Override
+        public DataRow next() {
+            final DataRow row = peek();
+            m_position++;
+            return row;
+        }
+
+        @Override
+        public Map<DLTensorId, List<DataValue>> groupByTensor(final DataRow row) {
+            final Map<DLTensorId, List<DataValue>> values = new HashMap<>();
+            values.put(TENSOR_ID, Collections.singletonList((DataValue)row.getCell(0)));
+            return values;
+        }
+
+        @Override
+        public void reset() {
+            m_position = 0;
+            if (m_random != null) {
+                Collections.shuffle(m_rows, m_random);
+            }
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+
+    private static final class DLTestSessionMonitor implements DLSessionMonitor {
+
+        private Double m_progress;
+
+        private String m_message;
+
+        private boolean m_canceled;
+
+        @Override
+        public void checkCanceled() throws DLCanceledExecutionException {
+            if (m_canceled) {
+                throw new DLCanceledExecutionException("Execution has been canceled.");
+            }
+        }
+
+        @Override
+        public OptionalDouble getProgress() {
+            return m_progress != null ? OptionalDouble.of(m_progress) : OptionalDouble.empty();
+        }
+
+        @Override
+        public void setProgress(final double progress) {
+            m_progress = progress;
+        }
+
+        @Override
+        public void setProgress(final double progress, final String message) {
+            m_progress = progress;
+            m_message = message;
+        }
+
+        @Override
+        public String getMessage() {
+            return m_message;
+        }
+
+        @Override
+        public void setMessage(final String message) {
+            m_message = message;
+        }
+
+        @Override
+        public void cancel() {
+            m_canceled = true;
+        }
+
+        @Override
+        public void reset() {
+            m_progress = null;
+            m_message = null;
+            m_canceled = false;
+        }
+
+        @Override
+        public DLSessionMonitor createSubMonitor(final double fraction) {
+            return this;
+        }
+    }
+}
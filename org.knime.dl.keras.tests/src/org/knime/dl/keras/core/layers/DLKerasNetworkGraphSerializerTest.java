@@ -46,6 +46,8 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createMultiInputModelTestSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createMultiInputMultiOutputForkJoinModelTestSetup;
@@ -59,6 +61,7 @@
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -67,6 +70,8 @@
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.knime.dl.keras.core.layers.impl.core.DLKerasDefaultInputLayer;
+import org.knime.dl.keras.core.layers.impl.core.DLKerasDenseLayer;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -134,6 +139,44 @@ public void testSerializeMultiInputMultiOutputForkJoinModel() throws IOException
         testSerialize(createMultiInputMultiOutputForkJoinModelTestSetup());
     }
 
+    @Test
+    public void testReadGraphsShareUpstreamLayers() throws IOException, ClassNotFoundException {
+        final DLKerasDefaultInputLayer in0 = new DLKerasDefaultInputLayer();
+        in0.setRuntimeId("shared_in0");
+        final DLKerasDenseLayer hidden0 = new DLKerasDenseLayer();
+        hidden0.setRuntimeId("shared_hidden0");
+        hidden0.setParent(0, in0);
+        final DLKerasDenseLayer out0 = new DLKerasDenseLayer();
+        out0.setRuntimeId("shared_out0");
+        out0.setParent(0, hidden0);
+
+        final List<DLKerasLayer> upstream = writeAndRead(Arrays.asList(hidden0));
+        final List<DLKerasLayer> downstream = writeAndRead(Arrays.asList(out0));
+        assertGraphEquals(Arrays.asList(out0), downstream);
+        assertSame(upstream.get(0), ((DLKerasInnerLayer)downstream.get(0)).getParent(0));
+
+        // a modified layer must not be shared
+        final DLKerasDenseLayer modifiedOut0 = new DLKerasDenseLayer();
+        modifiedOut0.setRuntimeId("shared_out0");
+        modifiedOut0.setParent(0, in0);
+        final List<DLKerasLayer> modified = writeAndRead(Arrays.asList(modifiedOut0));
+        assertNotSame(downstream.get(0), modified.get(0));
+        assertSame(((DLKerasInnerLayer)upstream.get(0)).getParent(0),
+            ((DLKerasInnerLayer)modified.get(0)).getParent(0));
+    }
+
+    private static List<DLKerasLayer> writeAndRead(final List<DLKerasLayer> outputLayers)
+        throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream outStreamBase = new ByteArrayOutputStream();
+        try (final ObjectOutputStream outStream = new ObjectOutputStream(outStreamBase)) {
+            DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, outStream);
+        }
+        try (final ObjectInputStream inStream =
+            new ObjectInputStream(new ByteArrayInputStream(outStreamBase.toByteArray()))) {
+            return DLKerasNetworkGraphSerializer.readGraphFrom(inStream, null);
+        }
+    }
+
     private void testSerialize(final List<DLKerasLayer> outputLayers) throws IOException, ClassNotFoundException {
         DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, m_outStream);
         m_inStream = outStreamToInStream();
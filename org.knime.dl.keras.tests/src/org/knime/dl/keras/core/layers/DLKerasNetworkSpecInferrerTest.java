@@ -46,6 +46,8 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputModelSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputMultiOutputForkJoinModelSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputMultiOutputModelAppendedBinaryLayerSetup;
@@ -59,6 +61,7 @@
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnTwoMultiInputMultiOutputModelsAppendedBinaryLayerSetup;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 
@@ -70,8 +73,11 @@
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
 import org.knime.dl.keras.core.DLKerasPythonContext;
+import org.knime.dl.keras.core.layers.impl.core.DLKerasDefaultInputLayer;
+import org.knime.dl.keras.core.layers.impl.core.DLKerasDenseLayer;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.prefs.DLPythonPreferences;
 import org.knime.python2.testing.PreferencesSetup;
@@ -157,6 +163,38 @@ public void testAppendBinaryLayerToTwoMultiInputMultiOutputModels()
         testOnTwoMultiInputMultiOutputModelsAppendedBinaryLayerSetup(this::inferSpecs, Function.identity(), m_context);
     }
 
+    @Test
+    public void testOutputSpecsAreMemoized() throws DLInvalidTensorSpecException {
+        final List<DLKerasLayer> outputLayers = DLKerasLayerTestSetups.createSequentialModelTestSetup();
+        final DLKerasDenseLayer out0 = (DLKerasDenseLayer)outputLayers.get(0);
+        final DLKerasInnerLayer hidden2 = (DLKerasInnerLayer)out0.getParent(0);
+        final List<DLTensorSpec> outputSpecs = out0.getOutputSpecs();
+        final List<DLTensorSpec> parentOutputSpecs = hidden2.getOutputSpecs();
+        inferSpecs(outputLayers);
+        assertSame(outputSpecs, out0.getOutputSpecs());
+        assertSame(parentOutputSpecs, hidden2.getOutputSpecs());
+
+        // equal parent specs do not invalidate the memoized specs
+        out0.setParent(0, new DLKerasDefaultInputLayer());
+        assertSame(outputSpecs, out0.getOutputSpecs());
+    }
+
+    @Test
+    public void testInferLongSequentialModel() throws DLInvalidTensorSpecException {
+        DLKerasTensorSpecsOutput parent = new DLKerasDefaultInputLayer();
+        for (int i = 0; i < 500; i++) {
+            final DLKerasDenseLayer layer = new DLKerasDenseLayer();
+            layer.setRuntimeId("hidden" + i);
+            layer.setParent(0, parent);
+            parent = layer;
+        }
+        final DLKerasNetworkSpec networkSpec = inferSpecs(Arrays.asList((DLKerasLayer)parent));
+        assertEquals(1, networkSpec.getInputSpecs().length);
+        // the input layer counts as hidden layer as well
+        assertEquals(500, networkSpec.getHiddenOutputSpecs().length);
+        assertEquals(1, networkSpec.getOutputSpecs().length);
+    }
+
     private DLKerasNetworkSpec inferSpecs(final List<DLKerasLayer> outputLayers) {
         return new DLKerasNetworkSpecInferrer(outputLayers).inferNetworkSpec();
     }
@@ -64,6 +64,8 @@ from keras.models import model_from_yaml
 from keras.layers import Lambda
 
 import DLPythonKernelGateway
+import DLPythonSharedMemory
+from DLKerasTrainingCallbacks import DLKerasModelCheckpoint
 from DLKerasTrainingCallbacks import DLKerasTrainingMonitor
 from DLPythonDataBuffers import DLPythonDoubleBuffer
 from DLPythonDataBuffers import DLPythonFloatBuffer
@@ -74,6 +76,8 @@ from DLPythonDataBuffers import DLPythonShortBuffer
 from DLPythonDataBuffers import DLPythonIntBuffer
 from DLPythonDataBuffers import DLPythonLongBuffer
 from DLPythonDataBuffers import DLPythonStringBuffer
+from DLPythonDataBuffers import DLPythonSharedMemoryBuffer
+from DLPythonDataBuffers import DLPythonSparseFloatBuffer
 from DLPythonInstallationTester import compare_versions
 from DLPythonNetwork import DLPythonNetwork
 from DLPythonNetwork import DLPythonNetworkReader
@@ -139,6 +143,9 @@ class DLKerasNetwork(DLPythonNetwork):
     def __init__(self, model, compatibility_mode=False):
         super().__init__(DLKerasNetwork._convert_sequential_to_model(model, compatibility_mode))
         self._training_monitor = None
+        # Models that compute the requested outputs, keyed by the tuple of output identifiers. They share their layers
+        # (and therefore their weights) with the actual model and are reused across calls of execute.
+        self._intermediate_models = {}
 
     @abc.abstractmethod
     def _extract_model_spec(self):
@@ -151,25 +158,8 @@ class DLKerasNetwork(DLPythonNetwork):
         return self._spec
 
     def execute(self, in_data, batch_size, output_identifiers):
-        model = self._model
         X = self._format_input(in_data, batch_size)
-
-        # Get the requested output tensors
-        outputs = []
-        for id in output_identifiers:
-            matcher = re.match(r'^(.*)_(\d+):(\d+)$', id)
-            layer_name = matcher.group(1)
-            node_idx = int(matcher.group(2))
-            tensor_idx = int(matcher.group(3))
-            output_tensors = model.get_layer(layer_name).get_output_at(node_idx)
-            if not isinstance(output_tensors, list):
-                output_tensors = [output_tensors]
-            if output_tensors[tensor_idx] in model.inputs:
-                output_tensors[tensor_idx] = Lambda(lambda x: x)(output_tensors[tensor_idx])
-            outputs.append(output_tensors[tensor_idx])
-
-        # Build the model with the requested outputs
-        intermediate_model = Model(inputs=model.inputs, outputs=outputs)
+        intermediate_model = self._get_intermediate_model(output_identifiers)
         Y = intermediate_model.predict(X, batch_size=batch_size, verbose=0)
         return self._format_output(Y, output_identifiers)
 
@@ -194,13 +184,23 @@ class DLKerasNetwork(DLPythonNetwork):
         self._model.compile(loss=loss, optimizer=config.optimizer, metrics=metrics)
 
         if not any(isinstance(c, DLKerasTrainingMonitor) for c in config.callbacks):
-            training_monitor = DLKerasTrainingMonitor(self)
+            training_monitor = DLKerasTrainingMonitor(self, config.metrics_report_interval)
             config.callbacks.append(training_monitor)
             self._training_monitor = training_monitor
 
         for c in config.callbacks:
             c.send_to_java = send_to_java
 
+        initial_epoch = 0
+        for c in config.callbacks:
+            if isinstance(c, DLKerasModelCheckpoint):
+                initial_epoch = c.restore(self._model)
+        if initial_epoch > 0 and send_to_java is not None:
+            # Java fast-forwards the training data to the beginning of the next epoch before it serves the first batch
+            send_to_java('resume', initial_epoch)
+        if initial_epoch >= config.epochs:
+            return {}
+
         if validation_data_supplier is not None:
             validation_data_generator = validation_data_supplier.get_generator()
             validation_steps = validation_data_supplier.steps
@@ -209,6 +209,8 @@ class DLKerasNetwork(DLPythonNetwork):
             validation_steps = None
 
         kw_max_queue = 'max_queue_size' if compare_versions(keras.__version__, "2.0.5") > 0 else 'max_q_size'
+        # let Keras request batches ahead so that the batches prefetched on Java side are consumed without delay
+        max_queue_size = max(1, config.prefetch_queue_size)
         history = self._model.fit_generator(training_data_supplier.get_generator(),
                                             training_data_supplier.steps,
                                             epochs=config.epochs,
@@ -216,7 +218,8 @@ class DLKerasNetwork(DLPythonNetwork):
                                             callbacks=config.callbacks,
                                             validation_data=validation_data_generator,
                                             validation_steps=validation_steps,
-                                            **{kw_max_queue: 1})
+                                            initial_epoch=initial_epoch,
+                                            **{kw_max_queue: max_queue_size})
         return history.history
 
     def stop_early(self):
@@ -236,6 +239,40 @@ class DLKerasNetwork(DLPythonNetwork):
 
     # "Protected" helper methods:
 
+    def _get_intermediate_model(self, output_identifiers):
+        key = tuple(output_identifiers)
+        intermediate_model = self._intermediate_models.get(key)
+        if intermediate_model is None:
+            intermediate_model = self._build_intermediate_model(output_identifiers)
+            self._intermediate_models[key] = intermediate_model
+        return intermediate_model
+
+    def _build_intermediate_model(self, output_identifiers):
+        model = self._model
+        # Get the requested output tensors
+        outputs = []
+        for id in output_identifiers:
+            matcher = re.match(r'^(.*)_(\d+):(\d+)$', id)
+            layer_name = matcher.group(1)
+            node_idx = int(matcher.group(2))
+            tensor_idx = int(matcher.group(3))
+            output_tensors = model.get_layer(layer_name).get_output_at(node_idx)
+            if not isinstance(output_tensors, list):
+                output_tensors = [output_tensors]
+            if output_tensors[tensor_idx] in model.inputs:
+                output_tensors[tensor_idx] = Lambda(lambda x: x)(output_tensors[tensor_idx])
+            outputs.append(output_tensors[tensor_idx])
+
+        # Build the model with the requested outputs
+        intermediate_model = Model(inputs=model.inputs, outputs=outputs)
+        # Warm up: build the predict function once such that subsequent batches do not have to construct any graph
+        # operations. Older Keras versions build it lazily on the first call of predict.
+        if hasattr(intermediate_model, '_make_predict_function'):
+            intermediate_model._make_predict_function()
+        elif hasattr(intermediate_model, 'make_predict_function'):
+            intermediate_model.make_predict_function()
+        return intermediate_model
+
     def _format_input(self, in_data, batch_size):
         return self._format_tensor(in_data, self.spec.input_specs, batch_size)
 
@@ -247,7 +284,10 @@ class DLKerasNetwork(DLPythonNetwork):
         output_specs = [[s for s in out_and_hidden_specs if s.identifier == id][0] for id in output_identifiers]
         output = {}
         for idx, output_spec in enumerate(output_specs):
-            out = self._put_in_matching_buffer(Y[idx])
+            if DLPythonSharedMemory.is_enabled() and DLPythonSharedMemory.is_supported(Y[idx].dtype):
+                out = DLPythonSharedMemoryBuffer(Y[idx], output_spec.identifier)
+            else:
+                out = self._put_in_matching_buffer(Y[idx])
             out = pd.DataFrame({output_spec.identifier: [out]})
             output[output_spec.identifier] = out
         return output
@@ -258,7 +298,12 @@ class DLKerasNetwork(DLPythonNetwork):
     def _format_tensor(self, in_data, specs, batch_size):
         tensors = []
         for spec in specs:
-            tensor = in_data[spec.identifier].values[0][0].array
+            buffer = in_data[spec.identifier].values[0][0]
+            if isinstance(buffer, DLPythonSparseFloatBuffer):
+                # expand without keeping the dense copy in the buffer
+                tensor = buffer.to_dense()
+            else:
+                tensor = buffer.array
             tensor_shape = in_data[spec.identifier].values[0][1]
             tensor = tensor.reshape([batch_size] + tensor_shape)
             tensors.append(tensor)
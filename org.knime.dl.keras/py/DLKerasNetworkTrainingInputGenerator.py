@@ -48,6 +48,9 @@
 @author Christian Dietz, KNIME GmbH, Konstanz, Germany
 '''
 
+import numpy as np
+
+import DLPythonSharedMemory
 from DLPythonKernelGateway import global_workspace
 from DLPythonNetworkTrainingInputGenerator import DLPythonNetworkTrainingInputGenerator
 
@@ -83,5 +86,11 @@ class DLKerasNetworkTrainingInputGenerator(DLPythonNetworkTrainingInputGenerator
             workspace_target_name = target_name + "_validation" if self._is_validation_data else target_name
             target_data[target_name] = global_workspace()[workspace_target_name]
         # TODO: move formatting logic from network to generator, remove dependency on network
-        return (self._network._format_input(training_data, self._batch_size),
-                self._network._format_target(target_data, self._batch_size))
+        inputs = self._network._format_input(training_data, self._batch_size)
+        targets = self._network._format_target(target_data, self._batch_size)
+        if DLPythonSharedMemory.is_enabled():
+            # batches may be queued by Keras while the shared memory regions they are mapped from are already being
+            # overwritten with the next batch
+            inputs = [np.copy(i) for i in inputs]
+            targets = [np.copy(t) for t in targets]
+        return inputs, targets
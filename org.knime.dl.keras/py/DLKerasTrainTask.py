@@ -81,7 +81,8 @@ class DLKerasTrainTask(Task):
         return
 
     def _create_message(self, message_category, payload=None):
-        payload = PayloadEncoder().put_string(str(payload)).payload if payload is not None else None
+        if payload is not None and not isinstance(payload, bytes):
+            payload = PayloadEncoder().put_string(str(payload)).payload
         return Message(self._message_id_supplier(), self._reply_to, payload,
                        {AbstractTaskHandler.FIELD_KEY_MESSAGE_TYPE: message_category})
 
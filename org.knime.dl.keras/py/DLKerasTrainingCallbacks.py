@@ -49,8 +49,15 @@
 '''
 
 import abc
+import os
+import pickle
+import random
+import struct
 import sys
+import time
+from concurrent.futures import ThreadPoolExecutor
 
+import numpy as np
 from keras.callbacks import Callback
 from keras.callbacks import EarlyStopping
 from keras.callbacks import ReduceLROnPlateau
@@ -106,11 +113,122 @@ class DLKerasTerminateOnNaN(TerminateOnNaN, DLKerasAbstractTrainingCallback):
             self.send_to_java('terminate_on_nan', batch)
 
 
+class DLKerasModelCheckpoint(Callback, DLKerasAbstractTrainingCallback):
+    """
+    Periodically saves the training state at the end of an epoch: model weights, optimizer state, the number of
+    completed epochs, the Python and NumPy random states and the metric history. The state is captured on the training
+    thread and written to disk on a background thread so that training does not wait for the disk. Only the latest
+    checkpoint is kept, it is replaced atomically.
+    """
+
+    _FORMAT_VERSION = 1
+
+    _FILE_NAME = 'knime_training_checkpoint.pkl'
+
+    def __init__(self, directory, period=1, interval=0, resume=False):
+        super().__init__()
+        self._path = os.path.join(directory, DLKerasModelCheckpoint._FILE_NAME)
+        self._period = period
+        # in seconds, disabled if zero
+        self._interval = interval * 60
+        self._resume = resume
+        self._history = {}
+        self._last_checkpoint_time = 0
+        self._writer = None
+        self._pending_write = None
+
+    def restore(self, model):
+        """
+        Restores the training state of the latest checkpoint if resuming is enabled. Must be called after the model
+        was compiled and before training starts.
+        :return: the number of epochs that were completed at the time of the checkpoint, zero if there is none
+        """
+        if not self._resume:
+            return 0
+        if not os.path.isfile(self._path):
+            print("No training checkpoint found in '" + self._path + "'. Training starts from the beginning.")
+            return 0
+        with open(self._path, 'rb') as f:
+            state = pickle.load(f)
+        if state.get('format_version') != DLKerasModelCheckpoint._FORMAT_VERSION:
+            raise ValueError("The training checkpoint '" + self._path + "' was written by an incompatible version.")
+        weights = state['model_weights']
+        current_weights = model.get_weights()
+        if len(weights) != len(current_weights) or any(w.shape != c.shape for w, c in zip(weights, current_weights)):
+            raise ValueError("The training checkpoint '" + self._path + "' does not match the network to train.")
+        model.set_weights(weights)
+        optimizer_weights = state['optimizer_weights']
+        if optimizer_weights:
+            # the optimizer creates its weights along with the training function
+            model._make_train_function()
+            model.optimizer.set_weights(optimizer_weights)
+        np.random.set_state(state['numpy_random_state'])
+        random.setstate(state['python_random_state'])
+        self._history = state['history']
+        epoch = state['epoch']
+        print('Resuming training after epoch ' + str(epoch) + " from checkpoint '" + self._path + "'.")
+        return epoch
+
+    def on_train_begin(self, logs=None):
+        self._last_checkpoint_time = time.monotonic()
+        self._writer = ThreadPoolExecutor(max_workers=1)
+
+    def on_train_end(self, logs=None):
+        try:
+            self._await_pending_write()
+        finally:
+            self._writer.shutdown()
+
+    def on_epoch_end(self, epoch, logs=None):
+        for k, v in (logs or {}).items():
+            self._history.setdefault(k, []).append(float(v))
+        now = time.monotonic()
+        if (self._period > 0 and (epoch + 1) % self._period == 0) or (
+                self._interval > 0 and now - self._last_checkpoint_time >= self._interval):
+            self._checkpoint(epoch + 1)
+            self._last_checkpoint_time = now
+
+    def _checkpoint(self, num_completed_epochs):
+        optimizer = self.model.optimizer
+        state = {'format_version': DLKerasModelCheckpoint._FORMAT_VERSION,
+                 'epoch': num_completed_epochs,
+                 'batch': 0,
+                 'model_weights': self.model.get_weights(),
+                 'optimizer_weights': optimizer.get_weights() if hasattr(optimizer, 'get_weights') else None,
+                 'numpy_random_state': np.random.get_state(),
+                 'python_random_state': random.getstate(),
+                 'history': {k: list(v) for k, v in self._history.items()}}
+        # at most one write is in flight, this keeps checkpoints in order
+        self._await_pending_write()
+        self._pending_write = self._writer.submit(self._write, state)
+        self.send_to_java('checkpoint', num_completed_epochs)
+
+    def _write(self, state):
+        os.makedirs(os.path.dirname(self._path), exist_ok=True)
+        tmp_path = self._path + '.tmp'
+        with open(tmp_path, 'wb') as f:
+            pickle.dump(state, f, protocol=pickle.HIGHEST_PROTOCOL)
+        os.replace(tmp_path, self._path)
+
+    def _await_pending_write(self):
+        if self._pending_write is not None:
+            pending_write = self._pending_write
+            self._pending_write = None
+            try:
+                pending_write.result()
+            except Exception as e:
+                raise RuntimeError("Failed to write training checkpoint to '" + self._path + "'.") from e
+
+
 class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
-    def __init__(self, network):
+    def __init__(self, network, metrics_report_interval=0):
         super().__init__()
         self._network = network
         self._stop_training = False
+        # in seconds, batch metrics are reported after each batch if zero
+        self._metrics_report_interval = metrics_report_interval / 1000
+        self._batch_metrics = _DLKerasBatchMetricsCollector(2)
+        self._last_report_time = 0
 
     def stop_early(self):
         self._stop_training = True
@@ -122,6 +240,7 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
         self._stop_training = False
 
     def on_train_end(self, logs=None):
+        self._report_batch_metrics()
         if self._stop_training:
             # flush pending Keras logs before printing our own status message
             sys.stdout.flush()
@@ -129,8 +248,11 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
 
     def on_epoch_begin(self, epoch, logs=None):
         self.send_to_java('epoch_begin')
+        self._last_report_time = time.monotonic()
 
     def on_epoch_end(self, epoch, logs=None):
+        # batches of a stopped epoch may not have been reported yet
+        self._report_batch_metrics()
         if logs:
             loss = logs.get('val_loss')
             acc = logs.get('val_acc')
@@ -146,17 +268,66 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
             self.send_to_java('epoch_end', str(acc) + ';' + str(loss))
 
     def on_batch_begin(self, batch, logs=None):
-        self.send_to_java('batch_begin')
+        if self._metrics_report_interval <= 0:
+            self.send_to_java('batch_begin')
 
     def on_batch_end(self, batch, logs=None):
-        if logs:
-            loss = logs.get('loss')
-            acc = logs.get('acc')
-            if acc is None:
-                # Multi-output networks only have an accuracy metric per output. Average over them and use the result as
-                # accuracy for the entire network. TODO: Note that this is a temporary workaround. Per-output metric
-                # reporting is pending.
-                accs = [v for k, v in logs.items() if k.endswith('_acc')]
-                acc = sum(accs) / len(accs)
+        if self._metrics_report_interval <= 0:
+            if logs:
+                acc, loss = self._get_batch_metrics(logs)
+                self.send_to_java('batch_end', str(acc) + ';' + str(loss))
+            return
+        # Collect the metrics of the batches within the report interval and send them in a single binary frame. The
+        # last batch of an epoch is always reported immediately as Java starts validation based on it. Note that the
+        # stop flags are still checked by Keras after each batch.
+        acc, loss = self._get_batch_metrics(logs) if logs else (None, None)
+        self._batch_metrics.add((acc, loss))
+        now = time.monotonic()
+        steps = self.params.get('steps') if self.params else None
+        if now - self._last_report_time >= self._metrics_report_interval or (steps is not None and batch + 1 >= steps):
+            self._report_batch_metrics()
+            self._last_report_time = now
+
+    def _report_batch_metrics(self):
+        if self._batch_metrics.count > 0:
+            self.send_to_java('batch_metrics', self._batch_metrics.to_frame())
+            self._batch_metrics.reset()
+
+    @staticmethod
+    def _get_batch_metrics(logs):
+        loss = logs.get('loss')
+        acc = logs.get('acc')
+        if acc is None:
+            # Multi-output networks only have an accuracy metric per output. Average over them and use the result as
+            # accuracy for the entire network. TODO: Note that this is a temporary workaround. Per-output metric
+            # reporting is pending.
+            accs = [v for k, v in logs.items() if k.endswith('_acc')]
+            acc = sum(accs) / len(accs)
+        return acc, loss
+
+
+class _DLKerasBatchMetricsCollector(object):
+    """
+    Keeps the value of each metric for each batch since the last reset. The binary frame consists of the number of
+    batches and the number of metrics (big-endian int32 each) followed by the values of the batches (big-endian
+    float32 each, NaN if a metric is missing) per metric.
+    """
+
+    def __init__(self, num_metrics):
+        self._num_metrics = num_metrics
+        self.reset()
+
+    def reset(self):
+        self.count = 0
+        self._values = [[] for _ in range(self._num_metrics)]
+
+    def add(self, values):
+        self.count += 1
+        for i, value in enumerate(values):
+            self._values[i].append(float('nan') if value is None else float(value))
 
-            self.send_to_java('batch_end', str(acc) + ';' + str(loss))
+    def to_frame(self):
+        frame = bytearray(struct.pack('>ii', self.count, self._num_metrics))
+        for values in self._values:
+            frame += struct.pack('>%df' % len(values), *values)
+        return bytes(frame)
@@ -104,7 +104,7 @@ protected <N extends DLNetwork> DLNetworkExecutionSession createExecutionSession
         final DLExecutionContext<DLPythonContext, N> ctx = getExecutionContext(context);
         final DLNetworkExecutionSession session = ctx.createExecutionSession(
             context, network, DLExecutionSpecCreator.createExecutionSpecs(firstRow, ctx.getTensorFactory(), batchSize,
-                columnsForTensorId, m_inputConverters),
+                columnsForTensorId, m_inputConverters, m_inputTransportPrecisions),
             outputConverterForTensorId.keySet(), inputPreparer, outputConsumer);
         if (!m_gpuSelection.getCudaVisibleDevices().getValue().isEmpty()) {
             if (session instanceof DLPythonNetworkExecutionSession) {
@@ -116,6 +116,15 @@ protected <N extends DLNetwork> DLNetworkExecutionSession createExecutionSession
                     + "' because the selected backend does not support setting environment variables.");
             }
         }
+        final int pipelineDepth = getPipelineDepth();
+        if (pipelineDepth > 1) {
+            if (session instanceof DLPythonNetworkExecutionSession) {
+                ((DLPythonNetworkExecutionSession)session).setPipelineDepth(pipelineDepth);
+            } else {
+                LOGGER.warn("Processing multiple batches at a time is not supported by the selected backend. "
+                    + "Batches will be processed one after another.");
+            }
+        }
         return session;
     }
 
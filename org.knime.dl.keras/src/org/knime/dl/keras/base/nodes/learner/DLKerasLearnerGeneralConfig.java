@@ -60,8 +60,10 @@
 import org.knime.dl.base.settings.DLGeneralConfig;
 import org.knime.dl.base.settings.DefaultConfigEntry;
 import org.knime.dl.core.DLNetwork;
+import org.knime.dl.core.DLShuffleStrategy;
 import org.knime.dl.core.training.DLTrainingContextRegistry;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasEarlyStopping;
+import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasModelCheckpoint;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasReduceLROnPlateau;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasTerminateOnNaN;
 import org.knime.dl.keras.core.training.DLKerasOptimizer;
@@ -103,6 +105,40 @@ final class DLKerasLearnerGeneralConfig extends AbstractConfig implements DLGene
 
 	static final String CFG_KEY_RANDOM_SEED = "random_seed";
 
+	/**
+	 * @since 4.5
+	 */
+	static final String CFG_KEY_SHUFFLE_STRATEGY = "shuffle_strategy";
+
+	/**
+	 * @since 4.5
+	 */
+	static final String CFG_KEY_SHUFFLE_BUFFER_SIZE = "shuffle_buffer_size";
+
+	/**
+	 * @since 4.5
+	 */
+	static final String CFG_KEY_PREFETCH_QUEUE_SIZE = "prefetch_queue_size";
+
+	static final int MAX_PREFETCH_QUEUE_SIZE = 16;
+
+	/**
+	 * @since 4.5
+	 */
+	static final String CFG_KEY_METRICS_REPORT_INTERVAL = "metrics_report_interval";
+
+	static final int MAX_METRICS_REPORT_INTERVAL = 60000;
+
+	/**
+	 * @since 4.5
+	 */
+	static final String CFG_KEY_CACHE_TRAINING_DATA = "cache_training_data";
+
+	/**
+	 * @since 4.5
+	 */
+	static final String CFG_KEY_MODEL_CHECKPOINT = "model_checkpoint";
+
 	static Collection<DLKerasTrainingContext<?>> getAvailableTrainingContexts(
 			final Class<? extends DLNetwork> networkType) {
 		return DLTrainingContextRegistry.getInstance().getTrainingContextsForNetworkType((networkType)) //
@@ -216,6 +252,62 @@ protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings,
 			}
 		};
 		put(randomSeed);
+		put(new DefaultConfigEntry<String>(CFG_KEY_SHUFFLE_STRATEGY, String.class,
+				DLShuffleStrategy.FULL.getLabel()) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (4.5): shuffle the entire table, as before
+				m_value = DLShuffleStrategy.FULL.getLabel();
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_SHUFFLE_BUFFER_SIZE, Integer.class, 10000) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (4.5): only used by strategies that were not available before
+				m_value = 10000;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_PREFETCH_QUEUE_SIZE, Integer.class, 2) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (4.5): do not prepare batches in advance, as before
+				m_value = 0;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_METRICS_REPORT_INTERVAL, Integer.class, 250) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (4.5): report metrics after each batch, as before
+				m_value = 0;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_CACHE_TRAINING_DATA, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (4.5): convert the data in each epoch, as before
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<DLKerasModelCheckpoint>(CFG_KEY_MODEL_CHECKPOINT, DLKerasModelCheckpoint.class,
+				new DLKerasModelCheckpoint(), false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (4.5): do not write checkpoints, as before
+				m_enabled = false;
+				return true;
+			}
+		});
 	}
 
 	@Override
@@ -263,6 +355,13 @@ ConfigEntry<DLKerasReduceLROnPlateau> getReduceLROnPlateauEntry() {
 		return get(CFG_KEY_REDUCE_LR_ON_PLATEAU, DLKerasReduceLROnPlateau.class);
 	}
 
+	/**
+	 * @since 4.5
+	 */
+	ConfigEntry<DLKerasModelCheckpoint> getModelCheckpointEntry() {
+		return get(CFG_KEY_MODEL_CHECKPOINT, DLKerasModelCheckpoint.class);
+	}
+
 	@SuppressWarnings("rawtypes")
 	ConfigEntry<DLKerasTrainingContext> getTrainingContext() {
 		return get(CFG_KEY_TRAINING_CONTEXT, DLKerasTrainingContext.class);
@@ -276,6 +375,41 @@ ConfigEntry<Long> getRandomSeed() {
 		return get(CFG_KEY_RANDOM_SEED, Long.class);
 	}
 
+	/**
+	 * @since 4.5
+	 */
+	ConfigEntry<String> getShuffleStrategyEntry() {
+		return get(CFG_KEY_SHUFFLE_STRATEGY, String.class);
+	}
+
+	/**
+	 * @since 4.5
+	 */
+	ConfigEntry<Integer> getShuffleBufferSizeEntry() {
+		return get(CFG_KEY_SHUFFLE_BUFFER_SIZE, Integer.class);
+	}
+
+	/**
+	 * @since 4.5
+	 */
+	ConfigEntry<Integer> getPrefetchQueueSizeEntry() {
+		return get(CFG_KEY_PREFETCH_QUEUE_SIZE, Integer.class);
+	}
+
+	/**
+	 * @since 4.5
+	 */
+	ConfigEntry<Integer> getMetricsReportIntervalEntry() {
+		return get(CFG_KEY_METRICS_REPORT_INTERVAL, Integer.class);
+	}
+
+	/**
+	 * @since 4.5
+	 */
+	ConfigEntry<Boolean> getCacheTrainingDataEntry() {
+		return get(CFG_KEY_CACHE_TRAINING_DATA, Boolean.class);
+	}
+
 	void copyClipSettingsToOptimizer() {
 		final DLKerasOptimizer optimizer = getOptimizerEntry().getValue();
 		if (optimizer != null) {
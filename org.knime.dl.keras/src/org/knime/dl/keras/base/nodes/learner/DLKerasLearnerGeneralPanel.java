@@ -70,6 +70,7 @@
 import org.knime.dl.base.settings.ConfigUtil;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.DLNetworkSpec;
+import org.knime.dl.core.DLShuffleStrategy;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.training.DLTrainingContext;
 import org.knime.dl.keras.core.training.DLKerasTrainingContext;
@@ -102,10 +103,29 @@ class DLKerasLearnerGeneralPanel extends AbstractGridBagDialogComponentGroup {
 		addNumberSpinnerRowComponent(
 				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getValidationBatchSizeEntry(), 1, Integer.MAX_VALUE),
 				"Validation batch size", 1);
+
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getPrefetchQueueSizeEntry(), 0,
+				DLKerasLearnerGeneralConfig.MAX_PREFETCH_QUEUE_SIZE), "Number of batches prepared in advance", 1);
+
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getMetricsReportIntervalEntry(), 0,
+				DLKerasLearnerGeneralConfig.MAX_METRICS_REPORT_INTERVAL), "Batch metrics report interval (ms)", 50);
+
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getCacheTrainingDataEntry()),
+				"Cache converted training data in memory", true);
 		
 		ConfigEntry<Boolean> shuffleEntry = m_cfg.getShuffleTrainingData();
 		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(shuffleEntry),
 				"Shuffle training data before each epoch", true);
+
+		final ConfigEntry<String> shuffleStrategyEntry = m_cfg.getShuffleStrategyEntry();
+		addComboBoxRow(ConfigUtil.toSettingsModelString(shuffleStrategyEntry), "Shuffle strategy",
+				Arrays.stream(DLShuffleStrategy.values()).map(DLShuffleStrategy::getLabel).collect(Collectors.toList()));
+		final ConfigEntry<Integer> shuffleBufferSizeEntry = m_cfg.getShuffleBufferSizeEntry();
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(shuffleBufferSizeEntry, 1, Integer.MAX_VALUE),
+				"Shuffle block/window size (rows)", 1000);
+		shuffleStrategyEntry.setEnabled(shuffleEntry.getValue());
+		shuffleBufferSizeEntry.setEnabled(shuffleEntry.getValue());
 		
 		ConfigEntry<Long> randomSeedConfig = m_cfg.getRandomSeed();
 		DialogComponentRandomSeed randomSeed = 
@@ -118,6 +138,8 @@ class DLKerasLearnerGeneralPanel extends AbstractGridBagDialogComponentGroup {
 		shuffleEntry.addValueChangeListener((e, v) -> {
 			randomSeedConfig.setEnabled(!v);
 			toggleCheckBox.setEnabled(!v);
+			shuffleStrategyEntry.setEnabled(!v);
+			shuffleBufferSizeEntry.setEnabled(!v);
 		});
 	}
 	
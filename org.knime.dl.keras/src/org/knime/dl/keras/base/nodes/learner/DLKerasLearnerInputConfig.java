@@ -114,6 +114,7 @@ protected void loadEntry(final NodeSettingsRO settings)
 				// no op. Separate routines for loading in model and dialog required. See super class.
 			}
 		});
+		addTransportPrecisionEntries();
 	}
 
 }
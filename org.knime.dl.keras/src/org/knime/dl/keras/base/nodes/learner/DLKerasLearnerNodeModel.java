@@ -54,6 +54,7 @@
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -93,16 +94,21 @@
 import org.knime.dl.core.DLInstallationTestTimeoutException;
 import org.knime.dl.core.DLMissingDependencyException;
 import org.knime.dl.core.DLNetwork;
+import org.knime.dl.core.DLNetworkFixedSizeInputPreparer;
 import org.knime.dl.core.DLNetworkSpec;
 import org.knime.dl.core.DLNotCancelable;
 import org.knime.dl.core.DLRowIterator;
 import org.knime.dl.core.DLShuffleDataTableRowIterator;
+import org.knime.dl.core.DLShuffleStrategy;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.DLTransportPrecision;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
+import org.knime.dl.core.training.DLCachingNetworkInputPreparer;
 import org.knime.dl.core.training.DLKnimeNetworkTrainingInputPreparer;
 import org.knime.dl.core.training.DLKnimeNetworkValidationInputPreparer;
 import org.knime.dl.core.training.DLKnimeTrainingMonitor;
+import org.knime.dl.core.training.DLReportedMetric;
 import org.knime.dl.core.training.DLTrainingContext;
 import org.knime.dl.core.training.DLTrainingStatus.Status;
 import org.knime.dl.keras.base.nodes.DLKerasGpuSelectionConfig;
@@ -120,6 +126,7 @@
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
 import org.knime.dl.keras.core.DLKerasPythonContext;
 import org.knime.dl.keras.core.training.DLKerasCallback;
+import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasModelCheckpoint;
 import org.knime.dl.keras.core.training.DLKerasDefaultTrainingConfig;
 import org.knime.dl.keras.core.training.DLKerasDefaultTrainingStatus;
 import org.knime.dl.keras.core.training.DLKerasLossFunction;
@@ -161,6 +168,12 @@ final class DLKerasLearnerNodeModel extends PythonBasedNodeModel implements DLIn
 
 	static final String INTERNAL_FILENAME = "view.data";
 
+	/**
+	 * Prefix of the files in the checkpoint directory that hold the content of the learning monitor at the time of a
+	 * checkpoint. The suffix is the number of completed epochs.
+	 */
+	private static final String CHECKPOINT_VIEW_DATA_FILENAME_PREFIX = "knime_training_view_data_";
+
 	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasLearnerNodeModel.class);
 
     static PythonCommandConfig createPythonCommandConfig() {
@@ -198,6 +211,8 @@ static DLKerasLearnerTargetConfig createOutputTensorModelConfig(final DLTensorId
 
 	private LinkedHashMap<DLTensorSpec, DLDataValueToTensorConverterFactory<?, ?>> m_converters;
 
+	private LinkedHashMap<DLTensorId, DLTransportPrecision> m_inputTransportPrecisions;
+
 	private DLNetworkSpec m_lastIncomingNetworkSpec;
 
 	private DLNetworkSpec m_lastConfiguredNetworkSpec;
@@ -297,6 +312,7 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
 	        final DLTensorSpec[] targetSpecs = inNetworkSpec.getOutputSpecs();
 	        final DLKerasTrainingContext<?> trainingContext = m_generalCfg.getTrainingContext().getValue();
 	        m_converters = new LinkedHashMap<>(inputSpecs.length + targetSpecs.length);
+	        m_inputTransportPrecisions = new LinkedHashMap<>(inputSpecs.length);
 			configureInputs(inTableSpec, inValidationTableSpec, trainingContext, inputSpecs);
 			configureTargets(inTableSpec, trainingContext, targetSpecs);
 		} catch (final Exception e) {
@@ -352,12 +368,16 @@ protected void saveInternals(final File nodeInternDir, final ExecutionMonitor ex
 		final File f = new File(nodeInternDir, INTERNAL_FILENAME);
 		try (ObjectOutputStream objOut = new ObjectOutputStream(new FileOutputStream(f))) {
 			m_status.writeExternal(objOut);
-			final int numViewTabs = m_viewSpecs != null ? m_viewSpecs.length : 0;
-			objOut.writeInt(numViewTabs);
-			for (int i = 0; i < numViewTabs; i++) {
-				m_viewSpecs[i].writeExternal(objOut);
-				m_viewData[i].writeExternal(objOut);
-			}
+			writeViewData(objOut);
+		}
+	}
+
+	private void writeViewData(final ObjectOutputStream objOut) throws IOException {
+		final int numViewTabs = m_viewSpecs != null ? m_viewSpecs.length : 0;
+		objOut.writeInt(numViewTabs);
+		for (int i = 0; i < numViewTabs; i++) {
+			m_viewSpecs[i].writeExternal(objOut);
+			m_viewData[i].writeExternal(objOut);
 		}
 	}
 
@@ -463,6 +483,10 @@ private boolean areNetworkSpecsCompatible(final DLNetworkSpec newSpec, final DLN
 	private void configureGeneral(final Class<? extends DLNetwork> inNetworkType) throws Exception {
 		final DLKerasTrainingContext<?> backend = configureBackend(inNetworkType);
 		configureOptimizer(backend);
+		final ConfigEntry<DLKerasModelCheckpoint> modelCheckpoint = m_generalCfg.getModelCheckpointEntry();
+		if (modelCheckpoint.getEnabled() && modelCheckpoint.getValue().getDirectory().trim().isEmpty()) {
+			throw new InvalidSettingsException("Please specify a directory for the training checkpoints.");
+		}
 	}
 
     private void configureOptimizer(final DLKerasTrainingContext<?> backend) throws DLMissingDependencyException {
@@ -537,6 +561,7 @@ private void configureInputs(final DataTableSpec inTableSpec, final DataTableSpe
                 DLConfigurationUtility.configureInput(inputCfg, inputSpec, trainingContext, inTableSpec,
                     m_lastConfiguredTableSpec, DLTensorRole.INPUT);
 			m_converters.put(inputSpec, converter);
+			m_inputTransportPrecisions.put(inputSpec.getIdentifier(), inputCfg.getTransportPrecision());
 		}
 	}
 
@@ -574,6 +599,8 @@ private void configureTargets(final DataTableSpec inTableSpec, final DLKerasTrai
 			if (m_converters.containsKey(targetSpec)) {
                 // This happens if a tensor is both input and target.
 			    checkConverterEquality(targetSpec, converter);
+			    // targets are compared against the network output, always transmit them at full precision
+			    m_inputTransportPrecisions.remove(targetSpec.getIdentifier());
 			}
 			m_converters.put(targetSpec, converter);
 			setLossFunction(targetSpec, targetCfg);
@@ -683,23 +710,29 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
             final Random random = createRandom();
 
             m_status = new DLKerasDefaultTrainingStatus(trainingConfig.getEpochs(), numTrainingBatchesPerEpoch);
-            try (final DLRowIterator rowIterator = createRowIterator(inTable, columnsForTensorId, random, exec);
-                    final DLKnimeNetworkTrainingInputPreparer inputPreparer = new DLKnimeNetworkTrainingInputPreparer(
-                        rowIterator, (int)trainingConfig.getBatchSize(), converterForTensorId);
-                    final DLKnimeNetworkValidationInputPreparer validationPreparer =
-                        doValidation ? new DLKnimeNetworkValidationInputPreparer(
-                            new DLDataTableRowIterator(inValidationTable, columnsForTensorId),
-                            (int)trainingConfig.getValidationBatchSize(), converterForTensorId) : null;
+            final boolean doCache = m_generalCfg.getCacheTrainingDataEntry().getValue();
+            try (final DLRowIterator rowIterator = doCache ? new DLDataTableRowIterator(inTable, columnsForTensorId)
+                : createRowIterator(inTable, columnsForTensorId, random, exec);
+                    final DLNetworkFixedSizeInputPreparer inputPreparer = createTrainingInputPreparer(rowIterator,
+                        (int)trainingConfig.getBatchSize(), converterForTensorId, random, doCache);
+                    final DLNetworkFixedSizeInputPreparer validationPreparer =
+                        doValidation ? createValidationInputPreparer(inValidationTable, columnsForTensorId,
+                            (int)trainingConfig.getValidationBatchSize(), converterForTensorId, doCache) : null;
                     DLKerasNetworkTrainingSession session =
                         ctx.createTrainingSession(context, inNetwork, trainingConfig,
                             DLExecutionSpecCreator.createExecutionSpecs(rowIterator.peek(), ctx.getTensorFactory(),
-                                trainingConfig.getBatchSize(), columnsForTensorId, m_converters),
+                                trainingConfig.getBatchSize(), columnsForTensorId, m_converters,
+                                m_inputTransportPrecisions),
                             inputPreparer, validationPreparer);) {
                 m_session = session; // Needed for early stopping.
                 final DLKnimeTrainingMonitor<DLKerasTrainingStatus> monitor =
                     new DLKnimeTrainingMonitor<>(exec, m_status);
                 setupTrainingStatus(doValidation, trainingConfig, numTrainingBatchesPerEpoch, totalNumTrainingBatches,
                     monitor);
+                final ConfigEntry<DLKerasModelCheckpoint> modelCheckpoint = m_generalCfg.getModelCheckpointEntry();
+                if (modelCheckpoint.getEnabled()) {
+                    setupCheckpointing(modelCheckpoint.getValue(), inputPreparer, monitor);
+                }
                 final String cudaVisibleDevices = m_gpuSelection.getCudaVisibleDevices().getValue();
                 if (!cudaVisibleDevices.isEmpty()) {
                     session.setKernelEnvironmentVariable("CUDA_VISIBLE_DEVICES", cudaVisibleDevices);
@@ -710,6 +743,9 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
             } catch (final CanceledExecutionException | DLCanceledExecutionException e) {
                 m_status.setStatus(Status.USER_INTERRUPTED);
                 throw e;
+            } catch (final InvalidSettingsException e) {
+                m_status.setStatus(Status.EXCEPTION);
+                throw e;
             } catch (final Exception e) {
                 throw handleGeneralException(e);
             } finally {
@@ -791,8 +827,8 @@ private void setupTrainingStatus(final boolean doValidation, final DLKerasTraini
         });
         m_status.batchEnded().addListener((src, metrics) -> {
         	// update view
-        	((DLDenseLinePlotViewData) m_viewData[0].get(0)).getDataY().add(metrics.get("accuracy").getValue());
-        	((DLDenseLinePlotViewData) m_viewData[1].get(0)).getDataY().add(metrics.get("loss").getValue());
+        	addBatchValues((DLDenseLinePlotViewData) m_viewData[0].get(0), metrics.get("accuracy"));
+        	addBatchValues((DLDenseLinePlotViewData) m_viewData[1].get(0), metrics.get("loss"));
             try {
                 notifyViewsWithNodeContext(nodeContext, m_status);
             } catch (final Exception e) {
@@ -816,6 +852,102 @@ private void setupTrainingStatus(final boolean doValidation, final DLKerasTraini
         }
     }
 
+    /**
+     * The Python side saves the network and optimizer state of a checkpoint, the learning monitor's content is saved
+     * here. On resume, the monitor's content is restored and the training data is fast-forwarded to the epoch after
+     * the checkpoint.
+     */
+    private void setupCheckpointing(final DLKerasModelCheckpoint checkpoint,
+        final DLNetworkFixedSizeInputPreparer inputPreparer, final DLKnimeTrainingMonitor<?> monitor)
+        throws InvalidSettingsException {
+        if (checkpoint.isResume() && !inputPreparer.supportsSkippingEpochs()) {
+            throw new InvalidSettingsException(
+                "Resuming from a checkpoint is not supported by the selected training data handling.");
+        }
+        final String directory = checkpoint.getDirectory();
+        m_status.checkpointSaved().addListener((src, epoch) -> saveCheckpointViewData(directory, epoch));
+        m_status.resumed().addListener((src, epoch) -> {
+            restoreCheckpointViewData(directory, epoch);
+            try {
+                inputPreparer.skipEpochs(epoch, monitor);
+            } catch (final DLCanceledExecutionException e) {
+                // training observes the same cancellation and stops before the first batch is requested
+                return;
+            }
+            if (m_generalCfg.getShuffleTrainingData().getValue() && !m_generalCfg.getRandomSeed().getEnabled()) {
+                setWarningMessage("Training was resumed from a checkpoint without a fixed random seed. "
+                    + "The order of the training data differs from the interrupted run.");
+            }
+        });
+    }
+
+    private void saveCheckpointViewData(final String directory, final int epoch) {
+        final File file = new File(directory, CHECKPOINT_VIEW_DATA_FILENAME_PREFIX + epoch);
+        try {
+            Files.createDirectories(file.toPath().getParent());
+            try (ObjectOutputStream objOut = new ObjectOutputStream(new FileOutputStream(file))) {
+                writeViewData(objOut);
+            }
+        } catch (final IOException e) {
+            LOGGER.warn("The content of the learning monitor could not be saved along with the training checkpoint. "
+                + "The checkpoint itself remains unaffected.", e);
+            return;
+        }
+        // The Python side writes its checkpoint asynchronously. Keep the previous view data until it is superseded.
+        final File[] files = file.getParentFile().listFiles(
+            (dir, name) -> name.startsWith(CHECKPOINT_VIEW_DATA_FILENAME_PREFIX) && !name.equals(file.getName()));
+        if (files != null) {
+            // newest first
+            Arrays.sort(files, (f1, f2) -> Integer.compare(getCheckpointEpoch(f2), getCheckpointEpoch(f1)));
+            for (int i = 1; i < files.length; i++) {
+                if (!files[i].delete()) {
+                    LOGGER.debug("Outdated checkpoint file '" + files[i] + "' could not be deleted.");
+                }
+            }
+        }
+    }
+
+    private void restoreCheckpointViewData(final String directory, final int epoch) {
+        final File file = new File(directory, CHECKPOINT_VIEW_DATA_FILENAME_PREFIX + epoch);
+        try (final ObjectInputStream objIn = new ObjectInputStream(new FileInputStream(file))) {
+            final int numViewTabs = objIn.readInt();
+            if (numViewTabs != m_viewSpecs.length) {
+                throw new IOException("The layout of the learning monitor changed since the checkpoint.");
+            }
+            final DLLinePlotViewDataCollection[] viewData = new DLLinePlotViewDataCollection[numViewTabs];
+            for (int i = 0; i < numViewTabs; i++) {
+                final DLJFreeChartLinePlotViewSpec viewSpec = new DLDefaultJFreeChartLinePlotViewSpec();
+                viewSpec.readExternal(objIn);
+                if (viewSpec.numPlots() != m_viewSpecs[i].numPlots()) {
+                    throw new IOException("The layout of the learning monitor changed since the checkpoint.");
+                }
+                viewData[i] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[i]);
+                viewData[i].readExternal(objIn);
+            }
+            System.arraycopy(viewData, 0, m_viewData, 0, numViewTabs);
+        } catch (final Exception e) {
+            LOGGER.warn("The content of the learning monitor could not be restored from the training checkpoint. "
+                + "Training resumes regardless.", e);
+        }
+    }
+
+    private static int getCheckpointEpoch(final File checkpointViewDataFile) {
+        try {
+            return Integer
+                .parseInt(checkpointViewDataFile.getName().substring(CHECKPOINT_VIEW_DATA_FILENAME_PREFIX.length()));
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Adds the value of each reported batch, also if several batches were reported at once. This keeps the training
+     * curve aligned with the validation curve, whose values are plotted at the batch index.
+     */
+    private static void addBatchValues(final DLDenseLinePlotViewData plot, final DLReportedMetric metric) {
+        plot.getDataY().add(metric.getBatchValues());
+    }
+
     private void notifyViewsWithNodeContext(final NodeContext nodeContext, final Object arg) {
         if (nodeContext != null) {
             NodeContext.pushContext(nodeContext);
@@ -889,8 +1021,10 @@ private DLKerasTrainingConfig createTrainingConfig(final DLKerasNetworkSpec inNe
 		final DLKerasOptimizer optimizer = m_generalCfg.getOptimizerEntry().getValue();
         final Map<DLTensorId, DLKerasLossFunction> lossFunctions = createLossFunctionMap(inNetworkSpec);
 		final ArrayList<DLKerasCallback> callbacks = createCallbackList();
+		final int prefetchQueueSize = m_generalCfg.getPrefetchQueueSizeEntry().getValue();
+		final int metricsReportInterval = m_generalCfg.getMetricsReportIntervalEntry().getValue();
 		return new DLKerasDefaultTrainingConfig(numEpochs, trainingBatchSize,
-				validationBatchSize, optimizer, lossFunctions, callbacks);
+				validationBatchSize, optimizer, lossFunctions, callbacks, prefetchQueueSize, metricsReportInterval);
     }
 
     private ArrayList<DLKerasCallback> createCallbackList() {
@@ -904,6 +1038,9 @@ private ArrayList<DLKerasCallback> createCallbackList() {
 		if (m_generalCfg.getReduceLROnPlateauEntry().getEnabled()) {
 			callbacks.add(m_generalCfg.getReduceLROnPlateauEntry().getValue());
 		}
+		if (m_generalCfg.getModelCheckpointEntry().getEnabled()) {
+			callbacks.add(m_generalCfg.getModelCheckpointEntry().getValue());
+		}
         return callbacks;
     }
 
@@ -947,9 +1084,37 @@ private DLRowIterator createRowIterator(final BufferedDataTable inTable,
 			final Map<DLTensorId, int[]> columnsForTensorId, final Random random, final ExecutionContext exec) {
 		final boolean doShuffle = m_generalCfg.getShuffleTrainingData().getValue();
 		if (doShuffle) {
+			final DLShuffleStrategy strategy =
+					DLShuffleStrategy.fromLabel(m_generalCfg.getShuffleStrategyEntry().getValue());
 			return new DLShuffleDataTableRowIterator(inTable, columnsForTensorId, random.nextLong(),
-					exec.createSubExecutionContext(0));
+					exec.createSubExecutionContext(0), strategy, m_generalCfg.getShuffleBufferSizeEntry().getValue());
 		}
 		return new DLDataTableRowIterator(inTable, columnsForTensorId);
 	}
+
+	private DLNetworkFixedSizeInputPreparer createTrainingInputPreparer(final DLRowIterator rowIterator,
+			final int batchSize, final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converterForTensorId,
+			final Random random, final boolean doCache) {
+		final DLKnimeNetworkTrainingInputPreparer inputPreparer =
+				new DLKnimeNetworkTrainingInputPreparer(rowIterator, batchSize, converterForTensorId);
+		if (!doCache) {
+			return inputPreparer;
+		}
+		// shuffling is done by the cache, the row iterator provides the rows in table order
+		final Random shuffleRandom =
+				m_generalCfg.getShuffleTrainingData().getValue() ? new Random(random.nextLong()) : null;
+		return new DLCachingNetworkInputPreparer(inputPreparer, rowIterator.size(), batchSize, shuffleRandom);
+	}
+
+	private static DLNetworkFixedSizeInputPreparer createValidationInputPreparer(
+			final BufferedDataTable inValidationTable, final Map<DLTensorId, int[]> columnsForTensorId,
+			final int batchSize, final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converterForTensorId,
+			final boolean doCache) {
+		final DLKnimeNetworkValidationInputPreparer validationPreparer = new DLKnimeNetworkValidationInputPreparer(
+				new DLDataTableRowIterator(inValidationTable, columnsForTensorId), batchSize, converterForTensorId);
+		if (!doCache) {
+			return validationPreparer;
+		}
+		return new DLCachingNetworkInputPreparer(validationPreparer, inValidationTable.size(), batchSize, null, true);
+	}
 }
@@ -54,6 +54,7 @@
 import org.knime.dl.base.nodes.AbstractGridBagDialogComponentGroup;
 import org.knime.dl.base.settings.ConfigEntry;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasEarlyStopping;
+import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasModelCheckpoint;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasReduceLROnPlateau;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasTerminateOnNaN;
 
@@ -89,6 +90,14 @@ public class DLKerasLearningBehaviorPanel extends AbstractGridBagDialogComponent
 		reduceLROnPlateau.addEnableChangeListener(e -> e.getValue().setAllEnabled(e.getEnabled()));
 		addToggleComponentGroup(reduceLROnPlateau, reduceLROnPlateau.getValue().getName(),
 				reduceLROnPlateau.getValue().getParameterDialogGroup());
+
+		addHorizontalSeparator();
+
+		final ConfigEntry<DLKerasModelCheckpoint> modelCheckpoint = m_cfg.getModelCheckpointEntry();
+		modelCheckpoint.addLoadListener(e -> e.getValue().setAllEnabled(e.getEnabled()));
+		modelCheckpoint.addEnableChangeListener(e -> e.getValue().setAllEnabled(e.getEnabled()));
+		addToggleComponentGroup(modelCheckpoint, modelCheckpoint.getValue().getName(),
+				modelCheckpoint.getValue().getParameterDialogGroup());
 	}
 
 	@Override
@@ -64,22 +64,23 @@
 import java.util.Iterator;
 import java.util.Map;
 
+import javax.swing.AbstractListModel;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.Icon;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSpinner;
 import javax.swing.JTabbedPane;
-import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 import javax.swing.event.DocumentListener;
-import javax.swing.text.DefaultCaret;
 
 import org.jfree.chart.axis.NumberAxis;
 import org.jfree.data.Range;
@@ -88,6 +89,7 @@
 import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewData.DLLinePlotViewDataEntry;
 import org.knime.dl.keras.base.nodes.learner.view.rangeslider.RangeSlider;
 
+import gnu.trove.TFloatArrayList;
 import gnu.trove.TObjectFloatHashMap;
 
 /**
@@ -105,7 +107,9 @@ public class DLJFreeChartLinePlotWithHistoryView implements DLLinePlotView<DLJFr
 
     private final JFreeChartLinePlotPanel m_linePlot;
 
-    private final Map<String, JTextArea> m_historyAreas = new HashMap<>();
+    private final Map<String, DLHistoryListModel> m_historyModels = new HashMap<>();
+
+    private final Map<String, JList<String>> m_historyLists = new HashMap<>();
 
     private final Map<String, JLabel> m_currentValueLabels = new HashMap<>();
 
@@ -141,14 +145,14 @@ public DLJFreeChartLinePlotWithHistoryView(final DLJFreeChartLinePlotViewSpec pl
         GridBagConstraints gbc;
 
         for (int i = 0; i < plotViewSpec.numPlots(); i++) {
-            final JTextArea historyArea = new JTextArea();
-            final DefaultCaret caret = (DefaultCaret)historyArea.getCaret();
-            // Enable automatic to bottom scrolling
-            caret.setUpdatePolicy(DefaultCaret.ALWAYS_UPDATE);
-            historyArea.setEditable(false);
-            m_historyAreas.put(plotViewSpec.getLineLabel(i), historyArea);
-
-            final JScrollPane historyScroller = new JScrollPane(historyArea);
+            // Virtual list over the primitive history values, only the visible cells are rendered.
+            final DLHistoryListModel historyModel = new DLHistoryListModel();
+            final JList<String> historyList = new JList<>(historyModel);
+            historyList.setPrototypeCellValue(Float.toString(-Float.MAX_VALUE));
+            m_historyModels.put(plotViewSpec.getLineLabel(i), historyModel);
+            m_historyLists.put(plotViewSpec.getLineLabel(i), historyList);
+
+            final JScrollPane historyScroller = new JScrollPane(historyList);
             final JPanel historyWrapper = new JPanel(new GridBagLayout());
             gbc = new GridBagConstraints();
             gbc.gridx = 0;
@@ -413,17 +417,28 @@ public Component getComponent() {
 
     @Override
     public void update(final String lineLabel, final Iterator<DLLinePlotViewDataEntry> iterator) {
+        if (!iterator.hasNext()) {
+            return;
+        }
+        final TFloatArrayList newValues = new TFloatArrayList();
         while (iterator.hasNext()) {
             final DLLinePlotViewDataEntry dataEntry = iterator.next();
 
             m_linePlot.plotNext(lineLabel, dataEntry.getX() + 1, dataEntry.getY()); // x-values are 0-based
-            m_historyAreas.get(lineLabel).append(dataEntry.getY() + "\n");
+            newValues.add(dataEntry.getY());
             m_currentValues.put(lineLabel, dataEntry.getY());
 
             m_sliderPlotSync.updateMaxXValue(dataEntry.getX() + 1);
             m_sliderPlotSync.updateYBounds(dataEntry.getY());
-            m_sliderPlotSync.updateOnData();
         }
+        m_sliderPlotSync.updateOnData();
+        // All updates of the history need to happen in the EDT
+        SwingUtilities.invokeLater(() -> {
+            m_historyModels.get(lineLabel).addAll(newValues);
+            // automatic scrolling to the bottom
+            final JList<String> historyList = m_historyLists.get(lineLabel);
+            historyList.ensureIndexIsVisible(historyList.getModel().getSize() - 1);
+        });
     }
 
     /**
@@ -444,6 +459,32 @@ public void setIsRunning(final boolean isRunning) {
         m_isRunning = isRunning;
     }
 
+    /**
+     * List model that renders the values of a primitive list on demand.
+     */
+    private static final class DLHistoryListModel extends AbstractListModel<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TFloatArrayList m_values = new TFloatArrayList();
+
+        @Override
+        public int getSize() {
+            return m_values.size();
+        }
+
+        @Override
+        public String getElementAt(final int index) {
+            return Float.toString(m_values.get(index));
+        }
+
+        private void addAll(final TFloatArrayList values) {
+            final int first = m_values.size();
+            m_values.add(values.toNativeArray());
+            fireIntervalAdded(this, first, m_values.size() - 1);
+        }
+    }
+
     /**
      * A JTextField that turns red if no double number is entered.
      */
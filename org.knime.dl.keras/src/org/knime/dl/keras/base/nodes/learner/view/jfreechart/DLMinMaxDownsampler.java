@@ -0,0 +1,313 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.keras.base.nodes.learner.view.jfreechart;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jfree.data.xy.XYSeries;
+
+import gnu.trove.TDoubleArrayList;
+import gnu.trove.TFloatArrayList;
+import gnu.trove.TIntArrayList;
+
+/**
+ * Feeds an {@link XYSeries} with a downsampled view of a stream of data points.
+ * <P>
+ * The points are kept in primitive lists and indexed by a multi-resolution pyramid of min/max buckets: level
+ * <code>k</code> aggregates consecutive, aligned runs of <code>2^k</code> points and stores the indices of their
+ * minimum and maximum. The pyramid is extended incrementally, so adding a point takes amortized constant time. Levels
+ * below {@link #MIN_STORED_LEVEL} are not stored but computed from the points on demand.
+ * <P>
+ * {@link #render(double, double) Rendering} replaces the content of the series by the points of the given domain
+ * range at the finest level that does not exceed the maximum number of buckets, and the points outside of that range
+ * at the coarsest level that is required to show the entire line within the same budget. Each bucket is represented
+ * by its minimum and maximum point (in x-order), so extremes like loss spikes remain visible at every resolution. The
+ * first and the last point are always part of the series so that its domain bounds do not depend on the rendered
+ * range. The number of series items is therefore bounded regardless of the number of points.
+ * <P>
+ * Must only be used on the event dispatch thread, like the series it feeds.
+ */
+final class DLMinMaxDownsampler {
+
+    /**
+     * Callback for {@link DLMinMaxDownsampler#forEachPoint(DLPointConsumer)}.
+     */
+    @FunctionalInterface
+    interface DLPointConsumer {
+
+        void accept(double x, double y);
+    }
+
+    /**
+     * The finest pyramid level that is stored. Buckets of finer levels span only a few points and are cheap to compute
+     * from the points.
+     */
+    private static final int MIN_STORED_LEVEL = 4;
+
+    private final XYSeries m_series;
+
+    private final int m_maxNumBuckets;
+
+    private final TDoubleArrayList m_x = new TDoubleArrayList();
+
+    private final TFloatArrayList m_y = new TFloatArrayList();
+
+    /**
+     * Index of the minimum respectively maximum point of each bucket, per stored level starting at
+     * {@link #MIN_STORED_LEVEL}.
+     */
+    private final List<TIntArrayList> m_minIndices = new ArrayList<>();
+
+    private final List<TIntArrayList> m_maxIndices = new ArrayList<>();
+
+    /**
+     * @param series the series to feed, must be empty
+     * @param maxNumBuckets the maximum number of buckets per rendered part of the line, the series will contain at
+     *            most about four times as many items. Must be positive.
+     */
+    DLMinMaxDownsampler(final XYSeries series, final int maxNumBuckets) {
+        if (maxNumBuckets <= 0) {
+            throw new IllegalArgumentException("Maximum number of buckets must be positive.");
+        }
+        m_series = series;
+        m_maxNumBuckets = maxNumBuckets;
+    }
+
+    /**
+     * Adds a data point. Points must be added in ascending x-order. Does not update the series, see
+     * {@link #render(double, double)}.
+     *
+     * @param x the x-value
+     * @param y the y-value
+     */
+    void add(final double x, final double y) {
+        m_x.add(x);
+        m_y.add((float)y);
+        final int numPoints = m_x.size();
+        final int storedBucketSize = 1 << MIN_STORED_LEVEL;
+        if (numPoints % storedBucketSize != 0) {
+            return;
+        }
+        // a bucket of the finest stored level is complete, compute it and merge upwards
+        final int first = numPoints - storedBucketSize;
+        int min = first;
+        int max = first;
+        for (int i = first + 1; i < numPoints; i++) {
+            if (m_y.get(i) < m_y.get(min)) {
+                min = i;
+            } else if (m_y.get(i) > m_y.get(max)) {
+                max = i;
+            }
+        }
+        for (int level = 0;; level++) {
+            if (level == m_minIndices.size()) {
+                m_minIndices.add(new TIntArrayList());
+                m_maxIndices.add(new TIntArrayList());
+            }
+            final TIntArrayList minIndices = m_minIndices.get(level);
+            final TIntArrayList maxIndices = m_maxIndices.get(level);
+            minIndices.add(min);
+            maxIndices.add(max);
+            final int numBuckets = minIndices.size();
+            if (numBuckets % 2 != 0) {
+                break;
+            }
+            min = lowerOf(minIndices.get(numBuckets - 2), min);
+            max = higherOf(maxIndices.get(numBuckets - 2), max);
+        }
+    }
+
+    /**
+     * @return the number of added points
+     */
+    int size() {
+        return m_x.size();
+    }
+
+    /**
+     * Passes all added points to the given consumer in x-order.
+     *
+     * @param consumer the consumer
+     */
+    void forEachPoint(final DLPointConsumer consumer) {
+        for (int i = 0; i < m_x.size(); i++) {
+            consumer.accept(m_x.get(i), m_y.get(i));
+        }
+    }
+
+    /**
+     * Replaces the content of the series by the downsampled points. The given domain range is shown in the highest
+     * resolution possible, the rest of the line in the resolution required to show all points.
+     *
+     * @param lowerX the lower bound of the visible domain range
+     * @param upperX the upper bound of the visible domain range
+     */
+    void render(final double lowerX, final double upperX) {
+        m_series.setNotify(false);
+        try {
+            m_series.clear();
+            final int numPoints = m_x.size();
+            if (numPoints == 0) {
+                return;
+            }
+            // include the neighboring points of the range to connect the line to the plot borders
+            final int first = Math.max(0, firstIndexNotBelow(lowerX) - 1);
+            final int last = Math.min(numPoints - 1, firstIndexNotBelow(Math.nextUp(upperX)));
+            final int overviewLevel = getLevel(numPoints);
+            if (first > 0) {
+                addPoint(0);
+                addBuckets(1, first - 1, overviewLevel);
+            }
+            if (first <= last) {
+                addBuckets(first, last, getLevel(last - first + 1));
+            }
+            if (last < numPoints - 1) {
+                addBuckets(last + 1, numPoints - 2, overviewLevel);
+                addPoint(numPoints - 1);
+            }
+        } finally {
+            m_series.setNotify(true);
+        }
+    }
+
+    /**
+     * Removes all points and clears the series.
+     */
+    void clear() {
+        m_x.clear();
+        m_y.clear();
+        m_minIndices.clear();
+        m_maxIndices.clear();
+        m_series.clear();
+    }
+
+    /**
+     * @return the finest level at which the given number of points fits into the maximum number of buckets
+     */
+    private int getLevel(final int numPoints) {
+        int level = 0;
+        while ((((long)numPoints + (1L << level) - 1) >> level) > m_maxNumBuckets) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Adds the min and max points of the aligned buckets of the given level that cover the given (inclusive) index
+     * range. Buckets are clipped to the range.
+     */
+    private void addBuckets(final int from, final int to, final int level) {
+        for (int start = from; start <= to;) {
+            final int end = Math.min(to, (((start >> level) + 1) << level) - 1);
+            final int[] minMax = findMinMax(start, end);
+            if (minMax[0] == minMax[1]) {
+                addPoint(minMax[0]);
+            } else {
+                addPoint(Math.min(minMax[0], minMax[1]));
+                addPoint(Math.max(minMax[0], minMax[1]));
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * @return the indices of the minimum and maximum point in the given (inclusive) index range, uses the largest
+     *         stored buckets that fit into the range
+     */
+    private int[] findMinMax(final int from, final int to) {
+        int min = from;
+        int max = from;
+        for (int i = from; i <= to;) {
+            int level = Integer.numberOfTrailingZeros(i | Integer.MIN_VALUE);
+            while (level >= MIN_STORED_LEVEL && (i + (1L << level) - 1 > to || level - MIN_STORED_LEVEL >= m_minIndices
+                .size() || (i >> level) >= m_minIndices.get(level - MIN_STORED_LEVEL).size())) {
+                level--;
+            }
+            if (level >= MIN_STORED_LEVEL) {
+                final int bucket = i >> level;
+                min = lowerOf(min, m_minIndices.get(level - MIN_STORED_LEVEL).get(bucket));
+                max = higherOf(max, m_maxIndices.get(level - MIN_STORED_LEVEL).get(bucket));
+                i += 1 << level;
+            } else {
+                min = lowerOf(min, i);
+                max = higherOf(max, i);
+                i++;
+            }
+        }
+        return new int[]{min, max};
+    }
+
+    /**
+     * @return the index of the first point whose x-value is not below the given value, or the number of points if
+     *         there is none
+     */
+    private int firstIndexNotBelow(final double x) {
+        int low = 0;
+        int high = m_x.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (m_x.get(mid) < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int lowerOf(final int i, final int j) {
+        return m_y.get(j) < m_y.get(i) ? j : i;
+    }
+
+    private int higherOf(final int i, final int j) {
+        return m_y.get(j) > m_y.get(i) ? j : i;
+    }
+
+    private void addPoint(final int index) {
+        m_series.add(m_x.get(index), m_y.get(index), false);
+    }
+}
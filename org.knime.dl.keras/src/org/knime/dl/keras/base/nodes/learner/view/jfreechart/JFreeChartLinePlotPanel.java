@@ -56,7 +56,6 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -76,7 +75,6 @@
 import org.jfree.chart.renderer.xy.XYItemRenderer;
 import org.jfree.chart.util.LogFormat;
 import org.jfree.data.Range;
-import org.jfree.data.xy.XYDataItem;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 
@@ -100,6 +98,13 @@ public class JFreeChartLinePlotPanel extends JPanel {
 
     public static final double SMOOTHING_ALPHA_DEFAULT = 0.05;
 
+    /**
+     * The maximum number of buckets each rendered part of a line is downsampled to, see {@link DLMinMaxDownsampler}.
+     * Bounds the size of the plotted series and therefore the redraw time of the plot regardless of the number of
+     * plotted values.
+     */
+    private static final int MAX_NUM_BUCKETS_PER_LINE = 2048;
+
     /* Global line width of all plots */
     private static final int LINE_STROKE = 1;
 
@@ -119,7 +124,7 @@ public class JFreeChartLinePlotPanel extends JPanel {
 
     private final Map<String, AtomicBoolean> m_smoothedLineOutdated = new HashMap<>();
 
-    private Map<String, ExponentialSmoothingIterator> m_smoothingIters;
+    private final Map<String, DLLineState> m_lineStates = new HashMap<>();
 
     private XYPlot m_plot;
 
@@ -127,6 +132,16 @@ public class JFreeChartLinePlotPanel extends JPanel {
 
     private double m_smoothingAlpha = SMOOTHING_ALPHA_DEFAULT;
 
+    /**
+     * Whether rendering the lines is already scheduled on the event dispatch thread.
+     */
+    private boolean m_renderScheduled = false;
+
+    /**
+     * The domain range the lines were last rendered for, <code>null</code> if they need to be rendered again.
+     */
+    private Range m_renderedRange;
+
     private int m_colorIdx = 0;
 
     private ValueAxis m_defaultAxis;
@@ -159,12 +174,14 @@ private XYSeriesCollection createDataset() {
             final String lineLabel = m_spec.getLineLabel(i);
             final XYSeries line = new XYSeries(lineLabel);
             lines.addSeries(line);
+            final XYSeries smoothedLine = new XYSeries(lineLabel + SMOOTHED_LINE_KEY_SUFFIX);
+            m_lineStates.put(lineLabel, new DLLineState(line, smoothedLine));
             m_lineIndexToLineLabel.put(lineCounter, lineLabel);
             m_lineLabelToLineIndex.put(lineLabel, lineCounter);
             lineCounter++;
 
             final String smoothedLineLabel = lineLabel + SMOOTHED_LINE_KEY_SUFFIX;
-            lines.addSeries(new XYSeries(smoothedLineLabel));
+            lines.addSeries(smoothedLine);
             m_lineIndexToLineLabel.put(lineCounter, smoothedLineLabel);
             m_lineLabelToLineIndex.put(smoothedLineLabel, lineCounter);
             m_smoothedLineOutdated.put(smoothedLineLabel, new AtomicBoolean());
@@ -173,19 +190,6 @@ private XYSeriesCollection createDataset() {
         return lines;
     }
 
-    /**
-     * Creates new smoothing iterators with the specified smoothing factor.
-     *
-     * @param smoothingAlpha
-     */
-    private void initSmoothingIter(final String lineLabel, final double smoothingAlpha) {
-        if (m_smoothingIters == null) {
-            m_smoothingIters = new HashMap<>();
-        }
-        m_smoothingIters.put(lineLabel + SMOOTHED_LINE_KEY_SUFFIX,
-            new ExponentialSmoothingIterator(m_dataset.getSeries(lineLabel), smoothingAlpha));
-    }
-
     /**
      * Get the chart panel.
      *
@@ -196,10 +200,6 @@ public ChartPanel getChartPanel() {
             m_lineChart = ChartFactory.createXYLineChart(m_spec.title(), m_spec.labelX(), m_spec.labelY(),
                 m_dataset = createDataset(), PlotOrientation.VERTICAL, true, true, false);
 
-            for (int i = 0; i < m_spec.numPlots(); i++) {
-                initSmoothingIter(m_spec.getLineLabel(i), m_smoothingAlpha);
-            }
-
             // Remove the chart title
             m_lineChart.setTitle("");
 
@@ -256,6 +256,8 @@ public ChartPanel getChartPanel() {
             final LogFormat logFormat = new LogFormat(10, "", "", true);
             m_logAxis.setNumberFormatOverride(logFormat);
 
+            // show more details when zooming in, the axis may be changed outside of the event dispatch thread
+            m_plot.getDomainAxis().addChangeListener(e -> SwingUtilities.invokeLater(this::render));
         }
         return m_chartPanel;
     }
@@ -284,13 +286,46 @@ public void enableLogAxis() {
     public void plotNext(final String lineLabel, final int valueX, final float valueY) {
         // All updates of the lines need to happen in the EDT
         SwingUtilities.invokeLater(() -> {
-            final XYSeries line = m_dataset.getSeries(lineLabel);
+            final DLLineState line = m_lineStates.get(lineLabel);
             // TODO: we need to differentiate between line plots and scatter plots somewhere
-            line.add(valueX, valueY);
-            plotSmoothed(lineLabel);
+            line.m_raw.add(valueX, valueY);
+            // an outdated smoothed line is recomputed from the raw line which already contains the new value
+            if (!updateSmoothedLine(lineLabel) && m_smoothedLinesEnabled) {
+                line.addSmoothed(valueX, valueY, m_smoothingAlpha);
+            }
+            scheduleRender();
         });
     }
 
+    /**
+     * Schedules rendering the lines for the current domain range after their data changed. Multiple requests that are
+     * issued before rendering takes place are coalesced. Must be called on the event dispatch thread.
+     */
+    private void scheduleRender() {
+        m_renderedRange = null;
+        if (!m_renderScheduled) {
+            m_renderScheduled = true;
+            SwingUtilities.invokeLater(this::render);
+        }
+    }
+
+    /**
+     * Renders the lines for the current domain range unless they are up to date. Must be called on the event dispatch
+     * thread.
+     */
+    private void render() {
+        m_renderScheduled = false;
+        final Range range = m_plot.getDomainAxis().getRange();
+        if (range.equals(m_renderedRange)) {
+            return;
+        }
+        m_renderedRange = range;
+        for (final DLLineState line : m_lineStates.values()) {
+            line.m_raw.render(range.getLowerBound(), range.getUpperBound());
+            line.m_smoothed.render(range.getLowerBound(), range.getUpperBound());
+        }
+    }
+
     /**
      * Trigger a redraw of the smoothed lines. This will only happen if smoothed lines are enabled and the smoothing
      * alpha changed.
@@ -299,7 +334,7 @@ public void triggerSmoothedLinesUpdate() {
         // All updates of the lines need to happen in the EDT
         SwingUtilities.invokeLater(() -> {
             for (int i = 0; i < m_spec.numPlots(); i++) {
-                plotSmoothed(m_spec.getLineLabel(i));
+                updateSmoothedLine(m_spec.getLineLabel(i));
             }
         });
     }
@@ -371,37 +406,27 @@ private Color getColorWithTransparecy(final int lineIndex, final float transpare
         return new Color(cComp[0], cComp[1], cComp[2], transparency);
     }
 
-    private void plotSmoothed(final String lineLabel) {
+    /**
+     * Clears or recomputes the smoothed line if it is outdated, i.e. if smoothing was enabled, disabled or its factor
+     * changed. The smoothed line is recomputed from all values of the raw line.
+     *
+     * @return true if the smoothed line was outdated
+     */
+    private boolean updateSmoothedLine(final String lineLabel) {
         final AtomicBoolean lineOutdated = m_smoothedLineOutdated.get(lineLabel + SMOOTHED_LINE_KEY_SUFFIX);
-        if (!m_smoothedLinesEnabled) {
-            if (lineOutdated.get()) {
-                clearSmoothedLine(lineLabel);
-                updateLineStyle(lineLabel, false);
-                lineOutdated.set(false);
-            }
-            return;
+        if (!lineOutdated.get()) {
+            return false;
         }
-
-        if (lineOutdated.get()) {
-            initSmoothingIter(lineLabel, m_smoothingAlpha);
-            clearSmoothedLine(lineLabel);
-            updateLineStyle(lineLabel, true);
-            lineOutdated.set(false);
-        }
-
-        final XYSeries line = m_dataset.getSeries(lineLabel + SMOOTHED_LINE_KEY_SUFFIX);
-        final ExponentialSmoothingIterator iter = m_smoothingIters.get(lineLabel + SMOOTHED_LINE_KEY_SUFFIX);
-        while (iter.hasNext()) {
-            if (lineOutdated.get()) {
-                return;
-            }
-            line.add(iter.next());
+        final DLLineState line = m_lineStates.get(lineLabel);
+        line.clearSmoothed();
+        if (m_smoothedLinesEnabled) {
+            final double alpha = m_smoothingAlpha;
+            line.m_raw.forEachPoint((x, y) -> line.addSmoothed(x, y, alpha));
         }
-    }
-
-    private void clearSmoothedLine(final String lineLabel) {
-        final String key = lineLabel + SMOOTHED_LINE_KEY_SUFFIX;
-        m_dataset.getSeries(key).clear();
+        scheduleRender();
+        updateLineStyle(lineLabel, m_smoothedLinesEnabled);
+        lineOutdated.set(false);
+        return true;
     }
 
     public Range getCurrentYBounds() {
@@ -484,45 +509,37 @@ private Color getNextColor() {
     }
 
     /**
-     * Iterator backed by a XYSeries which calculates a smoothed version of the series on the fly. See:
-     * https://en.wikipedia.org/wiki/Exponential_smoothing
+     * The raw and smoothed versions of a line as well as the state of the exponential smoothing, which is updated
+     * incrementally. See: https://en.wikipedia.org/wiki/Exponential_smoothing
      */
-    private class ExponentialSmoothingIterator implements Iterator<XYDataItem> {
+    private static final class DLLineState {
 
-        private final XYSeries m_data;
+        private final DLMinMaxDownsampler m_raw;
 
-        private int m_idx = 0;
+        private final DLMinMaxDownsampler m_smoothed;
 
-        private final double m_alpha;
+        private boolean m_hasSmoothedValue;
 
-        private double m_current;
+        private double m_smoothedValue;
 
-        private double m_previous;
-
-        public ExponentialSmoothingIterator(final XYSeries data, final double alpha) {
-            m_data = data;
-            m_alpha = alpha;
-            if (m_alpha > 1.0 || m_alpha < 0.0) {
-                throw new IllegalArgumentException("Alpha must be in range [0,1]");
-            }
-        }
-
-        @Override
-        public boolean hasNext() {
-            return m_idx < m_data.getItemCount();
+        private DLLineState(final XYSeries raw, final XYSeries smoothed) {
+            m_raw = new DLMinMaxDownsampler(raw, MAX_NUM_BUCKETS_PER_LINE);
+            m_smoothed = new DLMinMaxDownsampler(smoothed, MAX_NUM_BUCKETS_PER_LINE);
         }
 
-        @Override
-        public XYDataItem next() {
-            m_previous = m_current;
-            if (m_idx == 0) {
-                m_current = (double)m_data.getY(m_idx);
+        private void addSmoothed(final double x, final double y, final double alpha) {
+            if (m_hasSmoothedValue) {
+                m_smoothedValue = (alpha * y) + ((1 - alpha) * m_smoothedValue);
             } else {
-                m_current = (m_alpha * (double)m_data.getY(m_idx)) + ((1 - m_alpha) * m_previous);
+                m_smoothedValue = y;
+                m_hasSmoothedValue = true;
             }
-            final XYDataItem item = new XYDataItem(m_data.getX(m_idx), m_current);
-            m_idx++;
-            return item;
+            m_smoothed.add(x, m_smoothedValue);
+        }
+
+        private void clearSmoothed() {
+            m_smoothed.clear();
+            m_hasSmoothedValue = false;
         }
     }
 }
@@ -56,6 +56,7 @@
 import java.net.URL;
 import java.nio.file.InvalidPathException;
 import java.util.List;
+import java.util.Optional;
 
 import org.knime.core.data.filestore.FileStore;
 import org.knime.core.node.CanceledExecutionException;
@@ -85,6 +86,8 @@
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectSpec;
 import org.knime.dl.keras.core.DLKerasNetwork;
 import org.knime.dl.keras.core.DLKerasNetworkLoader;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.core.DLKerasNetworkSpecCache;
 import org.knime.dl.keras.core.DLKerasPythonContext;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.DLPythonDefaultNetworkReader;
@@ -143,6 +146,12 @@ static List<String> getValidInputFileExtensions() {
 
 	private DLKerasNetwork m_network;
 
+    /**
+     * Whether the spec of {@link #m_network} was taken from the {@link DLKerasNetworkSpecCache}, in which case the
+     * availability of the back end has not been checked during configuration.
+     */
+    private boolean m_networkFromCache;
+
 	protected DLKerasReaderNodeModel() {
 		super(null, new PortType[] { DLKerasNetworkPortObjectBase.TYPE });
 		addPythonCommandConfig(m_pythonCommandConfig);
@@ -169,17 +178,23 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
                 "File path '" + filePath + "' cannot be resolved to a valid URI. Message: " + e.getMessage(), e);
         }
         final DLKerasNetworkLoader<?> loader = getBackend(backendId);
-        try (final DLPythonContext context = new DLKerasPythonContext(m_pythonCommandConfig.getCommand())) {
+        // reading the spec requires loading the entire network in Python, avoid that if the file is unchanged
+        final DLKerasNetworkSpecCache specCache = DLKerasNetworkSpecCache.getInstance();
+        final String fingerprint = specCache.createFingerprint(uri, loader);
+        final Optional<DLKerasNetworkSpec> cachedSpec =
+            fingerprint != null ? specCache.get(fingerprint) : Optional.empty();
+        if (cachedSpec.isPresent()) {
             try {
-                DLPythonNetworkLoaderRegistry.getInstance();
-                loader.checkAvailability(context, false, DLPythonNetworkLoaderRegistry.getInstallationTestTimeout(),
-                    DLNotCancelable.INSTANCE);
-            } catch (final DLMissingDependencyException | DLInstallationTestTimeoutException
-                    | DLCanceledExecutionException e) {
-                throw new InvalidSettingsException(
-                    "Selected Keras back end '" + loader.getName() + "' is not available anymore. "
-                        + "Please check your local installation.\nDetails: " + e.getMessage());
+                loader.validateSource(uri);
+                m_network = cachedSpec.get().create(new DLNetworkReferenceLocation(uri), false);
+            } catch (final DLInvalidSourceException e) {
+                throw new InvalidSettingsException(e.getMessage(), e);
             }
+            m_networkFromCache = true;
+            return new PortObjectSpec[]{new DLKerasNetworkPortObjectSpec(m_network.getSpec(), m_network.getClass())};
+        }
+        try (final DLPythonContext context = new DLKerasPythonContext(m_pythonCommandConfig.getCommand())) {
+            checkAvailability(loader, context);
             try {
                 loader.validateSource(uri);
             } catch (final DLInvalidSourceException e) {
@@ -201,10 +216,28 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
                 }
                 throw new InvalidSettingsException(message, e);
             }
+            if (fingerprint != null) {
+                specCache.put(fingerprint, m_network.getSpec());
+            }
+            m_networkFromCache = false;
             return new PortObjectSpec[]{new DLKerasNetworkPortObjectSpec(m_network.getSpec(), m_network.getClass())};
         }
     }
 
+    private static void checkAvailability(final DLKerasNetworkLoader<?> loader, final DLPythonContext context)
+        throws InvalidSettingsException {
+        try {
+            DLPythonNetworkLoaderRegistry.getInstance();
+            loader.checkAvailability(context, false, DLPythonNetworkLoaderRegistry.getInstallationTestTimeout(),
+                DLNotCancelable.INSTANCE);
+        } catch (final DLMissingDependencyException | DLInstallationTestTimeoutException
+                | DLCanceledExecutionException e) {
+            throw new InvalidSettingsException(
+                "Selected Keras back end '" + loader.getName() + "' is not available anymore. "
+                    + "Please check your local installation.\nDetails: " + e.getMessage());
+        }
+    }
+
     private static DLKerasNetworkLoader<?> getBackend(final String loaderClassName) throws InvalidSettingsException {
         final DLPythonNetworkLoader<?> backend =
             DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader(loaderClassName)
@@ -231,6 +264,12 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
 		} catch (final DLInvalidSourceException e) {
 			throw new RuntimeException(e.getMessage(), e);
 		}
+        if (m_networkFromCache) {
+            // deferred from configure, which used the cached spec of the network
+            try (final DLPythonContext context = new DLKerasPythonContext(m_pythonCommandConfig.getCommand())) {
+                checkAvailability(getBackend(m_smBackend.getStringArrayValue()[1]), context);
+            }
+        }
         if (m_smCopyNetwork.getBooleanValue()) {
             final FileStore fileStore =
                 DLNetworkPortObject.createFileStoreForCopy(m_network.getSource().getURI(), exec);
@@ -0,0 +1,190 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.keras.base.portobjects;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLNetworkFileStoreLocation;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.core.DLKerasPythonContext;
+import org.knime.dl.keras.core.layers.DLKerasLayer;
+import org.knime.dl.keras.core.layers.DLKerasNetworkGraphSerializer;
+import org.knime.python2.PythonCommand;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Caches Keras networks that were materialized from layer specifications. Entries are addressed by the content hash of
+ * the layer graph (see {@link DLKerasNetworkGraphSerializer#computeGraphHash(List)}) and the Python command that was
+ * used to materialize the network. Re-executing a downstream node of an unchanged layer graph therefore only copies
+ * the saved network instead of spawning Python and rebuilding the network.
+ * <P>
+ * Saved networks are copied into a private temporary directory because the file stores of the port objects that
+ * produced them are deleted as soon as the respective nodes are reset.
+ */
+final class DLKerasMaterializedNetworkCache {
+
+    private static final int MAX_NUM_CACHED_NETWORKS = 32;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasMaterializedNetworkCache.class);
+
+    private static final DLKerasMaterializedNetworkCache INSTANCE = new DLKerasMaterializedNetworkCache();
+
+    static DLKerasMaterializedNetworkCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final Cache<String, CachedNetwork> m_cache = CacheBuilder.newBuilder() //
+        .maximumSize(MAX_NUM_CACHED_NETWORKS) //
+        .removalListener((RemovalListener<String, CachedNetwork>)n -> n.getValue().delete()) //
+        .build();
+
+    /**
+     * Prevents that the same network is materialized concurrently by several port objects.
+     */
+    private final Striped<Lock> m_keyLocks = Striped.lock(16);
+
+    private DLKerasMaterializedNetworkCache() {
+        // singleton
+    }
+
+    /**
+     * Returns the materialized network of the given layer graph. The network is saved to the given location, either by
+     * copying a previously cached network or by materializing the network in a new Python context.
+     */
+    DLKerasMaterializedPortObjectContent materialize(final DLKerasUnmaterializedPortObjectContent content,
+        final PythonCommand command, final DLNetworkFileStoreLocation saveLocation) throws IOException {
+        final String key;
+        try {
+            key = DLKerasNetworkGraphSerializer.computeGraphHash(content.getSpec().getOutputLayers()) + "|" + command;
+        } catch (final IOException e) {
+            LOGGER.debug("Failed to compute hash of Keras layer graph. Network will not be cached.", e);
+            return materializeInContext(content, command, saveLocation);
+        }
+        final Lock lock = m_keyLocks.get(key);
+        lock.lock();
+        try {
+            final CachedNetwork cached = m_cache.getIfPresent(key);
+            if (cached != null) {
+                try {
+                    return cached.copyTo(saveLocation);
+                } catch (final IOException | DLInvalidSourceException e) {
+                    LOGGER.debug("Failed to restore cached Keras network. Network will be rebuilt.", e);
+                    m_cache.invalidate(key);
+                }
+            }
+            final DLKerasMaterializedPortObjectContent materialized =
+                materializeInContext(content, command, saveLocation);
+            try {
+                m_cache.put(key, CachedNetwork.copyFrom(materialized.getSpec().getNetworkSpec(), saveLocation));
+            } catch (final IOException e) {
+                LOGGER.debug("Failed to cache materialized Keras network.", e);
+            }
+            return materialized;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all cached networks.
+     */
+    void clear() {
+        m_cache.invalidateAll();
+    }
+
+    private static DLKerasMaterializedPortObjectContent materializeInContext(
+        final DLKerasUnmaterializedPortObjectContent content, final PythonCommand command,
+        final DLNetworkFileStoreLocation saveLocation) throws IOException {
+        try (final DLKerasPythonContext context = new DLKerasPythonContext(command)) {
+            return content.materialize(context, saveLocation);
+        }
+    }
+
+    private static final class CachedNetwork {
+
+        private static CachedNetwork copyFrom(final DLKerasNetworkSpec spec,
+            final DLNetworkFileStoreLocation saveLocation) throws IOException {
+            final File file = FileUtil.createTempFile("dl-keras-materialized-network", null, true);
+            Files.copy(saveLocation.getFileStore().getFile().toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+            return new CachedNetwork(spec, file);
+        }
+
+        private final DLKerasNetworkSpec m_spec;
+
+        private final File m_file;
+
+        private CachedNetwork(final DLKerasNetworkSpec spec, final File file) {
+            m_spec = spec;
+            m_file = file;
+        }
+
+        private DLKerasMaterializedPortObjectContent copyTo(final DLNetworkFileStoreLocation saveLocation)
+            throws IOException, DLInvalidSourceException {
+            Files.copy(m_file.toPath(), saveLocation.getFileStore().getFile().toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+            return new DLKerasMaterializedPortObjectContent(m_spec.create(saveLocation));
+        }
+
+        private void delete() {
+            if (!m_file.delete() && m_file.exists()) {
+                LOGGER.debug("Failed to delete cached Keras network file '" + m_file + "'.");
+            }
+        }
+    }
+}
@@ -64,7 +64,6 @@
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLNetworkFileStoreLocation;
 import org.knime.dl.keras.core.DLKerasNetwork;
-import org.knime.dl.keras.core.DLKerasPythonContext;
 import org.knime.dl.keras.core.layers.DLInvalidTensorSpecException;
 import org.knime.dl.keras.core.layers.DLKerasLayer;
 import org.knime.dl.keras.core.layers.DLKerasNetworkGraphSerializer;
@@ -126,12 +125,12 @@ public DLKerasNetwork getNetwork() throws DLInvalidSourceException, IOException
     }
 
     @Override
-    public DLKerasNetwork getNetwork(final PythonCommand command) throws DLInvalidSourceException, IOException {
+    public synchronized DLKerasNetwork getNetwork(final PythonCommand command)
+        throws DLInvalidSourceException, IOException {
         if (m_content instanceof DLKerasUnmaterializedPortObjectContent) {
             final DLNetworkFileStoreLocation saveLocation = new DLNetworkFileStoreLocation(getFileStore(0));
-            try (final DLKerasPythonContext context = new DLKerasPythonContext(command)) {
-                m_content = ((DLKerasUnmaterializedPortObjectContent)m_content).materialize(context, saveLocation);
-            }
+            m_content = DLKerasMaterializedNetworkCache.getInstance()
+                .materialize((DLKerasUnmaterializedPortObjectContent)m_content, command, saveLocation);
         }
         final DLKerasMaterializedPortObjectContent materialized = (DLKerasMaterializedPortObjectContent)m_content;
         if (materialized.getNetworkSource() == null) {
@@ -179,6 +179,8 @@ public void setNetworkTrainingConfig(final DLPythonNetworkHandle handle, final D
 		.n("config.epochs = ").a(config.getEpochs()) //
 		.n("config.batch_size = ").a(config.getBatchSize()) //
 		.n("config.validation_batch_size = ").a(config.getValidationBatchSize()) //
+		.n("config.prefetch_queue_size = ").a(config.getPrefetchQueueSize()) //
+		.n("config.metrics_report_interval = ").a(config.getMetricsReportInterval()) //
 		// TODO: How to import dependencies (here: of optimizer and losses) in a generic way?
 		.n("import keras") //
 		.n("config.optimizer = ").a(config.getOptimizer().getBackendRepresentation()) //
@@ -280,6 +282,10 @@ protected boolean handleCustomMessage(final Message message, final IntSupplier r
                 handleTerminateOnNan(message);
             } else if (messageType.equals("early_stopping")) {
                 handleEarlyStopping(message);
+            } else if (messageType.equals("checkpoint")) {
+                handleCheckpoint(message);
+            } else if (messageType.equals("resume")) {
+                handleResume(message);
             } else {
                 return super.handleCustomMessage(message, responseMessageIdSupplier, responseConsumer, resultConsumer);
             }
@@ -299,5 +305,19 @@ private void handleEarlyStopping(final Message message) {
                 ((DLKerasTrainingStatus)m_status).stoppedEarly().raise(batch);
             }
         }
+
+        private void handleCheckpoint(final Message message) {
+            final int epoch = Integer.parseInt(new PayloadDecoder(message.getPayload()).getNextString());
+            if (m_status instanceof DLKerasTrainingStatus) {
+                ((DLKerasTrainingStatus)m_status).checkpointSaved().raise(epoch);
+            }
+        }
+
+        private void handleResume(final Message message) {
+            final int epoch = Integer.parseInt(new PayloadDecoder(message.getPayload()).getNextString());
+            if (m_status instanceof DLKerasTrainingStatus) {
+                ((DLKerasTrainingStatus)m_status).resumed().raise(epoch);
+            }
+        }
     }
 }
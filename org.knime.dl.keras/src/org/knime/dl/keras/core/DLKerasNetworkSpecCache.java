@@ -0,0 +1,271 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.keras.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.python.core.DLPythonFingerprints;
+
+/**
+ * Process-wide cache of the specs of Keras network files. Reading the spec of a network file requires a Python
+ * process that loads the entire network, which takes considerable time for large networks. Nodes that only need the
+ * spec of a network, e.g. while being configured, can look it up here instead.
+ * <P>
+ * Specs are keyed by a fingerprint of the network file and the back end that read it: the URI of the file, its
+ * resolved local path, size and modification time, and the network type of the back end. Modifying the file therefore
+ * invalidates the cached spec. Files that cannot be resolved to a local file are not cached. Specs are persisted in
+ * the KNIME home directory and survive restarts, at most {@link #MAX_PERSISTED_SPECS} specs are kept on disk.
+ */
+public final class DLKerasNetworkSpecCache {
+
+    /**
+     * The maximum number of specs that are kept on disk. Least recently stored specs are removed first.
+     */
+    public static final int MAX_PERSISTED_SPECS = 64;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasNetworkSpecCache.class);
+
+    private static final String CACHE_DIR_NAME = "dl-keras-network-specs";
+
+    private static final String CACHE_FILE_EXTENSION = ".spec";
+
+    /**
+     * Part of the fingerprint, must be incremented if the spec classes change in a way that alters the meaning of
+     * previously cached specs.
+     */
+    private static final int CACHE_FORMAT_VERSION = 1;
+
+    private static final DLKerasNetworkSpecCache INSTANCE = new DLKerasNetworkSpecCache();
+
+    /**
+     * @return the singleton instance
+     */
+    public static DLKerasNetworkSpecCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<String, DLKerasNetworkSpec> m_specs = new ConcurrentHashMap<>();
+
+    private DLKerasNetworkSpecCache() {
+    }
+
+    /**
+     * Computes the fingerprint of the given network file as read by the given back end.
+     *
+     * @param source the URI of the network file
+     * @param loader the back end
+     * @return the fingerprint or <code>null</code> if the network file cannot be fingerprinted (e.g. because it is a
+     *         remote file), in which case its spec must not be cached
+     */
+    public String createFingerprint(final URI source, final DLKerasNetworkLoader<?> loader) {
+        try {
+            final Path path = DLPythonFingerprints.resolveLocalFile(source);
+            if (path == null) {
+                return null;
+            }
+            final StringBuilder sb = new StringBuilder();
+            sb.append("format=").append(CACHE_FORMAT_VERSION).append('\n');
+            sb.append("backend=").append(loader.getNetworkType().getCanonicalName()).append('\n');
+            sb.append("source=").append(source).append('\n');
+            sb.append("file=").append(DLPythonFingerprints.getFileState(path)).append('\n');
+            return DLPythonFingerprints.sha256(sb.toString());
+        } catch (final Exception e) {
+            LOGGER.debug("Network file '" + source + "' could not be fingerprinted. Its spec will not be cached.", e);
+            return null;
+        }
+    }
+
+    /**
+     * @param fingerprint the fingerprint, see {@link #createFingerprint(URI, DLKerasNetworkLoader)}
+     * @return the cached spec, if any
+     */
+    public Optional<DLKerasNetworkSpec> get(final String fingerprint) {
+        DLKerasNetworkSpec spec = m_specs.get(fingerprint);
+        if (spec == null) {
+            spec = load(fingerprint);
+            if (spec != null) {
+                m_specs.put(fingerprint, spec);
+            }
+        }
+        return Optional.ofNullable(spec);
+    }
+
+    /**
+     * Caches the given spec.
+     *
+     * @param fingerprint the fingerprint, see {@link #createFingerprint(URI, DLKerasNetworkLoader)}
+     * @param spec the spec of the network file
+     */
+    public void put(final String fingerprint, final DLKerasNetworkSpec spec) {
+        m_specs.put(fingerprint, spec);
+        synchronized (this) {
+            store(fingerprint, spec);
+            prune();
+        }
+    }
+
+    /**
+     * Discards all cached specs, including the persisted ones.
+     */
+    public synchronized void clear() {
+        m_specs.clear();
+        for (final Path file : listCacheFiles()) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (final IOException e) {
+                LOGGER.debug("Cached network spec '" + file + "' could not be deleted.", e);
+            }
+        }
+    }
+
+    private static DLKerasNetworkSpec load(final String fingerprint) {
+        final Path file = getCacheFile(fingerprint);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (final InputStream in = Files.newInputStream(file);
+                final ObjectInputStream objIn = new ObjectInputStream(in)) {
+            return (DLKerasNetworkSpec)objIn.readObject();
+        } catch (final Exception e) {
+            LOGGER.debug("Cached network spec '" + file + "' could not be read. It will be discarded.", e);
+            try {
+                Files.deleteIfExists(file);
+            } catch (final IOException ex) {
+                // ignore, will be overwritten once the spec is stored again
+            }
+            return null;
+        }
+    }
+
+    private static void store(final String fingerprint, final DLKerasNetworkSpec spec) {
+        final Path file = getCacheFile(fingerprint);
+        try {
+            Files.createDirectories(file.getParent());
+            // write to a temporary file first so that concurrent readers never see a partially written spec
+            final Path tmpFile = Files.createTempFile(file.getParent(), fingerprint, ".tmp");
+            try {
+                try (final OutputStream out = Files.newOutputStream(tmpFile);
+                        final ObjectOutputStream objOut = new ObjectOutputStream(out)) {
+                    objOut.writeObject(spec);
+                }
+                try {
+                    Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (final AtomicMoveNotSupportedException e) {
+                    Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmpFile);
+            }
+        } catch (final IOException e) {
+            LOGGER.debug("Network spec could not be persisted.", e);
+        }
+    }
+
+    private static void prune() {
+        final List<Path> files = listCacheFiles();
+        if (files.size() <= MAX_PERSISTED_SPECS) {
+            return;
+        }
+        files.sort(Comparator.comparingLong(DLKerasNetworkSpecCache::getLastModified));
+        for (final Path file : files.subList(0, files.size() - MAX_PERSISTED_SPECS)) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (final IOException e) {
+                LOGGER.debug("Cached network spec '" + file + "' could not be deleted.", e);
+            }
+        }
+    }
+
+    private static List<Path> listCacheFiles() {
+        final List<Path> files = new ArrayList<>();
+        final Path dir = getCacheDir();
+        if (Files.isDirectory(dir)) {
+            try (final DirectoryStream<Path> children = Files.newDirectoryStream(dir, "*" + CACHE_FILE_EXTENSION)) {
+                for (final Path child : children) {
+                    files.add(child);
+                }
+            } catch (final IOException e) {
+                LOGGER.debug("Cached network specs could not be listed.", e);
+            }
+        }
+        return files;
+    }
+
+    private static long getLastModified(final Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (final IOException e) {
+            return 0;
+        }
+    }
+
+    private static Path getCacheDir() {
+        return new File(KNIMEConstants.getKNIMEHomeDir(), CACHE_DIR_NAME).toPath();
+    }
+
+    private static Path getCacheFile(final String fingerprint) {
+        return getCacheDir().resolve(fingerprint + CACHE_FILE_EXTENSION);
+    }
+}
@@ -78,7 +78,7 @@ public DLKerasPythonContext(final PythonCommand command, final PythonKernel kern
     }
 
     @Override
-    protected PythonCommand getPythonCommand() {
+    public PythonCommand getPythonCommand() {
         return m_command;
     }
 }
@@ -51,7 +51,11 @@
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import org.knime.dl.core.DLDefaultTensorId;
 import org.knime.dl.core.DLDefaultTensorSpec;
@@ -73,12 +77,46 @@ protected static void checkInputSpec(final boolean expression, final String mess
         }
     }
 
+    private static final AtomicLong INFERENCE_PASS_COUNTER = new AtomicLong();
+
+    private static final ThreadLocal<Long> CURRENT_INFERENCE_PASS = new ThreadLocal<>();
+
+    /**
+     * Runs the given spec inference of an entire network graph as one pass during which the memoized output specs of
+     * each layer are validated at most once. The graph must not be modified during the pass.
+     */
+    static <T> T runInferencePass(final Supplier<T> inference) {
+        if (CURRENT_INFERENCE_PASS.get() != null) {
+            return inference.get();
+        }
+        CURRENT_INFERENCE_PASS.set(INFERENCE_PASS_COUNTER.incrementAndGet());
+        try {
+            return inference.get();
+        } finally {
+            CURRENT_INFERENCE_PASS.remove();
+        }
+    }
+
     private final DLKerasTensorSpecsOutput[] m_parents;
     
     private final int[] m_indexInParents;
     
     private DLKerasDataFormat m_dataFormat;
 
+    // Memoized output specs, only re-inferred if the inputs of the inference changed, i.e. the parameters of this
+    // layer, the selected input specs or the output specs of the parents. Parents memoize their output specs as well,
+    // so appending a layer to a long chain of layers does not re-infer the specs of the entire chain.
+
+    private List<DLTensorSpec> m_outputSpecs;
+
+    private String m_outputSpecsParameters;
+
+    private List<DLTensorSpec> m_outputSpecsSelectedInputs;
+
+    private List<List<DLTensorSpec>> m_outputSpecsParentOutputs;
+
+    private long m_outputSpecsInferencePass;
+
     public DLKerasAbstractInnerLayer(final String kerasIdentifier, final int numParents) {
         super(kerasIdentifier);
         m_parents = new DLKerasTensorSpecsOutput[numParents];
@@ -133,22 +171,44 @@ public int getTensorIndexInParent(int parentIndex) {
     }
 
     @Override
-    public final List<DLTensorSpec> getOutputSpecs() throws DLInvalidTensorSpecException {
-        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs();
-        validateInputSpecs(inputSpecs.m_elementTypes, inputSpecs.m_shapes);
-        final List<Class<?>> outputElementTypes = inferOutputElementTypes(inputSpecs.m_elementTypes);
-        final List<Long[]> outputShapes = inferOutputShapes(inputSpecs.m_shapes);
-        final List<DLTensorSpec> outputSpecs = new ArrayList<>(outputShapes.size());
-        for (int i = 0; i < outputShapes.size(); i++) {
-            outputSpecs.add(DLDefaultTensorSpec.create(new DLDefaultTensorId("dummy"), "dummy", inputSpecs.m_batchSize,
-                outputShapes.get(i), outputElementTypes.get(i), inputSpecs.m_dimensionOrder));
+    public final synchronized List<DLTensorSpec> getOutputSpecs() throws DLInvalidTensorSpecException {
+        final Long inferencePass = CURRENT_INFERENCE_PASS.get();
+        if (m_outputSpecs != null && inferencePass != null && inferencePass == m_outputSpecsInferencePass) {
+            return m_outputSpecs;
+        }
+        final List<List<DLTensorSpec>> parentOutputs = collectParentOutputSpecs();
+        final List<DLTensorSpec> selectedInputs = new ArrayList<>(m_parents.length);
+        for (int i = 0; i < m_parents.length; i++) {
+            selectedInputs.add(getInputTensorSpec(i));
         }
-        return outputSpecs;
+        // also determines the data format which may be part of the parameters
+        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs(parentOutputs);
+        final String parameters = getBackendRepresentation(null);
+        if (m_outputSpecs == null || !parameters.equals(m_outputSpecsParameters)
+            || !selectedInputs.equals(m_outputSpecsSelectedInputs)
+            || !equalParentOutputSpecs(parentOutputs, m_outputSpecsParentOutputs)) {
+            m_outputSpecs = null;
+            validateInputSpecs(inputSpecs.m_elementTypes, inputSpecs.m_shapes);
+            final List<Class<?>> outputElementTypes = inferOutputElementTypes(inputSpecs.m_elementTypes);
+            final List<Long[]> outputShapes = inferOutputShapes(inputSpecs.m_shapes);
+            final List<DLTensorSpec> outputSpecs = new ArrayList<>(outputShapes.size());
+            for (int i = 0; i < outputShapes.size(); i++) {
+                outputSpecs.add(DLDefaultTensorSpec.create(new DLDefaultTensorId("dummy"), "dummy",
+                    inputSpecs.m_batchSize, outputShapes.get(i), outputElementTypes.get(i),
+                    inputSpecs.m_dimensionOrder));
+            }
+            m_outputSpecs = Collections.unmodifiableList(outputSpecs);
+            m_outputSpecsParameters = parameters;
+            m_outputSpecsSelectedInputs = selectedInputs;
+            m_outputSpecsParentOutputs = parentOutputs;
+        }
+        m_outputSpecsInferencePass = inferencePass != null ? inferencePass : 0;
+        return m_outputSpecs;
     }
 
     @Override
     public final void validateInputSpecs() throws DLInvalidTensorSpecException {
-        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs();
+        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs(collectParentOutputSpecs());
         validateInputSpecs(inputSpecs.m_elementTypes, inputSpecs.m_shapes);
     }
 
@@ -175,7 +235,31 @@ public boolean equalsIgnoreName(final DLKerasTensorSpecsOutput other) {
         return true;
     }
 
-    private DLInputSpecsHelperStruct collectInputSpecs() throws DLInvalidTensorSpecException {
+    private List<List<DLTensorSpec>> collectParentOutputSpecs() throws DLInvalidTensorSpecException {
+        final List<List<DLTensorSpec>> parentOutputs = new ArrayList<>(m_parents.length);
+        for (final DLKerasTensorSpecsOutput parent : m_parents) {
+            parentOutputs.add(parent != null ? parent.getOutputSpecs() : null);
+        }
+        return parentOutputs;
+    }
+
+    private static boolean equalParentOutputSpecs(final List<List<DLTensorSpec>> parentOutputs,
+        final List<List<DLTensorSpec>> otherParentOutputs) {
+        if (otherParentOutputs == null || parentOutputs.size() != otherParentOutputs.size()) {
+            return false;
+        }
+        for (int i = 0; i < parentOutputs.size(); i++) {
+            // memoized specs of unchanged parents are identical, fall back to equality for all other parents
+            if (parentOutputs.get(i) != otherParentOutputs.get(i)
+                && !Objects.equals(parentOutputs.get(i), otherParentOutputs.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private DLInputSpecsHelperStruct collectInputSpecs(final List<List<DLTensorSpec>> parentOutputs)
+        throws DLInvalidTensorSpecException {
         Long inputBatchSize = null;
         final List<Long[]> inputShapes = new ArrayList<>(m_parents.length);
         final List<Class<?>> inputElementTypes = new ArrayList<>(m_parents.length);
@@ -184,7 +268,7 @@ private DLInputSpecsHelperStruct collectInputSpecs() throws DLInvalidTensorSpecE
             DLKerasTensorSpecsOutput parent = m_parents[i];
             DLTensorSpec selected = getInputTensorSpec(i);
             if (parent != null) {
-                final List<DLTensorSpec> parentOutputSpecs = parent.getOutputSpecs();
+                final List<DLTensorSpec> parentOutputSpecs = parentOutputs.get(i);
                 DLTensorSpec parentOutputSpec =
                     parentOutputSpecs.contains(selected) ? selected : parentOutputSpecs.get(0);
                 if (parentOutputSpec.getBatchSize().isPresent()) {
@@ -46,10 +46,17 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.security.DigestOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -78,6 +85,12 @@
 import org.knime.dl.keras.core.struct.nodesettings.NodeSettingsStructs;
 import org.knime.dl.keras.core.struct.param.ParameterStructs;
 import org.knime.dl.keras.core.struct.param.ValidityException;
+import org.knime.dl.python.core.DLPythonFingerprints;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
 
 import gnu.trove.TIntArrayList;
 
@@ -99,6 +112,8 @@ public final class DLKerasNetworkGraphSerializer {
 
     private static final String CFG_KEY_LAYER_RUNTIME_ID = "runtime_id";
 
+    private static final String CFG_KEY_LAYER_CONTENT_HASH = "content_hash";
+
     private static final String CFG_KEY_PARENT_INDEX = "parent_index";
 
     private static final String CFG_KEY_INDEX_IN_PARENT = "index_in_parent";
@@ -109,6 +124,19 @@ public final class DLKerasNetworkGraphSerializer {
 
     private static final String CFG_KEY_OUTPUT_LAYERS = "output_layers";
 
+    private static final String CFG_KEY_BASE_NETWORK_SOURCE_SIZE = "source_size";
+
+    private static final String CFG_KEY_BASE_NETWORK_SOURCE_MODIFIED = "source_modified";
+
+    /**
+     * Layers read by {@link #readGraphFrom(ObjectInputStream, Consumer)}, keyed by their content hash. Each port object
+     * of a chain of layer nodes contains the entire upstream graph, reading the graphs of all port objects therefore
+     * re-uses the layers of the upstream port objects instead of re-creating them. The hash of a layer covers its
+     * parameters, its runtime id and the hashes of its parents, which makes sharing it with other graphs safe. Layers
+     * that build on base networks are never shared because their base network sources are amended per port object.
+     */
+    private static final Cache<String, DLKerasLayer> READ_LAYERS = CacheBuilder.newBuilder().weakValues().build();
+
     private DLKerasNetworkGraphSerializer() {
     }
 
@@ -159,97 +187,197 @@ public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput base
      */
     public static Map<Integer, DLKerasBaseNetworkTensorSpecOutput> writeGraphTo(final List<DLKerasLayer> outputLayers,
         final ObjectOutputStream objOut) throws IOException {
-        final NodeSettings graphSettings = new NodeSettings(CFG_KEY_GRAPH);
-        final AtomicInteger layerIndexCounter = new AtomicInteger();
-        final Map<DLKerasTensorSpecsOutput, Integer> layerIndices = new HashMap<>();
         try {
-            final TIntArrayList outputLayerIndices = new TIntArrayList(outputLayers.size());
             // Collects all base network specs. We have to serialize them outside the node settings.
             final LinkedHashMap<Integer, DLKerasNetworkSpec> baseNetworkSpecs = new LinkedHashMap<>(2);
             // Collects all the base networks whose network location cannot be simply (de)serialized.
             final LinkedHashMap<Integer, DLKerasBaseNetworkTensorSpecOutput> nonReferenceBaseNetworkLayers =
                 new LinkedHashMap<>(2);
-            new DLKerasNetworkGraphTopologicalOrderIterator(outputLayers).visitAll(new DLKerasLayerVisitor() {
+            final NodeSettings graphSettings =
+                createGraphSettings(outputLayers, true, baseNetworkSpecs, nonReferenceBaseNetworkLayers);
+            // Write to stream.
+            objOut.writeInt(baseNetworkSpecs.size());
+            for (final Entry<Integer, DLKerasNetworkSpec> entry : baseNetworkSpecs.entrySet()) {
+                objOut.writeInt(entry.getKey());
+                objOut.writeObject(entry.getValue());
+            }
+            objOut.writeObject(graphSettings);
+            return nonReferenceBaseNetworkLayers;
+        } catch (final Exception e) {
+            throw new IOException("An exception occurred while saving the Keras layer graph. See log for details.", e);
+        }
+    }
 
-                @Override
-                public void visitOutput(final DLKerasInnerLayer outputLayer) throws Exception {
-                    visitHidden(outputLayer);
-                    outputLayerIndices.add(layerIndices.get(outputLayer));
+    /**
+     * Computes a content hash of the Keras network graph specified by the given output layers and their inputs (i.e.
+     * predecessor nodes). Graphs that consist of the same layers with the same parameters, are connected in the same
+     * way and build on the same base networks have the same hash. In contrast to {@link #writeGraphTo(List,
+     * ObjectOutputStream)}, the runtime ids of the layers are not taken into account as they change whenever a layer
+     * node is reset.
+     *
+     * @param outputLayers the output layers of the network to hash
+     * @return the hash as hexadecimal string
+     * @throws IOException if failed to hash the network graph, e.g. because the source of a base network cannot be
+     *             resolved to a local file
+     * @since 4.5
+     */
+    public static String computeGraphHash(final List<DLKerasLayer> outputLayers) throws IOException {
+        try {
+            final LinkedHashMap<Integer, DLKerasNetworkSpec> baseNetworkSpecs = new LinkedHashMap<>(2);
+            final LinkedHashMap<Integer, DLKerasBaseNetworkTensorSpecOutput> nonReferenceBaseNetworkLayers =
+                new LinkedHashMap<>(2);
+            final NodeSettings graphSettings =
+                createGraphSettings(outputLayers, false, baseNetworkSpecs, nonReferenceBaseNetworkLayers);
+            // Base networks are identified by their sources. Reference locations are part of the settings, file store
+            // locations are added here. File stores are immutable once written, file modification times guard against
+            // overwritten reference files.
+            for (final Entry<Integer, DLKerasNetworkSpec> entry : baseNetworkSpecs.entrySet()) {
+                final NodeSettings layerSettings = graphSettings.getNodeSettings(Integer.toString(entry.getKey()));
+                final DLKerasBaseNetworkTensorSpecOutput nonReferenceLayer =
+                    nonReferenceBaseNetworkLayers.get(entry.getKey());
+                final URI source;
+                if (nonReferenceLayer != null) {
+                    source = nonReferenceLayer.getBaseNetworkSource().getURI();
+                    layerSettings.addString(CFG_KEY_BASE_NETWORK_SOURCE, source.toString());
+                } else {
+                    source = new URI(layerSettings.getString(CFG_KEY_BASE_NETWORK_SOURCE));
                 }
-
-                @Override
-                public void visitHidden(final DLKerasInnerLayer innerLayer) throws Exception {
-                    final NodeSettingsWO layerSettings = saveLayer(innerLayer);
-                    final NodeSettingsWO parentSettings = layerSettings.addNodeSettings(CFG_KEY_LAYER_PARENTS);
-                    for (int i = 0; i < innerLayer.getNumParents(); i++) {
-                        final DLKerasTensorSpecsOutput parent = innerLayer.getParent(i);
-                        NodeSettingsWO parentSetting = parentSettings.addNodeSettings(Integer.toString(i));
-                        parentSetting.addInt(CFG_KEY_PARENT_INDEX, layerIndices.get(parent));
-                        parentSetting.addInt(CFG_KEY_INDEX_IN_PARENT, innerLayer.getTensorIndexInParent(i));
-                    }
+                final Path file = DLPythonFingerprints.resolveLocalFile(source);
+                if (file == null) {
+                    throw new IOException("Base network source '" + source
+                        + "' cannot be resolved to a local file. Its state cannot be part of the hash.");
                 }
+                layerSettings.addLong(CFG_KEY_BASE_NETWORK_SOURCE_SIZE, Files.size(file));
+                layerSettings.addLong(CFG_KEY_BASE_NETWORK_SOURCE_MODIFIED, Files.getLastModifiedTime(file).toMillis());
+            }
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (final OutputStream out = new DigestOutputStream(ByteStreams.nullOutputStream(), digest)) {
+                graphSettings.saveToXML(out);
+            }
+            return BaseEncoding.base16().lowerCase().encode(digest.digest());
+        } catch (final Exception e) {
+            throw new IOException("An exception occurred while hashing the Keras layer graph. See log for details.", e);
+        }
+    }
 
-                @Override
-                public void visitInput(final DLKerasInputLayer inputLayer) throws Exception {
-                    saveLayer(inputLayer);
+    private static NodeSettings createGraphSettings(final List<DLKerasLayer> outputLayers,
+        final boolean saveRuntimeIds, final Map<Integer, DLKerasNetworkSpec> baseNetworkSpecs,
+        final Map<Integer, DLKerasBaseNetworkTensorSpecOutput> nonReferenceBaseNetworkLayers) throws Exception {
+        final NodeSettings graphSettings = new NodeSettings(CFG_KEY_GRAPH);
+        final AtomicInteger layerIndexCounter = new AtomicInteger();
+        final Map<DLKerasTensorSpecsOutput, Integer> layerIndices = new HashMap<>();
+        final TIntArrayList outputLayerIndices = new TIntArrayList(outputLayers.size());
+        // content hashes of the layers that may be shared between graphs upon reading, see READ_LAYERS
+        final Map<DLKerasTensorSpecsOutput, String> layerHashes = new HashMap<>();
+        new DLKerasNetworkGraphTopologicalOrderIterator(outputLayers).visitAll(new DLKerasLayerVisitor() {
+
+            @Override
+            public void visitOutput(final DLKerasInnerLayer outputLayer) throws Exception {
+                visitHidden(outputLayer);
+                outputLayerIndices.add(layerIndices.get(outputLayer));
+            }
+
+            @Override
+            public void visitHidden(final DLKerasInnerLayer innerLayer) throws Exception {
+                final NodeSettingsWO layerSettings = saveLayer(innerLayer);
+                final NodeSettingsWO parentSettings = layerSettings.addNodeSettings(CFG_KEY_LAYER_PARENTS);
+                for (int i = 0; i < innerLayer.getNumParents(); i++) {
+                    final DLKerasTensorSpecsOutput parent = innerLayer.getParent(i);
+                    NodeSettingsWO parentSetting = parentSettings.addNodeSettings(Integer.toString(i));
+                    parentSetting.addInt(CFG_KEY_PARENT_INDEX, layerIndices.get(parent));
+                    parentSetting.addInt(CFG_KEY_INDEX_IN_PARENT, innerLayer.getTensorIndexInParent(i));
+                }
+                if (saveRuntimeIds) {
+                    saveContentHash(innerLayer, layerSettings);
                 }
+            }
 
-                @Override
-                public void visitInputOutput(final DLKerasInputLayer inputOutputLayer) throws Exception {
-                    saveLayer(inputOutputLayer);
-                    outputLayerIndices.add(layerIndices.get(inputOutputLayer));
+            @Override
+            public void visitInput(final DLKerasInputLayer inputLayer) throws Exception {
+                final NodeSettingsWO layerSettings = saveLayer(inputLayer);
+                if (saveRuntimeIds) {
+                    saveContentHash(inputLayer, layerSettings);
                 }
+            }
 
-                @Override
-                public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput) {
-                    final NodeSettingsWO layerSettings = createLayerSettings(baseNetworkOutput);
-                    final int layerIndex = layerIndices.get(baseNetworkOutput);
-                    layerSettings.addInt(CFG_KEY_BASE_NETWORK_OUTPUT_INDEX,
-                        baseNetworkOutput.getBaseNetworkOutputIndex());
-                    final DLNetworkLocation baseNetworkSource = baseNetworkOutput.getBaseNetworkSource();
-                    if (baseNetworkSource instanceof DLNetworkReferenceLocation) {
-                        layerSettings.addString(CFG_KEY_BASE_NETWORK_SOURCE, baseNetworkSource.getURI().toString());
-                    } else {
-                        nonReferenceBaseNetworkLayers.put(layerIndex, baseNetworkOutput);
-                    }
-                    baseNetworkSpecs.put(layerIndex, baseNetworkOutput.getBaseNetworkSpec());
+            @Override
+            public void visitInputOutput(final DLKerasInputLayer inputOutputLayer) throws Exception {
+                visitInput(inputOutputLayer);
+                outputLayerIndices.add(layerIndices.get(inputOutputLayer));
+            }
+
+            @Override
+            public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput) {
+                final NodeSettingsWO layerSettings = createLayerSettings(baseNetworkOutput);
+                final int layerIndex = layerIndices.get(baseNetworkOutput);
+                layerSettings.addInt(CFG_KEY_BASE_NETWORK_OUTPUT_INDEX,
+                    baseNetworkOutput.getBaseNetworkOutputIndex());
+                final DLNetworkLocation baseNetworkSource = baseNetworkOutput.getBaseNetworkSource();
+                if (baseNetworkSource instanceof DLNetworkReferenceLocation) {
+                    layerSettings.addString(CFG_KEY_BASE_NETWORK_SOURCE, baseNetworkSource.getURI().toString());
+                } else {
+                    nonReferenceBaseNetworkLayers.put(layerIndex, baseNetworkOutput);
                 }
+                baseNetworkSpecs.put(layerIndex, baseNetworkOutput.getBaseNetworkSpec());
+            }
 
-                private NodeSettingsWO saveLayer(final DLKerasLayer layer)
-                    throws ValidityException, InvalidSettingsException {
-                    final NodeSettingsWO layerSettings = createLayerSettings(layer);
-                    // TODO: Avoid redundant creation of layer struct (not instance), should be cached somewhere.
-                    final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
-                        ParameterStructs.createInstance(layer);
-                    final StructInstance<MemberWriteInstance<?>, ?> settingsInstance =
-                        NodeSettingsStructs.createNodeSettingsInstance(
-                            layerSettings.addNodeSettings(CFG_KEY_LAYER_PARAMS), layerInstance.struct());
-                    Structs.shallowCopyUnsafe(layerInstance, settingsInstance);
+            private NodeSettingsWO saveLayer(final DLKerasLayer layer)
+                throws ValidityException, InvalidSettingsException {
+                final NodeSettingsWO layerSettings = createLayerSettings(layer);
+                // TODO: Avoid redundant creation of layer struct (not instance), should be cached somewhere.
+                final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
+                    ParameterStructs.createInstance(layer);
+                final StructInstance<MemberWriteInstance<?>, ?> settingsInstance =
+                    NodeSettingsStructs.createNodeSettingsInstance(
+                        layerSettings.addNodeSettings(CFG_KEY_LAYER_PARAMS), layerInstance.struct());
+                Structs.shallowCopyUnsafe(layerInstance, settingsInstance);
+                if (saveRuntimeIds) {
                     layerSettings.addString(CFG_KEY_LAYER_RUNTIME_ID, layer.getRuntimeId());
-                    return layerSettings;
                 }
+                return layerSettings;
+            }
 
-                private NodeSettingsWO createLayerSettings(final DLKerasTensorSpecsOutput layer) {
-                    assert !layerIndices.containsKey(layer);
-                    final int layerIndex = layerIndexCounter.getAndIncrement();
-                    layerIndices.put(layer, layerIndex);
-                    final NodeSettingsWO layerSettings = graphSettings.addNodeSettings(Integer.toString(layerIndex));
-                    layerSettings.addString(CFG_KEY_LAYER_CLASS, layer.getClass().getCanonicalName());
-                    return layerSettings;
+            private void saveContentHash(final DLKerasLayer layer, final NodeSettingsWO layerSettings)
+                throws Exception {
+                if (layer.getRuntimeId() == null) {
+                    // cannot be told apart from other layers with the same parameters
+                    return;
                 }
-            });
-            graphSettings.addIntArray(CFG_KEY_OUTPUT_LAYERS, outputLayerIndices.toNativeArray());
-            // Write to stream.
-            objOut.writeInt(baseNetworkSpecs.size());
-            for (final Entry<Integer, DLKerasNetworkSpec> entry : baseNetworkSpecs.entrySet()) {
-                objOut.writeInt(entry.getKey());
-                objOut.writeObject(entry.getValue());
+                final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                // parent indices are local to this graph, parents are identified by their content hashes instead
+                digest.update(layer.getClass().getCanonicalName().getBytes(StandardCharsets.UTF_8));
+                digest.update(layer.getRuntimeId().getBytes(StandardCharsets.UTF_8));
+                if (layer instanceof DLKerasInnerLayer) {
+                    final DLKerasInnerLayer innerLayer = (DLKerasInnerLayer)layer;
+                    for (int i = 0; i < innerLayer.getNumParents(); i++) {
+                        final String parentHash = layerHashes.get(innerLayer.getParent(i));
+                        if (parentHash == null) {
+                            // builds on a base network
+                            return;
+                        }
+                        digest.update((parentHash + ':' + innerLayer.getTensorIndexInParent(i))
+                            .getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+                try (final OutputStream out = new DigestOutputStream(ByteStreams.nullOutputStream(), digest)) {
+                    ((NodeSettings)layerSettings).getNodeSettings(CFG_KEY_LAYER_PARAMS).saveToXML(out);
+                }
+                final String hash = BaseEncoding.base16().lowerCase().encode(digest.digest());
+                layerHashes.put(layer, hash);
+                layerSettings.addString(CFG_KEY_LAYER_CONTENT_HASH, hash);
             }
-            objOut.writeObject(graphSettings);
-            return nonReferenceBaseNetworkLayers;
-        } catch (final Exception e) {
-            throw new IOException("An exception occurred while saving the Keras layer graph. See log for details.", e);
-        }
+
+            private NodeSettingsWO createLayerSettings(final DLKerasTensorSpecsOutput layer) {
+                assert !layerIndices.containsKey(layer);
+                final int layerIndex = layerIndexCounter.getAndIncrement();
+                layerIndices.put(layer, layerIndex);
+                final NodeSettingsWO layerSettings = graphSettings.addNodeSettings(Integer.toString(layerIndex));
+                layerSettings.addString(CFG_KEY_LAYER_CLASS, layer.getClass().getCanonicalName());
+                return layerSettings;
+            }
+        });
+        graphSettings.addIntArray(CFG_KEY_OUTPUT_LAYERS, outputLayerIndices.toNativeArray());
+        return graphSettings;
     }
 
     /**
@@ -288,7 +416,12 @@ public static List<DLKerasLayer> readGraphFrom(final ObjectInputStream objIn,
                 final NodeSettings layerSettings = graphSettings.getNodeSettings(Integer.toString(i));
                 final Class<?> layerClass = Class.forName(layerSettings.getString(CFG_KEY_LAYER_CLASS));
                 final DLKerasTensorSpecsOutput layer;
-                if (DLKerasLayer.class.isAssignableFrom(layerClass)) {
+                final String contentHash = layerSettings.getString(CFG_KEY_LAYER_CONTENT_HASH, null);
+                final DLKerasLayer readLayer = contentHash != null ? READ_LAYERS.getIfPresent(contentHash) : null;
+                if (readLayer != null && readLayer.getClass() == layerClass) {
+                    // Already read as part of another graph, including all of its predecessors.
+                    layer = readLayer;
+                } else if (DLKerasLayer.class.isAssignableFrom(layerClass)) {
                     // Ordinary layers must expose a public nullary constructor.
                     layer = (DLKerasTensorSpecsOutput)layerClass.newInstance();
                     final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
@@ -303,6 +436,9 @@ public static List<DLKerasLayer> readGraphFrom(final ObjectInputStream objIn,
                         loadParentSettings(loadedLayers, innerLayer, parentSettings);
                     }
                     ((DLKerasLayer)layer).setRuntimeId(layerSettings.getString(CFG_KEY_LAYER_RUNTIME_ID));
+                    if (contentHash != null) {
+                        READ_LAYERS.put(contentHash, (DLKerasLayer)layer);
+                    }
                 } else if (DLKerasBaseNetworkTensorSpecOutput.class.isAssignableFrom(layerClass)) {
                     final DLKerasNetworkSpec spec = baseNetworkSpecs.get(i);
                     final int outputIndex = layerSettings.getInt(CFG_KEY_BASE_NETWORK_OUTPUT_INDEX);
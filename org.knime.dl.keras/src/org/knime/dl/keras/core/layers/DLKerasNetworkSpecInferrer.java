@@ -108,6 +108,12 @@ public DLKerasNetworkSpec inferNetworkSpec() {
         if (m_inferredSpec != null) {
             return m_inferredSpec;
         }
+        // layers memoize their output specs, validate them only once per inference to keep it linear in the number
+        // of layers
+        return DLKerasAbstractInnerLayer.runInferencePass(this::inferNetworkSpecInternal);
+    }
+
+    private DLKerasNetworkSpec inferNetworkSpecInternal() {
 
         final List<Function<DLKerasNetworkLayerNameGenerator, List<DLTensorSpec>>> inputSpecsToInfer =
             new ArrayList<>(5);
@@ -142,8 +142,12 @@ public DLKerasNetworkPortObjectBase getTrainedNetwork(final ExecutionContext exe
 		if (!fileStore.getFile().exists()) {
 			throw new IllegalStateException("Failed to save trained Keras deep learning network.");
 		}
-        return new DLKerasNetworkPortObject(
-            loader.fetch(m_handle, new DLNetworkFileStoreLocation(fileStore), m_commands.getContext(cancelable), cancelable));
+        final DLNetworkFileStoreLocation location = new DLNetworkFileStoreLocation(fileStore);
+        final DLKerasNetwork trainedNetwork =
+            loader.fetch(m_handle, location, m_commands.getContext(cancelable), cancelable);
+        // The network is completely saved at this point, downstream executors may take over the kernel.
+        handOffKernel(location);
+        return new DLKerasNetworkPortObject(trainedNetwork);
 	}
 
     @Override
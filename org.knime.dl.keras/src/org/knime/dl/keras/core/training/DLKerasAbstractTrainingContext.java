@@ -55,6 +55,7 @@
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.keras.core.DLKerasNetwork;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasEarlyStopping;
+import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasModelCheckpoint;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasReduceLROnPlateau;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasTerminateOnNaN;
 import org.knime.dl.keras.core.training.DLKerasLossFunction.DLKerasBinaryCrossEntropy;
@@ -175,7 +176,8 @@ public Collection<DLKerasCallback> createCallbacks() {
 		return Arrays.asList( //
 				new DLKerasTerminateOnNaN(), //
 				new DLKerasEarlyStopping(), //
-				new DLKerasReduceLROnPlateau());
+				new DLKerasReduceLROnPlateau(), //
+				new DLKerasModelCheckpoint());
 	}
 
 	@Override
@@ -223,6 +223,77 @@ public void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec
 		}
 	}
 
+	/**
+	 * Periodically saves the training state (weights, optimizer state, number of completed epochs, random states and
+	 * metric history) to a directory such that a later training run can resume from it.
+	 *
+	 * @since 4.5
+	 */
+	public static class DLKerasModelCheckpoint extends DLKerasAbstractCallback {
+
+		static final String CFG_KEY = "model_checkpoint";
+
+		static final String CFG_KEY_DIRECTORY = "directory";
+
+		static final String CFG_KEY_PERIOD = "period";
+
+		static final String CFG_KEY_INTERVAL = "interval";
+
+		static final String CFG_KEY_RESUME = "resume";
+
+		public DLKerasModelCheckpoint() {
+			super(CFG_KEY, "Save training checkpoints", "DLKerasTrainingCallbacks.DLKerasModelCheckpoint");
+			setEntryValue(CFG_KEY_DIRECTORY, String.class, "");
+			setEntryValue(CFG_KEY_PERIOD, Integer.class, 1);
+			setEntryValue(CFG_KEY_INTERVAL, Integer.class, 0);
+			setEntryValue(CFG_KEY_RESUME, Boolean.class, false);
+		}
+
+		/**
+		 * @return the directory to which checkpoints are written
+		 */
+		public String getDirectory() {
+			return getEntryValue(CFG_KEY_DIRECTORY, String.class);
+		}
+
+		/**
+		 * @return <code>true</code> if training resumes from the latest checkpoint in the {@link #getDirectory()
+		 *         directory}, if any
+		 */
+		public boolean isResume() {
+			return getEntryValue(CFG_KEY_RESUME, Boolean.class);
+		}
+
+		@Override
+		protected void populateNamedParameters(final Map<String, String> namedParams) {
+			namedParams.put("directory", DLPythonUtils.toPythonRawString(getDirectory()));
+			namedParams.put("period", DLPythonUtils.toPython(getEntryValue(CFG_KEY_PERIOD, Integer.class)));
+			namedParams.put("interval", DLPythonUtils.toPython(getEntryValue(CFG_KEY_INTERVAL, Integer.class)));
+			namedParams.put("resume", DLPythonUtils.toPython(isResume()));
+		}
+
+		@Override
+		protected IDialogComponentGroup getParameterDialogGroupInternal() {
+			return new DLKerasModelCheckpointDialog(this);
+		}
+
+		private static class DLKerasModelCheckpointDialog extends AbstractGridBagDialogComponentGroup {
+
+			private DLKerasModelCheckpointDialog(final DLKerasModelCheckpoint model) {
+				addStringEditRowComponent(ConfigUtil.toSettingsModelString(model.get(CFG_KEY_DIRECTORY, String.class)),
+						"Checkpoint directory");
+				addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+						model.get(CFG_KEY_PERIOD, Integer.class), 0, Integer.MAX_VALUE),
+						"Every n epochs (0 = never)", 1);
+				addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+						model.get(CFG_KEY_INTERVAL, Integer.class), 0, Integer.MAX_VALUE),
+						"Every n minutes (0 = never)", 1);
+				addCheckboxRow(ConfigUtil.toSettingsModelBoolean(model.get(CFG_KEY_RESUME, Boolean.class)),
+						"Resume from latest checkpoint", true);
+			}
+		}
+	}
+
 	public static class DLKerasReduceLROnPlateau extends DLKerasAbstractCallback {
 
 		static final String CFG_KEY = "reduce_lr_on_plateau";
@@ -66,6 +66,8 @@ public class DLKerasDefaultTrainingConfig implements DLKerasTrainingConfig {
 	private final DLKerasOptimizer m_optimizer;
 	private final Map<DLTensorId, DLKerasLossFunction> m_losses;
 	private final Collection<DLKerasCallback> m_callbacks;
+	private final int m_prefetchQueueSize;
+	private final int m_metricsReportInterval;
 
 	/**
 	 * @param epochs the number of times to iterate over the training data before training is finished. Note that the
@@ -81,6 +83,48 @@ public class DLKerasDefaultTrainingConfig implements DLKerasTrainingConfig {
 	public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final Integer validationBatchSize,
 			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
 			final Collection<DLKerasCallback> callbacks) {
+		this(epochs, batchSize, validationBatchSize, optimizer, losses, callbacks, 0);
+	}
+
+	/**
+	 * @param epochs the number of times to iterate over the training data before training is finished. Note that the
+	 *            actual number of executed epochs can be smaller in case of early stopping.
+	 * @param batchSize the number of training samples to use for a single training step
+	 * @param validationBatchSize may be null in which case the validation batch size defaults the to batch size. This
+	 *            value only matters if performing model evaluation during training.
+	 * @param optimizer the optimizer that is used for model updating
+	 * @param losses a mapping of network outputs to loss functions. There must be a mapping for each of the outputs of
+	 *            the network that will be trained.
+	 * @param callbacks may be null or empty in which case it defaults to an empty list
+	 * @param prefetchQueueSize the number of training batches that are prepared ahead of time, see
+	 *            {@link #getPrefetchQueueSize()}
+	 * @since 4.5
+	 */
+	public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final Integer validationBatchSize,
+			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
+			final Collection<DLKerasCallback> callbacks, final int prefetchQueueSize) {
+		this(epochs, batchSize, validationBatchSize, optimizer, losses, callbacks, prefetchQueueSize, 0);
+	}
+
+	/**
+	 * @param epochs the number of times to iterate over the training data before training is finished. Note that the
+	 *            actual number of executed epochs can be smaller in case of early stopping.
+	 * @param batchSize the number of training samples to use for a single training step
+	 * @param validationBatchSize may be null in which case the validation batch size defaults the to batch size. This
+	 *            value only matters if performing model evaluation during training.
+	 * @param optimizer the optimizer that is used for model updating
+	 * @param losses a mapping of network outputs to loss functions. There must be a mapping for each of the outputs of
+	 *            the network that will be trained.
+	 * @param callbacks may be null or empty in which case it defaults to an empty list
+	 * @param prefetchQueueSize the number of training batches that are prepared ahead of time, see
+	 *            {@link #getPrefetchQueueSize()}
+	 * @param metricsReportInterval the minimum time in milliseconds between two reports of batch metrics, see
+	 *            {@link #getMetricsReportInterval()}
+	 * @since 4.5
+	 */
+	public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final Integer validationBatchSize,
+			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
+			final Collection<DLKerasCallback> callbacks, final int prefetchQueueSize, final int metricsReportInterval) {
 		m_epochs = epochs;
 		m_batchSize = batchSize;
 		m_validationBatchSize = validationBatchSize != null ? validationBatchSize : batchSize;
@@ -88,6 +132,8 @@ public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final
 		m_losses = Collections.unmodifiableMap(new HashMap<>(losses));
 		m_callbacks = callbacks != null ? Collections.unmodifiableCollection(new ArrayList<>(callbacks))
 				: Collections.emptyList();
+		m_prefetchQueueSize = prefetchQueueSize;
+		m_metricsReportInterval = metricsReportInterval;
 	}
 
 	@Override
@@ -119,4 +165,14 @@ public Map<DLTensorId, DLKerasLossFunction> getLosses() {
 	public Collection<DLKerasCallback> getCallbacks() {
 		return m_callbacks;
 	}
+
+	@Override
+	public int getPrefetchQueueSize() {
+		return m_prefetchQueueSize;
+	}
+
+	@Override
+	public int getMetricsReportInterval() {
+		return m_metricsReportInterval;
+	}
 }
@@ -68,10 +68,16 @@ public final class DLKerasDefaultTrainingStatus extends DLPythonAbstractTraining
 
 	private final DLEvent<Long> m_terminatedOnNaNLoss = new DLDefaultEvent<>();
 
+	private final DLEvent<Integer> m_checkpointSaved = new DLDefaultEvent<>();
+
+	private final DLEvent<Integer> m_resumed = new DLDefaultEvent<>();
+
 	public DLKerasDefaultTrainingStatus(final int numEpochs, final int numBatchesPerEpoch) {
 		super(numEpochs, numBatchesPerEpoch);
 		m_stoppedEarly.addListener((src, epoch) -> setStatus(Status.STOPPED_EARLY));
 		m_terminatedOnNaNLoss.addListener((src, batch) -> setStatus(Status.STOPPED_EARLY));
+		// the next started epoch is the first one after the checkpoint
+		m_resumed.addListener((src, epoch) -> setCurrentEpoch(epoch - 1));
 	}
 
 	/**
@@ -80,6 +86,7 @@ public DLKerasDefaultTrainingStatus(final int numEpochs, final int numBatchesPer
 	public DLKerasDefaultTrainingStatus() {
 		m_stoppedEarly.addListener((src, epoch) -> setStatus(Status.STOPPED_EARLY));
 		m_terminatedOnNaNLoss.addListener((src, batch) -> setStatus(Status.STOPPED_EARLY));
+		m_resumed.addListener((src, epoch) -> setCurrentEpoch(epoch - 1));
 	}
 
 	@Override
@@ -131,4 +138,14 @@ public DLEvent<Integer> stoppedEarly() {
 	public DLEvent<Long> terminatedOnNaNLoss() {
 		return m_terminatedOnNaNLoss;
 	}
+
+	@Override
+	public DLEvent<Integer> checkpointSaved() {
+		return m_checkpointSaved;
+	}
+
+	@Override
+	public DLEvent<Integer> resumed() {
+		return m_resumed;
+	}
 }
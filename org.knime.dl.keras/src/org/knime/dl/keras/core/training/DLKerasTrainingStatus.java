@@ -60,4 +60,19 @@ public interface DLKerasTrainingStatus extends DLPythonTrainingStatus {
 	DLEvent<Integer> stoppedEarly();
 
 	DLEvent<Long> terminatedOnNaNLoss();
+
+	/**
+	 * Raised after a training checkpoint was taken. The payload is the number of epochs completed at that point.
+	 *
+	 * @since 4.5
+	 */
+	DLEvent<Integer> checkpointSaved();
+
+	/**
+	 * Raised before training resumes from a checkpoint. The payload is the number of epochs completed at the time of
+	 * the checkpoint.
+	 *
+	 * @since 4.5
+	 */
+	DLEvent<Integer> resumed();
 }
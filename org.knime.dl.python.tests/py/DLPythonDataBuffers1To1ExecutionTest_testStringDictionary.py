@@ -0,0 +1,10 @@
+# -*- coding: utf-8 -*-
+
+import numpy as np
+from DLPythonDataBuffers import DLPythonStringBuffer
+
+# hand the strings back as unicode objects to exercise the encoding of the serializer
+global test_out_data
+test_out_data = test_in_data.iloc[:,0].map(
+        lambda buff : DLPythonStringBuffer(np.array([x.decode('utf-8') + u'_suffix' for x in buff.array], dtype=object))
+    ).to_frame('test_out_data')
@@ -427,4 +427,40 @@ public void testString() throws Exception {
             Assert.assertEquals(inputData.readNext() + "_suffix", outputData.readNext());
         }
     }
+
+    @Test
+    public void testStringDictionary() throws Exception {
+        // few distinct values, such that the strings are dictionary encoded in both directions
+        final String[] distinctValues = {"\u00e4\u00f6\u00fc", "\u20ac", "\ud83d\ude00", "a\u0000b", ""};
+        final DLTensorSpec spec = new DLDefaultTensorSpec(IN_TENSOR_ID, IN_TENSOR_NAME, IN_TENSOR_SHAPE, String.class,
+            DLDimensionOrder.TDHWC);
+        final long exampleSize = DLUtils.Shapes.getSize(DLUtils.Shapes.getFixedShape(spec.getShape()).get());
+        final DLPythonStringBuffer buff = new DLPythonStringBuffer(exampleSize);
+        for (int j = 0; j < buff.getCapacity(); j++) {
+            buff.put(distinctValues[m_rng.nextInt(distinctValues.length)]);
+        }
+        final DLTensor<? extends DLWritableBuffer> input = new DLDefaultTensor<>(spec, buff, exampleSize);
+        final HashMap<DLTensorId, DLTensor<? extends DLWritableBuffer>> networkInput = new HashMap<>();
+        networkInput.put(input.getSpec().getIdentifier(), input);
+
+        m_commands.setNetworkInputs(HANDLE, networkInput, CANCELABLE);
+        final String code = DLUtils.Files.readAllUTF8(DLUtils.Files.getFileFromBundle(BUNDLE_ID,
+            "py/DLPythonDataBuffers1To1ExecutionTest_testStringDictionary.py"));
+        m_commands.getContext(CANCELABLE).executeInKernel(code, CANCELABLE);
+
+        final HashMap<DLTensorId, DLTensor<? extends DLReadableBuffer>> outputTensorSpecs = new HashMap<>();
+        final DLDefaultTensorSpec outSpec = new DLDefaultTensorSpec(OUT_TENSOR_ID, OUT_TENSOR_NAME, OUT_TENSOR_SHAPE,
+            String.class, DLDimensionOrder.TDHWC);
+        outputTensorSpecs.put(outSpec.getIdentifier(),
+            new DLDefaultTensor<>(outSpec, new DLPythonStringBuffer(exampleSize), exampleSize));
+        m_commands.getNetworkOutputs(HANDLE, outputTensorSpecs, CANCELABLE);
+
+        final DLTensor<?> output = outputTensorSpecs.values().iterator().next();
+        final DLReadableStringBuffer inputData = (DLReadableStringBuffer)input.getBuffer();
+        final DLReadableStringBuffer outputData = (DLReadableStringBuffer)output.getBuffer();
+        Assert.assertEquals(inputData.size(), outputData.size());
+        for (int i = 0; i < inputData.size(); i++) {
+            Assert.assertEquals(inputData.readNext() + "_suffix", outputData.readNext());
+        }
+    }
 }
@@ -0,0 +1,167 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.base.node.executor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * Tests the chunked execution of the {@link DLPythonExecutorNodeModel executor node} without Python, i.e. with a chunk
+ * function implemented in Java.
+ */
+public class DLPythonExecutorChunkedExecutionTest {
+
+    private static final DataTableSpec IN_SPEC =
+        new DataTableSpec(new DataColumnSpecCreator("value", DoubleCell.TYPE).createSpec());
+
+    private static final DataTableSpec OUT_SPEC =
+        new DataTableSpec(new DataColumnSpecCreator("doubled", DoubleCell.TYPE).createSpec());
+
+    private ExecutionContext m_exec;
+
+    @Before
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setUp() {
+        m_exec = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node((NodeFactory<NodeModel>)(NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(
+                new PortType[0])),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+
+    @Test
+    public void testOutputRowsAreConcatenatedInInputOrder() throws Exception {
+        final BufferedDataTable inTable = createInputTable(10);
+        final List<Long> chunkSizes = new ArrayList<>();
+        final BufferedDataTable outTable =
+            DLPythonExecutorNodeModel.executeInChunks(inTable, 3, (inChunk, chunkIndex) -> {
+                assertEquals(chunkSizes.size(), chunkIndex);
+                chunkSizes.add(inChunk.size());
+                return doubleValues(inChunk);
+            }, m_exec);
+        assertEquals(List.of(3L, 3L, 3L, 1L), chunkSizes);
+        assertEquals(OUT_SPEC, outTable.getDataTableSpec());
+        assertEquals(10, outTable.size());
+        int i = 0;
+        for (final DataRow row : outTable) {
+            assertEquals(RowKey.createRowKey((long)i), row.getKey());
+            assertEquals(2.0 * i, ((DoubleCell)row.getCell(0)).getDoubleValue(), 0.0);
+            i++;
+        }
+    }
+
+    @Test
+    public void testChunkSizeLargerThanTableYieldsSingleChunk() throws Exception {
+        final BufferedDataTable inTable = createInputTable(5);
+        final List<Long> chunkSizes = new ArrayList<>();
+        final BufferedDataTable outTable =
+            DLPythonExecutorNodeModel.executeInChunks(inTable, 1000, (inChunk, chunkIndex) -> {
+                chunkSizes.add(inChunk.size());
+                return doubleValues(inChunk);
+            }, m_exec);
+        assertEquals(List.of(5L), chunkSizes);
+        assertEquals(5, outTable.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDifferingOutputChunkStructureFails() throws Exception {
+        final BufferedDataTable inTable = createInputTable(4);
+        DLPythonExecutorNodeModel.executeInChunks(inTable, 2, (inChunk, chunkIndex) -> {
+            if (chunkIndex == 0) {
+                return doubleValues(inChunk);
+            }
+            final DataTableSpec otherSpec =
+                new DataTableSpec(new DataColumnSpecCreator("doubled", StringCell.TYPE).createSpec());
+            final BufferedDataContainer container = m_exec.createDataContainer(otherSpec);
+            for (final DataRow row : inChunk) {
+                container.addRowToTable(new DefaultRow(row.getKey(), new StringCell(row.getCell(0).toString())));
+            }
+            container.close();
+            return container.getTable();
+        }, m_exec);
+    }
+
+    private BufferedDataTable createInputTable(final int numRows) {
+        final BufferedDataContainer container = m_exec.createDataContainer(IN_SPEC);
+        for (int i = 0; i < numRows; i++) {
+            container.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i), new DoubleCell(i)));
+        }
+        container.close();
+        return container.getTable();
+    }
+
+    private BufferedDataTable doubleValues(final BufferedDataTable inChunk) {
+        final BufferedDataContainer container = m_exec.createDataContainer(OUT_SPEC);
+        for (final DataRow row : inChunk) {
+            container.addRowToTable(
+                new DefaultRow(row.getKey(), new DoubleCell(2 * ((DoubleCell)row.getCell(0)).getDoubleValue())));
+        }
+        container.close();
+        return container.getTable();
+    }
+}
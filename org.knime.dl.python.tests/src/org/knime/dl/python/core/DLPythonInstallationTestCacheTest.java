@@ -0,0 +1,129 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core;
+
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeFalse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.python2.PythonModuleSpec;
+
+/**
+ * Tests the fingerprinting of Python environments by {@link DLPythonInstallationTestCache}.
+ */
+public class DLPythonInstallationTestCacheTest {
+
+    private static final String BACKEND = "test-backend";
+
+    @Rule
+    public TemporaryFolder m_folder = new TemporaryFolder();
+
+    private Path m_executable;
+
+    private Path m_sitePackages;
+
+    @Before
+    public void setUp() throws Exception {
+        final Path environment = m_folder.newFolder("env").toPath();
+        m_executable = Files.createFile(Files.createDirectories(environment.resolve("bin")).resolve("python"));
+        m_sitePackages =
+            Files.createDirectories(environment.resolve("lib").resolve("python3.6").resolve("site-packages"));
+    }
+
+    @Test
+    public void testEnvironmentWithoutDependencyModulesIsNotFingerprinted() throws Exception {
+        Files.createDirectories(m_sitePackages.resolve("unrelated_package-1.0.dist-info"));
+        assertNull(createFingerprint(m_executable.toString()));
+    }
+
+    @Test
+    public void testCommandOutsideOfEnvironmentIsNotFingerprinted() throws Exception {
+        createDistInfo(getDependencyModule(), "1.0");
+        // e.g. a wrapper script that activates the environment
+        final Path wrapper =
+            Files.createFile(m_folder.newFolder("scripts", "knime", "python").toPath().resolve("start_python.sh"));
+        assertNull(createFingerprint(wrapper.toString()));
+        // e.g. an executable that is resolved via the PATH
+        assertNull(createFingerprint("python"));
+    }
+
+    @Test
+    public void testFingerprintChangesWithInstalledModules() throws Exception {
+        final String module = getDependencyModule();
+        createDistInfo(module, "1.0");
+        final String fingerprint = createFingerprint(m_executable.toString());
+        assertNotNull(fingerprint);
+        Files.delete(m_sitePackages.resolve(module + "-1.0.dist-info"));
+        createDistInfo(module, "2.0");
+        assertNotEquals(fingerprint, createFingerprint(m_executable.toString()));
+    }
+
+    private static String createFingerprint(final String executable) {
+        return DLPythonInstallationTestCache.getInstance().createFingerprint(BACKEND, executable,
+            Arrays.asList(executable, "-u"));
+    }
+
+    private static String getDependencyModule() {
+        final Set<PythonModuleSpec> modules =
+            DLPythonModuleDependencyRegistry.getInstance().getPythonDependenciesModules();
+        assumeFalse("No Python module dependencies are registered.", modules.isEmpty());
+        return modules.iterator().next().getName();
+    }
+
+    private void createDistInfo(final String module, final String version) throws Exception {
+        Files.createDirectories(m_sitePackages.resolve(module + "-" + version + ".dist-info"));
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests the sparse and the dense representation of {@link DLPythonSparseFloatBuffer}.
+ */
+public class DLPythonSparseFloatBufferTest {
+
+    private static final float EPSILON = 0f;
+
+    @Test
+    public void testPutStoresOnlyNonZeros() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(8)) {
+            buffer.putAll(new float[]{0f, 1.5f, 0f, 0f, -2f});
+            assertFalse(buffer.isDense());
+            assertEquals(5, buffer.size());
+            assertEquals(2, buffer.getNumNonZeros());
+            assertArrayEquals(new long[]{1, 4}, Arrays.copyOf(buffer.getNonZeroIndices(), 2));
+            assertArrayEquals(new float[]{1.5f, -2f}, Arrays.copyOf(buffer.getNonZeroValues(), 2), EPSILON);
+            assertArrayEquals(new float[]{0f, 1.5f, 0f, 0f, -2f, 0f, 0f, 0f}, buffer.toFloatArray(), EPSILON);
+        }
+    }
+
+    @Test
+    public void testPutOtherTypes() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(6)) {
+            buffer.put(true);
+            buffer.put(false);
+            buffer.put((byte)3);
+            buffer.put((short)0);
+            buffer.putAll(new short[]{-4});
+            buffer.putAll(new boolean[]{true});
+            assertEquals(4, buffer.getNumNonZeros());
+            assertArrayEquals(new float[]{1f, 0f, 3f, 0f, -4f, 1f}, buffer.toFloatArray(), EPSILON);
+        }
+    }
+
+    @Test
+    public void testNonZeroStorageGrows() {
+        final int capacity = 5000;
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(capacity)) {
+            final float[] expected = new float[capacity];
+            for (int i = 0; i < capacity; i++) {
+                expected[i] = i % 2 == 0 ? i : 0f;
+                buffer.put(expected[i]);
+            }
+            assertEquals(capacity / 2, buffer.getNumNonZeros());
+            assertArrayEquals(expected, buffer.toFloatArray(), EPSILON);
+            for (int i = 0; i < capacity; i++) {
+                assertEquals(expected[i], buffer.readNextFloat(), EPSILON);
+            }
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testPutOverflow() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(1)) {
+            buffer.put(0f);
+            buffer.put(0f);
+        }
+    }
+
+    @Test
+    public void testZeroPad() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(6)) {
+            buffer.put(1f);
+            buffer.zeroPad(3);
+            buffer.put(2f);
+            assertFalse(buffer.isDense());
+            assertEquals(5, buffer.size());
+            assertEquals(2, buffer.getNumNonZeros());
+            assertArrayEquals(new long[]{0, 4}, Arrays.copyOf(buffer.getNonZeroIndices(), 2));
+            final float[] expected = {1f, 0f, 0f, 0f, 2f};
+            for (final float value : expected) {
+                assertEquals(value, buffer.readNextFloat(), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void testZeroPadOverwritesDenseStorage() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(4)) {
+            final float[] storage = buffer.getStorageForWriting(0, 4);
+            Arrays.fill(storage, 7f);
+            buffer.resetWrite();
+            buffer.zeroPad(2);
+            buffer.put(5f);
+            assertTrue(buffer.isDense());
+            assertEquals(3, buffer.size());
+            assertArrayEquals(new float[]{0f, 0f, 5f}, Arrays.copyOf(buffer.toFloatArray(), 3), EPSILON);
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testZeroPadOverflow() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(4)) {
+            buffer.put(1f);
+            buffer.zeroPad(4);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroPadInvalidLength() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(4)) {
+            buffer.zeroPad(0);
+        }
+    }
+
+    @Test
+    public void testDensifyOnStorageAccess() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(5)) {
+            buffer.putAll(new float[]{0f, 3f, 0f});
+            final float[] storage = buffer.getStorageForReading(0, buffer.size());
+            assertTrue(buffer.isDense());
+            assertEquals(0, buffer.getNumNonZeros());
+            assertArrayEquals(new float[]{0f, 3f, 0f, 0f, 0f}, storage, EPSILON);
+            // the buffer stays dense and writes go to the dense storage
+            buffer.put(4f);
+            assertSame(storage, buffer.getStorageForReading(0, buffer.size()));
+            assertEquals(4f, storage[3], EPSILON);
+            assertEquals(4, buffer.size());
+            final float[] expected = {0f, 3f, 0f, 4f};
+            for (final float value : expected) {
+                assertEquals(value, buffer.readNextFloat(), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void testSetStorage() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(3)) {
+            buffer.put(1f);
+            buffer.readNextFloat();
+            buffer.setStorage(new float[]{2f, 0f, 6f}, 3);
+            assertTrue(buffer.isDense());
+            assertEquals(3, buffer.size());
+            assertEquals(0, buffer.getNextReadPosition());
+            final double[] values = new double[3];
+            buffer.readToDoubleArray(values, 0, 3);
+            assertArrayEquals(new double[]{2d, 0d, 6d}, values, 0d);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetStorageCapacityMismatch() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(3)) {
+            buffer.setStorage(new float[2], 2);
+        }
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void testReadUnderflow() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(3)) {
+            buffer.put(1f);
+            buffer.readNextFloat();
+            buffer.readNextFloat();
+        }
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void testStorageForReadingUnderflow() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(3)) {
+            buffer.put(1f);
+            buffer.getStorageForReading(0, 2);
+        }
+    }
+
+    @Test
+    public void testResetWrite() {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(3)) {
+            buffer.putAll(new float[]{1f, 2f});
+            buffer.resetWrite();
+            assertEquals(0, buffer.size());
+            assertEquals(0, buffer.getNumNonZeros());
+            buffer.put(0f);
+            buffer.put(3f);
+            assertArrayEquals(new float[]{0f, 3f, 0f}, buffer.toFloatArray(), EPSILON);
+        }
+    }
+}
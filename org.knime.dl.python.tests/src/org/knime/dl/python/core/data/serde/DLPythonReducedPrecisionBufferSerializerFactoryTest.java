@@ -0,0 +1,120 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+import org.knime.dl.core.DLTransportPrecision;
+import org.knime.dl.python.core.data.DLPythonReducedPrecisionBuffer;
+import org.knime.python.typeextension.Serializer;
+
+/**
+ * Tests the wire format of {@link DLPythonReducedPrecisionBufferSerializerFactory}.
+ */
+public class DLPythonReducedPrecisionBufferSerializerFactoryTest {
+
+    @Test
+    public void testFloat16Conversion() {
+        assertEquals(0x0000, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(0f) & 0xFFFF);
+        assertEquals(0x8000, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(-0f) & 0xFFFF);
+        assertEquals(0x3C00, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(1f) & 0xFFFF);
+        assertEquals(0xC000, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(-2f) & 0xFFFF);
+        assertEquals(0x7BFF, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(65504f) & 0xFFFF);
+        // smallest subnormal
+        assertEquals(0x0001, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(5.9604645e-8f) & 0xFFFF);
+        // ties are rounded to even
+        assertEquals(0x3C00, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(1f + 0x1p-11f) & 0xFFFF);
+        assertEquals(0x3C02, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(1f + 0x3p-11f) & 0xFFFF);
+        // overflow and special values
+        assertEquals(0x7C00, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(65520f) & 0xFFFF);
+        assertEquals(0xFC00,
+            DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(Float.NEGATIVE_INFINITY) & 0xFFFF);
+        assertEquals(0x7E00, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(Float.NaN) & 0xFFFF);
+    }
+
+    @Test
+    public void testSerializeFloat16() throws Exception {
+        final DLPythonReducedPrecisionBuffer buffer =
+            new DLPythonReducedPrecisionBuffer(3, DLTransportPrecision.FLOAT16);
+        buffer.putAll(new double[]{1d, -2d, 0.5d});
+        final ByteBuffer bytes = serialize(buffer);
+        assertEquals(20 + 3 * Short.BYTES, bytes.remaining());
+        assertEquals(0, bytes.getInt());
+        assertEquals(1d, bytes.getDouble(), 0d);
+        assertEquals(0d, bytes.getDouble(), 0d);
+        assertEquals(0x3C00, bytes.getShort() & 0xFFFF);
+        assertEquals(0xC000, bytes.getShort() & 0xFFFF);
+        assertEquals(0x3800, bytes.getShort() & 0xFFFF);
+    }
+
+    @Test
+    public void testSerializeUInt8() throws Exception {
+        final DLPythonReducedPrecisionBuffer buffer =
+            new DLPythonReducedPrecisionBuffer(4, DLTransportPrecision.uint8(1 / 255d, -0.5));
+        buffer.putAll(new float[]{-3f, 12.4f, 12.6f, 300f});
+        final ByteBuffer bytes = serialize(buffer);
+        assertEquals(20 + 4, bytes.remaining());
+        assertEquals(1, bytes.getInt());
+        assertEquals(1 / 255d, bytes.getDouble(), 0d);
+        assertEquals(-0.5, bytes.getDouble(), 0d);
+        assertEquals(0, bytes.get() & 0xFF);
+        assertEquals(12, bytes.get() & 0xFF);
+        assertEquals(13, bytes.get() & 0xFF);
+        assertEquals(255, bytes.get() & 0xFF);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ByteBuffer serialize(final DLPythonReducedPrecisionBuffer buffer) throws Exception {
+        final Serializer<DLPythonReducedPrecisionBuffer> serializer =
+            (Serializer<DLPythonReducedPrecisionBuffer>)new DLPythonReducedPrecisionBufferSerializerFactory()
+                .createSerializer();
+        return ByteBuffer.wrap(serializer.serialize(buffer)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
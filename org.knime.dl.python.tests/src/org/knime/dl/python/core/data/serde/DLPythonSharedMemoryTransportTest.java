@@ -0,0 +1,139 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.dl.python.core.data.DLPythonBitBuffer;
+import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.dl.python.core.data.DLPythonDoubleBuffer;
+import org.knime.dl.python.core.data.DLPythonFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonLongBuffer;
+import org.knime.python.typeextension.Deserializer;
+
+/**
+ * Round trip tests of the {@link DLPythonSharedMemoryTransport shared memory transport} on the Java side.
+ */
+public class DLPythonSharedMemoryTransportTest {
+
+    private Path m_directory;
+
+    @Before
+    public void setUp() throws Exception {
+        m_directory = DLPythonSharedMemoryTransport.createTransportDirectory();
+    }
+
+    @After
+    public void tearDown() {
+        DLPythonSharedMemoryTransport.deleteTransportDirectory(m_directory);
+    }
+
+    @Test
+    public void testFloatRoundTrip() throws Exception {
+        final float[] values = {1f, -2.5f, 3.25f, Float.MAX_VALUE};
+        final DLPythonFloatBuffer buffer = new DLPythonFloatBuffer(values.length);
+        buffer.setStorage(values.clone(), values.length);
+        final DLPythonFloatBuffer result = (DLPythonFloatBuffer)roundTrip(buffer);
+        assertEquals(values.length, result.size());
+        assertArrayEquals(values, result.getStorageForReading(0, values.length), 0f);
+    }
+
+    @Test
+    public void testLongRoundTripAcrossGrowingBuffers() throws Exception {
+        try (final DLPythonSharedMemoryBufferSerializer serializer =
+            new DLPythonSharedMemoryBufferSerializerFactory().createSerializer(m_directory, "test")) {
+            for (final int size : new int[]{2, 8, 4}) {
+                final long[] values = new long[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = Long.MIN_VALUE + i;
+                }
+                final DLPythonLongBuffer buffer = new DLPythonLongBuffer(size);
+                buffer.setStorage(values.clone(), size);
+                final DLPythonLongBuffer result = (DLPythonLongBuffer)deserialize(serializer.serialize(buffer));
+                assertArrayEquals(values, result.getStorageForReading(0, size));
+            }
+        }
+    }
+
+    @Test
+    public void testBitRoundTrip() throws Exception {
+        final boolean[] values = {true, false, false, true, true};
+        final DLPythonBitBuffer buffer = new DLPythonBitBuffer(values.length);
+        buffer.setStorage(values.clone(), values.length);
+        final DLPythonBitBuffer result = (DLPythonBitBuffer)roundTrip(buffer);
+        assertArrayEquals(values, result.getStorageForReading(0, values.length));
+    }
+
+    @Test
+    public void testRoundTripWithoutTransportDirectory() throws Exception {
+        final double[] values = {0.5, -1.0, 42.0};
+        final DLPythonDoubleBuffer buffer = new DLPythonDoubleBuffer(values.length);
+        buffer.setStorage(values.clone(), values.length);
+        try (final DLPythonSharedMemoryBufferSerializer serializer =
+            (DLPythonSharedMemoryBufferSerializer)new DLPythonSharedMemoryBufferSerializerFactory().createSerializer()) {
+            final DLPythonDoubleBuffer result = (DLPythonDoubleBuffer)deserialize(serializer.serialize(buffer));
+            assertArrayEquals(values, result.getStorageForReading(0, values.length), 0.0);
+        }
+    }
+
+    private Object roundTrip(final DLPythonDataBuffer<?> buffer) throws Exception {
+        try (final DLPythonSharedMemoryBufferSerializer serializer =
+            new DLPythonSharedMemoryBufferSerializerFactory().createSerializer(m_directory, "test")) {
+            return deserialize(serializer.serialize(buffer));
+        }
+    }
+
+    private static Object deserialize(final byte[] descriptor) throws Exception {
+        final Deserializer deserializer = new DLPythonSharedMemoryBufferDeserializerFactory().createDeserializer();
+        return deserializer.deserialize(descriptor, null);
+    }
+}
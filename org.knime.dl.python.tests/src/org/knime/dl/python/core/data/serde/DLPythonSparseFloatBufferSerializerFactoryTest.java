@@ -0,0 +1,156 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.knime.dl.python.core.data.DLPythonSparseFloatBuffer;
+import org.knime.python.typeextension.Serializer;
+
+/**
+ * Tests the wire format of {@link DLPythonSparseFloatBufferSerializerFactory} by decoding the serialized buffers the
+ * way the Python side does.
+ */
+public class DLPythonSparseFloatBufferSerializerFactoryTest {
+
+    @Test
+    public void testGetBufferType() {
+        assertEquals(DLPythonSparseFloatBuffer.class, new DLPythonSparseFloatBufferSerializerFactory().getBufferType());
+    }
+
+    @Test
+    public void testSerializeSparse() throws Exception {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(10)) {
+            buffer.put(0f);
+            buffer.put(2.5f);
+            buffer.zeroPad(4);
+            buffer.put(-1f);
+            final ByteBuffer bytes = serialize(buffer);
+            assertEquals(Long.BYTES + Integer.BYTES + 2 * (Long.BYTES + Float.BYTES), bytes.remaining());
+            assertEquals(7, bytes.getLong());
+            assertEquals(2, bytes.getInt());
+            assertEquals(1, bytes.getLong());
+            assertEquals(6, bytes.getLong());
+            assertEquals(2.5f, bytes.getFloat(), 0f);
+            assertEquals(-1f, bytes.getFloat(), 0f);
+        }
+    }
+
+    @Test
+    public void testSerializeDense() throws Exception {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(4)) {
+            buffer.putAll(new float[]{1f, 0f, 3f});
+            buffer.getStorageForReading(0, buffer.size());
+            final ByteBuffer bytes = serialize(buffer);
+            assertEquals(Long.BYTES + Integer.BYTES + 3 * Float.BYTES, bytes.remaining());
+            assertEquals(3, bytes.getLong());
+            assertEquals(-1, bytes.getInt());
+            assertEquals(1f, bytes.getFloat(), 0f);
+            assertEquals(0f, bytes.getFloat(), 0f);
+            assertEquals(3f, bytes.getFloat(), 0f);
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final float[] values = new float[3000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 7 == 0 ? i / 7f : 0f;
+        }
+        try (DLPythonSparseFloatBuffer sparse = new DLPythonSparseFloatBuffer(values.length);
+                DLPythonSparseFloatBuffer dense = new DLPythonSparseFloatBuffer(values.length)) {
+            sparse.putAll(values);
+            assertArrayEquals(values, decode(serialize(sparse)), 0f);
+            dense.putAll(values);
+            dense.getStorageForReading(0, dense.size());
+            assertArrayEquals(values, decode(serialize(dense)), 0f);
+        }
+    }
+
+    @Test
+    public void testRoundTripEmpty() throws Exception {
+        try (DLPythonSparseFloatBuffer buffer = new DLPythonSparseFloatBuffer(5)) {
+            buffer.zeroPad(5);
+            assertArrayEquals(new float[5], decode(serialize(buffer)), 0f);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ByteBuffer serialize(final DLPythonSparseFloatBuffer buffer) throws Exception {
+        final Serializer<DLPythonSparseFloatBuffer> serializer =
+            (Serializer<DLPythonSparseFloatBuffer>)new DLPythonSparseFloatBufferSerializerFactory().createSerializer();
+        return ByteBuffer.wrap(serializer.serialize(buffer)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Decodes the serialized buffer into the dense array of its written elements.
+     */
+    private static float[] decode(final ByteBuffer bytes) {
+        final int size = (int)bytes.getLong();
+        final int numNonZeros = bytes.getInt();
+        final float[] values = new float[size];
+        if (numNonZeros < 0) {
+            bytes.asFloatBuffer().get(values);
+            return values;
+        }
+        final long[] indices = new long[numNonZeros];
+        bytes.asLongBuffer().get(indices);
+        bytes.position(bytes.position() + numNonZeros * Long.BYTES);
+        final float[] nonZeros = new float[numNonZeros];
+        bytes.asFloatBuffer().get(nonZeros);
+        for (int i = 0; i < numNonZeros; i++) {
+            values[(int)indices[i]] = nonZeros[i];
+        }
+        assertEquals(Arrays.stream(indices).distinct().count(), numNonZeros);
+        return values;
+    }
+}
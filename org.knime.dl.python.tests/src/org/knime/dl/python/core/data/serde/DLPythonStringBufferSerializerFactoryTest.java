@@ -0,0 +1,156 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.knime.dl.python.core.data.DLPythonStringBuffer;
+import org.knime.python.typeextension.Serializer;
+
+/**
+ * Tests that string buffers survive a round trip through {@link DLPythonStringBufferSerializerFactory} and
+ * {@link DLPythonStringBufferDeserializerFactory}, i.e. through the wire format that is shared with the Python side.
+ */
+public class DLPythonStringBufferSerializerFactoryTest {
+
+    @Test
+    public void testRoundTripPlain() throws Exception {
+        final String[] values = new String[20];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = "value " + i;
+        }
+        final ByteBuffer bytes = serialize(createBuffer(values));
+        assertEquals(values.length, bytes.getInt(0));
+        assertEquals(-1, bytes.getInt(Integer.BYTES));
+        assertArrayEquals(values, deserialize(bytes));
+    }
+
+    @Test
+    public void testRoundTripDictionary() throws Exception {
+        final String[] values = new String[20];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 3 == 0 ? "first" : i % 3 == 1 ? "" : "third";
+        }
+        final ByteBuffer bytes = serialize(createBuffer(values));
+        assertEquals(values.length, bytes.getInt(0));
+        assertEquals(3, bytes.getInt(Integer.BYTES));
+        assertArrayEquals(values, deserialize(bytes));
+    }
+
+    @Test
+    public void testRoundTripEmpty() throws Exception {
+        final ByteBuffer bytes = serialize(new DLPythonStringBuffer(0));
+        assertEquals(0, bytes.getInt(0));
+        assertEquals(-1, bytes.getInt(Integer.BYTES));
+        assertArrayEquals(new String[0], deserialize(bytes));
+    }
+
+    @Test
+    public void testRoundTripPartiallyRead() throws Exception {
+        final String[] values = new String[40];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 10 ? "read " + i : "unread " + (i % 2);
+        }
+        final DLPythonStringBuffer buffer = createBuffer(values);
+        for (int i = 0; i < 10; i++) {
+            buffer.readNext();
+        }
+        final ByteBuffer bytes = serialize(buffer);
+        // only the unread strings are transmitted, dictionary encoded
+        assertEquals(30, bytes.getInt(0));
+        assertEquals(2, bytes.getInt(Integer.BYTES));
+        assertArrayEquals(Arrays.copyOfRange(values, 10, values.length), deserialize(bytes));
+    }
+
+    @Test
+    public void testRoundTripMultibyteCharacters() throws Exception {
+        final String[] values = {"\u00e4\u00f6\u00fc", "\u20ac", "\ud83d\ude00", "a\u0000b\u0000", "\u0000"};
+        assertArrayEquals(values, deserialize(serialize(createBuffer(values))));
+    }
+
+    @Test
+    public void testRoundTripUnpairedSurrogates() throws Exception {
+        final String[] values = {"a\ud800b", "\udc00", "\ud83d\ude00\ud83d"};
+        // unpaired surrogates cannot be encoded in UTF-8 and are replaced
+        final String[] expected = {"a?b", "?", "\ud83d\ude00?"};
+        final ByteBuffer bytes = serialize(createBuffer(values));
+        // the offsets must match the replaced strings
+        assertEquals(0, bytes.getInt(2 * Integer.BYTES));
+        assertEquals(3, bytes.getInt(3 * Integer.BYTES));
+        assertEquals(4, bytes.getInt(4 * Integer.BYTES));
+        assertEquals(9, bytes.getInt(5 * Integer.BYTES));
+        assertArrayEquals(expected, deserialize(bytes));
+    }
+
+    private static DLPythonStringBuffer createBuffer(final String[] values) {
+        final DLPythonStringBuffer buffer = new DLPythonStringBuffer(values.length);
+        buffer.putAll(values);
+        return buffer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ByteBuffer serialize(final DLPythonStringBuffer buffer) throws Exception {
+        final Serializer<DLPythonStringBuffer> serializer =
+            (Serializer<DLPythonStringBuffer>)new DLPythonStringBufferSerializerFactory().createSerializer();
+        return ByteBuffer.wrap(serializer.serialize(buffer)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static String[] deserialize(final ByteBuffer bytes) throws Exception {
+        final DLPythonStringBuffer buffer = (DLPythonStringBuffer)new DLPythonStringBufferDeserializerFactory()
+            .createDeserializer().deserialize(bytes.array(), null);
+        final String[] values = new String[(int)buffer.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.readNext();
+        }
+        return values;
+    }
+}
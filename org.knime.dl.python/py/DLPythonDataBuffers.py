@@ -43,6 +43,8 @@
 #  when such Node is propagated with or for interoperation with KNIME.
 # ------------------------------------------------------------------------
 
+import numpy as np
+
 # base
 class DLPythonDataBuffer(object):  
 	def __init__(self, array):
@@ -140,3 +142,48 @@ class DLPythonStringBuffer(DLPythonDataBuffer):
 		"""
 		super(DLPythonStringBuffer, self).__init__(array)
 
+# sparse float
+class DLPythonSparseFloatBuffer(DLPythonDataBuffer):
+	def __init__(self, indices, values, size):
+		"""
+		Creates a new float buffer that only holds its non-zero elements. The dense numpy.ndarray is created on first
+		access of the array attribute.
+		:param indices: The flat positions of the non-zero elements (numpy.ndarray of type int64).
+		:param values: The values of the non-zero elements (numpy.ndarray of type float32).
+		:param size: The number of elements of the dense buffer.
+		"""
+		self.indices = indices
+		self.values = values
+		self.size = size
+		self._array = None
+
+	@property
+	def array(self):
+		if self._array is None:
+			self._array = self.to_dense()
+		return self._array
+
+	def to_dense(self):
+		"""
+		Expands the buffer into a dense numpy.ndarray of type float32.
+		"""
+		array = np.zeros(self.size, dtype=np.float32)
+		array[self.indices] = self.values
+		return array
+
+	def __len__(self):
+		return self.size
+
+	def __str__(self):
+		return 'sparse buffer of size ' + str(self.size) + ' with ' + str(len(self.indices)) + ' non-zeros'
+
+
+class DLPythonSharedMemoryBuffer(DLPythonDataBuffer):
+	def __init__(self, array, name):
+		"""
+		Creates a new buffer whose numpy.ndarray is transmitted to KNIME via the shared memory transport.
+		:param array: The numpy.ndarray. Must be of a numeric or boolean type.
+		:param name: The name of the buffer, used to reuse the shared file across transmissions.
+		"""
+		super(DLPythonSharedMemoryBuffer, self).__init__(array)
+		self.name = name
@@ -186,3 +186,6 @@ class DLPythonTrainingConfig(object):
         self.epochs = 1
         self.batch_size = 32
         self.validation_batch_size = self.batch_size
+        self.prefetch_queue_size = 0
+        # minimum time in milliseconds between two reports of batch metrics, 0 reports after each batch
+        self.metrics_report_interval = 0
@@ -0,0 +1,122 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+'''
+Shared memory transport of tensors between KNIME and Python. Tensor contents are exchanged via memory-mapped files
+in a directory that is set up by KNIME; only small descriptors (path, offset, dtype, element count) are sent over
+the socket.
+'''
+
+import os
+import re
+
+import numpy as np
+
+_directory = None
+
+# output name -> (path, capacity in bytes, generation)
+_output_files = {}
+
+_supported_types = [np.float64, np.float32, np.bool_, np.int8, np.uint8, np.int16, np.int32, np.int64]
+
+
+def enable(directory):
+	global _directory
+	_directory = directory
+
+
+def is_enabled():
+	return _directory is not None
+
+
+def is_supported(dtype):
+	return any(dtype == t for t in _supported_types)
+
+
+def create_descriptor(path, offset, dtype, count):
+	return '\n'.join([path, str(offset), dtype, str(count)]).encode('utf-8')
+
+
+def parse_descriptor(descriptor):
+	path, offset, dtype, count = descriptor.decode('utf-8').split('\n')
+	return path, int(offset), dtype, int(count)
+
+
+def map_region(path, offset, dtype, count):
+	"""
+	Wraps the described region of a memory-mapped file without copying. Modifications are private to this process.
+	"""
+	if count == 0:
+		return np.empty(0, dtype=np.dtype(dtype))
+	return np.memmap(path, dtype=np.dtype(dtype), mode='c', offset=offset, shape=(count,))
+
+
+def write_output(name, array):
+	"""
+	Writes the flattened array into the output file of the given name and returns the descriptor of the written
+	region.
+	"""
+	array = np.ascontiguousarray(array).reshape(-1)
+	if array.dtype.byteorder == '>':
+		array = array.astype(array.dtype.newbyteorder('<'))
+	path = _get_output_file(name, array.nbytes)
+	if array.size > 0:
+		region = np.memmap(path, dtype=array.dtype, mode='r+', offset=0, shape=(array.size,))
+		region[:] = array
+		del region
+	return create_descriptor(path, 0, array.dtype.str, array.size)
+
+
+def _get_output_file(name, num_bytes):
+	path, capacity, generation = _output_files.get(name, (None, -1, -1))
+	if num_bytes > capacity:
+		# KNIME may still have the old file mapped, so we create a new one instead of resizing it. The superseded file
+		# is not deleted here but along with the transport directory, like on the KNIME side.
+		generation += 1
+		path = os.path.join(_directory, 'output_' + re.sub(r'[^\w.-]', '_', name) + '_' + str(generation) + '.bin')
+		with open(path, 'wb') as f:
+			f.truncate(max(num_bytes, 1))
+		_output_files[name] = (path, num_bytes, generation)
+	return path
@@ -43,7 +43,6 @@
 #  when such Node is propagated with or for interoperation with KNIME.
 # ------------------------------------------------------------------------
 
-from io import BytesIO
 import os
 import sys
 import numpy as np
@@ -51,17 +50,35 @@ import numpy as np
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
 from DLPythonDataBuffers import DLPythonStringBuffer
 
+# fall back to slicing if the padded decoding matrix would be much larger than the data itself (very skewed lengths)
+_MAX_PADDING_FACTOR = 8
+
+
 def deserialize(bytes):
-	n_values = np.frombuffer(bytes, dtype=np.int32, count=1)[0]
-	lengths = np.frombuffer(bytes, dtype=np.int32, count=n_values, offset=4) # first 4 bytes encode n_values
-	strings = []
-	offset = (n_values + 1) * 4 # an integer occupies 4 byte
-	for i in range(n_values):
-		length = lengths[i]
-		str = bytes[offset:offset + length]
-		strings.append(str)
-		offset += length
+	n_values, dictionary_size = (int(v) for v in np.frombuffer(bytes, dtype='<i4', count=2))
+	offset = 8
+	if dictionary_size < 0:
+		offsets = np.frombuffer(bytes, dtype='<i4', count=n_values + 1, offset=offset)
+		strings = _decode(bytes, offsets, offset + (n_values + 1) * 4)
+	else:
+		codes = np.frombuffer(bytes, dtype='<i4', count=n_values, offset=offset)
+		offset += n_values * 4
+		offsets = np.frombuffer(bytes, dtype='<i4', count=dictionary_size + 1, offset=offset)
+		strings = _decode(bytes, offsets, offset + (dictionary_size + 1) * 4)[codes]
+	return DLPythonStringBuffer(strings)
 
-	buffer = DLPythonStringBuffer(np.array(strings))
-	return buffer
 
+def _decode(bytes, offsets, data_start):
+	"""
+	Decodes the UTF-8 data block into a numpy.ndarray of byte strings without looping over the strings in Python.
+	"""
+	n = len(offsets) - 1
+	lengths = np.diff(offsets)
+	max_length = max(int(lengths.max()) if n > 0 else 0, 1)
+	data = np.frombuffer(bytes, dtype=np.uint8, count=int(offsets[-1]), offset=data_start)
+	if n * max_length > _MAX_PADDING_FACTOR * len(data) + 1024:
+		return np.array([bytes[data_start + offsets[i]:data_start + offsets[i + 1]] for i in range(n)],
+			dtype='S%d' % max_length)
+	padded = np.zeros((n, max_length), dtype=np.uint8)
+	padded[np.arange(max_length) < lengths[:, None]] = data
+	return padded.view('S%d' % max_length).ravel()
@@ -43,7 +43,6 @@
 #  when such Node is propagated with or for interoperation with KNIME.
 # ------------------------------------------------------------------------
 
-from io import BytesIO
 import os
 import sys
 import numpy as np
@@ -51,16 +50,47 @@ import numpy as np
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
 from DLPythonDataBuffers import DLPythonStringBuffer
 
+_MIN_SIZE_FOR_DICTIONARY = 16
+
+
 def serialize(value):
-	if not value.array.dtype == np.object:
-		value = DLPythonStringBuffer(value.array.astype(np.object))
-	array = value.array
-	array = array.ravel()
-	buffer = BytesIO(bytes())
-	buffer.write(len(array).to_bytes(4, 'little'))
-	lengths = np.array([len(s) for s in array], dtype=np.int32)
-	buffer.write(lengths.tobytes())
-	for str in array:
-		buffer.write(str)
-	return buffer.getvalue()
+	# see DLPythonStringBufferDeserializer for the format
+	array = value.array.ravel()
+	if array.dtype.kind in ('U', 'S', 'O'):
+		# a list of variable-length byte strings, fixed-width numpy byte strings would be padded to the longest string
+		strings = [_encode(s) for s in array.tolist()]
+	else:
+		strings = array.astype(bytes).tolist()
+	n_values = len(strings)
+	codes = None
+	if n_values >= _MIN_SIZE_FOR_DICTIONARY:
+		dictionary = {}
+		entries = []
+		codes = np.empty(n_values, dtype='<i4')
+		for i, s in enumerate(strings):
+			code = dictionary.get(s)
+			if code is None:
+				code = len(entries)
+				dictionary[s] = code
+				entries.append(s)
+			codes[i] = code
+		if len(entries) <= n_values // 2:
+			strings = entries
+		else:
+			codes = None
+	offsets = np.zeros(len(strings) + 1, dtype='<i4')
+	offsets[1:] = np.cumsum(np.fromiter((len(s) for s in strings), dtype=np.int64, count=len(strings)))
+	header = np.array([n_values, len(strings) if codes is not None else -1], dtype='<i4')
+	parts = [header.tobytes()]
+	if codes is not None:
+		parts.append(codes.tobytes())
+	parts.append(offsets.tobytes())
+	parts.append(b''.join(strings))
+	return b''.join(parts)
+
 
+def _encode(s):
+	if isinstance(s, bytes):
+		return s
+	# unpaired surrogates are replaced, like on the KNIME side
+	return str(s).encode('utf-8', 'replace')
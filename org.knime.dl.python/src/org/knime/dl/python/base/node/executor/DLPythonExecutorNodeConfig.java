@@ -47,6 +47,9 @@
  */
 package org.knime.dl.python.base.node.executor;
 
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
 import org.knime.dl.python.base.ports.DLNetworkInputPort;
 import org.knime.python2.config.PythonSourceCodeConfig;
 import org.knime.python2.generic.VariableNames;
@@ -63,6 +66,17 @@ final class DLPythonExecutorNodeConfig extends PythonSourceCodeConfig {
 
     private static final String INPUT_NETWORK_NAME = "input_network";
 
+    /**
+     * The name of the function that processes a single chunk of the input table in chunked execution mode.
+     */
+    static final String CHUNK_FUNCTION_NAME = "process_chunk";
+
+    static final int DEFAULT_EXECUTION_CHUNK_SIZE = 1000;
+
+    private static final String CFG_KEY_CHUNKED_EXECUTION = "chunked_execution";
+
+    private static final String CFG_KEY_EXECUTION_CHUNK_SIZE = "execution_chunk_size";
+
     private static final VariableNames VARIABLE_NAMES = new VariableNames( //
         "flow_variables", // flow variables
         new String[]{INPUT_TABLE_NAME}, // input tables
@@ -74,6 +88,10 @@ final class DLPythonExecutorNodeConfig extends PythonSourceCodeConfig {
         null // general output objects
     );
 
+    private boolean m_chunkedExecution = false;
+
+    private int m_executionChunkSize = DEFAULT_EXECUTION_CHUNK_SIZE;
+
     public static InputPort[] getInputPorts() {
         return new InputPort[]{new DLNetworkInputPort(INPUT_NETWORK_NAME), new DataTableInputPort(INPUT_TABLE_NAME)};
     }
@@ -92,6 +110,59 @@ protected String getDefaultSourceCode() {
             "# " + "variable name of the input table:   " + vars.getInputTables()[0] + "\n" + //
             "# " + "variable name of the output table:  " + vars.getOutputTables()[0] + "\n" + //
             "\n" + //
+            "# " + "in chunked execution mode, define a function instead that returns the output of a chunk:\n" + //
+            "# def " + CHUNK_FUNCTION_NAME + "(" + vars.getInputTables()[0] + "):\n" + //
+            "#     return " + vars.getInputTables()[0] + "\n" + //
+            "\n" + //
             vars.getOutputTables()[0] + " = " + vars.getInputTables()[0];
     }
+
+    /**
+     * @return whether the input table is passed to the script's {@link #CHUNK_FUNCTION_NAME chunk function} in chunks
+     *         of {@link #getExecutionChunkSize()} rows instead of at once
+     */
+    boolean isChunkedExecution() {
+        return m_chunkedExecution;
+    }
+
+    void setChunkedExecution(final boolean chunkedExecution) {
+        m_chunkedExecution = chunkedExecution;
+    }
+
+    /**
+     * @return the number of input rows per chunk in chunked execution mode
+     */
+    int getExecutionChunkSize() {
+        return m_executionChunkSize;
+    }
+
+    void setExecutionChunkSize(final int executionChunkSize) {
+        m_executionChunkSize = executionChunkSize;
+    }
+
+    @Override
+    public void saveTo(final NodeSettingsWO settings) {
+        super.saveTo(settings);
+        settings.addBoolean(CFG_KEY_CHUNKED_EXECUTION, m_chunkedExecution);
+        settings.addInt(CFG_KEY_EXECUTION_CHUNK_SIZE, m_executionChunkSize);
+    }
+
+    @Override
+    public void loadFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        super.loadFrom(settings);
+        // backward compatibility (4.5): process the entire table at once, as before
+        m_chunkedExecution = settings.getBoolean(CFG_KEY_CHUNKED_EXECUTION, false);
+        m_executionChunkSize = settings.getInt(CFG_KEY_EXECUTION_CHUNK_SIZE, DEFAULT_EXECUTION_CHUNK_SIZE);
+        if (m_executionChunkSize < 1) {
+            throw new InvalidSettingsException(
+                "The number of rows per execution chunk must be positive but was " + m_executionChunkSize + ".");
+        }
+    }
+
+    @Override
+    public void loadFromInDialog(final NodeSettingsRO settings) {
+        super.loadFromInDialog(settings);
+        m_chunkedExecution = settings.getBoolean(CFG_KEY_CHUNKED_EXECUTION, false);
+        m_executionChunkSize = Math.max(1, settings.getInt(CFG_KEY_EXECUTION_CHUNK_SIZE, DEFAULT_EXECUTION_CHUNK_SIZE));
+    }
 }
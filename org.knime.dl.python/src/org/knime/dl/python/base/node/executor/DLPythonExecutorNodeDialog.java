@@ -47,6 +47,22 @@
  */
 package org.knime.dl.python.base.node.executor;
 
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.NotConfigurableException;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
 import org.knime.dl.python.base.node.DLPythonNodeDialogContent;
 import org.knime.python2.nodes.PythonDataAwareNodeDialog;
 import org.knime.python2.nodes.PythonNodeDialogContent;
@@ -58,13 +74,78 @@
 final class DLPythonExecutorNodeDialog extends PythonDataAwareNodeDialog {
 
     public static DLPythonExecutorNodeDialog create() {
-        final DLPythonExecutorNodeDialog dialog = new DLPythonExecutorNodeDialog();
+        final DLPythonExecutorNodeConfig config = new DLPythonExecutorNodeConfig();
+        final DLPythonExecutorNodeDialog dialog = new DLPythonExecutorNodeDialog(config);
         final PythonNodeDialogContent content =
-            DLPythonNodeDialogContent.createDialogContent(dialog, DLPythonExecutorNodeConfig.getInputPorts(),
-                new DLPythonExecutorNodeConfig(), DLPythonExecutorNodeConfig.getVariableNames(), "dl-python-executor");
+            DLPythonNodeDialogContent.createDialogContent(dialog, DLPythonExecutorNodeConfig.getInputPorts(), config,
+                DLPythonExecutorNodeConfig.getVariableNames(), "dl-python-executor");
         dialog.initializeContent(content);
+        dialog.addTab("Chunked Execution", dialog.createChunkedExecutionPanel());
         return dialog;
     }
 
-    private DLPythonExecutorNodeDialog() {}
+    /**
+     * The config instance that is shared with the dialog content, which loads and saves it.
+     */
+    private final DLPythonExecutorNodeConfig m_config;
+
+    private final JCheckBox m_chunkedExecution = new JCheckBox("Pass input table to '"
+        + DLPythonExecutorNodeConfig.CHUNK_FUNCTION_NAME + "' in chunks");
+
+    private final JSpinner m_executionChunkSize = new JSpinner(
+        new SpinnerNumberModel(DLPythonExecutorNodeConfig.DEFAULT_EXECUTION_CHUNK_SIZE, 1, Integer.MAX_VALUE, 100));
+
+    private DLPythonExecutorNodeDialog(final DLPythonExecutorNodeConfig config) {
+        m_config = config;
+    }
+
+    private JPanel createChunkedExecutionPanel() {
+        final JPanel panel = new JPanel(new GridBagLayout());
+        final GridBagConstraints gbc = new GridBagConstraints();
+        gbc.anchor = GridBagConstraints.NORTHWEST;
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.gridwidth = 2;
+        panel.add(m_chunkedExecution, gbc);
+        gbc.gridy++;
+        gbc.gridwidth = 1;
+        panel.add(new JLabel("Rows per execution chunk"), gbc);
+        gbc.gridx++;
+        panel.add(m_executionChunkSize, gbc);
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.weightx = 1;
+        gbc.weighty = 1;
+        panel.add(new JPanel(), gbc);
+        m_chunkedExecution.addChangeListener(e -> m_executionChunkSize.setEnabled(m_chunkedExecution.isSelected()));
+        return panel;
+    }
+
+    @Override
+    protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSettingsException {
+        m_config.setChunkedExecution(m_chunkedExecution.isSelected());
+        m_config.setExecutionChunkSize((Integer)m_executionChunkSize.getValue());
+        super.saveSettingsTo(settings);
+    }
+
+    @Override
+    protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec[] specs)
+        throws NotConfigurableException {
+        super.loadSettingsFrom(settings, specs);
+        refreshChunkedExecutionPanel();
+    }
+
+    @Override
+    protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObject[] input)
+        throws NotConfigurableException {
+        super.loadSettingsFrom(settings, input);
+        refreshChunkedExecutionPanel();
+    }
+
+    private void refreshChunkedExecutionPanel() {
+        m_chunkedExecution.setSelected(m_config.isChunkedExecution());
+        m_executionChunkSize.setValue(m_config.getExecutionChunkSize());
+        m_executionChunkSize.setEnabled(m_config.isChunkedExecution());
+    }
 }
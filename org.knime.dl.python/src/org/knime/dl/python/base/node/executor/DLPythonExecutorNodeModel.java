@@ -51,7 +51,9 @@
 import java.util.Collection;
 
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.container.CloseableRowIterator;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.ExecutionContext;
@@ -73,6 +75,7 @@
 import org.knime.dl.python.core.DLPythonNetworkLoader;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
 import org.knime.dl.python.core.DLPythonNetworkPortObject;
+import org.knime.python2.generic.VariableNames;
 import org.knime.python2.kernel.PythonExecutionMonitorCancelable;
 
 /**
@@ -125,6 +128,9 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
 			setWarningMessage("Input table is empty. Node created an empty output table.");
 			return new PortObject[] { emptyContainer.getTable() };
 		}
+		if (getConfig().isChunkedExecution()) {
+			return new PortObject[] { executeChunked(inData[IN_NETWORK_PORT_IDX], inTable, exec) };
+		}
 		BufferedDataTable outTable = null;
         final DLCancelable cancelable = new DLExecutionMonitorCancelable(exec);
         try (final DLPythonContext context = getNextContextFromQueue(new PythonExecutionMonitorCancelable(exec))) {
@@ -149,6 +155,94 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
 		return new BufferedDataTable[] { outTable };
 	}
 
+	/**
+	 * Runs the user script once and then passes the input rows to its chunk function in chunks of the configured size.
+	 * Only a single input and output chunk are held at a time.
+	 */
+	private BufferedDataTable executeChunked(final PortObject networkPortObject, final BufferedDataTable inTable,
+			final ExecutionContext exec) throws Exception {
+		final VariableNames vars = DLPythonExecutorNodeConfig.getVariableNames();
+		final String inputTableName = vars.getInputTables()[0];
+		final String outputTableName = vars.getOutputTables()[0];
+		final String chunkFunction = DLPythonExecutorNodeConfig.CHUNK_FUNCTION_NAME;
+		final DLCancelable cancelable = new DLExecutionMonitorCancelable(exec);
+		try (final DLPythonContext context = getNextContextFromQueue(new PythonExecutionMonitorCancelable(exec))) {
+			context.getKernel().putFlowVariables(vars.getFlowVariables(), getAvailableFlowVariables().values());
+			final DLPythonNetwork network = ((DLPythonNetworkPortObject<?>) networkPortObject)
+					.getNetwork(getPythonCommand());
+			setupNetwork(network, context, cancelable);
+			final BufferedDataTable outTable = executeInChunks(inTable, getConfig().getExecutionChunkSize(),
+					(inChunk, chunkIndex) -> {
+						context.getKernel().putDataTable(inputTableName, inChunk, exec.createSubProgress(0));
+						if (chunkIndex == 0) {
+							// the script sees the first chunk as input table and is expected to define the chunk
+							// function
+							updateStdoutStderr(context.executeInKernel(getConfig().getSourceCode(), cancelable));
+							updateStdoutStderr(context.executeInKernel("if not callable(globals().get('"
+									+ chunkFunction + "')):\n" //
+									+ "    raise NameError(\"Chunked execution requires the script to define a function '"
+									+ chunkFunction + "(" + inputTableName
+									+ ")' that returns the output table of a chunk.\")", cancelable));
+						}
+						updateStdoutStderr(context.executeInKernel(
+								"global " + outputTableName + "\n" //
+										+ outputTableName + " = " + chunkFunction + "(" + inputTableName + ")",
+								cancelable));
+						return context.getKernel().getDataTable(outputTableName, exec, exec.createSubProgress(0));
+					}, exec);
+			addNewVariables(context.getKernel().getFlowVariables(vars.getFlowVariables()));
+			return outTable;
+		}
+	}
+
+	/**
+	 * Splits the given table into chunks of the given size, passes each chunk to the given function and concatenates
+	 * the returned tables. Each input and output chunk is cleared as soon as it has been processed.
+	 *
+	 * @return the concatenated output table, an empty table if the input table is empty
+	 * @throws IllegalStateException if an output chunk differs in structure from the first output chunk
+	 */
+	static BufferedDataTable executeInChunks(final BufferedDataTable inTable, final int chunkSize,
+			final DLChunkFunction chunkFunction, final ExecutionContext exec) throws Exception {
+		final DataTableSpec inSpec = inTable.getDataTableSpec();
+		final long numRows = inTable.size();
+		BufferedDataContainer outContainer = null;
+		long numRowsProcessed = 0;
+		try (final CloseableRowIterator rows = inTable.iterator()) {
+			for (long chunkIndex = 0; rows.hasNext(); chunkIndex++) {
+				exec.checkCanceled();
+				final BufferedDataContainer inChunkContainer = exec.createDataContainer(inSpec);
+				for (int i = 0; i < chunkSize && rows.hasNext(); i++) {
+					inChunkContainer.addRowToTable(rows.next());
+				}
+				inChunkContainer.close();
+				final BufferedDataTable inChunk = inChunkContainer.getTable();
+				final BufferedDataTable outChunk = chunkFunction.apply(inChunk, chunkIndex);
+				if (outContainer == null) {
+					outContainer = exec.createDataContainer(outChunk.getDataTableSpec());
+				} else if (!outContainer.getTableSpec().equalStructure(outChunk.getDataTableSpec())) {
+					throw new IllegalStateException("The output table of chunk " + (chunkIndex + 1)
+							+ " differs in structure from the output table of the first chunk. Please make sure that '"
+							+ DLPythonExecutorNodeConfig.CHUNK_FUNCTION_NAME
+							+ "' always returns the same columns with the same types.");
+				}
+				for (final DataRow row : outChunk) {
+					outContainer.addRowToTable(row);
+				}
+				numRowsProcessed += inChunk.size();
+				exec.clearTable(inChunk);
+				exec.clearTable(outChunk);
+				exec.setProgress(numRowsProcessed / (double) numRows,
+						"Processed " + numRowsProcessed + " of " + numRows + " rows.");
+			}
+		}
+		if (outContainer == null) {
+			outContainer = exec.createDataContainer(new DataTableSpec());
+		}
+		outContainer.close();
+		return outContainer.getTable();
+	}
+
 	@Override
 	protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
 		final DataTableSpec inTableSpec = (DataTableSpec) inSpecs[IN_DATA_PORT_IDX];
@@ -179,4 +273,19 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
 	protected DLPythonExecutorNodeConfig createConfig() {
 		return new DLPythonExecutorNodeConfig();
 	}
+
+	/**
+	 * Computes the output table of a single chunk of the input table.
+	 */
+	@FunctionalInterface
+	interface DLChunkFunction {
+
+		/**
+		 * @param inChunk the input rows of the chunk
+		 * @param chunkIndex the zero-based index of the chunk
+		 * @return the output rows of the chunk
+		 * @throws Exception if processing the chunk failed
+		 */
+		BufferedDataTable apply(BufferedDataTable inChunk, long chunkIndex) throws Exception;
+	}
 }
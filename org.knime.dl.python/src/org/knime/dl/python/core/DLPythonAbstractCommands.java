@@ -50,10 +50,13 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -89,6 +92,8 @@
 import org.knime.dl.python.core.data.DLPythonDataBuffer;
 import org.knime.dl.python.core.data.serde.DLPythonDeserializer;
 import org.knime.dl.python.core.data.serde.DLPythonDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonSharedMemoryBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonSharedMemoryTransport;
 import org.knime.dl.python.core.data.serde.DLSerializerFactory;
 import org.knime.dl.python.core.training.DLPythonTrainingStatus;
 import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
@@ -182,11 +187,22 @@ public abstract class DLPythonAbstractCommands implements DLPythonCommands {
 
     private final Map<DLTensorId, DLPythonTableChunker> m_tableChunkers = new HashMap<>();
 
+    /**
+     * Used to give each table chunker's shared memory file a unique name.
+     */
+    private int m_numTableChunkersCreated = 0;
+
     /**
      * Set to <code>true</code> if the setup steps in {@link #getContext()} were successful.
      */
     private boolean m_contextSetup = false;
 
+    /**
+     * The directory of the {@link DLPythonSharedMemoryTransport shared memory transport}. <code>null</code> if the
+     * transport is disabled or could not be set up.
+     */
+    private Path m_sharedMemoryDirectory;
+
     /**
      * Creates a new instance of this commands class that uses the given context to communicate with Python.
      *
@@ -260,7 +276,9 @@ public final synchronized DLPythonContext getContext(final DLCancelable cancelab
                         + (e.getMessage() != null ? "\nCause: " + e.getMessage() : ""),
                     e);
             }
-
+            if (DLPythonSharedMemoryTransport.isEnabled()) {
+                setupSharedMemoryTransport(cancelable);
+            }
             m_contextSetup = true;
         }
         return m_context;
@@ -564,7 +582,13 @@ public void trainNetwork(final DLPythonNetworkHandle network, final DLNetworkInp
      */
     @Override
     public synchronized void close() {
+        for (final DLPythonTableChunker tableChunker : m_tableChunkers.values()) {
+            tableChunker.close();
+        }
+        m_tableChunkers.clear();
         m_context.close();
+        DLPythonSharedMemoryTransport.deleteTransportDirectory(m_sharedMemoryDirectory);
+        m_sharedMemoryDirectory = null;
     }
 
     protected String getRegisterNetworkCode(final String networkVariable, final String networkIdentifier) {
@@ -629,11 +653,39 @@ protected Version getPythonVersion(final DLCancelable cancelable)
         return new Version(pythonVersion);
     }
 
+    /**
+     * Sets up the shared memory transport. Failures are not fatal, the regular transport is used instead.
+     */
+    private void setupSharedMemoryTransport(final DLCancelable cancelable) throws DLCanceledExecutionException {
+        Path directory = null;
+        try {
+            directory = DLPythonSharedMemoryTransport.createTransportDirectory();
+            final String setupCode = DLPythonUtils.createSourceCodeBuilder() //
+                .a("import DLPythonSharedMemory") //
+                .n("DLPythonSharedMemory.enable(").asr(directory.toString()).a(")").toString();
+            final String error = m_context.executeInKernel(setupCode, cancelable)[1];
+            if (!error.isEmpty()) {
+                throw new IOException(error);
+            }
+            m_sharedMemoryDirectory = directory;
+        } catch (final IOException e) {
+            LOGGER.warn("Shared memory transport could not be set up, falling back to regular transport."
+                + (e.getMessage() != null ? "\nCause: " + e.getMessage() : ""), e);
+            DLPythonSharedMemoryTransport.deleteTransportDirectory(directory);
+        }
+    }
+
     private TableChunker createSingleTensorTableChunker(final DLTensorId tensorId,
         final DLTensor<? extends DLWritableBuffer> tensor) throws IOException {
         DLPythonTableChunker tableChunker = m_tableChunkers.get(tensorId);
+        // commands may be reused for tensors of a different shape (e.g. if they were pooled)
+        if (tableChunker != null && !tableChunker.m_tensorSpec.equals(tensor.getSpec())) {
+            tableChunker.close();
+            tableChunker = null;
+        }
         if (tableChunker == null) {
-            tableChunker = new DLPythonTableChunker(tensor);
+            tableChunker =
+                new DLPythonTableChunker(tensor, m_sharedMemoryDirectory, "input_" + m_numTableChunkersCreated++);
             m_tableChunkers.put(tensorId, tableChunker);
         }
         tableChunker.resetWithNextTensor(tensor);
@@ -659,18 +711,41 @@ private static final class DLPythonTableChunker implements TableChunker {
 
         private final Row m_row;
 
-        private DLPythonTableChunker(final DLTensor<? extends DLWritableBuffer> tensor) {
+        private final DLTensorSpec m_tensorSpec;
+
+        /**
+         * @param sharedMemoryDirectory the directory of the shared memory transport, <code>null</code> if the regular
+         *            transport should be used
+         * @param sharedMemoryFileName the name of the shared memory file of the tensor, unique per directory
+         */
+        private DLPythonTableChunker(final DLTensor<? extends DLWritableBuffer> tensor,
+            final Path sharedMemoryDirectory, final String sharedMemoryFileName) {
+            m_tensorSpec = tensor.getSpec();
             // Create the serializer
-            final KnimeToPythonExtension extension = KnimeToPythonExtensions.getExtensions().stream()
-                .filter(ext -> (ext.getJavaSerializerFactory() instanceof DLSerializerFactory)
-                    && ((DLSerializerFactory)ext.getJavaSerializerFactory()).getBufferType()
-                        .isAssignableFrom(tensor.getBuffer().getClass()))
-                .findFirst() //
-                .orElseThrow(() -> new RuntimeException(
-                    "Transmitting data to Python failed. No matching serializer available."));
-            // TODO: if nothing found, we should also try to match primitive types with their wrapper types (guava
-            // Primitives.wrap etc.)
-            m_serializer = (Serializer<DLPythonDataBuffer<?>>)extension.getJavaSerializerFactory().createSerializer();
+            final KnimeToPythonExtension extension;
+            if (sharedMemoryDirectory != null
+                && DLPythonSharedMemoryTransport.getNumPyType((DLPythonDataBuffer<?>)tensor.getBuffer()) != null) {
+                extension = KnimeToPythonExtensions.getExtensions().stream()
+                    .filter(ext -> ext.getId().equals(DLPythonSharedMemoryBufferSerializerFactory.IDENTIFIER))
+                    .findFirst() //
+                    .orElseThrow(() -> new RuntimeException(
+                        "Transmitting data to Python failed. Shared memory serializer is not available."));
+                m_serializer = ((DLPythonSharedMemoryBufferSerializerFactory)extension.getJavaSerializerFactory())
+                    .createSerializer(sharedMemoryDirectory, sharedMemoryFileName);
+            } else {
+                extension = KnimeToPythonExtensions.getExtensions().stream()
+                    .filter(ext -> (ext.getJavaSerializerFactory() instanceof DLSerializerFactory)
+                        && !(ext.getJavaSerializerFactory() instanceof DLPythonSharedMemoryBufferSerializerFactory)
+                        && ((DLSerializerFactory)ext.getJavaSerializerFactory()).getBufferType()
+                            .isAssignableFrom(tensor.getBuffer().getClass()))
+                    .findFirst() //
+                    .orElseThrow(() -> new RuntimeException(
+                        "Transmitting data to Python failed. No matching serializer available."));
+                // TODO: if nothing found, we should also try to match primitive types with their wrapper types (guava
+                // Primitives.wrap etc.)
+                m_serializer =
+                    (Serializer<DLPythonDataBuffer<?>>)extension.getJavaSerializerFactory().createSerializer();
+            }
 
             // Create the shape cell (the same every time)
             final long[] shape = DLUtils.Shapes.getFixedShape(tensor.getSpec().getShape())
@@ -717,6 +792,16 @@ private void resetWithNextTensor(final DLTensor<? extends DLWritableBuffer> tens
             m_iterator.reset();
             m_hasNextChunk = true;
         }
+
+        private void close() {
+            if (m_serializer instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable)m_serializer).close();
+                } catch (final Exception e) {
+                    LOGGER.debug("Failed to release the serializer of a table chunker.", e);
+                }
+            }
+        }
     }
 
     private static final class DLPythonResettableTableIterator implements TableIterator {
@@ -1024,6 +1109,9 @@ protected boolean handleCustomMessage(final Message message, final IntSupplier r
                     case "batch_end":
                         handleBatchEnd(message);
                         break;
+                    case "batch_metrics":
+                        handleBatchMetrics(message);
+                        break;
                     default:
                         return false;
                 }
@@ -1117,6 +1205,35 @@ private void handleBatchEnd(final Message message) {
                 }
                 i++;
             }
+            onBatchEnded();
+        }
+
+        /**
+         * Handles the metrics of several batches that were collected on Python side to reduce messaging overhead. The
+         * frame consists of the number of batches and the number of metrics (ints) followed by the values of the
+         * batches (floats) per metric.
+         */
+        private void handleBatchMetrics(final Message message) {
+            final ByteBuffer frame = ByteBuffer.wrap(message.getPayload());
+            final int numBatches = frame.getInt();
+            final int numMetrics = frame.getInt();
+            final Iterator<DLReportedMetric> metrics = batchMetrics.values().iterator();
+            for (int i = 0; i < numMetrics; i++) {
+                final float[] values = new float[numBatches];
+                frame.asFloatBuffer().get(values);
+                frame.position(frame.position() + numBatches * Float.BYTES);
+                if (metrics.hasNext()) {
+                    metrics.next().setBatchValues(values);
+                }
+            }
+            // Batch begin messages are not sent for batches that are reported at once, so advance the status here.
+            for (int i = 0; i < numBatches; i++) {
+                m_status.batchStarted().raise(null);
+            }
+            onBatchEnded();
+        }
+
+        private void onBatchEnded() {
             m_status.batchEnded().raise(batchMetrics);
             // Start validation phase if validation is enabled and we finished the last training batch of the
             // epoch.
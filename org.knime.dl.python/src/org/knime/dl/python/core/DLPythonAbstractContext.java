@@ -109,7 +109,8 @@ public DLPythonAbstractContext(final PythonKernel kernel) {
     /**
      * @return the Python command for this {@link DLPythonContext}. Used for executing scripts.
      */
-    protected abstract PythonCommand getPythonCommand();
+    @Override
+    public abstract PythonCommand getPythonCommand();
 
     @Override
     public boolean isKernelOpen() {
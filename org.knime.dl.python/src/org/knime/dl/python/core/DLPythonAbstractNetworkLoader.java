@@ -81,17 +81,33 @@ protected abstract DLPythonAbstractCommands createCommands(DLPythonContext conte
         throws DLInvalidEnvironmentException;
 
     /**
-     * This implementation performs no caching of any test results. The value of {@code forceRefresh} has no effect.
+     * This implementation caches the outcomes of the installation tests in the
+     * {@link DLPythonInstallationTestCache process-wide cache}, keyed by a fingerprint of the Python environment of the
+     * given context. The installation test is only run if no outcome is cached for the current state of the
+     * environment or if {@code forceRefresh} is <code>true</code>.
      * <P>
      * {@inheritDoc}
-     *
-     * @param forceRefresh Has no effect.
      */
     @Override
     public final void checkAvailability(final DLPythonContext context, final boolean forceRefresh,
         final int timeout, final DLCancelable cancelable)
         throws DLMissingDependencyException, DLInstallationTestTimeoutException {
-        new DLPythonInstallationTester().testInstallation(context, timeout, this, cancelable);
+        final DLPythonInstallationTestCache cache = DLPythonInstallationTestCache.getInstance();
+        final String fingerprint = cache.createFingerprint(context, getNetworkType().getCanonicalName());
+        if (fingerprint == null) {
+            new DLPythonInstallationTester().testInstallation(context, timeout, this, cancelable);
+            return;
+        }
+        if (!forceRefresh && cache.checkCachedOutcome(fingerprint)) {
+            return;
+        }
+        try {
+            new DLPythonInstallationTester().testInstallation(context, timeout, this, cancelable);
+        } catch (final DLMissingDependencyException e) {
+            cache.putFailure(fingerprint, e);
+            throw e;
+        }
+        cache.putSuccess(fingerprint);
     }
 
     @Override
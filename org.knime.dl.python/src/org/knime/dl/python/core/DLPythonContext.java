@@ -53,6 +53,7 @@
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLUncheckedException;
+import org.knime.python2.PythonCommand;
 import org.knime.python2.extensions.serializationlibrary.interfaces.TableChunker;
 import org.knime.python2.extensions.serializationlibrary.interfaces.TableCreator;
 import org.knime.python2.extensions.serializationlibrary.interfaces.TableCreatorFactory;
@@ -66,6 +67,12 @@ public interface DLPythonContext extends AutoCloseable {
 
 	boolean isKernelOpen();
 
+    /**
+     * @return the Python command that is used to start the kernel of this context and to execute scripts
+     * @since 4.5
+     */
+    PythonCommand getPythonCommand();
+
 	PythonKernel getKernel() throws DLInvalidEnvironmentException;
 
 	// NB: we cannot offer an execute method that allows direct execution of a source code string as there are known
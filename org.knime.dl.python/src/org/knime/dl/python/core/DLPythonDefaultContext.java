@@ -76,8 +76,11 @@ public DLPythonDefaultContext(final PythonKernel kernel) {
         m_command = kernel.getPythonCommand();
     }
 
+    /**
+     * @return the Python command that is used to start the kernel of this context
+     */
     @Override
-    protected PythonCommand getPythonCommand() {
+    public PythonCommand getPythonCommand() {
         return m_command;
     }
 }
@@ -54,6 +54,7 @@
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.DLTransportPrecision;
 import org.knime.dl.core.data.DLBuffer;
 import org.knime.dl.core.data.DLReadableBitBuffer;
 import org.knime.dl.core.data.DLReadableBuffer;
@@ -81,7 +82,10 @@
 import org.knime.dl.python.core.data.DLPythonFloatBuffer;
 import org.knime.dl.python.core.data.DLPythonIntBuffer;
 import org.knime.dl.python.core.data.DLPythonLongBuffer;
+import org.knime.dl.python.core.data.DLPythonPackedBitBuffer;
+import org.knime.dl.python.core.data.DLPythonReducedPrecisionBuffer;
 import org.knime.dl.python.core.data.DLPythonShortBuffer;
+import org.knime.dl.python.core.data.DLPythonSparseFloatBuffer;
 import org.knime.dl.python.core.data.DLPythonStringBuffer;
 import org.knime.dl.python.core.data.DLPythonUnsignedByteBuffer;
 import org.knime.dl.util.DLUtils;
@@ -150,21 +154,46 @@ public Class<? extends DLReadableBuffer> getReadableBufferType(final DLTensorSpe
 
 	@Override
 	public DLTensor<? extends DLWritableBuffer> createWritableTensor(final DLTensorSpec spec) {
-		return createTensorInternal(spec);
+		return createTensorInternal(spec, true);
 	}
 
 	@Override
 	public DLTensor<? extends DLReadableBuffer> createReadableTensor(final DLTensorSpec spec) {
-		return createTensorInternal(spec);
+		return createTensorInternal(spec, false);
 	}
 
 	@Override
 	public DLTensorSpec createExecutionTensorSpec(final DLTensorSpec spec, final long batchSize, final long[] shape) {
+		// keep the sparsity and transport precision, e.g. when deriving the validation spec from the training spec
+		final DLTransportPrecision precision = spec instanceof DLPythonReducedPrecisionTensorSpec
+				? ((DLPythonReducedPrecisionTensorSpec) spec).getPrecision()
+				: DLTransportPrecision.FULL;
+		return createExecutionTensorSpec(spec, batchSize, shape, spec instanceof DLPythonSparseTensorSpec, precision);
+	}
+
+	@Override
+	public DLTensorSpec createExecutionTensorSpec(final DLTensorSpec spec, final long batchSize, final long[] shape,
+			final boolean sparse) {
+		return createExecutionTensorSpec(spec, batchSize, shape, sparse, DLTransportPrecision.FULL);
+	}
+
+	@Override
+	public DLTensorSpec createExecutionTensorSpec(final DLTensorSpec spec, final long batchSize, final long[] shape,
+			final boolean sparse, final DLTransportPrecision precision) {
+		final Class<?> t = spec.getElementType();
+		// only float tensors have a sparse buffer
+		if (sparse && t.equals(float.class)) {
+			return new DLPythonSparseTensorSpec(spec, batchSize, new DLDefaultFixedTensorShape(shape));
+		}
+		if (precision.isReduced() && (t.equals(float.class) || t.equals(double.class))) {
+			return new DLPythonReducedPrecisionTensorSpec(spec, batchSize, new DLDefaultFixedTensorShape(shape),
+					precision);
+		}
 		return new DLDefaultTensorSpec(spec.getIdentifier(), spec.getName(), batchSize,
 				new DLDefaultFixedTensorShape(shape), spec.getElementType(), spec.getDimensionOrder());
 	}
 
-	private <B extends DLBuffer> DLTensor<B> createTensorInternal(final DLTensorSpec spec) {
+	private <B extends DLBuffer> DLTensor<B> createTensorInternal(final DLTensorSpec spec, final boolean writable) {
 		final long[] shape = DLUtils.Shapes.getFixedShape(spec.getShape())
 				.orElseThrow(() -> new IllegalArgumentException(
 						"Tensor spec '" + spec.getName() + "' does not provide a shape. Tensor cannot be created."));
@@ -178,12 +207,18 @@ private <B extends DLBuffer> DLTensor<B> createTensorInternal(final DLTensorSpec
 		final Class<?> t = spec.getElementType();
 		// TODO: handle unsafe casts
 		final Supplier<B> s;
-		if (t.equals(double.class)) {
+		if (writable && spec instanceof DLPythonReducedPrecisionTensorSpec) {
+			// narrowed during serialization, see DLPythonReducedPrecisionBufferSerializerFactory
+			final DLTransportPrecision precision = ((DLPythonReducedPrecisionTensorSpec) spec).getPrecision();
+			s = () -> (B) new DLPythonReducedPrecisionBuffer(size, precision);
+		} else if (t.equals(double.class)) {
 			s = () -> (B) new DLPythonDoubleBuffer(size);
 		} else if (t.equals(float.class)) {
-			s = () -> (B) new DLPythonFloatBuffer(size);
+			s = spec instanceof DLPythonSparseTensorSpec ? () -> (B) new DLPythonSparseFloatBuffer(size)
+					: () -> (B) new DLPythonFloatBuffer(size);
 		} else if (t.equals(boolean.class)) {
-			s = () -> (B) new DLPythonBitBuffer(size);
+			// input bits are sent packed, outputs are filled by the deserializer of the plain bit buffer
+			s = writable ? () -> (B) new DLPythonPackedBitBuffer(size) : () -> (B) new DLPythonBitBuffer(size);
 		} else if (t.equals(UnsignedBytes.class)) {
 			s = () -> (B) new DLPythonUnsignedByteBuffer(size);
 		} else if (t.equals(byte.class)) {
@@ -0,0 +1,122 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.knime.core.util.FileUtil;
+
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Utility methods to compute the fingerprints that key the caches of the Python based back ends, e.g. the
+ * {@link DLPythonInstallationTestCache installation test cache} and the {@link DLPythonKernelPool kernel pool}.
+ *
+ * @since 4.5
+ */
+public final class DLPythonFingerprints {
+
+    private DLPythonFingerprints() {
+        // utility class
+    }
+
+    /**
+     * @param value the value to hash
+     * @return the SHA-256 hash of the UTF-8 encoded value as lowercase hexadecimal string
+     */
+    public static String sha256(final String value) {
+        return Hashing.sha256().hashString(value, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Reads the given stream to its end but does not close it.
+     *
+     * @param in the stream whose content to hash
+     * @return the SHA-256 hash of the content as lowercase hexadecimal string
+     * @throws IOException if reading the stream failed
+     */
+    public static String sha256(final InputStream in) throws IOException {
+        final HashingInputStream hashingIn = new HashingInputStream(Hashing.sha256(), in);
+        ByteStreams.copy(hashingIn, ByteStreams.nullOutputStream());
+        return hashingIn.hash().toString();
+    }
+
+    /**
+     * Returns the state of the given file or directory in the form <code>path@modificationTime#size</code>. The state
+     * changes whenever the file is modified.
+     *
+     * @param path the file or directory
+     * @return the state of the file or directory
+     * @throws IOException if the attributes of the file or directory could not be read
+     */
+    public static String getFileState(final Path path) throws IOException {
+        final BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        return path + "@" + attrs.lastModifiedTime().toMillis() + "#" + attrs.size();
+    }
+
+    /**
+     * Resolves the given URI to a local file. Besides <code>file</code> URIs, this includes workflow-relative and
+     * mountpoint-relative (<code>knime</code>) URIs that point to local files.
+     *
+     * @param uri the URI to resolve
+     * @return the real path of the local file or <code>null</code> if the URI does not point to an existing local
+     *         file, e.g. because it points to a remote location
+     * @throws IOException if the URI is invalid or its path could not be resolved
+     */
+    public static Path resolveLocalFile(final URI uri) throws IOException {
+        final File file = FileUtil.getFileFromURL(FileUtil.toURL(uri.toString()));
+        return file != null && file.isFile() ? file.toPath().toRealPath() : null;
+    }
+}
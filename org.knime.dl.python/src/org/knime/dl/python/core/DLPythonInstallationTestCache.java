@@ -0,0 +1,330 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLMissingDependencyException;
+import org.knime.python2.PythonCommand;
+import org.knime.python2.PythonModuleSpec;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Process-wide cache of the outcomes of back end installation tests. Outcomes are keyed by a fingerprint of the tested
+ * back end and the Python environment it runs in: the Python command, the files and directories it refers to, the
+ * version of this plug-in, and the state of the <code>site-packages</code> directories of the environment with respect
+ * to the modules of all registered {@link DLPythonModuleDependency module dependencies}. Installing, updating or
+ * removing packages changes the fingerprint and thereby invalidates the cached outcome. Outcomes for environments
+ * whose <code>site-packages</code> directories cannot be located are not cached.
+ * <P>
+ * Successful outcomes are persisted in the KNIME home directory and survive restarts. Failures are only kept for the
+ * lifetime of the process so that a fixed environment is picked up at the latest after a restart. Timeouts and
+ * cancellations are never cached.
+ */
+public final class DLPythonInstallationTestCache {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonInstallationTestCache.class);
+
+    private static final String CACHE_FILE_NAME = "dl-python-installation-tests.properties";
+
+    private static final DLPythonInstallationTestCache INSTANCE = new DLPythonInstallationTestCache();
+
+    /**
+     * @return the singleton instance
+     */
+    public static DLPythonInstallationTestCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<String, DLMissingDependencyException> m_failures = new ConcurrentHashMap<>();
+
+    private Properties m_successes;
+
+    private DLPythonInstallationTestCache() {
+    }
+
+    /**
+     * Computes the fingerprint of the given back end and the Python environment of the given context.
+     *
+     * @param context the Python context whose environment is fingerprinted
+     * @param backend identifies the back end, e.g. the canonical name of its network type
+     * @return the fingerprint or <code>null</code> if the environment cannot be fingerprinted, in which case the
+     *         outcome of the installation test must not be cached
+     */
+    public String createFingerprint(final DLPythonContext context, final String backend) {
+        final PythonCommand command = context.getPythonCommand();
+        if (command == null) {
+            return null;
+        }
+        return createFingerprint(backend, command.toString(), command.createProcessBuilder().command());
+    }
+
+    /**
+     * The environment is only fingerprinted if a <code>site-packages</code> directory that contains at least one of
+     * the modules of the registered module dependencies can be located relative to the files the command refers to.
+     * Otherwise (e.g. for wrapper scripts outside of the environment, system or user-site installations) the
+     * fingerprint would not change if packages were installed or removed.
+     */
+    String createFingerprint(final String backend, final String command, final List<String> commandTokens) {
+        try {
+            final StringBuilder sb = new StringBuilder();
+            sb.append("backend=").append(backend).append('\n');
+            sb.append("plugin=").append(FrameworkUtil.getBundle(DLPythonInstallationTestCache.class).getVersion())
+                .append('\n');
+            sb.append("command=").append(command).append('\n');
+            final Set<Path> environmentDirs = new TreeSet<>();
+            for (final String token : commandTokens) {
+                final Path path = toExistingPath(token);
+                if (path != null) {
+                    appendFileState(sb, path);
+                    // conda environment directories are passed to the start scripts, executables reside in (a
+                    // subdirectory of) the environment directory
+                    environmentDirs.add(path);
+                    if (path.getParent() != null) {
+                        environmentDirs.add(path.getParent());
+                        if (path.getParent().getParent() != null) {
+                            environmentDirs.add(path.getParent().getParent());
+                        }
+                    }
+                }
+            }
+            final Set<String> moduleNames = new TreeSet<>();
+            for (final PythonModuleSpec module : DLPythonModuleDependencyRegistry.getInstance()
+                .getPythonDependenciesModules()) {
+                moduleNames.add(normalizeModuleName(module.getName()));
+            }
+            boolean foundModules = false;
+            for (final Path environmentDir : environmentDirs) {
+                for (final Path sitePackages : findSitePackages(environmentDir)) {
+                    foundModules |= appendSitePackagesState(sb, sitePackages, moduleNames);
+                }
+            }
+            if (!foundModules) {
+                LOGGER.debug("The site-packages directory of Python command '" + command
+                    + "' could not be located. Installation test results will not be cached.");
+                return null;
+            }
+            return DLPythonFingerprints.sha256(sb.toString());
+        } catch (final Exception e) {
+            LOGGER.debug("Python environment could not be fingerprinted. Installation test results will not be cached.",
+                e);
+            return null;
+        }
+    }
+
+    /**
+     * Throws the cached failure of the installation test with the given fingerprint, if any.
+     *
+     * @param fingerprint the fingerprint, see {@link #createFingerprint(DLPythonContext, String)}
+     * @return <code>true</code> if a successful outcome is cached, <code>false</code> if no outcome is cached
+     * @throws DLMissingDependencyException the cached failure
+     */
+    public boolean checkCachedOutcome(final String fingerprint) throws DLMissingDependencyException {
+        final DLMissingDependencyException failure = m_failures.get(fingerprint);
+        if (failure != null) {
+            throw new DLMissingDependencyException(failure.getMessage(), failure);
+        }
+        synchronized (this) {
+            return getSuccesses().containsKey(fingerprint);
+        }
+    }
+
+    /**
+     * Caches a successful installation test.
+     *
+     * @param fingerprint the fingerprint, see {@link #createFingerprint(DLPythonContext, String)}
+     */
+    public void putSuccess(final String fingerprint) {
+        m_failures.remove(fingerprint);
+        synchronized (this) {
+            getSuccesses().setProperty(fingerprint, Long.toString(System.currentTimeMillis()));
+            store();
+        }
+    }
+
+    /**
+     * Caches a failed installation test for the lifetime of the process.
+     *
+     * @param fingerprint the fingerprint, see {@link #createFingerprint(DLPythonContext, String)}
+     * @param failure the failure
+     */
+    public void putFailure(final String fingerprint, final DLMissingDependencyException failure) {
+        m_failures.put(fingerprint, failure);
+        synchronized (this) {
+            if (getSuccesses().remove(fingerprint) != null) {
+                store();
+            }
+        }
+    }
+
+    /**
+     * Discards all cached outcomes, including the persisted ones. Subsequent availability checks will run the
+     * installation tests again.
+     */
+    public void clear() {
+        m_failures.clear();
+        synchronized (this) {
+            getSuccesses().clear();
+            store();
+        }
+    }
+
+    private Properties getSuccesses() {
+        if (m_successes == null) {
+            m_successes = new Properties();
+            final File file = getCacheFile();
+            if (file.isFile()) {
+                try (final InputStream in = Files.newInputStream(file.toPath())) {
+                    m_successes.load(in);
+                } catch (final IOException e) {
+                    LOGGER.debug("Cached installation test results could not be read. They will be discarded.", e);
+                    m_successes.clear();
+                }
+            }
+        }
+        return m_successes;
+    }
+
+    private void store() {
+        final File file = getCacheFile();
+        try (final OutputStream out = Files.newOutputStream(file.toPath())) {
+            m_successes.store(out, "Installation test results of the KNIME Deep Learning Python back ends");
+        } catch (final IOException e) {
+            LOGGER.debug("Installation test results could not be persisted.", e);
+        }
+    }
+
+    private static File getCacheFile() {
+        return new File(KNIMEConstants.getKNIMEHomeDir(), CACHE_FILE_NAME);
+    }
+
+    private static Path toExistingPath(final String token) {
+        try {
+            final Path path = Paths.get(token);
+            return path.isAbsolute() && Files.exists(path) ? path.toRealPath() : null;
+        } catch (final Exception e) { // NOSONAR not a path
+            return null;
+        }
+    }
+
+    private static List<Path> findSitePackages(final Path environmentDir) throws IOException {
+        final List<Path> sitePackages = new ArrayList<>(1);
+        // Windows layout
+        final Path windowsSitePackages = environmentDir.resolve("Lib").resolve("site-packages");
+        if (Files.isDirectory(windowsSitePackages)) {
+            sitePackages.add(windowsSitePackages);
+        }
+        // Unix layout: lib/pythonX.Y/site-packages
+        final Path lib = environmentDir.resolve("lib");
+        if (Files.isDirectory(lib)) {
+            try (final DirectoryStream<Path> pythonDirs = Files.newDirectoryStream(lib, "python*")) {
+                for (final Path pythonDir : pythonDirs) {
+                    final Path unixSitePackages = pythonDir.resolve("site-packages");
+                    if (Files.isDirectory(unixSitePackages)) {
+                        sitePackages.add(unixSitePackages);
+                    }
+                }
+            }
+        }
+        return sitePackages;
+    }
+
+    /**
+     * @return <code>true</code> if the directory contains at least one of the given modules
+     */
+    private static boolean appendSitePackagesState(final StringBuilder sb, final Path sitePackages,
+        final Set<String> moduleNames) throws IOException {
+        // the directory changes whenever a package is installed or removed
+        appendFileState(sb, sitePackages);
+        final Set<String> entries = new TreeSet<>();
+        try (final DirectoryStream<Path> children = Files.newDirectoryStream(sitePackages)) {
+            for (final Path child : children) {
+                final String name = child.getFileName().toString();
+                final String lowerCaseName = name.toLowerCase(Locale.ROOT);
+                if (lowerCaseName.endsWith(".dist-info") || lowerCaseName.endsWith(".egg-info")) {
+                    // metadata directories are named <distribution>-<version>.dist-info
+                    final int versionSeparator = name.indexOf('-');
+                    final String distribution =
+                        normalizeModuleName(versionSeparator < 0 ? name : name.substring(0, versionSeparator));
+                    if (moduleNames.contains(distribution)) {
+                        final BasicFileAttributes attrs = Files.readAttributes(child, BasicFileAttributes.class);
+                        entries.add(name + '@' + attrs.lastModifiedTime().toMillis());
+                    }
+                }
+            }
+        }
+        for (final String entry : entries) {
+            sb.append("module=").append(entry).append('\n');
+        }
+        return !entries.isEmpty();
+    }
+
+    private static void appendFileState(final StringBuilder sb, final Path path) throws IOException {
+        sb.append("file=").append(DLPythonFingerprints.getFileState(path)).append('\n');
+    }
+
+    private static String normalizeModuleName(final String name) {
+        return name.toLowerCase(Locale.ROOT).replace('-', '_');
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.data.util.memory.MemoryAlert;
+import org.knime.core.data.util.memory.MemoryAlertListener;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLNetworkLocation;
+import org.knime.python2.PythonCommand;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Node-independent pool of idle Python {@link DLPythonCommands commands} whose kernels already have a network loaded.
+ * Execution sessions that run the same network with the same Python command and back end can take over such a warm
+ * kernel instead of paying for kernel startup, back end import and network deserialization again.
+ * <P>
+ * The pool is disabled by default. Its size and the idle time after which pooled kernels are closed can be specified
+ * via VM options {@link #KERNEL_POOL_SIZE_VM_OPT} and {@link #KERNEL_POOL_IDLE_TIMEOUT_VM_OPT}. All pooled kernels
+ * are closed if {@link MemoryAlertSystem} reports low memory.
+ * <P>
+ * If additionally enabled via VM option {@link #KERNEL_POOL_HAND_OFF_VM_OPT}, training sessions park their kernel in
+ * the pool under a {@link DLPythonKernelPoolKey#createHandOff(PythonCommand, Class, DLNetworkLocation, Map) hand-off
+ * key} after saving the trained network. Execution sessions of the saved network can then adopt the kernel in which
+ * the trained network is still loaded.
+ */
+public final class DLPythonKernelPool {
+
+    /**
+     * @see #getPoolSize()
+     */
+    public static final String KERNEL_POOL_SIZE_VM_OPT = "knime.dl.python.kernelpool.size";
+
+    /**
+     * @see #getIdleTimeout()
+     */
+    public static final String KERNEL_POOL_IDLE_TIMEOUT_VM_OPT = "knime.dl.python.kernelpool.idletimeout";
+
+    /**
+     * @see #isHandOffEnabled()
+     */
+    public static final String KERNEL_POOL_HAND_OFF_VM_OPT = "knime.dl.python.kernelpool.handoff";
+
+    /**
+     * @see #getPoolSize()
+     */
+    public static final int KERNEL_POOL_DEFAULT_SIZE = 0;
+
+    /**
+     * @see #getIdleTimeout()
+     */
+    public static final int KERNEL_POOL_DEFAULT_IDLE_TIMEOUT = 300; // in s
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonKernelPool.class);
+
+    private static DLPythonKernelPool instance;
+
+    /**
+     * @return the instance of this pool
+     */
+    public static synchronized DLPythonKernelPool getInstance() {
+        if (instance == null) {
+            instance = new DLPythonKernelPool(getPositiveIntOption(KERNEL_POOL_SIZE_VM_OPT, KERNEL_POOL_DEFAULT_SIZE),
+                getPositiveIntOption(KERNEL_POOL_IDLE_TIMEOUT_VM_OPT, KERNEL_POOL_DEFAULT_IDLE_TIMEOUT),
+                Boolean.getBoolean(KERNEL_POOL_HAND_OFF_VM_OPT));
+        }
+        return instance;
+    }
+
+    private static int getPositiveIntOption(final String option, final int defaultValue) {
+        int value = -1;
+        try {
+            value = Integer.parseInt(System.getProperty(option, Integer.toString(defaultValue)));
+        } catch (final NumberFormatException ex) {
+            // Ignore, see below.
+        }
+        if (value < 0) {
+            value = defaultValue;
+            LOGGER.warn("The VM option -D" + option
+                + " was not set to a non-negative integer value, and thus defaults to " + value + ".");
+        }
+        return value;
+    }
+
+    private final int m_poolSize;
+
+    private final long m_idleTimeoutMillis;
+
+    private final boolean m_handOff;
+
+    /**
+     * Idle kernels per key. Iteration order of the map and the deques reflects the order of release (oldest first).
+     */
+    private final Map<DLPythonKernelPoolKey, Deque<DLPythonPooledKernel>> m_idle = new LinkedHashMap<>();
+
+    private int m_numIdle = 0;
+
+    private ScheduledExecutorService m_evictor;
+
+    private DLPythonKernelPool(final int poolSize, final int idleTimeout, final boolean handOff) {
+        m_poolSize = poolSize;
+        m_idleTimeoutMillis = TimeUnit.SECONDS.toMillis(idleTimeout);
+        m_handOff = handOff;
+        if (m_poolSize > 0) {
+            MemoryAlertSystem.getInstance().addListener(new MemoryAlertListener() {
+                @Override
+                protected boolean memoryAlert(final MemoryAlert alert) {
+                    LOGGER.debug("Closing pooled Python kernels due to low memory.");
+                    clear();
+                    return false;
+                }
+            });
+            Runtime.getRuntime().addShutdownHook(new Thread(this::clear, "KNIME-DL-Python-Kernel-Pool-Shutdown"));
+        }
+    }
+
+    /**
+     * @return the maximum number of idle kernels that are kept in the pool, <code>0</code> if pooling is disabled. Can
+     *         be specified by the user via VM option {@link #KERNEL_POOL_SIZE_VM_OPT}, defaults to
+     *         {@link #KERNEL_POOL_DEFAULT_SIZE}.
+     */
+    public int getPoolSize() {
+        return m_poolSize;
+    }
+
+    /**
+     * @return the time in seconds after which idle kernels are closed. Can be specified by the user via VM option
+     *         {@link #KERNEL_POOL_IDLE_TIMEOUT_VM_OPT}, defaults to {@link #KERNEL_POOL_DEFAULT_IDLE_TIMEOUT}.
+     */
+    public long getIdleTimeout() {
+        return TimeUnit.MILLISECONDS.toSeconds(m_idleTimeoutMillis);
+    }
+
+    /**
+     * @return <code>true</code> if pooling is enabled, i.e. if the {@link #getPoolSize() pool size} is greater than
+     *         zero
+     */
+    public boolean isEnabled() {
+        return m_poolSize > 0;
+    }
+
+    /**
+     * @return <code>true</code> if pooling is {@link #isEnabled() enabled} and training sessions hand off their kernels
+     *         to subsequent execution sessions. Can be enabled by the user via VM option
+     *         {@link #KERNEL_POOL_HAND_OFF_VM_OPT}, disabled by default.
+     */
+    public boolean isHandOffEnabled() {
+        return isEnabled() && m_handOff;
+    }
+
+    /**
+     * Removes an idle kernel that matches the given key from the pool. The caller takes ownership of the returned
+     * kernel and must either {@link #release(DLPythonKernelPoolKey, DLPythonCommands, DLPythonNetworkHandle) release}
+     * it back to the pool or close its commands.
+     *
+     * @param key the key
+     * @return the pooled kernel, empty if none is available
+     */
+    public synchronized Optional<DLPythonPooledKernel> acquire(final DLPythonKernelPoolKey key) {
+        final Deque<DLPythonPooledKernel> kernels = m_idle.get(key);
+        if (kernels == null) {
+            return Optional.empty();
+        }
+        final DLPythonPooledKernel kernel = kernels.pollLast();
+        if (kernels.isEmpty()) {
+            m_idle.remove(key);
+        }
+        m_numIdle--;
+        return Optional.of(kernel);
+    }
+
+    /**
+     * Puts the given commands back into the pool. The pool takes ownership of the commands. If the pool is full, the
+     * least recently released kernels are closed.
+     *
+     * @param key the key under which the kernel can be acquired again
+     * @param commands the commands, must not be used by the caller afterwards
+     * @param handle the handle of the network that is loaded in the kernel
+     */
+    public void release(final DLPythonKernelPoolKey key, final DLPythonCommands commands,
+        final DLPythonNetworkHandle handle) {
+        final List<DLPythonPooledKernel> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (m_poolSize == 0) {
+                evicted.add(new DLPythonPooledKernel(commands, handle));
+            } else {
+                m_idle.computeIfAbsent(key, k -> new ArrayDeque<>())
+                    .addLast(new DLPythonPooledKernel(commands, handle));
+                m_numIdle++;
+                while (m_numIdle > m_poolSize) {
+                    evicted.add(removeOldest());
+                }
+                ensureEvictorRunning();
+            }
+        }
+        closeAll(evicted);
+    }
+
+    /**
+     * Closes all idle kernels.
+     */
+    public void clear() {
+        final List<DLPythonPooledKernel> evicted = new ArrayList<>();
+        synchronized (this) {
+            m_idle.values().forEach(evicted::addAll);
+            m_idle.clear();
+            m_numIdle = 0;
+        }
+        closeAll(evicted);
+    }
+
+    private DLPythonPooledKernel removeOldest() {
+        DLPythonPooledKernel oldest = null;
+        DLPythonKernelPoolKey oldestKey = null;
+        for (final Map.Entry<DLPythonKernelPoolKey, Deque<DLPythonPooledKernel>> entry : m_idle.entrySet()) {
+            final DLPythonPooledKernel candidate = entry.getValue().peekFirst();
+            if (oldest == null || candidate.m_releaseTime < oldest.m_releaseTime) {
+                oldest = candidate;
+                oldestKey = entry.getKey();
+            }
+        }
+        final Deque<DLPythonPooledKernel> kernels = m_idle.get(oldestKey);
+        kernels.pollFirst();
+        if (kernels.isEmpty()) {
+            m_idle.remove(oldestKey);
+        }
+        m_numIdle--;
+        return oldest;
+    }
+
+    private void ensureEvictorRunning() {
+        if (m_evictor == null) {
+            m_evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("KNIME-DL-Python-Kernel-Pool-Evictor").setDaemon(true).build());
+            final long period = Math.max(1000, m_idleTimeoutMillis / 4);
+            m_evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void evictIdle() {
+        final List<DLPythonPooledKernel> evicted = new ArrayList<>();
+        synchronized (this) {
+            final long now = System.currentTimeMillis();
+            for (final Iterator<Deque<DLPythonPooledKernel>> it = m_idle.values().iterator(); it.hasNext();) {
+                final Deque<DLPythonPooledKernel> kernels = it.next();
+                while (!kernels.isEmpty() && now - kernels.peekFirst().m_releaseTime >= m_idleTimeoutMillis) {
+                    evicted.add(kernels.pollFirst());
+                    m_numIdle--;
+                }
+                if (kernels.isEmpty()) {
+                    it.remove();
+                }
+            }
+        }
+        closeAll(evicted);
+    }
+
+    private static void closeAll(final List<DLPythonPooledKernel> kernels) {
+        for (final DLPythonPooledKernel kernel : kernels) {
+            try {
+                kernel.m_commands.close();
+            } catch (final Exception e) {
+                LOGGER.debug("An exception occurred while closing a pooled Python kernel.", e);
+            }
+        }
+    }
+
+    /**
+     * A pooled kernel along with the handle of the network that is loaded in it.
+     */
+    public static final class DLPythonPooledKernel {
+
+        private final DLPythonCommands m_commands;
+
+        private final DLPythonNetworkHandle m_handle;
+
+        private final long m_releaseTime = System.currentTimeMillis();
+
+        private DLPythonPooledKernel(final DLPythonCommands commands, final DLPythonNetworkHandle handle) {
+            m_commands = commands;
+            m_handle = handle;
+        }
+
+        /**
+         * @return the commands of the kernel
+         */
+        public DLPythonCommands getCommands() {
+            return m_commands;
+        }
+
+        /**
+         * @return the handle of the network that is loaded in the kernel
+         */
+        public DLPythonNetworkHandle getHandle() {
+            return m_handle;
+        }
+    }
+
+    /**
+     * Identifies kernels that can be used interchangeably: same Python command, back end, kernel environment and
+     * network (source URI and version of its content).
+     */
+    public static final class DLPythonKernelPoolKey {
+
+        private static final String HAND_OFF_BACKEND_PREFIX = "hand-off:";
+
+        /**
+         * Creates a key under which a training session hands off its kernel after the trained network was saved to
+         * the given source. The back end of hand-off keys is derived from the network type as training and execution
+         * sessions of the same network type use the same kind of commands.
+         *
+         * @param command the Python command
+         * @param networkType the type of the network that is loaded in the kernel
+         * @param source the location to which the trained network was saved
+         * @param environmentVariables the additional environment variables of the kernel
+         * @return the key, empty if the version of the network source cannot be determined
+         * @see #toHandOffKey(Class)
+         */
+        public static Optional<DLPythonKernelPoolKey> createHandOff(final PythonCommand command,
+            final Class<? extends DLPythonNetwork> networkType, final DLNetworkLocation source,
+            final Map<String, String> environmentVariables) {
+            return create(command, HAND_OFF_BACKEND_PREFIX + networkType.getName(), source, environmentVariables);
+        }
+
+        /**
+         * Creates a key for the given parameters. The version of the network source is part of the key to detect
+         * changes of the network file between executions. Local files are identified by their real path, size and
+         * modification time, which does not require reading them. The content of other sources is hashed.
+         *
+         * @param command the Python command
+         * @param backend identifies the back end, e.g. the class of the execution session
+         * @param source the source of the network
+         * @param environmentVariables the additional environment variables of the kernel
+         * @return the key, empty if the version of the network source cannot be determined (e.g. because it is a
+         *         directory)
+         */
+        public static Optional<DLPythonKernelPoolKey> create(final PythonCommand command, final String backend,
+            final DLNetworkLocation source, final Map<String, String> environmentVariables) {
+            final URI uri = source.getURI();
+            try {
+                return Optional.of(new DLPythonKernelPoolKey(command, backend, uri, getContentVersion(uri),
+                    new TreeMap<>(environmentVariables)));
+            } catch (final IOException | RuntimeException e) {
+                LOGGER.debug("The version of network source '" + uri
+                    + "' could not be determined. The kernel will not be pooled.", e);
+                return Optional.empty();
+            }
+        }
+
+        private static String getContentVersion(final URI uri) throws IOException {
+            final Path path = DLPythonFingerprints.resolveLocalFile(uri);
+            if (path != null) {
+                return DLPythonFingerprints.getFileState(path);
+            }
+            try (final InputStream in = FileUtil.toURL(uri.toString()).openStream()) {
+                return DLPythonFingerprints.sha256(in);
+            }
+        }
+
+        private final PythonCommand m_command;
+
+        private final String m_backend;
+
+        private final URI m_source;
+
+        private final String m_contentVersion;
+
+        private final Map<String, String> m_environmentVariables;
+
+        private DLPythonKernelPoolKey(final PythonCommand command, final String backend, final URI source,
+            final String contentVersion, final Map<String, String> environmentVariables) {
+            m_command = command;
+            m_backend = backend;
+            m_source = source;
+            m_contentVersion = contentVersion;
+            m_environmentVariables = environmentVariables;
+        }
+
+        /**
+         * Derives the key under which a training session would have handed off a kernel that has the network of this
+         * key loaded. Does not determine the version of the network source again.
+         *
+         * @param networkType the type of the network
+         * @return the hand-off key
+         * @see #createHandOff(PythonCommand, Class, DLNetworkLocation, Map)
+         */
+        public DLPythonKernelPoolKey toHandOffKey(final Class<? extends DLPythonNetwork> networkType) {
+            return new DLPythonKernelPoolKey(m_command, HAND_OFF_BACKEND_PREFIX + networkType.getName(), m_source,
+                m_contentVersion, m_environmentVariables);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(m_command, m_backend, m_source, m_contentVersion, m_environmentVariables);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            final DLPythonKernelPoolKey other = (DLPythonKernelPoolKey)obj;
+            return Objects.equals(other.m_command, m_command) && other.m_backend.equals(m_backend)
+                && other.m_source.equals(m_source) && other.m_contentVersion.equals(m_contentVersion)
+                && other.m_environmentVariables.equals(m_environmentVariables);
+        }
+
+        @Override
+        public String toString() {
+            return m_backend + " (" + m_command + "): " + m_source;
+        }
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.util.Arrays;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.dl.core.data.DLReadableFloatBuffer;
+import org.knime.dl.core.data.DLWritableFloatBuffer;
+
+/**
+ * Float buffer that only stores its non-zero elements along with their positions. Zeros that are written via
+ * {@link #zeroPad(long)} or {@link #put(float)} merely advance the write position. This keeps memory consumption and
+ * transmission volume of sparse data such as one-hot encodings proportional to the number of non-zero elements instead
+ * of the capacity of the buffer.
+ * <P>
+ * Accessing the {@link #getStorageForReading(long, long) storage} of the buffer or {@link #setStorage(float[], long)
+ * setting} it (e.g. when caching converted data) switches the buffer to a dense representation permanently.
+ */
+@SuppressWarnings("serial") // not intended for serialization
+public final class DLPythonSparseFloatBuffer extends DataCell
+    implements DLPythonDataBuffer<float[]>, DLWritableFloatBuffer, DLReadableFloatBuffer {
+
+    /**
+     * This buffer's {@link DataType}.
+     */
+    public static final DataType TYPE = DataType.getType(DLPythonSparseFloatBuffer.class);
+
+    private static final int INITIAL_NUM_NON_ZEROS = 1024;
+
+    private final long m_capacity;
+
+    private long[] m_indices = new long[INITIAL_NUM_NON_ZEROS];
+
+    private float[] m_values = new float[INITIAL_NUM_NON_ZEROS];
+
+    private int m_numNonZeros = 0;
+
+    /**
+     * Non-<code>null</code> once the buffer switched to a dense representation.
+     */
+    private float[] m_dense;
+
+    private long m_nextWrite = 0;
+
+    private long m_nextRead = 0;
+
+    /**
+     * Creates a new instance of this buffer.
+     *
+     * @param capacity the immutable capacity of the buffer
+     */
+    public DLPythonSparseFloatBuffer(final long capacity) {
+        checkArgument(capacity >= 0, "Invalid input capacity. Capacity must not be negative.");
+        m_capacity = capacity;
+    }
+
+    /**
+     * @return <code>true</code> if the buffer switched to a dense representation, in which case its elements must be
+     *         accessed via {@link #getStorageForReading(long, long)}
+     */
+    public boolean isDense() {
+        return m_dense != null;
+    }
+
+    /**
+     * @return the number of non-zero elements written to the buffer, only meaningful if the buffer is not
+     *         {@link #isDense() dense}
+     */
+    public int getNumNonZeros() {
+        return m_numNonZeros;
+    }
+
+    /**
+     * @return the positions of the non-zero elements in ascending order, only the first {@link #getNumNonZeros()}
+     *         entries are valid. The returned array is the internal storage of the buffer and must not be modified.
+     */
+    public long[] getNonZeroIndices() {
+        return m_indices;
+    }
+
+    /**
+     * @return the values of the non-zero elements, only the first {@link #getNumNonZeros()} entries are valid. The
+     *         returned array is the internal storage of the buffer and must not be modified.
+     */
+    public float[] getNonZeroValues() {
+        return m_values;
+    }
+
+    @Override
+    public long size() {
+        return m_nextWrite;
+    }
+
+    @Override
+    public long getCapacity() {
+        return m_capacity;
+    }
+
+    @Override
+    public long getNextReadPosition() {
+        return m_nextRead;
+    }
+
+    @Override
+    public float[] getStorageForReading(final long startPos, final long length) throws BufferUnderflowException {
+        checkUnderflow(startPos + length <= m_nextWrite);
+        densify();
+        return m_dense;
+    }
+
+    @Override
+    public float[] getStorageForWriting(final long startPos, final long length) throws BufferOverflowException {
+        checkOverflow(startPos + length <= m_capacity);
+        densify();
+        m_nextWrite = startPos + length;
+        return m_dense;
+    }
+
+    @Override
+    public void setStorage(final float[] storage, final long storageSize) throws IllegalArgumentException {
+        checkArgument(storage.length == m_capacity, "Input storage capacity does not match buffer capacity.");
+        m_dense = storage;
+        m_numNonZeros = 0;
+        m_nextWrite = storageSize;
+        resetRead();
+    }
+
+    @Override
+    public void put(final float value) throws BufferOverflowException {
+        checkOverflow(m_nextWrite < m_capacity);
+        if (m_dense != null) {
+            m_dense[(int)m_nextWrite] = value;
+        } else if (value != 0f) {
+            if (m_numNonZeros == m_indices.length) {
+                final int newLength = (int)Math.min(m_indices.length * 2L, Integer.MAX_VALUE - 8L);
+                checkOverflow(newLength > m_numNonZeros);
+                m_indices = Arrays.copyOf(m_indices, newLength);
+                m_values = Arrays.copyOf(m_values, newLength);
+            }
+            m_indices[m_numNonZeros] = m_nextWrite;
+            m_values[m_numNonZeros] = value;
+            m_numNonZeros++;
+        }
+        m_nextWrite++;
+    }
+
+    @Override
+    public void putAll(final float[] values) throws BufferOverflowException {
+        checkOverflow(m_nextWrite + values.length <= m_capacity);
+        for (final float value : values) {
+            put(value);
+        }
+    }
+
+    @Override
+    public void put(final boolean value) throws BufferOverflowException {
+        put(value ? 1f : 0f);
+    }
+
+    @Override
+    public void putAll(final boolean[] values) throws BufferOverflowException {
+        checkOverflow(m_nextWrite + values.length <= m_capacity);
+        for (final boolean value : values) {
+            put(value ? 1f : 0f);
+        }
+    }
+
+    @Override
+    public void put(final byte value) throws BufferOverflowException {
+        put((float)value);
+    }
+
+    @Override
+    public void putAll(final byte[] values) throws BufferOverflowException {
+        checkOverflow(m_nextWrite + values.length <= m_capacity);
+        for (final byte value : values) {
+            put((float)value);
+        }
+    }
+
+    @Override
+    public void put(final short value) throws BufferOverflowException {
+        put((float)value);
+    }
+
+    @Override
+    public void putAll(final short[] values) throws BufferOverflowException {
+        checkOverflow(m_nextWrite + values.length <= m_capacity);
+        for (final short value : values) {
+            put((float)value);
+        }
+    }
+
+    @Override
+    public void zeroPad(final long length) throws IllegalArgumentException, BufferOverflowException {
+        checkArgument(length > 0);
+        checkOverflow(m_nextWrite + length <= m_capacity);
+        if (m_dense != null) {
+            Arrays.fill(m_dense, (int)m_nextWrite, (int)(m_nextWrite + length), 0f);
+        }
+        m_nextWrite += length;
+    }
+
+    @Override
+    public double readNextDouble() throws BufferUnderflowException {
+        return readNextFloat();
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        final float[] values = toFloatArray();
+        final double[] tmp = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            tmp[i] = values[i];
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToDoubleArray(final double[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = get(m_nextRead++);
+        }
+    }
+
+    @Override
+    public float readNextFloat() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return get(m_nextRead++);
+    }
+
+    @Override
+    public float[] toFloatArray() {
+        if (m_dense != null) {
+            return m_dense.clone();
+        }
+        checkArgument(m_capacity <= Integer.MAX_VALUE,
+            "Buffer capacity exceeds the maximum array size of " + Integer.MAX_VALUE + ".");
+        final float[] tmp = new float[(int)m_capacity];
+        for (int i = 0; i < m_numNonZeros; i++) {
+            tmp[(int)m_indices[i]] = m_values[i];
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToFloatArray(final float[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = get(m_nextRead++);
+        }
+    }
+
+    @Override
+    public void resetRead() {
+        m_nextRead = 0;
+    }
+
+    @Override
+    public void resetWrite() {
+        m_nextWrite = 0;
+        m_numNonZeros = 0;
+    }
+
+    @Override
+    public void close() {
+        m_indices = null;
+        m_values = null;
+        m_dense = null;
+    }
+
+    @Override
+    public int hashCode() { // DataCell#equals(Object) is final
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "Sparse buffer with capacity: " + m_capacity + ", non-zeros: "
+            + (m_dense != null ? "n/a (dense)" : m_numNonZeros);
+    }
+
+    @Override
+    protected boolean equalsDataCell(final DataCell dc) {
+        return dc == this;
+    }
+
+    private float get(final long position) {
+        if (m_dense != null) {
+            return m_dense[(int)position];
+        }
+        final int i = Arrays.binarySearch(m_indices, 0, m_numNonZeros, position);
+        return i >= 0 ? m_values[i] : 0f;
+    }
+
+    private void densify() {
+        if (m_dense == null) {
+            m_dense = toFloatArray();
+            m_numNonZeros = 0;
+        }
+    }
+
+    private static void checkOverflow(final boolean expression) throws BufferOverflowException {
+        if (!expression) {
+            throw new BufferOverflowException();
+        }
+    }
+
+    private static void checkUnderflow(final boolean expression) throws BufferUnderflowException {
+        if (!expression) {
+            throw new BufferUnderflowException();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.knime.dl.core.DLTransportPrecision;
+import org.knime.dl.core.DLTransportPrecision.Kind;
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.python.core.data.DLPythonReducedPrecisionBuffer;
+import org.knime.python.typeextension.Serializer;
+import org.knime.python.typeextension.SerializerFactory;
+
+/**
+ * Serializes {@link DLPythonReducedPrecisionBuffer reduced precision buffers}. The format (little endian) is a header
+ * consisting of the precision (int32, <code>0</code> for float16 and <code>1</code> for uint8), the scale (float64)
+ * and the offset (float64), followed by one half precision float or one unsigned byte per element. Unsigned byte
+ * elements are rounded to the nearest integer and clamped to <code>[0, 255]</code>.
+ */
+public class DLPythonReducedPrecisionBufferSerializerFactory extends SerializerFactory<DLPythonReducedPrecisionBuffer>
+    implements DLSerializerFactory {
+
+    /**
+     * The unique identifier of this serializer factory.
+     */
+    public static final String IDENTIFIER =
+        "org.knime.dl.python.core.data.serde.DLPythonReducedPrecisionBufferSerializerFactory";
+
+    private static final int HEADER_BYTES = Integer.BYTES + 2 * Double.BYTES;
+
+    /**
+     * Empty framework constructor.
+     */
+    public DLPythonReducedPrecisionBufferSerializerFactory() {
+        super(DLPythonReducedPrecisionBuffer.class);
+    }
+
+    @Override
+    public Serializer<? extends DLPythonReducedPrecisionBuffer> createSerializer() {
+        return value -> {
+            final DLTransportPrecision precision = value.getPrecision();
+            final boolean isFloat16 = precision.getKind() == Kind.FLOAT16;
+            final long size = value.size() - value.getNextReadPosition();
+            final long numBytes = HEADER_BYTES + size * (isFloat16 ? Short.BYTES : Byte.BYTES);
+            if (numBytes > Integer.MAX_VALUE) {
+                throw new IOException(
+                    "Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 bytes.");
+            }
+            final float[] storage = value.getStorageForReading(value.getNextReadPosition(), size);
+            final int from = (int)value.getNextReadPosition();
+            final int to = from + (int)size;
+            final ByteBuffer buffer = ByteBuffer.allocate((int)numBytes).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(isFloat16 ? 0 : 1);
+            buffer.putDouble(precision.getScale());
+            buffer.putDouble(precision.getOffset());
+            if (isFloat16) {
+                for (int i = from; i < to; i++) {
+                    buffer.putShort(toFloat16(storage[i]));
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    buffer.put(toUnsignedByte(storage[i]));
+                }
+            }
+            return buffer.array();
+        };
+    }
+
+    @Override
+    public Class<? extends DLBuffer> getBufferType() {
+        return DLPythonReducedPrecisionBuffer.class;
+    }
+
+    /**
+     * Converts the given value to the bits of the nearest IEEE 754 half precision float, ties are rounded to even.
+     * Values that exceed the range of half precision become infinite.
+     */
+    static short toFloat16(final float value) {
+        final int bits = Float.floatToRawIntBits(value);
+        final int sign = (bits >>> 16) & 0x8000;
+        final int exponent = ((bits >>> 23) & 0xFF) - 127 + 15;
+        int mantissa = bits & 0x7FFFFF;
+        if (exponent == 0xFF - 127 + 15) {
+            // infinity or NaN, keep NaNs quiet
+            return (short)(sign | 0x7C00 | (mantissa != 0 ? 0x200 : 0));
+        }
+        if (exponent >= 0x1F) {
+            return (short)(sign | 0x7C00);
+        }
+        if (exponent <= 0) {
+            // subnormal or zero in half precision
+            if (exponent < -10) {
+                return (short)sign;
+            }
+            mantissa |= 0x800000;
+            final int shift = 14 - exponent;
+            return (short)(sign | roundToNearestEven(mantissa >>> shift, mantissa, shift));
+        }
+        // a carry out of the mantissa correctly increments the exponent (up to infinity)
+        return (short)(sign | roundToNearestEven((exponent << 10) | (mantissa >>> 13), mantissa, 13));
+    }
+
+    private static int roundToNearestEven(final int truncated, final int mantissa, final int shift) {
+        final int remainder = mantissa & ((1 << shift) - 1);
+        final int halfway = 1 << (shift - 1);
+        return remainder > halfway || (remainder == halfway && (truncated & 1) != 0) ? truncated + 1 : truncated;
+    }
+
+    private static byte toUnsignedByte(final float value) {
+        // NaN maps to zero
+        return (byte)Math.max(0, Math.min(255, Math.round(value)));
+    }
+}
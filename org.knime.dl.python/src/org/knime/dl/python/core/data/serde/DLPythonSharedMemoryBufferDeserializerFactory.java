@@ -0,0 +1,173 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.filestore.FileStoreFactory;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.python.core.data.DLPythonAbstractDataBuffer;
+import org.knime.dl.python.core.data.DLPythonBitBuffer;
+import org.knime.dl.python.core.data.DLPythonByteBuffer;
+import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.dl.python.core.data.DLPythonDoubleBuffer;
+import org.knime.dl.python.core.data.DLPythonFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonIntBuffer;
+import org.knime.dl.python.core.data.DLPythonLongBuffer;
+import org.knime.dl.python.core.data.DLPythonShortBuffer;
+import org.knime.dl.python.core.data.DLPythonUnsignedByteBuffer;
+import org.knime.dl.python.core.data.serde.DLPythonSharedMemoryTransport.DLPythonSharedMemoryDescriptor;
+import org.knime.python.typeextension.Deserializer;
+import org.knime.python.typeextension.DeserializerFactory;
+
+/**
+ * Deserializer factory of the {@link DLPythonSharedMemoryTransport shared memory transport}. Receives a descriptor of
+ * a memory-mapped region written by Python and reads the region into the target buffer.
+ */
+public class DLPythonSharedMemoryBufferDeserializerFactory extends DeserializerFactory
+    implements DLPythonDeserializerFactory {
+
+    /**
+     * The unique identifier of this deserializer factory.
+     */
+    public static final String IDENTIFIER =
+        "org.knime.dl.python.core.data.serde.DLPythonSharedMemoryBufferDeserializerFactory";
+
+    /**
+     * Empty framework constructor.
+     */
+    public DLPythonSharedMemoryBufferDeserializerFactory() {
+        super(DataType.getType(DLPythonAbstractDataBuffer.class));
+    }
+
+    @Override
+    public Deserializer createDeserializer() {
+        return new DLPythonDeserializer<DLWritableBuffer>() {
+
+            @Override
+            public DataCell deserialize(final byte[] bytes, final FileStoreFactory fileStoreFactory)
+                throws IOException {
+                final DLPythonSharedMemoryDescriptor descriptor =
+                    DLPythonSharedMemoryTransport.parseDescriptor(bytes);
+                final DLPythonDataBuffer<?> value = createBuffer(descriptor);
+                readInto(descriptor, value);
+                return (DataCell)value;
+            }
+
+            @Override
+            public void deserialize(final byte[] bytes, final DLTensor<DLWritableBuffer> data) {
+                if (!(data.getBuffer() instanceof DLPythonDataBuffer)) {
+                    throw new IllegalStateException("Buffer type '" + data.getBuffer().getClass().getSimpleName()
+                        + "' is not supported by the shared memory transport.");
+                }
+                try {
+                    readInto(DLPythonSharedMemoryTransport.parseDescriptor(bytes),
+                        (DLPythonDataBuffer<?>)data.getBuffer());
+                } catch (final IOException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Class<? extends DLPythonDataBuffer<?>> getBufferType() {
+        return (Class)DLPythonDataBuffer.class;
+    }
+
+    private static DLPythonDataBuffer<?> createBuffer(final DLPythonSharedMemoryDescriptor descriptor)
+        throws IOException {
+        switch (descriptor.m_numPyType) {
+            case "<f4":
+                return new DLPythonFloatBuffer(descriptor.m_count);
+            case "<f8":
+                return new DLPythonDoubleBuffer(descriptor.m_count);
+            case "<i4":
+                return new DLPythonIntBuffer(descriptor.m_count);
+            case "<i8":
+                return new DLPythonLongBuffer(descriptor.m_count);
+            case "<i2":
+                return new DLPythonShortBuffer(descriptor.m_count);
+            case "|i1":
+                return new DLPythonByteBuffer(descriptor.m_count);
+            case "|u1":
+                return new DLPythonUnsignedByteBuffer(descriptor.m_count);
+            case "|b1":
+                return new DLPythonBitBuffer(descriptor.m_count);
+            default:
+                throw new IOException(
+                    "Type '" + descriptor.m_numPyType + "' is not supported by the shared memory transport.");
+        }
+    }
+
+    private static void readInto(final DLPythonSharedMemoryDescriptor descriptor, final DLPythonDataBuffer<?> buffer)
+        throws IOException {
+        final String expectedType = DLPythonSharedMemoryTransport.getNumPyType(buffer);
+        if (!descriptor.m_numPyType.equals(expectedType)) {
+            throw new IOException("Type '" + descriptor.m_numPyType + "' received from Python does not match type '"
+                + expectedType + "' of the target buffer.");
+        }
+        if (descriptor.m_count == 0) {
+            return;
+        }
+        final int elementSize = DLPythonSharedMemoryTransport.getElementSize(descriptor.m_numPyType);
+        final int writeStart = (int)buffer.size();
+        final Object storage = buffer.getStorageForWriting(writeStart, descriptor.m_count);
+        try (final FileChannel channel = FileChannel.open(descriptor.m_file, StandardOpenOption.READ)) {
+            final MappedByteBuffer[] regions = DLPythonSharedMemoryTransport.map(channel, MapMode.READ_ONLY,
+                descriptor.m_offset, descriptor.m_count * elementSize);
+            DLPythonSharedMemoryTransport.read(regions, elementSize, storage, writeStart, (int)descriptor.m_count);
+        }
+    }
+}
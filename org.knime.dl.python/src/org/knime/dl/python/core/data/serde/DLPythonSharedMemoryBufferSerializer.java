@@ -0,0 +1,151 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.python.typeextension.Serializer;
+
+/**
+ * Serializer of the {@link DLPythonSharedMemoryTransport shared memory transport}. Copies the contents of a buffer
+ * into a memory-mapped file and returns a descriptor of the written region. The file is mapped once at the capacity
+ * of the buffer and reused for all subsequent buffers of the same tensor. If a larger buffer arrives, a new file is
+ * created since the Python side may still hold a mapping of the old one. Old files are not deleted before the
+ * transport directory is deleted as deleting a mapped file fails on Windows.
+ * <P>
+ * Serializers that are created without a transport directory create their own directory on first use and delete it
+ * when they are closed (or when the JVM exits).
+ */
+public final class DLPythonSharedMemoryBufferSerializer implements Serializer<DLPythonDataBuffer<?>>, AutoCloseable {
+
+    private final String m_fileName;
+
+    private final boolean m_ownsDirectory;
+
+    private Path m_directory;
+
+    private int m_generation = -1;
+
+    private Path m_file;
+
+    private FileChannel m_channel;
+
+    private MappedByteBuffer[] m_regions;
+
+    private long m_mappedBytes;
+
+    /**
+     * @param directory the transport directory, <code>null</code> if the serializer should create (and own) its own
+     *            directory
+     * @param fileName the base name of the files that are created by the serializer
+     */
+    DLPythonSharedMemoryBufferSerializer(final Path directory, final String fileName) {
+        m_directory = directory;
+        m_fileName = fileName;
+        m_ownsDirectory = directory == null;
+    }
+
+    @Override
+    public byte[] serialize(final DLPythonDataBuffer<?> value) throws IOException {
+        final String numPyType = DLPythonSharedMemoryTransport.getNumPyType(value);
+        if (numPyType == null) {
+            throw new IOException("Transmitting data to Python failed. Buffer type '"
+                + value.getClass().getSimpleName() + "' is not supported by the shared memory transport.");
+        }
+        final int elementSize = DLPythonSharedMemoryTransport.getElementSize(numPyType);
+        final long readStart = value.getNextReadPosition();
+        final long size = value.size() - readStart;
+        final long capacityBytes = value.getCapacity() * elementSize;
+        if (m_regions == null || capacityBytes > m_mappedBytes) {
+            remap(Math.max(capacityBytes, size * elementSize));
+        }
+        DLPythonSharedMemoryTransport.write(value.getStorageForReading(readStart, size), (int)readStart, (int)size,
+            elementSize, m_regions);
+        return DLPythonSharedMemoryTransport.createDescriptor(m_file, 0, numPyType, size);
+    }
+
+    private void remap(final long numBytes) throws IOException {
+        releaseMapping();
+        if (m_directory == null) {
+            m_directory = DLPythonSharedMemoryTransport.createTransportDirectory();
+            DLPythonSharedMemoryTransport.deleteTransportDirectoryOnExit(m_directory);
+        }
+        m_generation++;
+        m_file = m_directory.resolve(m_fileName + "_" + m_generation + ".bin");
+        m_channel = FileChannel.open(m_file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        m_regions = DLPythonSharedMemoryTransport.map(m_channel, MapMode.READ_WRITE, 0, numBytes);
+        m_mappedBytes = numBytes;
+    }
+
+    /**
+     * Releases the file channel. Existing mappings stay valid until they are garbage collected. Deletes the transport
+     * directory if it was created by this serializer.
+     */
+    @Override
+    public void close() throws IOException {
+        releaseMapping();
+        if (m_ownsDirectory && m_directory != null) {
+            DLPythonSharedMemoryTransport.deleteTransportDirectory(m_directory);
+            m_directory = null;
+        }
+    }
+
+    private void releaseMapping() throws IOException {
+        m_regions = null;
+        m_mappedBytes = 0;
+        if (m_channel != null) {
+            m_channel.close();
+            m_channel = null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.nio.file.Path;
+
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.python.typeextension.Serializer;
+import org.knime.python.typeextension.SerializerFactory;
+
+/**
+ * Serializer factory of the {@link DLPythonSharedMemoryTransport shared memory transport}. Matches all numeric and
+ * bit buffers and must therefore be excluded from the regular, type-based serializer lookup. It is registered as a
+ * serializer extension nonetheless so that the Python side knows the corresponding deserializer.
+ */
+public class DLPythonSharedMemoryBufferSerializerFactory extends SerializerFactory<DLPythonDataBuffer<?>>
+    implements DLSerializerFactory {
+
+    /**
+     * The unique identifier of this serializer factory.
+     */
+    public static final String IDENTIFIER =
+        "org.knime.dl.python.core.data.serde.DLPythonSharedMemoryBufferSerializerFactory";
+
+    /**
+     * Empty framework constructor.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public DLPythonSharedMemoryBufferSerializerFactory() {
+        super((Class)DLPythonDataBuffer.class);
+    }
+
+    /**
+     * Creates a serializer that is not bound to the transport directory of a session. It creates its own directory
+     * on first use and deletes it once it is closed or the JVM exits. Prefer {@link #createSerializer(Path, String)}
+     * where a transport directory is available.
+     */
+    @Override
+    public Serializer<? extends DLPythonDataBuffer<?>> createSerializer() {
+        return new DLPythonSharedMemoryBufferSerializer(null, "buffer");
+    }
+
+    /**
+     * @param directory the transport directory, see {@link DLPythonSharedMemoryTransport#createTransportDirectory()}
+     * @param fileName the base name of the files that are created by the serializer, must be unique within the
+     *            directory
+     * @return the serializer, must be closed once it is not needed anymore
+     */
+    public DLPythonSharedMemoryBufferSerializer createSerializer(final Path directory, final String fileName) {
+        return new DLPythonSharedMemoryBufferSerializer(directory, fileName);
+    }
+
+    @Override
+    public Class<? extends DLBuffer> getBufferType() {
+        return DLPythonDataBuffer.class;
+    }
+}
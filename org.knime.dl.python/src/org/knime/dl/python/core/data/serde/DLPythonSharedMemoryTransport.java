@@ -0,0 +1,350 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.dl.python.core.data.DLPythonPackedBitBuffer;
+import org.knime.dl.python.core.data.DLPythonReducedPrecisionBuffer;
+import org.knime.dl.python.core.data.DLPythonSparseFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonUnsignedByteBuffer;
+
+/**
+ * Utilities for the shared memory transport of tensors between KNIME and Python. Instead of copying a tensor's
+ * contents into the message stream, the contents are placed in a memory-mapped file that is shared with the Python
+ * process and only a small descriptor (path, offset, NumPy dtype, element count) is exchanged over the socket. The
+ * Python side wraps the mapped region via <code>numpy.memmap</code> without further copying.
+ * <P>
+ * The transport is disabled by default and can be enabled via VM option {@link #SHARED_MEMORY_TRANSPORT_VM_OPT}.
+ */
+public final class DLPythonSharedMemoryTransport {
+
+    /**
+     * @see #isEnabled()
+     */
+    public static final String SHARED_MEMORY_TRANSPORT_VM_OPT = "knime.dl.python.sharedmemorytransport";
+
+    /**
+     * Mapped regions are at most this large (in bytes) to stay below the 2^31-1 byte limit of a single
+     * {@link MappedByteBuffer}. Must be a multiple of the largest element size.
+     */
+    static final int MAX_REGION_SIZE = 1 << 30;
+
+    private static final String SHARED_MEMORY_DIRECTORY = "/dev/shm";
+
+    private static final String TRANSPORT_DIRECTORY_PREFIX = "knime-dl-";
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonSharedMemoryTransport.class);
+
+    private static Boolean enabled;
+
+    /**
+     * Transport directories that are deleted when the JVM exits unless they are deleted before. Lazily initialized.
+     */
+    private static Set<Path> directoriesToDeleteOnExit;
+
+    private DLPythonSharedMemoryTransport() {
+        // Utility class.
+    }
+
+    /**
+     * @return <code>true</code> if the shared memory transport was enabled by the user via VM option
+     *         {@link #SHARED_MEMORY_TRANSPORT_VM_OPT}, defaults to <code>false</code>
+     */
+    public static synchronized boolean isEnabled() {
+        if (enabled == null) {
+            enabled = Boolean.getBoolean(SHARED_MEMORY_TRANSPORT_VM_OPT);
+            if (enabled) {
+                LOGGER.debug("Shared memory transport of tensors between KNIME and Python is enabled.");
+            }
+        }
+        return enabled;
+    }
+
+    /**
+     * Creates a new, empty directory that holds the files of one transport session. The directory is placed in
+     * <code>/dev/shm</code> if available (i.e., in memory) and in the default temporary directory otherwise.
+     *
+     * @return the created directory
+     * @throws IOException if creating the directory failed
+     */
+    public static Path createTransportDirectory() throws IOException {
+        final Path sharedMemory = Paths.get(SHARED_MEMORY_DIRECTORY);
+        if (Files.isDirectory(sharedMemory) && Files.isWritable(sharedMemory)) {
+            try {
+                return Files.createTempDirectory(sharedMemory, TRANSPORT_DIRECTORY_PREFIX);
+            } catch (final IOException e) {
+                LOGGER.debug("Creating transport directory in " + SHARED_MEMORY_DIRECTORY
+                    + " failed. Falling back to the default temporary directory.", e);
+            }
+        }
+        return Files.createTempDirectory(TRANSPORT_DIRECTORY_PREFIX);
+    }
+
+    /**
+     * Deletes the given transport directory and all files in it. Failures are logged but not propagated.
+     *
+     * @param directory the directory, may be <code>null</code>
+     */
+    public static void deleteTransportDirectory(final Path directory) {
+        if (directory == null) {
+            return;
+        }
+        synchronized (DLPythonSharedMemoryTransport.class) {
+            if (directoriesToDeleteOnExit != null) {
+                directoriesToDeleteOnExit.remove(directory);
+            }
+        }
+        try (final Stream<Path> files = Files.list(directory)) {
+            files.forEach(f -> {
+                try {
+                    Files.deleteIfExists(f);
+                } catch (final IOException e) {
+                    LOGGER.debug("Failed to delete transport file '" + f + "'.", e);
+                }
+            });
+            Files.deleteIfExists(directory);
+        } catch (final IOException e) {
+            LOGGER.debug("Failed to delete transport directory '" + directory + "'.", e);
+        }
+    }
+
+    /**
+     * Registers the given transport directory for deletion when the JVM exits. This is a fallback for directories
+     * whose owners may not be closed, {@link #deleteTransportDirectory(Path)} should still be called as early as
+     * possible.
+     *
+     * @param directory the directory
+     */
+    static synchronized void deleteTransportDirectoryOnExit(final Path directory) {
+        if (directoriesToDeleteOnExit == null) {
+            directoriesToDeleteOnExit = new HashSet<>();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                final List<Path> directories;
+                synchronized (DLPythonSharedMemoryTransport.class) {
+                    directories = new ArrayList<>(directoriesToDeleteOnExit);
+                }
+                directories.forEach(DLPythonSharedMemoryTransport::deleteTransportDirectory);
+            }, "KNIME-DL-Shared-Memory-Cleanup"));
+        }
+        directoriesToDeleteOnExit.add(directory);
+    }
+
+    /**
+     * @param buffer the buffer
+     * @return the NumPy type string (including byte order) that corresponds to the buffer's storage, or
+     *         <code>null</code> if the buffer type is not supported by the shared memory transport
+     */
+    public static String getNumPyType(final DLPythonDataBuffer<?> buffer) {
+        if (buffer instanceof DLPythonSparseFloatBuffer || buffer instanceof DLPythonPackedBitBuffer
+            || buffer instanceof DLPythonReducedPrecisionBuffer) {
+            // accessing the storage would unpack the buffer or bypass the narrowing of its elements, these buffers use
+            // their own compact serializers
+            return null;
+        }
+        final Object storage = buffer.getStorageForReading(0, 0);
+        if (storage instanceof float[]) {
+            return "<f4";
+        } else if (storage instanceof double[]) {
+            return "<f8";
+        } else if (storage instanceof int[]) {
+            return "<i4";
+        } else if (storage instanceof long[]) {
+            return "<i8";
+        } else if (storage instanceof short[]) {
+            return "<i2";
+        } else if (storage instanceof byte[]) {
+            return buffer instanceof DLPythonUnsignedByteBuffer ? "|u1" : "|i1";
+        } else if (storage instanceof boolean[]) {
+            return "|b1";
+        } else {
+            return null;
+        }
+    }
+
+    static int getElementSize(final String numPyType) {
+        return Integer.parseInt(numPyType.substring(2));
+    }
+
+    static byte[] createDescriptor(final Path file, final long offset, final String numPyType, final long count) {
+        return (file.toAbsolutePath() + "\n" + offset + "\n" + numPyType + "\n" + count)
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    static DLPythonSharedMemoryDescriptor parseDescriptor(final byte[] bytes) throws IOException {
+        final String[] parts = new String(bytes, StandardCharsets.UTF_8).split("\n");
+        if (parts.length != 4) {
+            throw new IOException("Invalid shared memory descriptor received from Python.");
+        }
+        try {
+            return new DLPythonSharedMemoryDescriptor(Paths.get(parts[0]), Long.parseLong(parts[1]), parts[2],
+                Long.parseLong(parts[3]));
+        } catch (final NumberFormatException e) {
+            throw new IOException("Invalid shared memory descriptor received from Python.", e);
+        }
+    }
+
+    /**
+     * Maps the given range of the file in consecutive regions of at most {@link #MAX_REGION_SIZE} bytes.
+     */
+    static MappedByteBuffer[] map(final FileChannel channel, final MapMode mode, final long offset,
+        final long numBytes) throws IOException {
+        final int numRegions = (int)Math.max(1, (numBytes + MAX_REGION_SIZE - 1) / MAX_REGION_SIZE);
+        final MappedByteBuffer[] regions = new MappedByteBuffer[numRegions];
+        for (int i = 0; i < numRegions; i++) {
+            final long regionStart = (long)i * MAX_REGION_SIZE;
+            regions[i] = channel.map(mode, offset + regionStart, Math.min(MAX_REGION_SIZE, numBytes - regionStart));
+        }
+        return regions;
+    }
+
+    /**
+     * Copies <code>count</code> elements starting at <code>storageOffset</code> from the given storage array into the
+     * mapped regions.
+     */
+    static void write(final Object storage, final int storageOffset, final int count, final int elementSize,
+        final MappedByteBuffer[] regions) {
+        final int elementsPerRegion = MAX_REGION_SIZE / elementSize;
+        for (int r = 0, done = 0; done < count; r++) {
+            final int n = Math.min(elementsPerRegion, count - done);
+            final ByteBuffer region = regions[r].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            final int from = storageOffset + done;
+            if (storage instanceof float[]) {
+                region.asFloatBuffer().put((float[])storage, from, n);
+            } else if (storage instanceof double[]) {
+                region.asDoubleBuffer().put((double[])storage, from, n);
+            } else if (storage instanceof int[]) {
+                region.asIntBuffer().put((int[])storage, from, n);
+            } else if (storage instanceof long[]) {
+                region.asLongBuffer().put((long[])storage, from, n);
+            } else if (storage instanceof short[]) {
+                region.asShortBuffer().put((short[])storage, from, n);
+            } else if (storage instanceof byte[]) {
+                region.put((byte[])storage, from, n);
+            } else if (storage instanceof boolean[]) {
+                final boolean[] bits = (boolean[])storage;
+                for (int i = 0; i < n; i++) {
+                    region.put(i, bits[from + i] ? (byte)1 : (byte)0);
+                }
+            } else {
+                throw new IllegalArgumentException(
+                    "Storage type '" + storage.getClass().getSimpleName() + "' is not supported.");
+            }
+            done += n;
+        }
+    }
+
+    /**
+     * Copies <code>count</code> elements from the mapped regions into the given storage array starting at
+     * <code>storageOffset</code>.
+     */
+    static void read(final MappedByteBuffer[] regions, final int elementSize, final Object storage,
+        final int storageOffset, final int count) {
+        final int elementsPerRegion = MAX_REGION_SIZE / elementSize;
+        for (int r = 0, done = 0; done < count; r++) {
+            final int n = Math.min(elementsPerRegion, count - done);
+            final ByteBuffer region = regions[r].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            final int to = storageOffset + done;
+            if (storage instanceof float[]) {
+                region.asFloatBuffer().get((float[])storage, to, n);
+            } else if (storage instanceof double[]) {
+                region.asDoubleBuffer().get((double[])storage, to, n);
+            } else if (storage instanceof int[]) {
+                region.asIntBuffer().get((int[])storage, to, n);
+            } else if (storage instanceof long[]) {
+                region.asLongBuffer().get((long[])storage, to, n);
+            } else if (storage instanceof short[]) {
+                region.asShortBuffer().get((short[])storage, to, n);
+            } else if (storage instanceof byte[]) {
+                region.get((byte[])storage, to, n);
+            } else if (storage instanceof boolean[]) {
+                final boolean[] bits = (boolean[])storage;
+                for (int i = 0; i < n; i++) {
+                    bits[to + i] = region.get(i) != 0;
+                }
+            } else {
+                throw new IllegalArgumentException(
+                    "Storage type '" + storage.getClass().getSimpleName() + "' is not supported.");
+            }
+            done += n;
+        }
+    }
+
+    static final class DLPythonSharedMemoryDescriptor {
+
+        final Path m_file;
+
+        final long m_offset;
+
+        final String m_numPyType;
+
+        final long m_count;
+
+        private DLPythonSharedMemoryDescriptor(final Path file, final long offset, final String numPyType,
+            final long count) {
+            m_file = file;
+            m_offset = offset;
+            m_numPyType = numPyType;
+            m_count = count;
+        }
+    }
+}
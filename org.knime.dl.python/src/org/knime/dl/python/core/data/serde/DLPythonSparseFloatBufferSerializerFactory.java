@@ -0,0 +1,116 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.python.core.data.DLPythonSparseFloatBuffer;
+import org.knime.python.typeextension.Serializer;
+import org.knime.python.typeextension.SerializerFactory;
+
+/**
+ * Serializes {@link DLPythonSparseFloatBuffer sparse float buffers} in coordinate format. The format (little endian)
+ * is the number of elements written to the buffer (int64) and the number of non-zero elements (int32) followed by the
+ * positions (int64 each) and the values (float32 each) of the non-zero elements. If the buffer switched to a dense
+ * representation, the number of non-zero elements is <code>-1</code> and is followed by all elements of the buffer
+ * (float32 each).
+ */
+public class DLPythonSparseFloatBufferSerializerFactory extends SerializerFactory<DLPythonSparseFloatBuffer>
+    implements DLSerializerFactory {
+
+    /**
+     * The unique identifier of this serializer factory.
+     */
+    public static final String IDENTIFIER =
+        "org.knime.dl.python.core.data.serde.DLPythonSparseFloatBufferSerializerFactory";
+
+    private static final int HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+    /**
+     * Empty framework constructor.
+     */
+    public DLPythonSparseFloatBufferSerializerFactory() {
+        super(DLPythonSparseFloatBuffer.class);
+    }
+
+    @Override
+    public Serializer<? extends DLPythonSparseFloatBuffer> createSerializer() {
+        return value -> {
+            final long size = value.size();
+            final ByteBuffer buffer;
+            if (value.isDense()) {
+                buffer = allocate(HEADER_SIZE + size * Float.BYTES);
+                buffer.putLong(size);
+                buffer.putInt(-1);
+                buffer.asFloatBuffer().put(value.getStorageForReading(0, size), 0, (int)size);
+            } else {
+                final int numNonZeros = value.getNumNonZeros();
+                buffer = allocate(HEADER_SIZE + numNonZeros * (long)(Long.BYTES + Float.BYTES));
+                buffer.putLong(size);
+                buffer.putInt(numNonZeros);
+                buffer.asLongBuffer().put(value.getNonZeroIndices(), 0, numNonZeros);
+                buffer.position(buffer.position() + numNonZeros * Long.BYTES);
+                buffer.asFloatBuffer().put(value.getNonZeroValues(), 0, numNonZeros);
+            }
+            return buffer.array();
+        };
+    }
+
+    @Override
+    public Class<? extends DLBuffer> getBufferType() {
+        return DLPythonSparseFloatBuffer.class;
+    }
+
+    private static ByteBuffer allocate(final long numBytes) throws IOException {
+        if (numBytes > Integer.MAX_VALUE) {
+            throw new IOException("Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 bytes.");
+        }
+        return ByteBuffer.allocate((int)numBytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -62,6 +62,8 @@
 import com.google.common.base.Charsets;
 
 /**
+ * Deserializes string buffers in the format described in {@link DLPythonStringBufferSerializerFactory}.
+ *
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
  */
 public class DLPythonStringBufferDeserializerFactory extends DeserializerFactory
@@ -89,39 +91,50 @@ public Deserializer createDeserializer() {
         return new DLPythonDeserializer<DLPythonStringBuffer>() {
 
             @Override
-            public DataCell deserialize(byte[] bytes, FileStoreFactory fileStoreFactory) throws IOException {
-                final int[] lengths = getLengths(bytes);
-                final DLPythonStringBuffer buffer = new DLPythonStringBuffer(lengths.length);
-                readStrings(bytes, buffer, lengths);
-                return buffer;
+            public DataCell deserialize(final byte[] bytes, final FileStoreFactory fileStoreFactory)
+                throws IOException {
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+                final DLPythonStringBuffer value = new DLPythonStringBuffer(buffer.getInt(0));
+                readStrings(bytes, buffer, value);
+                return value;
             }
 
             @Override
-            public void deserialize(byte[] bytes, DLTensor<DLPythonStringBuffer> data) {
-                final int[] lengths = getLengths(bytes);
-                final DLPythonStringBuffer buffer = data.getBuffer();
-                readStrings(bytes, buffer, lengths);
+            public void deserialize(final byte[] bytes, final DLTensor<DLPythonStringBuffer> data) {
+                readStrings(bytes, ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN), data.getBuffer());
             }
 
-            private void readStrings(byte[] bytes, DLPythonStringBuffer buffer, int[] lengths) {
-                int nValues = lengths.length;
-                int offset = Integer.BYTES * (nValues + 1);
-                for (int i = 0; i < nValues; i++) {
-                    int length = lengths[i];
-                    buffer.put(new String(bytes, offset, length, Charsets.UTF_8));
-                    offset += length;
+            private void readStrings(final byte[] bytes, final ByteBuffer buffer, final DLPythonStringBuffer value) {
+                final int numValues = buffer.getInt();
+                final int dictionarySize = buffer.getInt();
+                if (dictionarySize < 0) {
+                    final int[] offsets = readInts(buffer, numValues + 1);
+                    final int dataStart = buffer.position();
+                    for (int i = 0; i < numValues; i++) {
+                        value.put(new String(bytes, dataStart + offsets[i], offsets[i + 1] - offsets[i],
+                            Charsets.UTF_8));
+                    }
+                } else {
+                    final int[] codes = readInts(buffer, numValues);
+                    final int[] offsets = readInts(buffer, dictionarySize + 1);
+                    final int dataStart = buffer.position();
+                    // decode each dictionary entry only once, equal values share the same instance
+                    final String[] dictionary = new String[dictionarySize];
+                    for (int i = 0; i < dictionarySize; i++) {
+                        dictionary[i] = new String(bytes, dataStart + offsets[i], offsets[i + 1] - offsets[i],
+                            Charsets.UTF_8);
+                    }
+                    for (int i = 0; i < numValues; i++) {
+                        value.put(dictionary[codes[i]]);
+                    }
                 }
             }
 
-            private int[] getLengths(byte[] bytes) {
-                final ByteBuffer buffer = ByteBuffer.wrap(bytes);
-                buffer.order(ByteOrder.LITTLE_ENDIAN);
-                int nValues = buffer.getInt();
-                int[] lengths = new int[nValues];
-                for (int i = 0; i < nValues; i++) {
-                    lengths[i] = buffer.getInt();
-                }
-                return lengths;
+            private int[] readInts(final ByteBuffer buffer, final int length) {
+                final int[] ints = new int[length];
+                buffer.asIntBuffer().get(ints);
+                buffer.position(buffer.position() + length * Integer.BYTES);
+                return ints;
             }
         };
     }
@@ -48,7 +48,11 @@
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.Arrays;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.knime.dl.core.data.DLBuffer;
 import org.knime.dl.python.core.data.DLPythonStringBuffer;
@@ -56,8 +60,18 @@
 import org.knime.python.typeextension.SerializerFactory;
 
 import com.google.common.base.Charsets;
+import com.google.common.base.Utf8;
 
 /**
+ * Serializes string buffers into one contiguous block of UTF-8 data plus offsets. The format (little endian) is the
+ * number of strings <code>n</code> (int32) and the number of dictionary entries <code>d</code> (int32). If
+ * <code>d</code> is <code>-1</code>, the strings are stored plainly: <code>n + 1</code> offsets (int32) into the data
+ * block follow, then the data block itself. Otherwise, the strings are dictionary encoded: <code>n</code> dictionary
+ * indices (int32) follow, then <code>d + 1</code> offsets (int32) and the data block of the dictionary entries.
+ * <P>
+ * Dictionary encoding is used if at most half of the strings in the buffer are distinct, see
+ * {@link DLPythonStringBufferDeserializerFactory} for the reverse direction.
+ *
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
  */
 public class DLPythonStringBufferSerializerFactory extends SerializerFactory<DLPythonStringBuffer>
@@ -68,6 +82,11 @@ public class DLPythonStringBufferSerializerFactory extends SerializerFactory<DLP
      */
     public static final String IDENTIFIER = "org.knime.dl.python.core.data.serde.DLPythonStringBufferSerializerFactory";
 
+    /**
+     * Buffers with fewer strings are never dictionary encoded.
+     */
+    private static final int MIN_SIZE_FOR_DICTIONARY = 16;
+
     /**
      */
     public DLPythonStringBufferSerializerFactory() {
@@ -84,25 +103,80 @@ public Serializer<? extends DLPythonStringBuffer> createSerializer() {
         return DLPythonStringBufferSerializerFactory::createBytes;
     }
 
-    private static byte[] createBytes(DLPythonStringBuffer value) {
+    private static byte[] createBytes(final DLPythonStringBuffer value) {
         // Note that casting to int should be fine because the data is stored in a array which is indexed by int
         final int nextRead = (int)value.getNextReadPosition();
         final int size = (int)(value.size() - nextRead);
-        String[] storage = value.getStorageForReading(nextRead, size);
-        final byte[][] values = new byte[size][];
-        final int[] lengths = new int[size];
-        int totalLength = (size + 1) * Integer.BYTES;
-        for (int i = 0; i < size; i++) {
-            values[i] = storage[nextRead + i].getBytes(Charsets.UTF_8);
-            lengths[i] = values[i].length;
-            totalLength += lengths[i];
+        final String[] storage = value.getStorageForReading(nextRead, size);
+        final int[] codes = new int[size];
+        final String[] dictionary = createDictionary(storage, nextRead, size, codes);
+        final String[] strings;
+        final int from;
+        final int numStrings;
+        if (dictionary != null) {
+            strings = dictionary;
+            from = 0;
+            numStrings = dictionary.length;
+        } else {
+            strings = storage;
+            from = nextRead;
+            numStrings = size;
         }
-        ByteBuffer buffer = ByteBuffer.allocate(totalLength);
+        // compute the offsets first to be able to encode the strings directly into the final buffer
+        final int[] offsets = new int[numStrings + 1];
+        for (int i = 0; i < numStrings; i++) {
+            offsets[i + 1] = offsets[i] + getEncodedLength(strings[from + i]);
+        }
+        final int numIndices = dictionary != null ? size : 0;
+        final ByteBuffer buffer =
+            ByteBuffer.allocate((2 + numIndices + offsets.length) * Integer.BYTES + offsets[numStrings]);
         buffer.order(ByteOrder.LITTLE_ENDIAN);
         buffer.putInt(size);
-        Arrays.stream(lengths).forEachOrdered(buffer::putInt);
-        Arrays.stream(values).forEachOrdered(buffer::put);
+        buffer.putInt(dictionary != null ? dictionary.length : -1);
+        buffer.asIntBuffer().put(codes, 0, numIndices).put(offsets);
+        buffer.position(buffer.position() + (numIndices + offsets.length) * Integer.BYTES);
+        final CharsetEncoder encoder = Charsets.UTF_8.newEncoder() //
+            .onMalformedInput(CodingErrorAction.REPLACE) //
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        for (int i = 0; i < numStrings; i++) {
+            encoder.reset();
+            encoder.encode(CharBuffer.wrap(strings[from + i]), buffer, true);
+            encoder.flush(buffer);
+        }
         return buffer.array();
     }
 
+    /**
+     * @return the distinct strings in order of their first occurrence with <b>codes</b> filled accordingly, or
+     *         <code>null</code> if dictionary encoding does not pay off for the given strings
+     */
+    private static String[] createDictionary(final String[] storage, final int from, final int size,
+        final int[] codes) {
+        if (size < MIN_SIZE_FOR_DICTIONARY) {
+            return null;
+        }
+        final int maxDictionarySize = size / 2;
+        final Map<String, Integer> dictionary = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            final Integer code = dictionary.computeIfAbsent(storage[from + i], s -> dictionary.size());
+            if (dictionary.size() > maxDictionarySize) {
+                return null;
+            }
+            codes[i] = code;
+        }
+        final String[] entries = new String[dictionary.size()];
+        for (final Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+            entries[entry.getValue()] = entry.getKey();
+        }
+        return entries;
+    }
+
+    private static int getEncodedLength(final String string) {
+        try {
+            return Utf8.encodedLength(string);
+        } catch (final IllegalArgumentException e) {
+            // unpaired surrogates, these are replaced during encoding
+            return string.getBytes(Charsets.UTF_8).length;
+        }
+    }
 }
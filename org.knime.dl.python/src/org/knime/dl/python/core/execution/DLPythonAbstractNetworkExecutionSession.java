@@ -48,12 +48,28 @@
  */
 package org.knime.dl.python.core.execution;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.ThreadUtils;
+import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLMissingExtensionException;
@@ -62,6 +78,7 @@
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableBuffer;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.execution.DLAbstractNetworkExecutionSession;
 import org.knime.dl.core.execution.DLExecutionMonitor;
@@ -70,6 +87,10 @@
 import org.knime.dl.core.training.DLTrainingMonitor;
 import org.knime.dl.python.core.DLPythonCommands;
 import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonDefaultContext;
+import org.knime.dl.python.core.DLPythonKernelPool;
+import org.knime.dl.python.core.DLPythonKernelPool.DLPythonKernelPoolKey;
+import org.knime.dl.python.core.DLPythonKernelPool.DLPythonPooledKernel;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
@@ -81,6 +102,13 @@
 public abstract class DLPythonAbstractNetworkExecutionSession<N extends DLPythonNetwork, C extends DLPythonCommands>
 	extends DLAbstractNetworkExecutionSession<N> implements DLPythonNetworkExecutionSession {
 
+    /**
+     * Interval in which threads that wait for another stage of the execution pipeline check for cancellation.
+     */
+    private static final long PIPELINE_POLL_INTERVAL_MS = 100;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonAbstractNetworkExecutionSession.class);
+
     private final DLPythonContext m_context;
 
     /**
@@ -91,8 +119,34 @@
 
 	private DLPythonNetworkHandle m_handle;
 
+    /**
+     * Non-<code>null</code> if {@link #m_commands} were acquired from or are eligible for the
+     * {@link DLPythonKernelPool kernel pool}.
+     */
+    private DLPythonKernelPoolKey m_poolKey;
+
+    /**
+     * Set to <code>true</code> after a successful execution, i.e. if {@link #m_commands} can be handed back to the
+     * kernel pool.
+     */
+    private boolean m_reusable = false;
+
     private final Map<String, String> m_additionalEnvVars;
 
+    private int m_pipelineDepth = 1;
+
+    /**
+     * Input tensor sets that are used in addition to {@link #m_input} in pipelined execution mode. Is instantiated at
+     * the beginning of the first pipelined execution.
+     */
+    private List<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_pipelinedInputs;
+
+    /**
+     * Output tensor sets that are used in addition to {@link #m_output} in pipelined execution mode. Is instantiated
+     * along with {@link #m_output}.
+     */
+    private List<Map<DLTensorId, DLTensor<? extends DLReadableBuffer>>> m_pipelinedOutputs;
+
     protected DLPythonAbstractNetworkExecutionSession(final DLPythonContext context, final N network,
         final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
         final DLNetworkInputPreparer inputPreparer,
@@ -110,15 +164,31 @@ protected DLPythonAbstractNetworkExecutionSession(final DLPythonContext context,
 	@Override
 	public void close() throws Exception {
 		super.close();
+		if (m_pipelinedInputs != null) {
+			m_pipelinedInputs.forEach(i -> i.values().forEach(DLTensor::close));
+		}
+		if (m_pipelinedOutputs != null) {
+			m_pipelinedOutputs.forEach(o -> o.values().forEach(DLTensor::close));
+		}
 		if (m_commands != null) {
-			m_commands.close();
+			if (m_poolKey != null && m_reusable) {
+				DLPythonKernelPool.getInstance().release(m_poolKey, m_commands, m_handle);
+			} else {
+				m_commands.close();
+			}
 		}
 	}
 
 	@Override
 	protected void executeInternal(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
+		m_reusable = false;
+		if (m_commands == null && acquirePooledKernel()) {
+			LOGGER.debug("Reusing pooled Python kernel for network '" + m_network.getSource().getURI() + "'.");
+		}
 		if (m_commands == null) {
-			m_commands = createCommands(m_context);
+			// Pooled kernels must not be bound to the caller's context as the caller closes it after execution.
+			m_commands = createCommands(
+				m_poolKey != null ? new DLPythonDefaultContext(m_context.getPythonCommand()) : m_context);
             @SuppressWarnings("resource") // Closed in #close
             final DLPythonContext context = m_commands.getContext(monitor);
             for (final Entry<String, String> var : m_additionalEnvVars.entrySet()) {
@@ -130,6 +200,63 @@ protected void executeInternal(final DLExecutionMonitor monitor) throws DLCancel
                         + "' could not be found. Are you missing a KNIME Deep Learning extension?"))
                 .load(m_network, m_commands.getContext(monitor), false, monitor);
 		}
+		if (m_pipelineDepth > 1) {
+			executePipelined(monitor);
+		} else {
+			executeSequentially(monitor);
+		}
+		m_reusable = true;
+	}
+
+	/**
+	 * Tries to take over a warm kernel from the {@link DLPythonKernelPool kernel pool}. Only sessions whose context
+	 * has not started a kernel yet are eligible for pooling. Kernels that were handed off by the training session that
+	 * produced the network are preferred over kernels that were released by other execution sessions.
+	 *
+	 * @return <code>true</code> if a pooled kernel was acquired
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean acquirePooledKernel() {
+		final DLPythonKernelPool pool = DLPythonKernelPool.getInstance();
+		if (!pool.isEnabled() || m_context.isKernelOpen()) {
+			return false;
+		}
+		m_poolKey = DLPythonKernelPoolKey.create(m_context.getPythonCommand(),
+			getClass().getName(), m_network.getSource(), m_additionalEnvVars).orElse(null);
+		if (m_poolKey == null) {
+			return false;
+		}
+		DLPythonPooledKernel kernel = null;
+		if (pool.isHandOffEnabled()) {
+			kernel = pool.acquire(m_poolKey.toHandOffKey(m_network.getClass())).orElse(null);
+			if (kernel != null) {
+				LOGGER.debug("Adopting Python kernel of training session for network '"
+					+ m_network.getSource().getURI() + "'.");
+			}
+		}
+		if (kernel == null) {
+			kernel = pool.acquire(m_poolKey).orElse(null);
+		}
+		if (kernel == null) {
+			return false;
+		}
+		m_commands = (C)kernel.getCommands();
+		m_handle = kernel.getHandle();
+		return true;
+	}
+
+    @Override
+    public void setKernelEnvironmentVariable(final String name, final String value) {
+        m_additionalEnvVars.put(name, value);
+    }
+
+    @Override
+    public void setPipelineDepth(final int pipelineDepth) {
+        checkArgument(pipelineDepth > 0, "Pipeline depth must be greater than zero.");
+        m_pipelineDepth = pipelineDepth;
+    }
+
+	private void executeSequentially(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
 		final DLExecutionStatus status = monitor.getExecutionStatus();
 		long currentInBatchSize = m_expectedBatchSize;
         while (m_inputPreparer.hasNext()) {
@@ -138,8 +265,7 @@ protected void executeInternal(final DLExecutionMonitor monitor) throws DLCancel
 			monitor.checkCanceled();
             if (!m_inputPreparer.hasNext()) {
 				// last batch might be incomplete
-				final DLTensor<? extends DLWritableBuffer> tensor = m_input.values().stream().findAny().get();
-				currentInBatchSize = tensor.getBuffer().size() / tensor.getExampleSize();
+				currentInBatchSize = getBatchSize(m_input);
 			}
 			m_commands.setNetworkInputs(m_handle, m_input, monitor);
 			monitor.checkCanceled();
@@ -149,22 +275,7 @@ protected void executeInternal(final DLExecutionMonitor monitor) throws DLCancel
 				input.getBuffer().reset();
 			}
 			if (m_output == null) {
-				m_output = new HashMap<>(m_requestedOutputs.size());
-				final DLTensorSpec[] outputSpecs = ArrayUtils.addAll(m_network.getSpec().getOutputSpecs(),
-						m_network.getSpec().getHiddenOutputSpecs());
-				final Map<DLTensorId, long[]> outputShapes = m_commands.getNetworkOutputShapes(m_handle,
-						m_requestedOutputs, monitor);
-				for (final DLTensorSpec spec : outputSpecs) {
-					if (m_requestedOutputs.contains(spec.getIdentifier())) {
-						final long[] outShape = outputShapes.get(spec.getIdentifier());
-						final long outBatchSize = outShape[0];
-						final long[] outShapeWithoutBatchSize = new long[outShape.length - 1];
-						System.arraycopy(outShape, 1, outShapeWithoutBatchSize, 0, outShapeWithoutBatchSize.length);
-						final DLTensorSpec executionSpec = m_tensorFactory.createExecutionTensorSpec(spec, outBatchSize,
-								outShapeWithoutBatchSize);
-						m_output.put(spec.getIdentifier(), m_tensorFactory.createReadableTensor(executionSpec));
-					}
-				}
+				m_output = createOutputTensors(monitor);
 			}
 			m_commands.getNetworkOutputs(m_handle, m_output, monitor);
 			monitor.checkCanceled();
@@ -176,8 +287,205 @@ protected void executeInternal(final DLExecutionMonitor monitor) throws DLCancel
 		}
 	}
 
-    @Override
-    public void setKernelEnvironmentVariable(final String name, final String value) {
-        m_additionalEnvVars.put(name, value);
-    }
+	/**
+	 * Overlaps the preparation of the next input batches and the consumption of the previous output batches with the
+	 * execution of the current batch in Python. Input preparation and output consumption each run on their own thread
+	 * while the calling thread exclusively communicates with Python. Batches are handed over between the stages in
+	 * FIFO order, so the order in which the output consumer sees the batches equals the order of the input rows.
+	 */
+	private void executePipelined(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
+		final DLExecutionStatus status = monitor.getExecutionStatus();
+		if (m_pipelinedInputs == null) {
+			m_pipelinedInputs = new ArrayList<>(m_pipelineDepth - 1);
+			for (int i = 1; i < m_pipelineDepth; i++) {
+				final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input =
+					new HashMap<>(m_executionInputSpecs.size());
+				for (final DLTensorSpec spec : m_executionInputSpecs) {
+					input.put(spec.getIdentifier(), m_tensorFactory.createWritableTensor(spec));
+				}
+				m_pipelinedInputs.add(input);
+			}
+		}
+		final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> freeInputs =
+			new ArrayBlockingQueue<>(m_pipelineDepth);
+		freeInputs.add(m_input);
+		freeInputs.addAll(m_pipelinedInputs);
+		// one additional slot for the end-of-stream marker
+		final BlockingQueue<DLPipelinedBatch<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>>> preparedInputs =
+			new ArrayBlockingQueue<>(m_pipelineDepth + 1);
+		final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLReadableBuffer>>> freeOutputs =
+			new ArrayBlockingQueue<>(m_pipelineDepth);
+		if (m_output != null) {
+			freeOutputs.add(m_output);
+			freeOutputs.addAll(m_pipelinedOutputs);
+		}
+		final BlockingQueue<DLPipelinedBatch<Map<DLTensorId, DLTensor<? extends DLReadableBuffer>>>> filledOutputs =
+			new ArrayBlockingQueue<>(m_pipelineDepth + 1);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final Future<Void> producer = executor.submit(ThreadUtils.callableWithContext(() -> {
+				try {
+					while (m_inputPreparer.hasNext()) {
+						final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = freeInputs.take();
+						monitor.checkCanceled();
+						m_inputPreparer.prepareNext(input);
+						// last batch might be incomplete
+						final long batchSize = m_inputPreparer.hasNext() ? m_expectedBatchSize : getBatchSize(input);
+						preparedInputs.put(new DLPipelinedBatch<>(input, batchSize));
+					}
+				} finally {
+					// never blocks, the queue has a spare slot for the marker
+					preparedInputs.offer(DLPipelinedBatch.endOfStream());
+				}
+				return null;
+			}));
+			final Future<Void> consumer = executor.submit(ThreadUtils.callableWithContext(() -> {
+				DLPipelinedBatch<Map<DLTensorId, DLTensor<? extends DLReadableBuffer>>> batch;
+				while (!(batch = filledOutputs.take()).isEndOfStream()) {
+					monitor.checkCanceled();
+					m_outputConsumer.accept(batch.m_tensors);
+					for (final DLTensor<?> output : batch.m_tensors.values()) {
+						output.getBuffer().reset();
+					}
+					freeOutputs.put(batch.m_tensors);
+					status.batchEnded().raise(null);
+				}
+				return null;
+			}));
+
+			DLPipelinedBatch<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> batch;
+			while (!(batch = take(preparedInputs, producer, monitor)).isEndOfStream()) {
+				final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = batch.m_tensors;
+				m_commands.setNetworkInputs(m_handle, input, monitor);
+				monitor.checkCanceled();
+				m_commands.executeNetwork(m_handle, m_requestedOutputs, batch.m_batchSize, monitor);
+				monitor.checkCanceled();
+				for (final DLTensor<?> tensor : input.values()) {
+					tensor.getBuffer().reset();
+				}
+				freeInputs.put(input);
+				if (m_output == null) {
+					m_output = createOutputTensors(monitor);
+					m_pipelinedOutputs = new ArrayList<>(m_pipelineDepth - 1);
+					for (int i = 1; i < m_pipelineDepth; i++) {
+						m_pipelinedOutputs.add(createOutputTensors(monitor));
+					}
+					freeOutputs.add(m_output);
+					freeOutputs.addAll(m_pipelinedOutputs);
+				}
+				final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output =
+					take(freeOutputs, consumer, monitor);
+				m_commands.getNetworkOutputs(m_handle, output, monitor);
+				monitor.checkCanceled();
+				filledOutputs.put(new DLPipelinedBatch<>(output, batch.m_batchSize));
+			}
+			// propagates exceptions that were thrown during input preparation
+			getResult(producer);
+			filledOutputs.put(DLPipelinedBatch.endOfStream());
+			await(consumer, monitor);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> createOutputTensors(final DLCancelable cancelable)
+		throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output = new HashMap<>(m_requestedOutputs.size());
+		final DLTensorSpec[] outputSpecs = ArrayUtils.addAll(m_network.getSpec().getOutputSpecs(),
+				m_network.getSpec().getHiddenOutputSpecs());
+		final Map<DLTensorId, long[]> outputShapes = m_commands.getNetworkOutputShapes(m_handle,
+				m_requestedOutputs, cancelable);
+		for (final DLTensorSpec spec : outputSpecs) {
+			if (m_requestedOutputs.contains(spec.getIdentifier())) {
+				final long[] outShape = outputShapes.get(spec.getIdentifier());
+				final long outBatchSize = outShape[0];
+				final long[] outShapeWithoutBatchSize = new long[outShape.length - 1];
+				System.arraycopy(outShape, 1, outShapeWithoutBatchSize, 0, outShapeWithoutBatchSize.length);
+				final DLTensorSpec executionSpec = m_tensorFactory.createExecutionTensorSpec(spec, outBatchSize,
+						outShapeWithoutBatchSize);
+				output.put(spec.getIdentifier(), m_tensorFactory.createReadableTensor(executionSpec));
+			}
+		}
+		return output;
+	}
+
+	private static long getBatchSize(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+		final DLTensor<? extends DLWritableBuffer> tensor = input.values().stream().findAny().get();
+		return tensor.getBuffer().size() / tensor.getExampleSize();
+	}
+
+	/**
+	 * Takes the next element from the given queue while checking for cancellation and for failures of the pipeline
+	 * stage that is supposed to fill the queue.
+	 */
+	private static <T> T take(final BlockingQueue<T> queue, final Future<Void> stage, final DLCancelable cancelable)
+		throws Exception {
+		T element;
+		while ((element = queue.poll(PIPELINE_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) == null) {
+			cancelable.checkCanceled();
+			if (stage.isDone()) {
+				// rethrows the stage's exception, if any
+				getResult(stage);
+				element = queue.poll();
+				if (element == null) {
+					throw new IllegalStateException("Pipelined network execution terminated unexpectedly.");
+				}
+				break;
+			}
+		}
+		return element;
+	}
+
+	private static void await(final Future<Void> stage, final DLCancelable cancelable) throws Exception {
+		while (true) {
+			cancelable.checkCanceled();
+			try {
+				stage.get(PIPELINE_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+				return;
+			} catch (final TimeoutException e) {
+				// check for cancellation and wait again
+			} catch (final ExecutionException e) {
+				throw unwrap(e);
+			}
+		}
+	}
+
+	private static void getResult(final Future<Void> stage) throws Exception {
+		try {
+			stage.get();
+		} catch (final ExecutionException e) {
+			throw unwrap(e);
+		}
+	}
+
+	private static Exception unwrap(final ExecutionException e) {
+		final Throwable cause = e.getCause();
+		if (cause instanceof Exception) {
+			return (Exception)cause;
+		} else if (cause instanceof Error) {
+			throw (Error)cause;
+		}
+		return e;
+	}
+
+	private static final class DLPipelinedBatch<T> {
+
+		private static <T> DLPipelinedBatch<T> endOfStream() {
+			return new DLPipelinedBatch<>(null, -1);
+		}
+
+		private final T m_tensors;
+
+		private final long m_batchSize;
+
+		private DLPipelinedBatch(final T tensors, final long batchSize) {
+			m_tensors = tensors;
+			m_batchSize = batchSize;
+		}
+
+		private boolean isEndOfStream() {
+			return m_tensors == null;
+		}
+	}
 }
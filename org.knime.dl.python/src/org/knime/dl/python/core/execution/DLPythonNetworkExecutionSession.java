@@ -61,4 +61,14 @@ public interface DLPythonNetworkExecutionSession extends DLNetworkExecutionSessi
      * @param value value of the environment variable
      */
     void setKernelEnvironmentVariable(final String name, final String value);
+
+    /**
+     * Sets the number of batches that may be in flight at the same time during execution. If greater than one, the
+     * preparation of upcoming input batches and the consumption of previous output batches are overlapped with the
+     * execution of the current batch in Python. The order of the batches as seen by the output consumer is retained.
+     * Defaults to <code>1</code>, i.e. batches are processed strictly one after another.
+     *
+     * @param pipelineDepth the number of input and output tensor sets, must be greater than zero
+     */
+    void setPipelineDepth(final int pipelineDepth);
 }
@@ -57,6 +57,7 @@
 import org.knime.dl.core.DLFixedTensorShape;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLMissingExtensionException;
+import org.knime.dl.core.DLNetworkLocation;
 import org.knime.dl.core.DLNetworkFixedSizeInputPreparer;
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorSpec;
@@ -66,6 +67,9 @@
 import org.knime.dl.core.training.DLTrainingStatus;
 import org.knime.dl.python.core.DLPythonCommands;
 import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonDefaultContext;
+import org.knime.dl.python.core.DLPythonKernelPool;
+import org.knime.dl.python.core.DLPythonKernelPool.DLPythonKernelPoolKey;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
@@ -101,6 +105,11 @@
 
     private final Map<String, String> m_additionalEnvVars;
 
+    /**
+     * Non-<code>null</code> if {@link #m_commands} are not bound to {@link #m_context} and may be
+     * {@link #handOffKernel(DLNetworkLocation) handed off} to the kernel pool after training.
+     */
+    private DLPythonDefaultContext m_handOffContext;
 
 	/**
 	 * @param network the network to train
@@ -165,7 +174,14 @@ public void close() throws Exception {
 	protected void trainInternal(final DLTrainingMonitor<? extends S> monitor)
 			throws DLCanceledExecutionException, Exception {
 		if (m_commands == null) {
-			m_commands = createCommands(m_context);
+			if (DLPythonKernelPool.getInstance().isHandOffEnabled() && !m_context.isKernelOpen()) {
+				// Kernels that are handed off must not be bound to the caller's context as the caller closes it after
+				// training.
+				m_handOffContext = new DLPythonDefaultContext(m_context.getPythonCommand());
+				m_commands = createCommands(m_handOffContext);
+			} else {
+				m_commands = createCommands(m_context);
+			}
             @SuppressWarnings("resource") // Closed in #close
             final DLPythonContext context = m_commands.getContext(monitor);
             for (final Entry<String, String> var : m_additionalEnvVars.entrySet()) {
@@ -181,6 +197,33 @@ protected void trainInternal(final DLTrainingMonitor<? extends S> monitor)
 		m_commands.trainNetwork(m_handle, m_trainingInputProvider, m_validationInputProvider, monitor);
 	}
 
+    /**
+     * Parks the kernel of this session, in which the trained network is still loaded, in the
+     * {@link DLPythonKernelPool kernel pool} such that execution sessions of the network that was saved to the given
+     * location can adopt it instead of starting a new kernel and loading the network again. Does nothing if hand-off
+     * is {@link DLPythonKernelPool#isHandOffEnabled() disabled}. This session cannot be used any further if the kernel
+     * was handed off.
+     * <P>
+     * Must only be called after the trained network was completely saved to the given location.
+     *
+     * @param savedNetwork the location of the saved trained network
+     * @return <code>true</code> if the kernel was handed off
+     */
+    protected boolean handOffKernel(final DLNetworkLocation savedNetwork) {
+        if (m_handOffContext == null || m_commands == null) {
+            return false;
+        }
+        final DLPythonKernelPoolKey key = DLPythonKernelPoolKey.createHandOff(m_handOffContext.getPythonCommand(),
+            m_network.getClass(), savedNetwork, m_additionalEnvVars).orElse(null);
+        if (key == null) {
+            return false;
+        }
+        DLPythonKernelPool.getInstance().release(key, m_commands, m_handle);
+        m_commands = null;
+        m_handle = null;
+        return true;
+    }
+
     @Override
     public void setKernelEnvironmentVariable(final String name, final String value) {
         m_additionalEnvVars.put(name, value);
@@ -59,6 +59,7 @@
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Group;
@@ -69,6 +70,7 @@
 import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.PlatformUI;
 import org.knime.core.node.NodeLogger;
+import org.knime.dl.python.core.DLPythonInstallationTestCache;
 import org.knime.dl.python.prefs.DLTestStatusChangeListenerCollection.DLPythonConfigsInstallationTestStatusChangeListener;
 import org.knime.python2.PythonKernelTester.PythonKernelTestResult;
 import org.knime.python2.config.PythonConfigStorage;
@@ -162,6 +164,8 @@ protected Control createContents(final Composite parent) {
 
         m_serializerPanel = new SerializerPreferencePanel(m_config.m_serializer, m_container);
 
+        createInstallationTestCacheGroup();
+
         // Load config
         m_config.load();
         updateConfigSelection();
@@ -227,6 +231,29 @@ public void widgetSelected(final SelectionEvent e) {
         });
     }
 
+    private void createInstallationTestCacheGroup() {
+        final Group group = new Group(m_container, SWT.NONE);
+        group.setText("Back end installation tests");
+        group.setLayout(new GridLayout(2, false));
+        group.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+        final Label info = new Label(group, SWT.WRAP);
+        info.setText("The results of the back end installation tests are cached until the Python environment "
+            + "changes.");
+        info.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+        final Button refresh = new Button(group, SWT.PUSH);
+        refresh.setText("Refresh installation tests");
+        refresh.setToolTipText("Discards the cached test results. The tests will be run again the next time a "
+            + "deep learning back end is used.");
+        refresh.addSelectionListener(new SelectionAdapter() {
+
+            @Override
+            public void widgetSelected(final SelectionEvent e) {
+                DLPythonInstallationTestCache.getInstance().clear();
+                m_configObserver.testCurrentPreferences();
+            }
+        });
+    }
+
     private void createPageBody(final Composite parent) {
         m_containerScrolledView = new ScrolledComposite(parent, SWT.H_SCROLL | SWT.V_SCROLL);
         m_container = new Composite(m_containerScrolledView, SWT.NONE);
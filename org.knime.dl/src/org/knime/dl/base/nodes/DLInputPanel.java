@@ -49,9 +49,11 @@
 package org.knime.dl.base.nodes;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
@@ -67,11 +69,14 @@
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterPanel;
 import org.knime.dl.base.nodes.DLConverterRefresher.DLNoConverterAvailableException;
+import org.knime.dl.base.settings.ConfigEntry;
+import org.knime.dl.base.settings.ConfigUtil;
 import org.knime.dl.base.settings.DLAbstractInputConfig;
 import org.knime.dl.base.settings.DLDataTypeColumnFilter;
 import org.knime.dl.base.settings.DLInputConfig;
 import org.knime.dl.core.DLContext;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.DLTransportPrecision.Kind;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterRegistry;
@@ -133,6 +138,11 @@ public DLInputPanel(final I cfg, final DLTensorSpec tensorSpec, final String hea
         addDoubleColumnRow(getFirstComponent(m_dcConverter, JLabel.class),
             getFirstComponent(m_dcConverter, JComboBox.class));
 
+        // transport precision, only meaningful for floating point tensors
+        if (m_cfg instanceof DLAbstractInputConfig) {
+            addTransportPrecisionRows((DLAbstractInputConfig<?>)m_cfg);
+        }
+
         // column selection
         addLabelRow(header);
 
@@ -151,6 +161,28 @@ public DLInputPanel(final I cfg, final DLTensorSpec tensorSpec, final String hea
             .addValueChangeListener(addListener((entry, oldValue) -> refreshAllowedInputColumns()));
     }
 
+    private void addTransportPrecisionRows(final DLAbstractInputConfig<?> cfg) {
+        final ConfigEntry<String> precisionEntry = cfg.getTransportPrecisionEntry();
+        final Class<?> elementType = m_inputTensorSpec.getElementType();
+        if (precisionEntry == null || !(elementType.equals(float.class) || elementType.equals(double.class))) {
+            return;
+        }
+        addComboBoxRow(ConfigUtil.toSettingsModelString(precisionEntry), "Transport precision",
+            Arrays.stream(Kind.values()).map(Kind::getLabel).collect(Collectors.toList()));
+        final ConfigEntry<Double> scaleEntry = cfg.getTransportScaleEntry();
+        final ConfigEntry<Double> offsetEntry = cfg.getTransportOffsetEntry();
+        addNumberEditRowComponent(ConfigUtil.toSettingsModelDouble(scaleEntry), "Scale (uint8 only)");
+        addNumberEditRowComponent(ConfigUtil.toSettingsModelDouble(offsetEntry), "Offset (uint8 only)");
+        final boolean isUInt8 = Kind.UINT8.getLabel().equals(precisionEntry.getValue());
+        scaleEntry.setEnabled(isUInt8);
+        offsetEntry.setEnabled(isUInt8);
+        precisionEntry.addValueChangeListener(addListener((entry, oldValue) -> {
+            final boolean enabled = Kind.UINT8.getLabel().equals(entry.getValue());
+            scaleEntry.setEnabled(enabled);
+            offsetEntry.setEnabled(enabled);
+        }));
+    }
+
     /**
      * Adds <b>listener</b> to the managed listeners and returns it.
      *
@@ -251,6 +283,10 @@ public void unregisterListeners() {
         for (final BiConsumer listener : m_listeners) {
             m_cfg.getGeneralConfig().getContextEntry().removeValueChangeListener(listener);
             m_cfg.getConverterEntry().removeValueChangeListener(listener);
+            if (m_cfg instanceof DLAbstractInputConfig
+                && ((DLAbstractInputConfig<?>)m_cfg).getTransportPrecisionEntry() != null) {
+                ((DLAbstractInputConfig<?>)m_cfg).getTransportPrecisionEntry().removeValueChangeListener(listener);
+            }
         }
         m_listeners.clear();
         m_dcConverter.unregisterListeners();
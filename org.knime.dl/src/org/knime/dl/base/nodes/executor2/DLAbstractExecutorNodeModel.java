@@ -60,6 +60,13 @@
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.knime.core.data.DataColumnSpec;
@@ -91,6 +98,7 @@
 import org.knime.core.node.streamable.RowOutput;
 import org.knime.core.node.streamable.StreamableOperator;
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
+import org.knime.core.util.ThreadUtils;
 import org.knime.core.util.UniqueNameGenerator;
 import org.knime.dl.base.nodes.DLConfigurationUtility;
 import org.knime.dl.base.nodes.DLTensorRole;
@@ -112,6 +120,7 @@
 import org.knime.dl.core.DLRowInputRowIterator;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.DLTransportPrecision;
 import org.knime.dl.core.data.DLReadableBuffer;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 import org.knime.dl.core.data.convert.DLTensorToDataCellConverterFactory;
@@ -126,6 +135,7 @@
 import org.knime.dl.util.DLUtils;
 
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -147,6 +157,29 @@
 
     static final String CFG_KEY_OUTPUTS_ORDER = "outputs_ordered";
 
+    /**
+     * Upper bound of the number of batches that can be in flight at the same time during execution.
+     */
+    static final int MAX_PIPELINE_DEPTH = 8;
+
+    /**
+     * Upper bound of the number of workers that execute the network in parallel.
+     */
+    static final int MAX_NUM_WORKERS = 32;
+
+    /**
+     * The number of batches that are handed out to a worker at once during parallel execution.
+     */
+    private static final int NUM_BATCHES_PER_CHUNK = 4;
+
+    /**
+     * Bounds the number of chunks per worker that are in progress or buffered for reordering during parallel
+     * execution.
+     */
+    private static final int MAX_PENDING_CHUNKS_PER_WORKER = 4;
+
+    private static final long WORKER_POLL_INTERVAL_IN_MS = 100;
+
     private static final NodeLogger LOGGER = NodeLogger.getLogger(DLAbstractExecutorNodeModel.class);
 
     static DLExecutorGeneralConfig createGeneralModelConfig() {
@@ -178,6 +211,13 @@ static SettingsModelStringArray createOutputOrderSettingsModel(final int outputs
     /** the input converters */
     protected LinkedHashMap<DLTensorSpec, DLDataValueToTensorConverterFactory<?, ?>> m_inputConverters;
 
+    /**
+     * the precisions at which the inputs are transmitted to the back end
+     *
+     * @since 4.5
+     */
+    protected LinkedHashMap<DLTensorId, DLTransportPrecision> m_inputTransportPrecisions;
+
     /** the output converters */
     protected LinkedHashMap<DLTensorSpec, DLTensorToDataCellConverterFactory<?, ?>> m_outputConverters;
 
@@ -204,12 +244,12 @@ public DLAbstractExecutorNodeModel(final PortType networkPortType) {
 
     @Override
     public InputPortRole[] getInputPortRoles() {
-        return new InputPortRole[]{InputPortRole.NONDISTRIBUTED_NONSTREAMABLE, InputPortRole.NONDISTRIBUTED_STREAMABLE};
+        return new InputPortRole[]{InputPortRole.NONDISTRIBUTED_NONSTREAMABLE, InputPortRole.DISTRIBUTED_STREAMABLE};
     }
 
     @Override
     public OutputPortRole[] getOutputPortRoles() {
-        return new OutputPortRole[]{OutputPortRole.NONDISTRIBUTED};
+        return new OutputPortRole[]{OutputPortRole.DISTRIBUTED};
     }
 
     @Override
@@ -407,6 +447,7 @@ private void configureGeneral(final Class<? extends DLNetwork> networkType)
     private void configureInputs(final DLNetworkSpec networkSpec, final DataTableSpec inDataSpec)
         throws InvalidSettingsException {
         m_inputConverters = new LinkedHashMap<>(m_inputCfgs.size());
+        m_inputTransportPrecisions = new LinkedHashMap<>(m_inputCfgs.size());
         for (final DLTensorSpec inputSpec : networkSpec.getInputSpecs()) {
             final DLExecutorInputConfig inputCfg = getInputConfig(inputSpec.getIdentifier(), inputSpec.getName());
             if (inputCfg == null) {
@@ -418,6 +459,7 @@ private void configureInputs(final DLNetworkSpec networkSpec, final DataTableSpe
                 DLConfigurationUtility.configureInput(inputCfg, inputSpec, m_generalCfg.getContextEntry().getValue(),
                     inDataSpec, m_lastConfiguredTableSpec, DLTensorRole.INPUT);
             m_inputConverters.put(inputSpec, converter);
+            m_inputTransportPrecisions.put(inputSpec.getIdentifier(), inputCfg.getTransportPrecision());
         }
     }
 
@@ -517,7 +559,6 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
         final RowOutput rowOutput, final ExecutionContext exec) throws Exception {
         @SuppressWarnings("unchecked")
         final N network = (N)extractNetworkFromPortObject((DLNetworkPortObject)portObject);
-        final DLNetworkSpec networkSpec = network.getSpec();
         final DataTableSpec inDataSpec = rowInput.getDataTableSpec();
         if ((rowInput instanceof DataTableRowInput && ((DataTableRowInput)rowInput).getRowCount() == 0)
             || inDataSpec.getNumColumns() == 0) {
@@ -527,12 +568,6 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
             return;
         }
 
-        final int batchSize = m_generalCfg.getBatchSizeEntry().getValue();
-        final boolean isPredefinedBatchSize =
-            Arrays.stream(networkSpec.getInputSpecs()).anyMatch(s -> s.getBatchSize().isPresent());
-
-        final boolean keepInputColumns = m_generalCfg.getKeepInputColumnsEntry().getValue();
-
         // assign input column indices to network inputs
         final LinkedHashMap<DLTensorId, int[]> columnsForTensorId = new LinkedHashMap<>(m_inputConverters.size());
         final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverterForTensorId =
@@ -543,17 +578,118 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
         final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId =
             createOutputConverterMap();
 
+        final int numWorkers = m_generalCfg.getNumWorkersEntry().getValue();
+        if (numWorkers > 1) {
+            executeInParallel(network, rowInput, rowOutput, exec, numWorkers, columnsForTensorId,
+                inputConverterForTensorId, outputConverterForTensorId);
+        } else {
+            executeInWorker(network, rowInput, rowOutput, exec, columnsForTensorId, inputConverterForTensorId,
+                outputConverterForTensorId);
+        }
+    }
+
+    /**
+     * Distributes the input rows among several workers, each of which executes the network in its own back end
+     * instance (e.g. its own Python process). The rows are dispatched in chunks of whole batches to whichever worker
+     * asks for more input next. The results are pushed to the output in input order.
+     */
+    private <N extends DLNetwork> void executeInParallel(final N network, final RowInput rowInput,
+        final RowOutput rowOutput, final ExecutionContext exec, final int numWorkers,
+        final LinkedHashMap<DLTensorId, int[]> columnsForTensorId,
+        final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverterForTensorId,
+        final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId)
+        throws Exception {
+        final long numRows = rowInput instanceof DataTableRowInput ? ((DataTableRowInput)rowInput).getRowCount() : -1;
+        final int chunkSize = (int)Math.min(Integer.MAX_VALUE,
+            (long)m_generalCfg.getBatchSizeEntry().getValue() * NUM_BATCHES_PER_CHUNK);
+        final DLExecutorRowDispatcher dispatcher = new DLExecutorRowDispatcher(rowInput, rowOutput, numRows,
+            chunkSize, numWorkers * MAX_PENDING_CHUNKS_PER_WORKER, exec);
+        final ExecutorService executor = Executors.newFixedThreadPool(numWorkers,
+            new ThreadFactoryBuilder().setNameFormat("KNIME-DL-Executor-Worker-%d").build());
+        try {
+            final CompletionService<Void> workers = new ExecutorCompletionService<>(executor);
+            for (int i = 0; i < numWorkers; i++) {
+                final DLExecutorRowDispatcher.DLWorkerChannel channel = dispatcher.createChannel();
+                // progress is reported by the dispatcher
+                final ExecutionContext workerExec = exec.createSilentSubExecutionContext(0);
+                workers.submit(ThreadUtils.callableWithContext(() -> {
+                    executeInWorker(network, channel.getInput(), channel.getOutput(), workerExec,
+                        columnsForTensorId, inputConverterForTensorId, outputConverterForTensorId);
+                    return null;
+                }));
+            }
+            for (int i = 0; i < numWorkers; i++) {
+                Future<Void> worker;
+                while ((worker = workers.poll(WORKER_POLL_INTERVAL_IN_MS, TimeUnit.MILLISECONDS)) == null) {
+                    exec.checkCanceled();
+                }
+                try {
+                    worker.get();
+                } catch (final ExecutionException e) {
+                    // the remaining workers are interrupted below
+                    final Throwable cause = e.getCause();
+                    throw cause instanceof Exception ? (Exception)cause : e;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            // the output must not be closed while workers may still push to it
+            awaitTermination(executor);
+            dispatcher.close();
+        }
+    }
+
+    /**
+     * Waits until all workers have terminated. Interrupts of the calling thread are deferred until then.
+     */
+    private static void awaitTermination(final ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(WORKER_POLL_INTERVAL_IN_MS, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Executes the network on all rows of the given input in a single back end instance.
+     */
+    private <N extends DLNetwork> void executeInWorker(final N network, final RowInput rowInput,
+        final RowOutput rowOutput, final ExecutionContext exec,
+        final LinkedHashMap<DLTensorId, int[]> columnsForTensorId,
+        final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverterForTensorId,
+        final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId)
+        throws Exception {
+        final int batchSize = m_generalCfg.getBatchSizeEntry().getValue();
+        final boolean isPredefinedBatchSize =
+            Arrays.stream(network.getSpec().getInputSpecs()).anyMatch(s -> s.getBatchSize().isPresent());
+
+        final boolean keepInputColumns = m_generalCfg.getKeepInputColumnsEntry().getValue();
+
         final C context = getContext(m_generalCfg.getContextEntry().getValue());
-        try (final DLRowInputRowIterator rowIterator = new DLRowInputRowIterator(rowInput, columnsForTensorId);
-                final DLKnimeNetworkExecutionInputPreparer inputPreparer = new DLKnimeNetworkExecutionInputPreparer(
-                    rowIterator, batchSize, isPredefinedBatchSize, inputConverterForTensorId);
-                final DLKnimeNetworkOutputConsumer outputConsumer = new DLKnimeNetworkOutputConsumer(rowOutput,
-                    inputPreparer.getBaseRows()::remove, keepInputColumns, outputConverterForTensorId, exec);
-                final DLNetworkExecutionSession session =
-                    createExecutionSession(context, network, batchSize, columnsForTensorId, outputConverterForTensorId,
-                        rowIterator.peek(), inputPreparer, outputConsumer)) {
-            final DLKnimeExecutionMonitor monitor = createExecutionMonitor(exec, inputPreparer.getNumBatches());
-            session.run(monitor);
+        try (final DLRowInputRowIterator rowIterator = new DLRowInputRowIterator(rowInput, columnsForTensorId)) {
+            if (!rowIterator.hasNext()) {
+                // may happen if several workers share the input and the others already took all rows
+                rowOutput.close();
+                return;
+            }
+            try (final DLKnimeNetworkExecutionInputPreparer inputPreparer = new DLKnimeNetworkExecutionInputPreparer(
+                rowIterator, batchSize, isPredefinedBatchSize, inputConverterForTensorId);
+                    final DLKnimeNetworkOutputConsumer outputConsumer = new DLKnimeNetworkOutputConsumer(rowOutput,
+                        inputPreparer.getBaseRows()::remove, keepInputColumns, outputConverterForTensorId, exec);
+                    final DLNetworkExecutionSession session = createExecutionSession(context, network, batchSize,
+                        columnsForTensorId, outputConverterForTensorId, rowIterator.peek(), inputPreparer,
+                        outputConsumer)) {
+                final DLKnimeExecutionMonitor monitor = createExecutionMonitor(exec, inputPreparer.getNumBatches());
+                session.run(monitor);
+            }
         } catch (final CanceledExecutionException | DLCanceledExecutionException e) {
             throw e;
         } catch (final Exception e) {
@@ -593,10 +729,19 @@ protected <N extends DLNetwork> DLNetworkExecutionSession createExecutionSession
         final DLExecutionContext<C, N> ctx = getExecutionContext(context);
         return ctx.createExecutionSession(
             context, network, DLExecutionSpecCreator.createExecutionSpecs(firstRow, ctx.getTensorFactory(), batchSize,
-                columnsForTensorId, m_inputConverters),
+                columnsForTensorId, m_inputConverters, m_inputTransportPrecisions),
             outputConverterForTensorId.keySet(), inputPreparer, outputConsumer);
     }
 
+    /**
+     * @return the number of batches that may be in flight at the same time during execution, i.e. the number of input
+     *         and output tensor sets that are allocated by the execution session. A value of <code>1</code> means that
+     *         batches are processed strictly one after another.
+     */
+    protected int getPipelineDepth() {
+        return m_generalCfg.getPipelineDepthEntry().getValue();
+    }
+
     /**
      * @return the configured execution context
      * @throws InvalidSettingsException if the execution context is not available
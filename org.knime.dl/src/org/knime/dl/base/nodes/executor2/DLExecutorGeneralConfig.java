@@ -57,6 +57,7 @@
 import org.knime.dl.base.settings.AbstractConfigEntry;
 import org.knime.dl.base.settings.ConfigEntry;
 import org.knime.dl.base.settings.DLGeneralConfig;
+import org.knime.dl.base.settings.DefaultConfigEntry;
 import org.knime.dl.base.settings.SettingsModelConfigEntries;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.execution.DLExecutionContext;
@@ -81,6 +82,16 @@ class DLExecutorGeneralConfig extends AbstractConfig implements DLGeneralConfig<
 
     private static final String CFG_KEY_KEEP_INPUT_COLS = "keep_input_columns";
 
+    /**
+     * @since 4.5
+     */
+    private static final String CFG_KEY_PIPELINE_DEPTH = "pipeline_depth";
+
+    /**
+     * @since 4.5
+     */
+    private static final String CFG_KEY_NUM_WORKERS = "number_of_workers";
+
     @SuppressWarnings("rawtypes") // java limitation
     DLExecutorGeneralConfig(final String defaultBackendName, final String defaultBackendId,
         final int defaultBatchSize) {
@@ -114,6 +125,24 @@ public void loadSettingsFrom(final NodeSettingsRO settings) throws InvalidSettin
         put(SettingsModelConfigEntries.createIntegerBoundedConfigEntry(CFG_KEY_BATCH_SIZE, defaultBatchSize, 1,
             Integer.MAX_VALUE));
         put(SettingsModelConfigEntries.createBooleanConfigEntry(CFG_KEY_KEEP_INPUT_COLS, false));
+        put(new DefaultConfigEntry<Integer>(CFG_KEY_PIPELINE_DEPTH, Integer.class, 1) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (4.5): process batches strictly one after another
+                m_value = 1;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Integer>(CFG_KEY_NUM_WORKERS, Integer.class, 1) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (4.5): execute the network in a single back end instance
+                m_value = 1;
+                return true;
+            }
+        });
     }
 
     ConfigEntry<Integer> getBatchSizeEntry() {
@@ -130,6 +159,24 @@ public ConfigEntry<Boolean> getKeepInputColumnsEntry() {
         return get(CFG_KEY_KEEP_INPUT_COLS, Boolean.class);
     }
 
+    /**
+     * @return the number of batches that are in flight at the same time during execution. A value of <code>1</code>
+     *         means that batches are processed strictly one after another.
+     * @since 4.5
+     */
+    ConfigEntry<Integer> getPipelineDepthEntry() {
+        return get(CFG_KEY_PIPELINE_DEPTH, Integer.class);
+    }
+
+    /**
+     * @return the number of back end instances (e.g. Python processes) that execute the network in parallel. A value
+     *         of <code>1</code> means that all rows are processed by a single instance.
+     * @since 4.5
+     */
+    ConfigEntry<Integer> getNumWorkersEntry() {
+        return get(CFG_KEY_NUM_WORKERS, Integer.class);
+    }
+
     static Collection<DLExecutionContext<?, ?>> // NOSONAR Internal API. Types will be checked at a later point in time.
     getAvailableExecutionContexts(final Class<? extends DLNetwork> networkType) {
         return DLExecutionContextRegistry.getInstance().getExecutionContextsForNetworkType(networkType);
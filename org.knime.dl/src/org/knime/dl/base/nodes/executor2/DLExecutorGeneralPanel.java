@@ -94,6 +94,10 @@ class DLExecutorGeneralPanel extends AbstractGridBagDialogComponentGroup {
             "Input batch size", 100);
         addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getKeepInputColumnsEntry()),
             "Keep input columns in output table", true);
+        addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getPipelineDepthEntry(), 1,
+            DLAbstractExecutorNodeModel.MAX_PIPELINE_DEPTH), "Number of batches in flight", 1);
+        addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getNumWorkersEntry(), 1,
+            DLAbstractExecutorNodeModel.MAX_NUM_WORKERS), "Number of parallel workers", 1);
     }
 
     @Override
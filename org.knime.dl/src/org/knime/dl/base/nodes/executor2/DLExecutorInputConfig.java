@@ -90,6 +90,7 @@ public void loadSettingsFrom(final NodeSettingsRO settings) throws InvalidSettin
                 // no op. Separate routines for loading in model and dialog required. See super class.
             }
         });
+        addTransportPrecisionEntries();
     }
 
     private SettingsModelStringArray createSettingsModelFromEntry(
@@ -0,0 +1,328 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.base.nodes.executor2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.streamable.RowOutput;
+
+/**
+ * Distributes the rows of a single input among several execution workers and merges their results back into a single
+ * output in input order.
+ * <P>
+ * Rows are handed out in chunks of a fixed size. Workers pull the next chunk as soon as they need more input, i.e. the
+ * chunks are dynamically balanced between fast and slow workers. The chunk size should be a multiple of the batch size
+ * such that only the very last batch of the input can be incomplete. The results of a chunk are buffered until all
+ * chunks that precede it have been emitted. The number of chunks that are in progress or waiting to be emitted is
+ * bounded to limit the memory spent on reordering: each chunk takes a permit that is returned once the chunk was
+ * emitted. The only exception is the worker that holds the oldest chunk that was not yet emitted. As workers may poll
+ * ahead of the rows they already pushed (e.g. to check whether there is more input), this worker may need rows of a
+ * further chunk before it can finish the oldest one. It therefore receives at most one chunk without a permit while it
+ * holds the oldest chunk, which guarantees progress without giving up the bound.
+ */
+final class DLExecutorRowDispatcher {
+
+    private final RowInput m_source;
+
+    private final RowOutput m_target;
+
+    private final long m_numRows;
+
+    private final int m_chunkSize;
+
+    private final ExecutionMonitor m_exec;
+
+    private final Object m_sourceLock = new Object();
+
+    /**
+     * Guards the reordering buffer as well as the permits.
+     */
+    private final Object m_targetLock = new Object();
+
+    private int m_numPermits;
+
+    private long m_lastPermitFreeChunkOwner = -1;
+
+    private final Map<Long, DLChunk> m_completedChunks = new HashMap<>();
+
+    private long m_nextChunkIndex;
+
+    private boolean m_sourceExhausted;
+
+    private long m_nextChunkToEmit;
+
+    private long m_numEmittedRows;
+
+    /**
+     * @param source the input whose rows are distributed among the workers
+     * @param target the output that receives the results of the workers in input order
+     * @param numRows the number of rows of the source, <code>-1</code> if unknown
+     * @param chunkSize the number of rows that are handed out to a worker at once
+     * @param maxPendingChunks the maximum number of chunks that are in progress or waiting to be emitted. The worker
+     *            that holds the oldest chunk that was not yet emitted may exceed this limit by one chunk in order to
+     *            guarantee progress.
+     * @param exec used to report the progress in terms of emitted rows
+     */
+    DLExecutorRowDispatcher(final RowInput source, final RowOutput target, final long numRows, final int chunkSize,
+        final int maxPendingChunks, final ExecutionMonitor exec) {
+        m_source = source;
+        m_target = target;
+        m_numRows = numRows;
+        m_chunkSize = chunkSize;
+        m_exec = exec;
+        m_numPermits = maxPendingChunks;
+    }
+
+    /**
+     * Creates a new channel for a single worker. The channel's input and output must be used by the same worker, the
+     * rows pushed to the output must correspond one-to-one (and in order) to the rows polled from the input.
+     *
+     * @return the new channel
+     */
+    DLWorkerChannel createChannel() {
+        return new DLWorkerChannel();
+    }
+
+    /**
+     * Closes the source and the target. Must only be called after all workers are done.
+     *
+     * @throws InterruptedException if interrupted while closing the target
+     */
+    void close() throws InterruptedException {
+        m_source.close();
+        m_target.close();
+    }
+
+    /**
+     * @return the number of chunks that were completed by their workers but are waiting for preceding chunks in order
+     *         to be emitted
+     */
+    int getNumBufferedChunks() {
+        synchronized (m_targetLock) {
+            return m_completedChunks.size();
+        }
+    }
+
+    private DLChunk nextChunk(final Queue<DLChunk> unfinishedChunks) throws InterruptedException {
+        final boolean hasPermit;
+        synchronized (m_targetLock) {
+            while (true) {
+                if (m_numPermits > 0) {
+                    m_numPermits--;
+                    hasPermit = true;
+                    break;
+                }
+                final DLChunk oldest = unfinishedChunks.peek();
+                if (oldest != null && oldest.m_index == m_nextChunkToEmit
+                    && m_lastPermitFreeChunkOwner != m_nextChunkToEmit) {
+                    // the worker may need further input to finish the chunk all others are waiting for, don't block it
+                    m_lastPermitFreeChunkOwner = m_nextChunkToEmit;
+                    hasPermit = false;
+                    break;
+                }
+                m_targetLock.wait();
+            }
+        }
+        synchronized (m_sourceLock) {
+            final List<DataRow> rows = new ArrayList<>(m_chunkSize);
+            if (!m_sourceExhausted) {
+                DataRow row;
+                while (rows.size() < m_chunkSize && (row = m_source.poll()) != null) {
+                    rows.add(row);
+                }
+                m_sourceExhausted = rows.size() < m_chunkSize;
+            }
+            if (rows.isEmpty()) {
+                if (hasPermit) {
+                    releasePermit();
+                }
+                return null;
+            }
+            return new DLChunk(m_nextChunkIndex++, rows, hasPermit);
+        }
+    }
+
+    private void complete(final DLChunk chunk) throws InterruptedException {
+        synchronized (m_targetLock) {
+            m_completedChunks.put(chunk.m_index, chunk);
+            DLChunk next;
+            while ((next = m_completedChunks.remove(m_nextChunkToEmit)) != null) {
+                for (final DataRow row : next.m_results) {
+                    m_target.push(row);
+                }
+                m_nextChunkToEmit++;
+                m_numEmittedRows += next.m_results.length;
+                if (next.m_hasPermit) {
+                    m_numPermits++;
+                }
+                // the worker that holds the next chunk to emit may now be allowed to proceed
+                m_targetLock.notifyAll();
+            }
+            if (m_numRows > 0) {
+                m_exec.setProgress(m_numEmittedRows / (double)m_numRows,
+                    "Processed row " + m_numEmittedRows + " of " + m_numRows + "...");
+            } else {
+                m_exec.setMessage("Processed row " + m_numEmittedRows + "...");
+            }
+        }
+    }
+
+    private void releasePermit() {
+        synchronized (m_targetLock) {
+            m_numPermits++;
+            m_targetLock.notifyAll();
+        }
+    }
+
+    /**
+     * The input and output of a single worker.
+     */
+    final class DLWorkerChannel {
+
+        /**
+         * The chunks that were handed out to the worker but are not yet finished, in the order they were handed out.
+         * Thread-safe as the worker may poll input rows and push results on different threads.
+         */
+        private final Queue<DLChunk> m_unfinishedChunks = new ConcurrentLinkedQueue<>();
+
+        private final RowInput m_input = new RowInput() {
+
+            private DLChunk m_current;
+
+            private int m_nextRow;
+
+            @Override
+            public DataTableSpec getDataTableSpec() {
+                return m_source.getDataTableSpec();
+            }
+
+            @Override
+            public DataRow poll() throws InterruptedException {
+                if (m_current == null || m_nextRow == m_current.m_rows.size()) {
+                    m_current = nextChunk(m_unfinishedChunks);
+                    if (m_current == null) {
+                        return null;
+                    }
+                    m_unfinishedChunks.add(m_current);
+                    m_nextRow = 0;
+                }
+                return m_current.m_rows.get(m_nextRow++);
+            }
+
+            @Override
+            public void close() {
+                // the source is shared among all workers, see DLExecutorRowDispatcher#close
+            }
+        };
+
+        private final RowOutput m_output = new RowOutput() {
+
+            @Override
+            public void push(final DataRow row) throws InterruptedException {
+                final DLChunk chunk = m_unfinishedChunks.peek();
+                if (chunk == null) {
+                    throw new IllegalStateException("Worker produced more output rows than it received input rows.");
+                }
+                chunk.m_results[chunk.m_numResults++] = row;
+                if (chunk.m_numResults == chunk.m_results.length) {
+                    m_unfinishedChunks.remove();
+                    complete(chunk);
+                }
+            }
+
+            @Override
+            public void close() {
+                // the target is shared among all workers, see DLExecutorRowDispatcher#close
+            }
+        };
+
+        private DLWorkerChannel() {
+        }
+
+        /**
+         * @return the input of the worker
+         */
+        RowInput getInput() {
+            return m_input;
+        }
+
+        /**
+         * @return the output of the worker
+         */
+        RowOutput getOutput() {
+            return m_output;
+        }
+    }
+
+    private static final class DLChunk {
+
+        private final long m_index;
+
+        private final List<DataRow> m_rows;
+
+        private final DataRow[] m_results;
+
+        private final boolean m_hasPermit;
+
+        private int m_numResults;
+
+        private DLChunk(final long index, final List<DataRow> rows, final boolean hasPermit) {
+            m_index = index;
+            m_rows = rows;
+            m_results = new DataRow[rows.size()];
+            m_hasPermit = hasPermit;
+        }
+    }
+}
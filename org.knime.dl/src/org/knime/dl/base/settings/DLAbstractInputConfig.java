@@ -51,6 +51,8 @@
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
 import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTransportPrecision;
+import org.knime.dl.core.DLTransportPrecision.Kind;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 
 /**
@@ -70,6 +72,27 @@
      */
     public static final String CFG_KEY_INPUT_COL = "input_columns";
 
+    /**
+     * Config key for the precision at which the input is transmitted to the back end.
+     *
+     * @since 4.5
+     */
+    protected static final String CFG_KEY_TRANSPORT_PRECISION = "transport_precision";
+
+    /**
+     * Config key for the scale that the back end applies to inputs transmitted as unsigned bytes.
+     *
+     * @since 4.5
+     */
+    protected static final String CFG_KEY_TRANSPORT_SCALE = "transport_scale";
+
+    /**
+     * Config key for the offset that the back end applies to inputs transmitted as unsigned bytes.
+     *
+     * @since 4.5
+     */
+    protected static final String CFG_KEY_TRANSPORT_OFFSET = "transport_offset";
+
     /**
      * @see DLAbstractIOConfig
      */
@@ -77,6 +100,89 @@ public DLAbstractInputConfig(final DLTensorId tensorId, final String tensorName,
         super(tensorId, tensorName, generalCfg);
     }
 
+    /**
+     * Adds the entries that configure the {@link DLTransportPrecision transport precision} of the input. Only inputs
+     * whose back end transmission is under the control of the node should call this method.
+     *
+     * @since 4.5
+     */
+    protected final void addTransportPrecisionEntries() {
+        put(new DefaultConfigEntry<String>(CFG_KEY_TRANSPORT_PRECISION, String.class, Kind.FULL.getLabel()) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (4.5): transmit at full precision, as before
+                m_value = Kind.FULL.getLabel();
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Double>(CFG_KEY_TRANSPORT_SCALE, Double.class, 1d) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (4.5): only used by precisions that were not available before
+                m_value = 1d;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Double>(CFG_KEY_TRANSPORT_OFFSET, Double.class, 0d) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (4.5): only used by precisions that were not available before
+                m_value = 0d;
+                return true;
+            }
+        });
+    }
+
+    /**
+     * @return the label of the {@link Kind transport precision} of the input, <code>null</code> if the input does not
+     *         support reduced transport precisions
+     * @since 4.5
+     */
+    public ConfigEntry<String> getTransportPrecisionEntry() {
+        return get(CFG_KEY_TRANSPORT_PRECISION, String.class);
+    }
+
+    /**
+     * @return the scale applied to inputs transmitted as unsigned bytes, <code>null</code> if the input does not
+     *         support reduced transport precisions
+     * @since 4.5
+     */
+    public ConfigEntry<Double> getTransportScaleEntry() {
+        return get(CFG_KEY_TRANSPORT_SCALE, Double.class);
+    }
+
+    /**
+     * @return the offset applied to inputs transmitted as unsigned bytes, <code>null</code> if the input does not
+     *         support reduced transport precisions
+     * @since 4.5
+     */
+    public ConfigEntry<Double> getTransportOffsetEntry() {
+        return get(CFG_KEY_TRANSPORT_OFFSET, Double.class);
+    }
+
+    /**
+     * @return the configured transport precision of the input, {@link DLTransportPrecision#FULL} if the input does not
+     *         support reduced transport precisions
+     * @throws InvalidSettingsException if the configured precision is unknown or its scale or offset are not finite
+     * @since 4.5
+     */
+    public DLTransportPrecision getTransportPrecision() throws InvalidSettingsException {
+        final ConfigEntry<String> precisionEntry = getTransportPrecisionEntry();
+        if (precisionEntry == null) {
+            return DLTransportPrecision.FULL;
+        }
+        try {
+            return DLTransportPrecision.of(Kind.fromLabel(precisionEntry.getValue()),
+                getTransportScaleEntry().getValue(), getTransportOffsetEntry().getValue());
+        } catch (final IllegalArgumentException e) {
+            throw new InvalidSettingsException("Invalid transport precision of network input '" + getTensorNameOrId()
+                + "': " + e.getMessage(), e);
+        }
+    }
+
     private DataColumnSpecFilterConfiguration getInputColumnConfig() {
         return getEntryValue(CFG_KEY_INPUT_COL, DataColumnSpecFilterConfiguration.class);
     }
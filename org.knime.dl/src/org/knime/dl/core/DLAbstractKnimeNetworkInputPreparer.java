@@ -54,8 +54,10 @@
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataValue;
 import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.convert.DLColumnarDataValueToTensorConverter;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverter;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 
@@ -71,6 +73,20 @@ public abstract class DLAbstractKnimeNetworkInputPreparer implements DLNetworkIn
 
 	protected final Map<DLTensorId, DLDataValueToTensorConverter<?, ?>> m_converters;
 
+	/**
+	 * Holds the rows of the current batch if all tensors can be filled via
+	 * {@link #writeRowsInTensors(DataRow[], int, Map)}, <code>null</code> otherwise.
+	 *
+	 * @since 4.5
+	 */
+	protected final DataRow[] m_rowBuffer;
+
+	private final DLTensorId[] m_tensorIds;
+
+	private final DLColumnarDataValueToTensorConverter<?, ?>[] m_columnarConverters;
+
+	private final int[][] m_columnsForTensors;
+
 	/**
 	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
 	 *            fed to {@link #prepare(Map, long)}.
@@ -86,6 +102,21 @@ public DLAbstractKnimeNetworkInputPreparer(final DLRowIterator iterator, final i
 		for (final Entry<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converter : converters.entrySet()) {
 			m_converters.put(converter.getKey(), converter.getValue().createConverter());
 		}
+		// resolve the tensors of the columnar conversion path once, if all converters support it
+		m_tensorIds = m_converters.keySet().toArray(new DLTensorId[0]);
+		m_columnarConverters = new DLColumnarDataValueToTensorConverter<?, ?>[m_tensorIds.length];
+		m_columnsForTensors = new int[m_tensorIds.length][];
+		boolean columnar = true;
+		for (int i = 0; i < m_tensorIds.length; i++) {
+			final DLDataValueToTensorConverter<?, ?> converter = m_converters.get(m_tensorIds[i]);
+			m_columnsForTensors[i] = iterator.getColumnsForTensor(m_tensorIds[i]);
+			if (!(converter instanceof DLColumnarDataValueToTensorConverter) || m_columnsForTensors[i] == null) {
+				columnar = false;
+				break;
+			}
+			m_columnarConverters[i] = (DLColumnarDataValueToTensorConverter<?, ?>) converter;
+		}
+		m_rowBuffer = columnar ? new DataRow[batchSize] : null;
 	}
 
 	@Override
@@ -114,6 +145,42 @@ protected final void writeDataValuesInTensors(final Map<DLTensorId, List<DataVal
 		}
 	}
 
+	/**
+	 * Writes the given rows in the tensors via the columnar conversion path. Must only be called if
+	 * {@link #m_rowBuffer} is not <code>null</code>.
+	 *
+	 * @param rows the rows which to write in the tensors
+	 * @param numRows the number of rows
+	 * @param tensors the tensors in which to write the rows
+	 * @throws DLBufferOverflowExceptionForTensor if writing in a tensor exceeds its buffer's capacity. The affected
+	 *             tensor can be retrieved via {@link DLBufferOverflowExceptionForTensor#getTensor()}.
+	 * @throws DLInvalidNetworkInputException if a cell is missing, the message names its row and column
+	 * @since 4.5
+	 */
+	protected final void writeRowsInTensors(final DataRow[] rows, final int numRows,
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors)
+			throws DLBufferOverflowExceptionForTensor {
+		for (int i = 0; i < m_tensorIds.length; i++) {
+			final DLTensor<? extends DLWritableBuffer> tensor = tensors.get(m_tensorIds[i]);
+			if (tensor == null) {
+				continue;
+			}
+			final DLColumnarDataValueToTensorConverter converter = m_columnarConverters[i];
+			try {
+				converter.convertColumns(rows, numRows, m_columnsForTensors[i], tensor);
+			} catch (final BufferOverflowException ex) {
+				throw new DLBufferOverflowExceptionForTensor(ex, tensor);
+			} catch (final DLInvalidNetworkInputException ex) {
+				// The converter only knows the column indices. Grouping the rows by tensor reports missing cells along
+				// with the names of their columns in the input table.
+				for (int r = 0; r < numRows; r++) {
+					m_iterator.groupByTensor(rows[r]);
+				}
+				throw ex;
+			}
+		}
+	}
+
 	/**
 	 * Thrown by {@link DLAbstractKnimeNetworkInputPreparer#writeDataValuesInTensors(Map, Map)} if a
 	 * <code>BufferOverflowException</code> occurs while filling a tensor.
@@ -85,6 +85,11 @@ protected DLAbstractRowIterator(final DataTableSpec tableSpec, final Map<DLTenso
 		}
 	}
 
+	@Override
+	public final int[] getColumnsForTensor(final DLTensorId tensorId) {
+		return m_columns.get(tensorId);
+	}
+
 	@Override
 	public final Map<DLTensorId, List<DataValue>> groupByTensor(final DataRow row) {
 		for (final Entry<DLTensorId, int[]> entry : m_columns.entrySet()) {
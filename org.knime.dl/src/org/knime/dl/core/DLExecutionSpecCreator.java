@@ -47,6 +47,7 @@
 package org.knime.dl.core;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -72,12 +73,27 @@ public static Set<DLTensorSpec> createExecutionSpecs(final DataRow firstRow, fin
 			final long batchSize, final Map<DLTensorId, int[]> columnsForTensorId,
 			final Map<DLTensorSpec, DLDataValueToTensorConverterFactory<?, ?>> inputConverterFactories)
 			throws DLMissingExtensionException {
+		return createExecutionSpecs(firstRow, tensorFactory, batchSize, columnsForTensorId, inputConverterFactories,
+				Collections.emptyMap());
+	}
+
+	/**
+	 * @param transportPrecisions the precisions at which the tensors' elements are transferred to the back end, tensors
+	 *            that are not contained are transferred at full precision
+	 * @since 4.5
+	 */
+	public static Set<DLTensorSpec> createExecutionSpecs(final DataRow firstRow, final DLTensorFactory tensorFactory,
+			final long batchSize, final Map<DLTensorId, int[]> columnsForTensorId,
+			final Map<DLTensorSpec, DLDataValueToTensorConverterFactory<?, ?>> inputConverterFactories,
+			final Map<DLTensorId, DLTransportPrecision> transportPrecisions) throws DLMissingExtensionException {
 		final LinkedHashSet<DLTensorSpec> executionInputSpecs = new LinkedHashSet<>(inputConverterFactories.size());
 		final DLExecutionSpecCreator specCreator = new DLExecutionSpecCreator(tensorFactory, batchSize, firstRow,
 				columnsForTensorId::get);
 		for (final Entry<DLTensorSpec, DLDataValueToTensorConverterFactory<?, ?>> entry : inputConverterFactories
 				.entrySet()) {
-			executionInputSpecs.add(specCreator.createExecutionTensorSpec(entry.getKey(), entry.getValue()));
+			final DLTransportPrecision precision = transportPrecisions.getOrDefault(entry.getKey().getIdentifier(),
+					DLTransportPrecision.FULL);
+			executionInputSpecs.add(specCreator.createExecutionTensorSpec(entry.getKey(), entry.getValue(), precision));
 		}
 		return executionInputSpecs;
 	}
@@ -92,10 +108,21 @@ private DLExecutionSpecCreator(final DLTensorFactory tensorFactory, final long b
 
 	public DLTensorSpec createExecutionTensorSpec(final DLTensorSpec configureSpec,
 			final DLDataValueToTensorConverterFactory<?, ?> converterFactory) throws DLMissingExtensionException {
+		return createExecutionTensorSpec(configureSpec, converterFactory, DLTransportPrecision.FULL);
+	}
+
+	/**
+	 * @param precision the precision at which the tensor's elements are transferred to the back end
+	 * @since 4.5
+	 */
+	public DLTensorSpec createExecutionTensorSpec(final DLTensorSpec configureSpec,
+			final DLDataValueToTensorConverterFactory<?, ?> converterFactory, final DLTransportPrecision precision)
+			throws DLMissingExtensionException {
 		final long[] dataShape = converterFactory.getDataShape(getValuesForIndices(m_row,
 				m_filterIndicesProvider.getFilterIndicesForTensor(configureSpec.getIdentifier())), configureSpec);
 		final long[] executionShape = DLUtils.Shapes.calculateExecutionShape(configureSpec.getShape(), dataShape);
-		return m_tensorFactory.createExecutionTensorSpec(configureSpec, m_batchSize, executionShape);
+		return m_tensorFactory.createExecutionTensorSpec(configureSpec, m_batchSize, executionShape,
+				converterFactory.isSparse(), precision);
 	}
 
 	private List<? extends DataValue> getValuesForIndices(final DataRow row, final int[] indices) {
@@ -61,4 +61,29 @@ public interface DLNetworkFixedSizeInputPreparer extends DLNetworkInputPreparer
 
     void prepare(Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, long batchIndex)
         throws DLCanceledExecutionException, DLInvalidNetworkInputException;
+
+    /**
+     * @return whether this preparer supports {@link #skipEpochs(int, DLSessionMonitor) skipping epochs}, should be
+     *         checked before training starts
+     * @since 4.5
+     */
+    default boolean supportsSkippingEpochs() {
+        return false;
+    }
+
+    /**
+     * Advances this preparer to the state it would be in after preparing all batches of the given number of epochs,
+     * without actually preparing them. Allows to resume an interrupted training run with the same sequence of batches.
+     * Must be called before the first batch is prepared.
+     *
+     * @param numEpochs the number of epochs to skip
+     * @param monitor the monitor that is checked for cancellation and receives the progress of skipping
+     * @throws DLCanceledExecutionException if skipping was canceled
+     * @throws UnsupportedOperationException if this preparer does not {@link #supportsSkippingEpochs() support}
+     *             skipping
+     * @since 4.5
+     */
+    default void skipEpochs(final int numEpochs, final DLSessionMonitor monitor) throws DLCanceledExecutionException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support skipping epochs.");
+    }
 }
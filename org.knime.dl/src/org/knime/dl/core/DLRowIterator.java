@@ -80,6 +80,16 @@ public interface DLRowIterator extends Iterator<DataRow>, AutoCloseable {
 	 */
 	Map<DLTensorId, List<DataValue>> groupByTensor(DataRow row);
 
+	/**
+	 * @param tensorId the tensor identifier
+	 * @return the indices of the columns that belong to the given tensor, or <code>null</code> if they are not known
+	 *         to this iterator
+	 * @since 4.5
+	 */
+	default int[] getColumnsForTensor(final DLTensorId tensorId) {
+		return null;
+	}
+
 	/**
 	 * @throws UnsupportedOperationException if the iterator does not support reset, e.g. when streaming
 	 */
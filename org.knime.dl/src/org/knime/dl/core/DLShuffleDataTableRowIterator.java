@@ -46,16 +46,31 @@
  */
 package org.knime.dl.core;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.function.LongFunction;
 
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataType;
 import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ColumnRearranger;
+import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.sort.ClosableShuffler;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 
 /**
+ * Returns the rows of a table in a new random order each time it is {@link #reset() reset}. How the rows are shuffled
+ * is determined by the {@link DLShuffleStrategy shuffle strategy}. The order is reproducible for a given seed.
+ *
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
  * @author Benjamin Wilhelm, KNIME GmbH, Konstanz, Germany
  */
@@ -63,33 +78,106 @@ public final class DLShuffleDataTableRowIterator extends DLAbstractDataTableRowI
 
 	private final Random m_random;
 	private final ExecutionContext m_exec;
+	private final DLShuffleStrategy m_strategy;
+	private final int m_bufferSize;
+	private final int[] m_materializedColumns;
     private ClosableShuffler m_shuffler;
 
 	/**
+	 * The table that is shuffled by the {@link DLShuffleStrategy#FULL full} shuffle strategy. Only contains the
+	 * {@link #m_materializedColumns materialized columns} unless these are all columns of the input table. Lazily
+	 * initialized.
+	 */
+	private BufferedDataTable m_shuffleTable;
+
+	/**
+	 * Creates an iterator that uses the {@link DLShuffleStrategy#FULL full} shuffle strategy.
+	 *
 	 * @param input the data table
 	 * @param columns a map specifying which columns belong to which tensor
 	 * @param seed seed for random number generator
 	 * @param exec execution context necessary for shuffling
 	 */
 	public DLShuffleDataTableRowIterator(final BufferedDataTable input, final Map<DLTensorId, int[]> columns, final long seed, final ExecutionContext exec) {
+		this(input, columns, seed, exec, DLShuffleStrategy.FULL, 0);
+	}
+
+	/**
+	 * @param input the data table
+	 * @param columns a map specifying which columns belong to which tensor
+	 * @param seed seed for random number generator
+	 * @param exec execution context necessary for shuffling
+	 * @param strategy the shuffle strategy
+	 * @param bufferSize the number of rows per block respectively in the buffer window, ignored for the
+	 *            {@link DLShuffleStrategy#FULL full} shuffle strategy
+	 * @since 4.5
+	 */
+	public DLShuffleDataTableRowIterator(final BufferedDataTable input, final Map<DLTensorId, int[]> columns,
+			final long seed, final ExecutionContext exec, final DLShuffleStrategy strategy, final int bufferSize) {
 		super(input, columns);
+		m_strategy = checkNotNull(strategy);
+		checkArgument(strategy == DLShuffleStrategy.FULL || bufferSize > 0, "Buffer size must be greater than zero.");
 		m_random = new Random(seed);
 		m_exec = exec;
+		m_bufferSize = bufferSize;
+		// only the columns that are fed to the network need to be read
+		m_materializedColumns = columns.values().stream().flatMapToInt(Arrays::stream).distinct().sorted().toArray();
 		m_iterator = makeNewIterator();
 	}
 
 	@Override
 	protected CloseableRowIterator makeNewIterator() {
+		switch (m_strategy) {
+		case BLOCK:
+			return new DLBlockShuffleRowIterator(this::createFilteredIterator, size(), m_bufferSize, m_random);
+		case BUFFER_WINDOW:
+			return new DLBufferWindowShuffleRowIterator(createFilteredIterator());
+		default:
+			return makeNewFullyShuffledIterator();
+		}
+	}
+
+	private CloseableRowIterator makeNewFullyShuffledIterator() {
 		try {
 			m_exec.setMessage("Shuffling training data");
 			closeShuffler();
-			m_shuffler = new ClosableShuffler(getInputTable(), m_exec, m_random.nextLong());
-			return m_shuffler.getShuffled().iterator();
+			if (m_shuffleTable == null) {
+				m_shuffleTable = createShuffleTable();
+			}
+			m_shuffler = new ClosableShuffler(m_shuffleTable, m_exec, m_random.nextLong());
+			final CloseableRowIterator shuffled = m_shuffler.getShuffled().iterator();
+			return m_shuffleTable == getInputTable() ? shuffled : new DLExpandingRowIterator(shuffled);
 		} catch (CanceledExecutionException cee) {
 			throw new IllegalStateException("Execution has been canceled while shuffling training data.", cee);
 		}
 	}
 
+	/**
+	 * Only the columns that are fed to the network need to be copied while shuffling. Filtering the columns creates a
+	 * table that references the input table, its data is not copied.
+	 */
+	private BufferedDataTable createShuffleTable() throws CanceledExecutionException {
+		final BufferedDataTable input = getInputTable();
+		if (m_materializedColumns.length == input.getDataTableSpec().getNumColumns()) {
+			return input;
+		}
+		final ColumnRearranger rearranger = new ColumnRearranger(input.getDataTableSpec());
+		rearranger.keepOnly(m_materializedColumns);
+		return m_exec.createColumnRearrangeTable(input, rearranger, m_exec.createSubProgress(0));
+	}
+
+	private CloseableRowIterator createFilteredIterator() {
+		return getInputTable().filter(TableFilter.materializeCols(m_materializedColumns)).iterator();
+	}
+
+	private CloseableRowIterator createFilteredIterator(final long fromRowIndex) {
+		final TableFilter filter = new TableFilter.Builder() //
+				.withMaterializeColumnIndices(m_materializedColumns) //
+				.withFromRowIndex(fromRowIndex) //
+				.build();
+		return getInputTable().filter(filter).iterator();
+	}
+
     @Override
     public void close() {
         super.close();
@@ -102,4 +190,221 @@ private void closeShuffler() {
             m_shuffler = null;
         }
     }
+
+	/**
+	 * Restores the column positions of the input table for the rows of the {@link #m_shuffleTable column-filtered
+	 * shuffle table}. Columns that are not fed to the network are filled with missing cells.
+	 */
+	private final class DLExpandingRowIterator extends CloseableRowIterator {
+
+		private final CloseableRowIterator m_source;
+
+		private final DataCell[] m_missingCells;
+
+		private DLExpandingRowIterator(final CloseableRowIterator source) {
+			m_source = source;
+			m_missingCells = new DataCell[getInputTable().getDataTableSpec().getNumColumns()];
+			Arrays.fill(m_missingCells, DataType.getMissingCell());
+		}
+
+		@Override
+		public boolean hasNext() {
+			return m_source.hasNext();
+		}
+
+		@Override
+		public DataRow next() {
+			final DataRow row = m_source.next();
+			final DataCell[] cells = m_missingCells.clone();
+			for (int i = 0; i < m_materializedColumns.length; i++) {
+				cells[m_materializedColumns[i]] = row.getCell(i);
+			}
+			return new DefaultRow(row.getKey(), cells);
+		}
+
+		@Override
+		public void close() {
+			m_source.close();
+		}
+	}
+
+	/**
+	 * Splits the table into blocks of consecutive rows and returns the blocks in random order. The rows of each block
+	 * are read into memory and returned in random order as well.
+	 * <P>
+	 * Tables can only be read efficiently in sequential order: starting to read at an arbitrary row may require to skip
+	 * all preceding rows (e.g. for row-based tables). Reading each block separately would therefore read a quadratic
+	 * number of rows per epoch. Instead, the blocks are grouped into at most {@link #MAX_NUM_SEGMENTS} segments of
+	 * consecutive blocks, each of which is read sequentially by its own iterator. The next block is drawn from a random
+	 * segment (weighted by the number of its remaining blocks), i.e. the blocks of the segments are interleaved at
+	 * random while the blocks within a segment keep their order. This bounds the number of rows read per epoch to
+	 * <code>(MAX_NUM_SEGMENTS + 1) / 2</code> times the number of rows of the table.
+	 */
+	static final class DLBlockShuffleRowIterator extends CloseableRowIterator {
+
+		static final int MAX_NUM_SEGMENTS = 8;
+
+		private final LongFunction<CloseableRowIterator> m_reader;
+
+		private final Random m_random;
+
+		private final DataRow[] m_block;
+
+		private final int[] m_permutation;
+
+		/**
+		 * The index of the first block of each segment plus the number of blocks as last element.
+		 */
+		private final int[] m_segmentStarts;
+
+		private final int[] m_nextBlockInSegment;
+
+		private final CloseableRowIterator[] m_segmentIterators;
+
+		private int m_numRemainingBlocks;
+
+		private int m_blockSize = 0;
+
+		private int m_nextInBlock = 0;
+
+		/**
+		 * @param reader opens an iterator over the rows of the table, starting at the given row index
+		 * @param size the number of rows of the table
+		 * @param blockSize the number of rows per block
+		 * @param random the random number generator that determines the order of the blocks and rows
+		 */
+		DLBlockShuffleRowIterator(final LongFunction<CloseableRowIterator> reader, final long size,
+				final int blockSize, final Random random) {
+			m_reader = reader;
+			m_random = random;
+			final int actualBlockSize = (int) Math.min(blockSize, Math.max(size, 1));
+			m_block = new DataRow[actualBlockSize];
+			m_permutation = new int[actualBlockSize];
+			m_numRemainingBlocks = (int) ((size + actualBlockSize - 1) / actualBlockSize);
+			final int numSegments = Math.min(MAX_NUM_SEGMENTS, Math.max(m_numRemainingBlocks, 1));
+			m_segmentStarts = new int[numSegments + 1];
+			for (int i = 0; i <= numSegments; i++) {
+				m_segmentStarts[i] = (int) ((long) m_numRemainingBlocks * i / numSegments);
+			}
+			m_nextBlockInSegment = Arrays.copyOf(m_segmentStarts, numSegments);
+			m_segmentIterators = new CloseableRowIterator[numSegments];
+		}
+
+		@Override
+		public boolean hasNext() {
+			return m_nextInBlock < m_blockSize || m_numRemainingBlocks > 0;
+		}
+
+		@Override
+		public DataRow next() {
+			if (m_nextInBlock == m_blockSize) {
+				readNextBlock();
+			}
+			final int index = m_permutation[m_nextInBlock++];
+			final DataRow row = m_block[index];
+			m_block[index] = null;
+			return row;
+		}
+
+		private void readNextBlock() {
+			if (m_numRemainingBlocks == 0) {
+				throw new NoSuchElementException();
+			}
+			int remaining = m_random.nextInt(m_numRemainingBlocks);
+			int segment = 0;
+			while (remaining >= m_segmentStarts[segment + 1] - m_nextBlockInSegment[segment]) {
+				remaining -= m_segmentStarts[segment + 1] - m_nextBlockInSegment[segment];
+				segment++;
+			}
+			if (m_segmentIterators[segment] == null) {
+				m_segmentIterators[segment] = m_reader.apply((long) m_segmentStarts[segment] * m_block.length);
+			}
+			final CloseableRowIterator source = m_segmentIterators[segment];
+			m_blockSize = 0;
+			while (m_blockSize < m_block.length && source.hasNext()) {
+				m_block[m_blockSize] = source.next();
+				m_permutation[m_blockSize] = m_blockSize;
+				m_blockSize++;
+			}
+			m_numRemainingBlocks--;
+			if (++m_nextBlockInSegment[segment] == m_segmentStarts[segment + 1]) {
+				source.close();
+				m_segmentIterators[segment] = null;
+			}
+			shuffle(m_random, m_permutation, m_blockSize);
+			m_nextInBlock = 0;
+		}
+
+		@Override
+		public void close() {
+			Arrays.fill(m_block, null);
+			for (int i = 0; i < m_segmentIterators.length; i++) {
+				if (m_segmentIterators[i] != null) {
+					m_segmentIterators[i].close();
+					m_segmentIterators[i] = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Shuffles the first <code>length</code> elements of the given array (Fisher-Yates).
+	 */
+	private static void shuffle(final Random random, final int[] array, final int length) {
+		for (int i = length - 1; i > 0; i--) {
+			final int j = random.nextInt(i + 1);
+			final int tmp = array[i];
+			array[i] = array[j];
+			array[j] = tmp;
+		}
+	}
+
+	/**
+	 * Keeps a window of rows of the underlying iterator and returns a randomly selected row of the window each time,
+	 * which is then replaced by the next row of the underlying iterator.
+	 */
+	private final class DLBufferWindowShuffleRowIterator extends CloseableRowIterator {
+
+		private final CloseableRowIterator m_source;
+
+		private final DataRow[] m_window;
+
+		private int m_windowSize = 0;
+
+		private DLBufferWindowShuffleRowIterator(final CloseableRowIterator source) {
+			m_source = source;
+			m_window = new DataRow[(int) Math.min(m_bufferSize, Math.max(size(), 1))];
+			while (m_windowSize < m_window.length && m_source.hasNext()) {
+				m_window[m_windowSize++] = m_source.next();
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return m_windowSize > 0;
+		}
+
+		@Override
+		public DataRow next() {
+			if (m_windowSize == 0) {
+				throw new NoSuchElementException();
+			}
+			final int index = m_random.nextInt(m_windowSize);
+			final DataRow row = m_window[index];
+			if (m_source.hasNext()) {
+				m_window[index] = m_source.next();
+			} else {
+				m_windowSize--;
+				m_window[index] = m_window[m_windowSize];
+				m_window[m_windowSize] = null;
+			}
+			return row;
+		}
+
+		@Override
+		public void close() {
+			Arrays.fill(m_window, null);
+			m_source.close();
+		}
+	}
 }
@@ -0,0 +1,96 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core;
+
+import java.util.Arrays;
+
+/**
+ * The strategies a {@link DLShuffleDataTableRowIterator} can use to shuffle the rows of a table between epochs.
+ */
+public enum DLShuffleStrategy {
+
+    /**
+     * Shuffles the entire table. This yields the best mixing of rows but requires writing the shuffled table (limited
+     * to the columns that are fed to the network) to disk before each epoch.
+     */
+    FULL("Full"),
+
+    /**
+     * Splits the table into blocks of a fixed number of consecutive rows, reads the blocks in random order and
+     * shuffles the rows within each block in memory. In order to read the table sequentially, the blocks are read in a
+     * bounded number of passes over the table whose blocks are randomly interleaved.
+     */
+    BLOCK("Block"),
+
+    /**
+     * Reads the table sequentially into a buffer window of a fixed number of rows and returns a randomly selected row
+     * of the window each time, which is then replaced by the next row of the table.
+     */
+    BUFFER_WINDOW("Buffer window");
+
+    /**
+     * @param label the label of the strategy
+     * @return the strategy with the given label
+     * @throws IllegalArgumentException if there is no strategy with the given label
+     */
+    public static DLShuffleStrategy fromLabel(final String label) {
+        return Arrays.stream(values()).filter(s -> s.m_label.equals(label)).findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("No shuffle strategy with label '" + label + "'."));
+    }
+
+    private final String m_label;
+
+    DLShuffleStrategy(final String label) {
+        m_label = label;
+    }
+
+    /**
+     * @return the human-readable label of the strategy
+     */
+    public String getLabel() {
+        return m_label;
+    }
+}
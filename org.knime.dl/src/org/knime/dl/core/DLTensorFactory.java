@@ -84,4 +84,32 @@ public interface DLTensorFactory {
 	 * @throws IllegalArgumentException if failed to create a tensor spec due to invalid arguments
 	 */
 	DLTensorSpec createExecutionTensorSpec(DLTensorSpec spec, long batchSize, long[] shape);
+
+	/**
+	 * Creates an execution tensor spec for a tensor that mostly consists of zeros. Tensors created from the returned
+	 * spec may use buffers that only store the non-zero elements. The default implementation ignores the sparsity.
+	 *
+	 * @param sparse whether the tensor's data is sparse
+	 * @throws IllegalArgumentException if failed to create a tensor spec due to invalid arguments
+	 * @see org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory#isSparse()
+	 * @since 4.5
+	 */
+	default DLTensorSpec createExecutionTensorSpec(final DLTensorSpec spec, final long batchSize, final long[] shape,
+		final boolean sparse) {
+		return createExecutionTensorSpec(spec, batchSize, shape);
+	}
+
+	/**
+	 * Creates an execution tensor spec whose elements are transferred to the back end at the given precision. The
+	 * default implementation ignores the precision and transfers the elements at full precision.
+	 *
+	 * @param sparse whether the tensor's data is sparse
+	 * @param precision the precision at which the tensor's elements are transferred
+	 * @throws IllegalArgumentException if failed to create a tensor spec due to invalid arguments
+	 * @since 4.5
+	 */
+	default DLTensorSpec createExecutionTensorSpec(final DLTensorSpec spec, final long batchSize, final long[] shape,
+		final boolean sparse, final DLTransportPrecision precision) {
+		return createExecutionTensorSpec(spec, batchSize, shape, sparse);
+	}
 }
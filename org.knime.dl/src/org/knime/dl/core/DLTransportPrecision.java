@@ -0,0 +1,214 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Describes the numeric precision with which the elements of a floating point input tensor are transferred to the
+ * back end. Reduced precisions trade accuracy for less data to serialize, copy and deserialize; the back end widens
+ * the values to single precision before they are fed into the network.
+ * <P>
+ * {@link Kind#UINT8 Unsigned byte} transport rounds each value to an integer in <code>[0, 255]</code> which the back
+ * end maps to <code>value * scale + offset</code>. This is lossless for e.g. 8-bit image data and allows the
+ * normalization to be moved to the back end.
+ *
+ * @since 4.5
+ */
+public final class DLTransportPrecision implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The available transport precisions.
+	 */
+	public enum Kind {
+		/**
+		 * The element type of the tensor, no conversion.
+		 */
+		FULL("Full"),
+		/**
+		 * IEEE 754 half precision.
+		 */
+		FLOAT16("Half precision (float16)"),
+		/**
+		 * Unsigned byte with back end side scale and offset.
+		 */
+		UINT8("Unsigned byte (uint8)");
+
+		/**
+		 * @param label the label of the precision, see {@link #getLabel()}
+		 * @return the precision with the given label
+		 * @throws IllegalArgumentException if there is no precision with the given label
+		 */
+		public static Kind fromLabel(final String label) {
+			return Arrays.stream(values()).filter(k -> k.m_label.equals(label)).findFirst()
+					.orElseThrow(() -> new IllegalArgumentException("No transport precision with label '" + label + "'."));
+		}
+
+		private final String m_label;
+
+		private Kind(final String label) {
+			m_label = label;
+		}
+
+		/**
+		 * @return the human readable name of this precision
+		 */
+		public String getLabel() {
+			return m_label;
+		}
+
+		@Override
+		public String toString() {
+			return m_label;
+		}
+	}
+
+	/**
+	 * Transfers elements at the tensor's own precision.
+	 */
+	public static final DLTransportPrecision FULL = new DLTransportPrecision(Kind.FULL, 1d, 0d);
+
+	/**
+	 * Transfers elements as half precision floating point numbers.
+	 */
+	public static final DLTransportPrecision FLOAT16 = new DLTransportPrecision(Kind.FLOAT16, 1d, 0d);
+
+	/**
+	 * @param scale the factor by which the back end multiplies each transferred byte
+	 * @param offset the value the back end adds to each scaled byte
+	 * @return a precision that transfers elements as unsigned bytes
+	 */
+	public static DLTransportPrecision uint8(final double scale, final double offset) {
+		return new DLTransportPrecision(Kind.UINT8, scale, offset);
+	}
+
+	/**
+	 * @param kind the kind of precision
+	 * @param scale the scale, only considered for {@link Kind#UINT8}
+	 * @param offset the offset, only considered for {@link Kind#UINT8}
+	 * @return the matching precision
+	 */
+	public static DLTransportPrecision of(final Kind kind, final double scale, final double offset) {
+		switch (Objects.requireNonNull(kind)) {
+		case FLOAT16:
+			return FLOAT16;
+		case UINT8:
+			return uint8(scale, offset);
+		default:
+			return FULL;
+		}
+	}
+
+	private final Kind m_kind;
+
+	private final double m_scale;
+
+	private final double m_offset;
+
+	private DLTransportPrecision(final Kind kind, final double scale, final double offset) {
+		if (Double.isNaN(scale) || Double.isInfinite(scale) || Double.isNaN(offset) || Double.isInfinite(offset)) {
+			throw new IllegalArgumentException("Scale and offset of a transport precision must be finite.");
+		}
+		m_kind = kind;
+		m_scale = scale;
+		m_offset = offset;
+	}
+
+	/**
+	 * @return the kind of this precision
+	 */
+	public Kind getKind() {
+		return m_kind;
+	}
+
+	/**
+	 * @return the factor by which the back end multiplies each transferred element
+	 */
+	public double getScale() {
+		return m_scale;
+	}
+
+	/**
+	 * @return the value the back end adds to each scaled element
+	 */
+	public double getOffset() {
+		return m_offset;
+	}
+
+	/**
+	 * @return <code>true</code> if elements are transferred at less than their full precision
+	 */
+	public boolean isReduced() {
+		return m_kind != Kind.FULL;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(m_kind, m_scale, m_offset);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		final DLTransportPrecision other = (DLTransportPrecision)obj;
+		return other.m_kind == m_kind && Double.compare(other.m_scale, m_scale) == 0
+				&& Double.compare(other.m_offset, m_offset) == 0;
+	}
+
+	@Override
+	public String toString() {
+		return m_kind == Kind.UINT8 ? m_kind + " (scale " + m_scale + ", offset " + m_offset + ")" : m_kind.toString();
+	}
+}
@@ -136,6 +136,6 @@ public void putAll(short[] values) throws BufferOverflowException {
 
     @Override
     protected byte[] createStorage() {
-        return new byte[m_capacity];
+        return DLStoragePool.getInstance().borrow(byte[].class, m_capacity);
     }
 }
@@ -47,19 +47,37 @@
 package org.knime.dl.core.data;
 
 /**
- * Ensures that the storage is initialized for all extending classes.
- * 
+ * Ensures that the storage is initialized for all extending classes. Extending classes with primitive storage should
+ * {@link DLStoragePool#borrow(Class, int) borrow} it from the {@link DLStoragePool} in {@link #createStorage()}, the
+ * storage is returned to the pool when the buffer is {@link #close() closed}.
+ *
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
  * @param <S> Type of storage
  */
 public abstract class DLAbstractFlatWrappingDataBuffer <S> extends DLAbstractWrappingDataBuffer<S> {
 
+	/**
+	 * The storage created during construction. Only this storage is returned to the pool, storage that was set from
+	 * outside of this buffer may still be referenced elsewhere.
+	 */
+	private S m_createdStorage;
+
 	/**
 	 * @param capacity
 	 */
 	protected DLAbstractFlatWrappingDataBuffer(long capacity) {
 		super(capacity);
 		m_storage = createStorage();
+		m_createdStorage = m_storage;
+	}
+
+	@Override
+	public void close() {
+		if (m_storage != null && m_storage == m_createdStorage) {
+			DLStoragePool.getInstance().release(m_storage);
+		}
+		m_createdStorage = null;
+		super.close();
 	}
 
 }
@@ -279,6 +279,6 @@ public void putAll(boolean[] values) throws BufferOverflowException {
 
     @Override
     protected boolean[] createStorage() {
-        return new boolean[m_capacity];
+        return DLStoragePool.getInstance().borrow(boolean[].class, m_capacity);
     }
 }
@@ -185,7 +185,7 @@ public void zeroPad(final long length) throws IllegalArgumentException, BufferOv
 
 	@Override
 	protected double[] createStorage() {
-		return new double[m_capacity];
+		return DLStoragePool.getInstance().borrow(double[].class, m_capacity);
 	}
 
 	@Override
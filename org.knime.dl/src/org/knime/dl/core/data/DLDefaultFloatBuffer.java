@@ -172,7 +172,7 @@ public void zeroPad(final long length) throws IllegalArgumentException, BufferOv
 
 	@Override
 	protected float[] createStorage() {
-		return new float[m_capacity];
+		return DLStoragePool.getInstance().borrow(float[].class, m_capacity);
 	}
 
 	@Override
@@ -187,7 +187,7 @@ public void zeroPad(final long length) throws IllegalArgumentException, BufferOv
 
 	@Override
 	protected int[] createStorage() {
-		return new int[m_capacity];
+		return DLStoragePool.getInstance().borrow(int[].class, m_capacity);
 	}
 
 	@Override
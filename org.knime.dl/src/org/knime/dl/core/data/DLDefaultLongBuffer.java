@@ -171,7 +171,7 @@ public void zeroPad(final long length) throws IllegalArgumentException, BufferOv
 
 	@Override
 	protected long[] createStorage() {
-		return new long[m_capacity];
+		return DLStoragePool.getInstance().borrow(long[].class, m_capacity);
 	}
 
 	@Override
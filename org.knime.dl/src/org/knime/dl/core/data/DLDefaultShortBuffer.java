@@ -255,6 +255,6 @@ public void putAll(short[] values) throws BufferOverflowException {
 
     @Override
     protected short[] createStorage() {
-        return new short[m_capacity];
+        return DLStoragePool.getInstance().borrow(short[].class, m_capacity);
     }
 }
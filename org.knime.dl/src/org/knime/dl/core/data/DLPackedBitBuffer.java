@@ -0,0 +1,496 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.util.Arrays;
+
+/**
+ * Bit type implementation of {@link DLWrappingDataBuffer} that packs 64 elements into each <code>long</code> word. The
+ * element at position <code>i</code> is stored in bit <code>i % 64</code> (counting from the least significant bit)
+ * of word <code>i / 64</code>, which is the layout of KNIME's dense bit vectors. This allows to
+ * {@link #putAll(long[], long) copy} them word by word and reduces the memory footprint to one eighth of
+ * {@link DLDefaultBitBuffer}.
+ * <P>
+ * Accessing the {@link #getStorageForReading(long, long) storage} of the buffer or {@link #setStorage(boolean[], long)
+ * setting} it (e.g. when caching converted data) switches the buffer to an unpacked representation permanently.
+ */
+public class DLPackedBitBuffer extends DLAbstractWrappingDataBuffer<boolean[]>
+    implements DLWritableBitBuffer, DLReadableBitBuffer {
+
+    /**
+     * The packed storage, <code>null</code> once the buffer switched to an unpacked representation. In that case,
+     * {@link #m_storage} holds the elements.
+     */
+    private long[] m_words;
+
+    /**
+     * Creates a new instance of this buffer.
+     *
+     * @param capacity the immutable capacity of the buffer
+     */
+    public DLPackedBitBuffer(final long capacity) {
+        super(capacity);
+        m_words = new long[(m_capacity + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    /**
+     * @return <code>true</code> if the buffer still holds its elements in packed form
+     */
+    public boolean isPacked() {
+        return m_words != null;
+    }
+
+    @Override
+    public boolean[] getStorageForReading(final long startPos, final long length) throws BufferUnderflowException {
+        checkUnderflow(startPos + length <= m_nextWrite);
+        unpack();
+        return m_storage;
+    }
+
+    @Override
+    public boolean[] getStorageForWriting(final long startPos, final long length) throws BufferOverflowException {
+        checkOverflow(startPos + length <= m_capacity);
+        unpack();
+        m_nextWrite = (int)(startPos + length);
+        return m_storage;
+    }
+
+    @Override
+    public void setStorage(final boolean[] storage, final long storageSize) throws IllegalArgumentException {
+        checkArgument(storage.length == m_capacity, "Input storage capacity does not match buffer capacity.");
+        m_storage = storage;
+        m_words = null;
+        m_nextWrite = (int)storageSize;
+        resetRead();
+    }
+
+    @Override
+    public void put(final boolean value) throws BufferOverflowException {
+        checkOverflow(m_nextWrite < m_capacity);
+        if (m_words == null) {
+            m_storage[m_nextWrite] = value;
+        } else if (value) {
+            m_words[m_nextWrite >>> 6] |= 1L << m_nextWrite;
+        } else {
+            m_words[m_nextWrite >>> 6] &= ~(1L << m_nextWrite);
+        }
+        m_nextWrite++;
+    }
+
+    @Override
+    public void putAll(final boolean[] values) throws BufferOverflowException {
+        checkOverflow(m_nextWrite + values.length <= m_capacity);
+        if (m_words == null) {
+            System.arraycopy(values, 0, m_storage, m_nextWrite, values.length);
+            m_nextWrite += values.length;
+        } else {
+            for (final boolean value : values) {
+                put(value);
+            }
+        }
+    }
+
+    @Override
+    public void putAll(final long[] words, final long length) throws BufferOverflowException {
+        checkArgument(length >= 0 && length <= words.length * (long)Long.SIZE,
+            "Number of bits to copy exceeds the size of the source array.");
+        checkOverflow(m_nextWrite + length <= m_capacity);
+        if (m_words == null) {
+            for (int i = 0; i < length; i++) {
+                m_storage[m_nextWrite++] = (words[i >>> 6] & (1L << i)) != 0;
+            }
+            return;
+        }
+        int remaining = (int)length;
+        for (int i = 0; remaining > 0; i++) {
+            final int n = Math.min(Long.SIZE, remaining);
+            writeBits(m_nextWrite, words[i], n);
+            m_nextWrite += n;
+            remaining -= n;
+        }
+    }
+
+    @Override
+    public void zeroPad(final long length) throws IllegalArgumentException, BufferOverflowException {
+        checkArgument(length > 0);
+        checkOverflow(m_nextWrite + length <= m_capacity);
+        if (m_words == null) {
+            Arrays.fill(m_storage, m_nextWrite, (int)(m_nextWrite + length), false);
+            m_nextWrite += length;
+            return;
+        }
+        int remaining = (int)length;
+        while (remaining > 0) {
+            final int n = Math.min(Long.SIZE, remaining);
+            writeBits(m_nextWrite, 0L, n);
+            m_nextWrite += n;
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Reads <b>length</b> values from the buffer and packs them into <b>dest</b> starting at <b>destPos</b>, eight
+     * values per byte. The first value is stored in the most significant bit of the first byte which corresponds to
+     * the (default) bit order of <code>numpy.unpackbits</code>. Unused trailing bits of the last byte are zero.
+     *
+     * @param dest destination array, must hold at least <code>(length + 7) / 8</code> bytes starting at
+     *            <b>destPos</b>
+     * @param destPos position at which to start writing in <b>dest</b>
+     * @param length number of elements to read from the buffer
+     * @throws BufferUnderflowException if the buffer's {@link #size() size} is exceeded.
+     */
+    public void readToPackedByteArray(final byte[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length >= 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        final int numBytes = (length + Byte.SIZE - 1) / Byte.SIZE;
+        if (m_words != null && (m_nextRead & 7) == 0) {
+            // byte aligned, reverse the bit order of each byte of the words
+            for (int i = 0; i < numBytes; i++) {
+                final int pos = m_nextRead + i * Byte.SIZE;
+                final int b = (int)(m_words[pos >>> 6] >>> pos) & 0xFF;
+                dest[destPos + i] = (byte)(Integer.reverse(b) >>> 24);
+            }
+            final int tail = length & 7;
+            if (tail != 0) {
+                dest[destPos + numBytes - 1] &= (byte)(0xFF << (Byte.SIZE - tail));
+            }
+        } else {
+            Arrays.fill(dest, destPos, destPos + numBytes, (byte)0);
+            for (int i = 0; i < length; i++) {
+                if (get(m_nextRead + i)) {
+                    dest[destPos + (i >>> 3)] |= 0x80 >>> (i & 7);
+                }
+            }
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public boolean readNextBit() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return get(m_nextRead++);
+    }
+
+    @Override
+    public boolean[] toBitArray() {
+        if (m_words == null) {
+            return m_storage.clone();
+        }
+        final boolean[] tmp = new boolean[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = get(i);
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToBitArray(final boolean[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = get(m_nextRead + i);
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public byte readNextByte() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return (byte)(get(m_nextRead++) ? 1 : 0);
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        final byte[] tmp = new byte[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = (byte)(get(i) ? 1 : 0);
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToByteArray(final byte[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = (byte)(get(m_nextRead + i) ? 1 : 0);
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public short readNextShort() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return (short)(get(m_nextRead++) ? 1 : 0);
+    }
+
+    @Override
+    public short[] toShortArray() {
+        final short[] tmp = new short[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = (short)(get(i) ? 1 : 0);
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToShortArray(final short[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = (short)(get(m_nextRead + i) ? 1 : 0);
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public int readNextInt() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return get(m_nextRead++) ? 1 : 0;
+    }
+
+    @Override
+    public int[] toIntArray() {
+        final int[] tmp = new int[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = get(i) ? 1 : 0;
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToIntArray(final int[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = get(m_nextRead + i) ? 1 : 0;
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public long readNextLong() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return get(m_nextRead++) ? 1L : 0L;
+    }
+
+    @Override
+    public long[] toLongArray() {
+        final long[] tmp = new long[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = get(i) ? 1L : 0L;
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToLongArray(final long[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = get(m_nextRead + i) ? 1L : 0L;
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public float readNextFloat() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return get(m_nextRead++) ? 1f : 0f;
+    }
+
+    @Override
+    public float[] toFloatArray() {
+        final float[] tmp = new float[m_capacity];
+        if (m_capacity > 0) {
+            copyToFloatArray(0, tmp, 0, m_capacity);
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToFloatArray(final float[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        copyToFloatArray(m_nextRead, dest, destPos, length);
+        m_nextRead += length;
+    }
+
+    @Override
+    public double readNextDouble() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return get(m_nextRead++) ? 1. : 0.;
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        final double[] tmp = new double[m_capacity];
+        if (m_capacity > 0) {
+            copyToDoubleArray(0, tmp, 0, m_capacity);
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToDoubleArray(final double[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        copyToDoubleArray(m_nextRead, dest, destPos, length);
+        m_nextRead += length;
+    }
+
+    @Override
+    public void resetWrite() {
+        super.resetWrite();
+        if (m_words != null) {
+            Arrays.fill(m_words, 0L);
+        }
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        m_words = null;
+    }
+
+    @Override
+    public String toString() {
+        return "Packed bit buffer with capacity: " + m_capacity;
+    }
+
+    @Override
+    protected boolean[] createStorage() {
+        return new boolean[m_capacity];
+    }
+
+    private boolean get(final int position) {
+        if (m_words == null) {
+            return m_storage[position];
+        }
+        return (m_words[position >>> 6] & (1L << position)) != 0;
+    }
+
+    /**
+     * Writes the <b>n</b> (at most 64) least significant bits of <b>bits</b> to the packed storage, starting at
+     * <b>position</b>.
+     */
+    private void writeBits(final int position, final long bits, final int n) {
+        final long mask = n == Long.SIZE ? -1L : (1L << n) - 1;
+        final long value = bits & mask;
+        final int word = position >>> 6;
+        final int offset = position & 63;
+        m_words[word] = (m_words[word] & ~(mask << offset)) | (value << offset);
+        if (offset + n > Long.SIZE) {
+            final long spillMask = (1L << (offset + n - Long.SIZE)) - 1;
+            m_words[word + 1] = (m_words[word + 1] & ~spillMask) | (value >>> (Long.SIZE - offset));
+        }
+    }
+
+    private void copyToFloatArray(final int position, final float[] dest, final int destPos, final int length) {
+        if (m_words == null) {
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = m_storage[position + i] ? 1f : 0f;
+            }
+            return;
+        }
+        final int end = position + length;
+        int pos = position;
+        int d = destPos;
+        while (pos < end) {
+            final int n = Math.min(Long.SIZE - (pos & 63), end - pos);
+            long word = m_words[pos >>> 6] >>> pos;
+            for (int i = 0; i < n; i++) {
+                dest[d++] = word & 1L;
+                word >>>= 1;
+            }
+            pos += n;
+        }
+    }
+
+    private void copyToDoubleArray(final int position, final double[] dest, final int destPos, final int length) {
+        if (m_words == null) {
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = m_storage[position + i] ? 1. : 0.;
+            }
+            return;
+        }
+        final int end = position + length;
+        int pos = position;
+        int d = destPos;
+        while (pos < end) {
+            final int n = Math.min(Long.SIZE - (pos & 63), end - pos);
+            long word = m_words[pos >>> 6] >>> pos;
+            for (int i = 0; i < n; i++) {
+                dest[d++] = word & 1L;
+                word >>>= 1;
+            }
+            pos += n;
+        }
+    }
+
+    private void unpack() {
+        if (m_words != null) {
+            final boolean[] storage = createStorage();
+            for (int i = 0; i < m_capacity; i++) {
+                storage[i] = (m_words[i >>> 6] & (1L << i)) != 0;
+            }
+            m_storage = storage;
+            m_words = null;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.knime.core.data.util.memory.MemoryAlert;
+import org.knime.core.data.util.memory.MemoryAlertListener;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Process-wide pool of the primitive storage arrays of {@link DLAbstractFlatWrappingDataBuffer flat buffers}. Tensors
+ * of large batches (e.g. images) need storage arrays of hundreds of megabytes which, if allocated anew for every
+ * execution or training session, end up as humongous allocations that stress the garbage collector. Buffers borrow
+ * their storage from this pool and return it when they are closed, so subsequent sessions with the same tensor shapes
+ * reuse the arrays.
+ * <P>
+ * Buffers rely on their storage having exactly their capacity, arrays are therefore pooled per element type and
+ * length. Only arrays of at least {@link #MIN_POOLED_BYTES} are pooled, smaller ones are cheap to allocate. The total
+ * size of the pooled arrays is limited by VM option {@link #STORAGE_POOL_SIZE_VM_OPT} (in megabytes), least recently
+ * returned arrays are dropped first. All pooled arrays are dropped if {@link MemoryAlertSystem} reports low memory.
+ */
+public final class DLStoragePool {
+
+    /**
+     * @see #getCapacity()
+     */
+    public static final String STORAGE_POOL_SIZE_VM_OPT = "knime.dl.storagepool.size";
+
+    /**
+     * @see #getCapacity()
+     */
+    public static final int STORAGE_POOL_DEFAULT_SIZE = 256; // in MB
+
+    /**
+     * The minimum size in bytes of arrays that are pooled.
+     */
+    public static final int MIN_POOLED_BYTES = 1 << 20;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLStoragePool.class);
+
+    private static DLStoragePool instance;
+
+    /**
+     * @return the instance of this pool
+     */
+    public static synchronized DLStoragePool getInstance() {
+        if (instance == null) {
+            // never hold more than a quarter of the heap
+            final long capacity =
+                Math.min(getPoolSizeOption() * (1L << 20), Runtime.getRuntime().maxMemory() / 4);
+            instance = new DLStoragePool(capacity);
+            if (capacity > 0) {
+                MemoryAlertSystem.getInstance().addListener(new MemoryAlertListener() {
+                    @Override
+                    protected boolean memoryAlert(final MemoryAlert alert) {
+                        LOGGER.debug("Dropping pooled tensor storage due to low memory.");
+                        instance.clear();
+                        return false;
+                    }
+                });
+            }
+        }
+        return instance;
+    }
+
+    private static int getPoolSizeOption() {
+        int value = -1;
+        try {
+            value = Integer.parseInt(
+                System.getProperty(STORAGE_POOL_SIZE_VM_OPT, Integer.toString(STORAGE_POOL_DEFAULT_SIZE)));
+        } catch (final NumberFormatException ex) {
+            // Ignore, see below.
+        }
+        if (value < 0) {
+            value = STORAGE_POOL_DEFAULT_SIZE;
+            LOGGER.warn("The VM option -D" + STORAGE_POOL_SIZE_VM_OPT
+                + " was not set to a non-negative integer value, and thus defaults to " + value + ".");
+        }
+        return value;
+    }
+
+    private final long m_capacity;
+
+    /**
+     * Pooled arrays per key. Iteration order of the map and the deques reflects the order of return (oldest first).
+     */
+    private final Map<DLStorageKey, Deque<Object>> m_pooled = new LinkedHashMap<>();
+
+    private long m_numBytes = 0;
+
+    DLStoragePool(final long capacity) {
+        m_capacity = capacity;
+    }
+
+    /**
+     * @return the maximum total size in bytes of the pooled arrays, <code>0</code> if pooling is disabled. Can be
+     *         specified by the user via VM option {@link #STORAGE_POOL_SIZE_VM_OPT}, defaults to
+     *         {@link #STORAGE_POOL_DEFAULT_SIZE} megabytes but never exceeds a quarter of the maximum heap size.
+     */
+    public long getCapacity() {
+        return m_capacity;
+    }
+
+    /**
+     * @return the total size in bytes of the arrays that are currently pooled
+     */
+    public synchronized long getNumBytes() {
+        return m_numBytes;
+    }
+
+    /**
+     * Returns a zero-filled array of the given type and length, either from the pool or newly allocated. The caller
+     * takes ownership of the array and may {@link #release(Object) release} it back to the pool once it is no longer
+     * referenced.
+     *
+     * @param storageType the array type, e.g. <code>float[].class</code>
+     * @param length the length of the array
+     * @return the array
+     */
+    public <S> S borrow(final Class<S> storageType, final int length) {
+        final Class<?> elementType = storageType.getComponentType();
+        if (isPoolable(elementType, length)) {
+            final Object pooled;
+            synchronized (this) {
+                pooled = poll(new DLStorageKey(elementType, length));
+            }
+            if (pooled != null) {
+                clearArray(pooled);
+                return storageType.cast(pooled);
+            }
+        }
+        return storageType.cast(Array.newInstance(elementType, length));
+    }
+
+    /**
+     * Returns an array to the pool. The caller must not access the array afterwards. Arrays that are too small or not
+     * of a primitive type are ignored.
+     *
+     * @param storage the array, may be <code>null</code>
+     */
+    public void release(final Object storage) {
+        if (storage == null || !storage.getClass().isArray()) {
+            return;
+        }
+        final Class<?> elementType = storage.getClass().getComponentType();
+        final int length = Array.getLength(storage);
+        if (!isPoolable(elementType, length)) {
+            return;
+        }
+        final long numBytes = getNumBytes(elementType, length);
+        if (numBytes > m_capacity) {
+            return;
+        }
+        synchronized (this) {
+            m_pooled.computeIfAbsent(new DLStorageKey(elementType, length), k -> new ArrayDeque<>()).addLast(storage);
+            m_numBytes += numBytes;
+            evict(m_capacity);
+        }
+    }
+
+    /**
+     * Drops all pooled arrays.
+     */
+    public synchronized void clear() {
+        m_pooled.clear();
+        m_numBytes = 0;
+    }
+
+    private boolean isPoolable(final Class<?> elementType, final int length) {
+        return m_capacity > 0 && elementType != null && elementType.isPrimitive()
+            && getNumBytes(elementType, length) >= MIN_POOLED_BYTES;
+    }
+
+    private Object poll(final DLStorageKey key) {
+        final Deque<Object> pooled = m_pooled.get(key);
+        if (pooled == null) {
+            return null;
+        }
+        // most recently returned arrays are most likely still in a cache-friendly state
+        final Object storage = pooled.pollLast();
+        if (pooled.isEmpty()) {
+            m_pooled.remove(key);
+        }
+        m_numBytes -= getNumBytes(key.m_elementType, key.m_length);
+        return storage;
+    }
+
+    private void evict(final long maxNumBytes) {
+        final Iterator<Map.Entry<DLStorageKey, Deque<Object>>> it = m_pooled.entrySet().iterator();
+        while (m_numBytes > maxNumBytes && it.hasNext()) {
+            final Map.Entry<DLStorageKey, Deque<Object>> entry = it.next();
+            final Deque<Object> pooled = entry.getValue();
+            final long numBytes = getNumBytes(entry.getKey().m_elementType, entry.getKey().m_length);
+            while (m_numBytes > maxNumBytes && !pooled.isEmpty()) {
+                pooled.pollFirst();
+                m_numBytes -= numBytes;
+            }
+            if (pooled.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    private static long getNumBytes(final Class<?> elementType, final int length) {
+        final int elementSize;
+        if (elementType == double.class || elementType == long.class) {
+            elementSize = Long.BYTES;
+        } else if (elementType == float.class || elementType == int.class) {
+            elementSize = Integer.BYTES;
+        } else if (elementType == short.class || elementType == char.class) {
+            elementSize = Short.BYTES;
+        } else {
+            elementSize = Byte.BYTES;
+        }
+        return (long)elementSize * length;
+    }
+
+    private static void clearArray(final Object storage) {
+        if (storage instanceof float[]) {
+            Arrays.fill((float[])storage, 0f);
+        } else if (storage instanceof double[]) {
+            Arrays.fill((double[])storage, 0d);
+        } else if (storage instanceof int[]) {
+            Arrays.fill((int[])storage, 0);
+        } else if (storage instanceof long[]) {
+            Arrays.fill((long[])storage, 0L);
+        } else if (storage instanceof short[]) {
+            Arrays.fill((short[])storage, (short)0);
+        } else if (storage instanceof byte[]) {
+            Arrays.fill((byte[])storage, (byte)0);
+        } else if (storage instanceof boolean[]) {
+            Arrays.fill((boolean[])storage, false);
+        } else if (storage instanceof char[]) {
+            Arrays.fill((char[])storage, '\0');
+        }
+    }
+
+    private static final class DLStorageKey {
+
+        private final Class<?> m_elementType;
+
+        private final int m_length;
+
+        private DLStorageKey(final Class<?> elementType, final int length) {
+            m_elementType = elementType;
+            m_length = length;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(m_elementType, m_length);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof DLStorageKey)) {
+                return false;
+            }
+            final DLStorageKey other = (DLStorageKey)obj;
+            return other.m_elementType == m_elementType && other.m_length == m_length;
+        }
+    }
+}
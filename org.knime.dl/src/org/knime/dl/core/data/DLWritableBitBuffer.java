@@ -25,4 +25,21 @@ public interface DLWritableBitBuffer extends DLWritableBuffer {
 	 * @throws BufferOverflowException if the buffer's {@link #getCapacity() capacity} is exceeded.
 	 */
 	void putAll(boolean[] values) throws BufferOverflowException;
+
+	/**
+	 * Copies the first <b>length</b> bits of a packed bit array into the buffer. Bit <code>i</code> is expected in bit
+	 * <code>i % 64</code> (counting from the least significant bit) of <code>words[i / 64]</code>, which is the layout
+	 * of KNIME's dense bit vectors. The default implementation copies bit by bit, implementations that store their
+	 * elements in packed form should override it.
+	 *
+	 * @param words the packed bits
+	 * @param length the number of bits to copy
+	 * @throws BufferOverflowException if the buffer's {@link #getCapacity() capacity} is exceeded.
+	 * @since 4.5
+	 */
+	default void putAll(final long[] words, final long length) throws BufferOverflowException {
+		for (long i = 0; i < length; i++) {
+			put((words[(int) (i >>> 6)] & (1L << i)) != 0);
+		}
+	}
 }
@@ -0,0 +1,119 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data.convert;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataValue;
+import org.knime.dl.core.DLInvalidNetworkInputException;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLWritableBuffer;
+
+/**
+ * Base class for scalar converters that support the {@link DLColumnarDataValueToTensorConverter columnar conversion
+ * path}. The values of a batch are gathered in a reusable primitive staging array which is written into the tensor's
+ * buffer in a single bulk operation.
+ *
+ * @param <I> the input {@link DataValue} type
+ * @param <O> the output {@link DLWritableBuffer} type
+ * @param <A> the type of the staging array
+ */
+public abstract class DLAbstractColumnarScalarDataValueToTensorConverter<I extends DataValue,
+    O extends DLWritableBuffer, A> extends DLAbstractScalarDataValueToTensorConverter<I, O> implements DLColumnarDataValueToTensorConverter<I, O> {
+
+    private A m_staging;
+
+    private int m_stagingLength = -1;
+
+    @Override
+    public void convertColumns(final DataRow[] rows, final int numRows, final int[] columns,
+        final DLTensor<O> output) {
+        final int length = numRows * columns.length;
+        if (length != m_stagingLength) {
+            m_staging = createStagingArray(length);
+            m_stagingLength = length;
+        }
+        final A staging = m_staging;
+        int index = 0;
+        for (int r = 0; r < numRows; r++) {
+            final DataRow row = rows[r];
+            for (final int column : columns) {
+                final DataCell cell = row.getCell(column);
+                if (cell.isMissing()) {
+                    throw new DLInvalidNetworkInputException(
+                        "Missing cell in input row '" + row.getKey() + "', column at index " + column + ".");
+                }
+                @SuppressWarnings("unchecked")
+                final I value = (I)cell;
+                set(staging, index++, value);
+            }
+        }
+        putAll(staging, output.getBuffer());
+    }
+
+    /**
+     * @param length the length of the array
+     * @return a new staging array of the given length
+     */
+    protected abstract A createStagingArray(int length);
+
+    /**
+     * Converts the given value and stores it at the given index of the staging array.
+     *
+     * @param staging the staging array
+     * @param index the index
+     * @param value the value to convert
+     */
+    protected abstract void set(A staging, int index, I value);
+
+    /**
+     * Writes the entire staging array into the buffer.
+     *
+     * @param staging the staging array
+     * @param buffer the buffer
+     */
+    protected abstract void putAll(A staging, O buffer);
+}
@@ -54,6 +54,7 @@
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLWritableBitBuffer;
@@ -93,8 +94,23 @@ public DLDataValueToTensorConverter<BitVectorValue, DLWritableBitBuffer> createC
 			@Override
 			public void convertInternal(final BitVectorValue input, final DLTensor<DLWritableBitBuffer> output) {
 				final DLWritableBitBuffer buffer = output.getBuffer();
-				for (int i = 0; i < input.length(); i++) {
-					buffer.put(input.get(i));
+				final long length = input.length();
+				if (input instanceof DenseBitVectorCell) {
+					// copy word by word, bit order of dense bit vectors and packed buffers matches
+					buffer.putAll(((DenseBitVectorCell) input).getBitVectorCopy().getAllBits(), length);
+					return;
+				}
+				// only visit set bits, fingerprints are usually sparse
+				long next = 0;
+				for (long i = input.nextSetBit(0); i >= 0 && i < length; i = input.nextSetBit(i + 1)) {
+					if (i > next) {
+						buffer.zeroPad(i - next);
+					}
+					buffer.put(true);
+					next = i + 1;
+				}
+				if (length > next) {
+					buffer.zeroPad(length - next);
 				}
 			}
 		};
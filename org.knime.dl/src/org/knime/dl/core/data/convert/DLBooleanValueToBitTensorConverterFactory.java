@@ -84,7 +84,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<BooleanValue, DLWritableBitBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<BooleanValue, DLWritableBitBuffer>() {
+		return new DLAbstractColumnarScalarDataValueToTensorConverter<BooleanValue, DLWritableBitBuffer, boolean[]>() {
 
 			@Override
 			public void convert(final Iterable<? extends BooleanValue> input,
@@ -94,6 +94,21 @@ public void convert(final Iterable<? extends BooleanValue> input,
 					buf.put(val.getBooleanValue());
 				}
 			}
+
+			@Override
+			protected boolean[] createStagingArray(final int length) {
+				return new boolean[length];
+			}
+
+			@Override
+			protected void set(final boolean[] staging, final int index, final BooleanValue value) {
+				staging[index] = value.getBooleanValue();
+			}
+
+			@Override
+			protected void putAll(final boolean[] staging, final DLWritableBitBuffer buffer) {
+				buffer.putAll(staging);
+			}
 		};
 	}
 }
@@ -123,6 +123,19 @@ default String getIdentifier() {
 	 */
 	long[] getDataShape(List<? extends DataValue> input, DLTensorSpec tensorSpec);
 
+	/**
+	 * Returns whether the tensors filled by converters created by this factory mostly consist of zeros (e.g. one-hot
+	 * encodings). Back ends may then use buffers that only store the non-zero elements. Converters must not rely on
+	 * this and always write to the buffer via its regular interface. Writing zeros via
+	 * {@link DLWritableBuffer#zeroPad(long)} allows such buffers to skip them efficiently.
+	 *
+	 * @return <code>true</code> if the converted tensors are sparse, <code>false</code> by default
+	 * @since 4.5
+	 */
+	default boolean isSparse() {
+		return false;
+	}
+
 	/**
 	 * Creates a new converter instance.
 	 *
@@ -0,0 +1,103 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data.convert;
+
+import java.util.OptionalLong;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.vector.doublevector.DoubleVectorCellFactory;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+
+/**
+ * Converts each example of a double (or float) tensor into a single dense, primitive-backed double vector cell. Unlike
+ * a list of double cells, this does not create one cell per tensor element.
+ */
+public class DLDoubleTensorToDoubleVectorCellConverterFactory
+    implements DLTensorToDataCellConverterFactory<DLReadableDoubleBuffer, DataCell> {
+
+    private static final OptionalLong DEST_COUNT = OptionalLong.of(1);
+
+    @Override
+    public String getName() {
+        return "Double vector";
+    }
+
+    @Override
+    public Class<DLReadableDoubleBuffer> getBufferType() {
+        return DLReadableDoubleBuffer.class;
+    }
+
+    @Override
+    public DataType getDestType() {
+        return DoubleVectorCellFactory.TYPE;
+    }
+
+    @Override
+    public OptionalLong getDestCount(final DLTensorSpec spec) {
+        return DEST_COUNT;
+    }
+
+    @Override
+    public DLTensorToDataCellConverter<DLReadableDoubleBuffer, DataCell> createConverter() {
+        return (input, out, exec) -> {
+            final long exampleSize = input.getExampleSize();
+            if (exampleSize > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The number of entries of one sample, " + exampleSize
+                    + ", is larger than 2^31-1. This is currently not supported.");
+            }
+            final DLReadableDoubleBuffer buf = input.getBuffer();
+            final long numExamples = buf.size() / exampleSize;
+            for (int i = 0; i < numExamples; i++) {
+                // each cell takes ownership of its own array
+                final double[] values = new double[(int)exampleSize];
+                buf.readToDoubleArray(values, 0, (int)exampleSize);
+                out[i] = DoubleVectorCellFactory.createCell(values);
+            }
+        };
+    }
+}
@@ -86,7 +86,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<DoubleValue, DLWritableDoubleBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<DoubleValue, DLWritableDoubleBuffer>() {
+		return new DLAbstractColumnarScalarDataValueToTensorConverter<DoubleValue, DLWritableDoubleBuffer, double[]>() {
 
 			@Override
 			public void convert(final Iterable<? extends DoubleValue> input,
@@ -96,6 +96,21 @@ public void convert(final Iterable<? extends DoubleValue> input,
 					buf.put(val.getDoubleValue());
 				}
 			}
+
+			@Override
+			protected double[] createStagingArray(final int length) {
+				return new double[length];
+			}
+
+			@Override
+			protected void set(final double[] staging, final int index, final DoubleValue value) {
+				staging[index] = value.getDoubleValue();
+			}
+
+			@Override
+			protected void putAll(final double[] staging, final DLWritableDoubleBuffer buffer) {
+				buffer.putAll(staging);
+			}
 		};
 	}
 }
@@ -86,7 +86,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer>() {
+		return new DLAbstractColumnarScalarDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer, float[]>() {
 
 			@Override
 			public void convert(final Iterable<? extends DoubleValue> input,
@@ -97,6 +97,21 @@ public void convert(final Iterable<? extends DoubleValue> input,
 					buf.put((float) val.getDoubleValue());
 				}
 			}
+
+			@Override
+			protected float[] createStagingArray(final int length) {
+				return new float[length];
+			}
+
+			@Override
+			protected void set(final float[] staging, final int index, final DoubleValue value) {
+				staging[index] = (float) value.getDoubleValue();
+			}
+
+			@Override
+			protected void putAll(final float[] staging, final DLWritableFloatBuffer buffer) {
+				buffer.putAll(staging);
+			}
 		};
 	}
 }
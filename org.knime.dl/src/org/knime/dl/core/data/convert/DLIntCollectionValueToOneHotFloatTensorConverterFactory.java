@@ -90,6 +90,11 @@ public OptionalLong getDestCount(List<DataColumnSpec> spec) {
 		return OptionalLong.empty();
 	}
 
+	@Override
+	public boolean isSparse() {
+		return true;
+	}
+
 	@Override
 	public DLDataValueToTensorConverter<CollectionDataValue, DLWritableFloatBuffer> createConverter() {
 		return new DLAbstractTensorDataValueToTensorConverter<CollectionDataValue, DLWritableFloatBuffer>() {
@@ -99,14 +104,18 @@ protected void convertInternal(CollectionDataValue element, DLTensor<DLWritableF
 				checkType(element.getElementType());
 				DLWritableFloatBuffer buffer = output.getBuffer();
 				int featureDimSize = getFeatureDimSize(output.getSpec());
-				byte[] dummyVector = new byte[featureDimSize];
 				for (DataCell cell : element) {
                     checkCellNotMissing(cell);
 					int index = ((IntCell)cell).getIntValue();
 					checkIndexValid(index, featureDimSize);
-					dummyVector[index] = 1;
-					buffer.putAll(dummyVector);
-					dummyVector[index] = 0;
+					// zeros are padded instead of written to allow sparse buffers to skip them
+					if (index > 0) {
+						buffer.zeroPad(index);
+					}
+					buffer.put(1f);
+					if (index < featureDimSize - 1) {
+						buffer.zeroPad(featureDimSize - index - 1L);
+					}
 				}
 			}
 		};
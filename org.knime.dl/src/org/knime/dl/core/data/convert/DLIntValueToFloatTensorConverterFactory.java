@@ -84,7 +84,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<IntValue, DLWritableFloatBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<IntValue, DLWritableFloatBuffer>() {
+		return new DLAbstractColumnarScalarDataValueToTensorConverter<IntValue, DLWritableFloatBuffer, float[]>() {
 
 			@Override
 			public void convert(final Iterable<? extends IntValue> input,
@@ -97,6 +97,21 @@ public void convert(final Iterable<? extends IntValue> input,
 					buf.put(val.getIntValue());
 				}
 			}
+
+			@Override
+			protected float[] createStagingArray(final int length) {
+				return new float[length];
+			}
+
+			@Override
+			protected void set(final float[] staging, final int index, final IntValue value) {
+				staging[index] = value.getIntValue();
+			}
+
+			@Override
+			protected void putAll(final float[] staging, final DLWritableFloatBuffer buffer) {
+				buffer.putAll(staging);
+			}
 		};
 	}
 }
@@ -86,7 +86,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<IntValue, DLWritableIntBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<IntValue, DLWritableIntBuffer>() {
+		return new DLAbstractColumnarScalarDataValueToTensorConverter<IntValue, DLWritableIntBuffer, int[]>() {
 
 			@Override
 			public void convert(final Iterable<? extends IntValue> input, final DLTensor<DLWritableIntBuffer> output) {
@@ -95,6 +95,21 @@ public void convert(final Iterable<? extends IntValue> input, final DLTensor<DLW
 					buf.put(val.getIntValue());
 				}
 			}
+
+			@Override
+			protected int[] createStagingArray(final int length) {
+				return new int[length];
+			}
+
+			@Override
+			protected void set(final int[] staging, final int index, final IntValue value) {
+				staging[index] = value.getIntValue();
+			}
+
+			@Override
+			protected void putAll(final int[] staging, final DLWritableIntBuffer buffer) {
+				buffer.putAll(staging);
+			}
 		};
 	}
 }
@@ -84,7 +84,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<LongValue, DLWritableDoubleBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<LongValue, DLWritableDoubleBuffer>() {
+		return new DLAbstractColumnarScalarDataValueToTensorConverter<LongValue, DLWritableDoubleBuffer, double[]>() {
 
 			@Override
 			public void convert(final Iterable<? extends LongValue> input,
@@ -97,6 +97,21 @@ public void convert(final Iterable<? extends LongValue> input,
 					buf.put((double) val.getLongValue());
 				}
 			}
+
+			@Override
+			protected double[] createStagingArray(final int length) {
+				return new double[length];
+			}
+
+			@Override
+			protected void set(final double[] staging, final int index, final LongValue value) {
+				staging[index] = (double) value.getLongValue();
+			}
+
+			@Override
+			protected void putAll(final double[] staging, final DLWritableDoubleBuffer buffer) {
+				buffer.putAll(staging);
+			}
 		};
 	}
 }
@@ -84,7 +84,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<LongValue, DLWritableLongBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<LongValue, DLWritableLongBuffer>() {
+		return new DLAbstractColumnarScalarDataValueToTensorConverter<LongValue, DLWritableLongBuffer, long[]>() {
 
 			@Override
 			public void convert(final Iterable<? extends LongValue> input,
@@ -94,6 +94,21 @@ public void convert(final Iterable<? extends LongValue> input,
 					buf.put(val.getLongValue());
 				}
 			}
+
+			@Override
+			protected long[] createStagingArray(final int length) {
+				return new long[length];
+			}
+
+			@Override
+			protected void set(final long[] staging, final int index, final LongValue value) {
+				staging[index] = value.getLongValue();
+			}
+
+			@Override
+			protected void putAll(final long[] staging, final DLWritableLongBuffer buffer) {
+				buffer.putAll(staging);
+			}
 		};
 	}
 }
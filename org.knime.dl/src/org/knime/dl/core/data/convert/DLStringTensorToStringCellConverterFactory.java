@@ -46,6 +46,8 @@
  */
 package org.knime.dl.core.data.convert;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.OptionalLong;
 
 import org.knime.core.data.DataType;
@@ -85,9 +87,12 @@ public OptionalLong getDestCount(DLTensorSpec spec) {
 	@Override
 	public DLTensorToDataCellConverter<DLReadableStringBuffer, StringCell> createConverter() {
 		return (input, output, exec) -> {
-			DLReadableStringBuffer buffer = input.getBuffer();
-			for (int i = 0; i < buffer.size(); i++) {
-				output[i] = new StringCell(buffer.readNext());
+			final DLReadableStringBuffer buffer = input.getBuffer();
+			// dictionary encoded transports yield the same string instance for equal values, share their cells
+			final Map<String, StringCell> cells = new IdentityHashMap<>();
+			final long size = buffer.size();
+			for (int i = 0; i < size; i++) {
+				output[i] = cells.computeIfAbsent(buffer.readNext(), StringCell::new);
 			}
 		};
 	}
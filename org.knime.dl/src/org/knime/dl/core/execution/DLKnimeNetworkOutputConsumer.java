@@ -89,9 +89,9 @@ public final class DLKnimeNetworkOutputConsumer implements DLNetworkOutputConsum
     private final LinkedHashMap<DLTensorId, DLKnimeOutputConsumerHelperStruct> m_helpers;
 
     /**
-     * <code>null</code> before the first call of {@link #accept(Map)}.
+     * The number of cells per output row, <code>-1</code> before the first call of {@link #accept(Map)}.
      */
-    private DataCell[] m_temp;
+    private int m_numCellsPerRow = -1;
 
     /**
      * @param append if true, the output cells created by this instance will be appended to their respective base rows.
@@ -119,7 +119,7 @@ public DLKnimeNetworkOutputConsumer(final RowOutput output, final Supplier<DataR
 
 	@Override
 	public void accept(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> tensors) {
-		if (m_temp == null) {
+		if (m_numCellsPerRow == -1) {
 			// initialize output structs the first time we know how the network output looks like
 			initialize(tensors);
 		}
@@ -142,15 +142,15 @@ public void accept(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> t
 		final DLTensor<? extends DLReadableBuffer> tensor = tensors.values().iterator().next();
 		final long batchSize = tensor.getBuffer().size() / tensor.getExampleSize();
 		for (int r = 0; r < batchSize; r++) {
+			// each row owns its cells, so we do not need to copy them once more when creating the row
+			final DataCell[] cells = new DataCell[m_numCellsPerRow];
 			int c = 0;
 	        for (final Entry<DLTensorId, DLKnimeOutputConsumerHelperStruct> entry : m_helpers.entrySet()) {
 	            final DLKnimeOutputConsumerHelperStruct helper = entry.getValue();
 				final DataCell[] temp = helper.m_temp;
 				// casting is fine here as we are already performing exact multiplication in the initialize method
 				final int o = (int) (r * helper.m_numOutputElements);
-				for (int i = 0; i < helper.m_numOutputElements; i++) {
-					m_temp[c + i] = temp[o + i];
-				}
+				System.arraycopy(temp, o, cells, c, (int) helper.m_numOutputElements);
 				c += helper.m_numOutputElements;
 			}
 			DataRow baseRow;
@@ -162,9 +162,9 @@ public void accept(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> t
 			}
 			try {
 				if (m_append) {
-					m_output.push(new AppendedColumnRow(baseRow, m_temp.clone()));
+					m_output.push(new AppendedColumnRow(baseRow, cells));
 				} else {
-					m_output.push(new DefaultRow(baseRow.getKey(), m_temp));
+					m_output.push(new DefaultRow(baseRow.getKey(), cells));
 				}
 			} catch (final InterruptedException ex) {
 				Thread.currentThread().interrupt();
@@ -209,7 +209,7 @@ private void initialize(final Map<DLTensorId, DLTensor<? extends DLReadableBuffe
 			throw new IllegalArgumentException("Number of output elements (" + totalNumOutputElements
 					+ ") is larger than 2^31-1. This is currently not supported.");
 		}
-		m_temp = new DataCell[(int) totalNumOutputElements];
+		m_numCellsPerRow = (int) totalNumOutputElements;
 	}
 
 	private static final class DLKnimeOutputConsumerHelperStruct {
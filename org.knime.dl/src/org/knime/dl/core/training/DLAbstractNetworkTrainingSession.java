@@ -49,7 +49,9 @@
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -155,6 +157,17 @@ private static boolean doExecInputsSpecsMatchConfig(final DLTrainingConfig train
 	 */
 	protected Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> m_validationInput;
 
+	/**
+	 * Initialized during the first call of {@link #run(DLTrainingMonitor)} if the training config requests
+	 * {@link DLTrainingConfig#getPrefetchQueueSize() prefetching}. Holds {@link #m_trainingInput} and the additional
+	 * tensor sets of the prefetch queue.
+	 */
+	private List<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_prefetchedTrainingInputs;
+
+	private DLNetworkInputPrefetcher m_trainingInputPrefetcher;
+
+	private final DLNetworkFixedSizeInputPreparer m_trainingInputPreparer;
+
 	/**
 	 * @param network the network to train
 	 * @param trainingConfig the training configuration that specifies how the network will be trained
@@ -179,7 +192,7 @@ protected DLAbstractNetworkTrainingSession(final N network, final CFG trainingCo
 		m_network = network;
 		m_trainingConfig = checkNotNull(trainingConfig);
 		m_executionInputSpecs = executionInputSpecs;
-		checkNotNull(trainingInputPreparer);
+		m_trainingInputPreparer = checkNotNull(trainingInputPreparer);
 		m_trainingInputProvider = new DLNetworkInputProvider() {
 
 			@Override
@@ -190,12 +203,18 @@ public long getNumBatches() {
 			@Override
 			public Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batchIndex)
 					throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+				if (m_trainingInputPrefetcher != null) {
+					return m_trainingInputPrefetcher.get(batchIndex);
+				}
 				trainingInputPreparer.prepare(m_trainingInput, batchIndex);
 				return m_trainingInput;
 			}
 
 			@Override
 			public void close() throws Exception {
+				if (m_trainingInputPrefetcher != null) {
+					m_trainingInputPrefetcher.close();
+				}
 				trainingInputPreparer.close();
 			}
 		};
@@ -257,6 +276,21 @@ public void run(final DLTrainingMonitor<? extends S> monitor) throws DLCanceledE
 			for (final DLTensorSpec spec : m_executionInputSpecs) {
 				m_trainingInput.put(spec.getIdentifier(), m_tensorFactory.createWritableTensor(spec));
 			}
+			final int prefetchQueueSize = m_trainingConfig.getPrefetchQueueSize();
+			if (prefetchQueueSize > 0) {
+				m_prefetchedTrainingInputs = new ArrayList<>(prefetchQueueSize + 1);
+				m_prefetchedTrainingInputs.add(m_trainingInput);
+				for (int i = 0; i < prefetchQueueSize; i++) {
+					final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input =
+						new HashMap<>(m_executionInputSpecs.size());
+					for (final DLTensorSpec spec : m_executionInputSpecs) {
+						input.put(spec.getIdentifier(), m_tensorFactory.createWritableTensor(spec));
+					}
+					m_prefetchedTrainingInputs.add(input);
+				}
+				m_trainingInputPrefetcher = new DLNetworkInputPrefetcher(m_trainingInputPreparer,
+					m_prefetchedTrainingInputs, m_trainingConfig.getEpochs());
+			}
 		}
 		// lazily preallocate validation input/target tensors
 		if (m_doValidation && m_validationInput == null) {
@@ -276,7 +310,12 @@ public void run(final DLTrainingMonitor<? extends S> monitor) throws DLCanceledE
 
 	@Override
 	public void close() throws Exception {
-		if (m_trainingInput != null) {
+		if (m_trainingInputPrefetcher != null) {
+			m_trainingInputPrefetcher.close();
+		}
+		if (m_prefetchedTrainingInputs != null) {
+			m_prefetchedTrainingInputs.forEach(i -> i.values().forEach(DLTensor::close));
+		} else if (m_trainingInput != null) {
 			m_trainingInput.values().forEach(DLTensor::close);
 		}
 		if (m_validationInput != null) {
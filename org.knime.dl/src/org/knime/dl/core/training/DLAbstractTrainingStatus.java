@@ -166,6 +166,17 @@ public int getCurrentBatchInEpoch() {
 		return m_currentBatchInEpoch;
 	}
 
+	/**
+	 * Sets the current epoch, e.g. if training resumes from a previous run. The batch counter is reset.
+	 *
+	 * @param currentEpoch the zero-based index of the current epoch, <code>-1</code> if no epoch has started yet
+	 * @since 4.5
+	 */
+	protected void setCurrentEpoch(final int currentEpoch) {
+		m_currentEpoch = currentEpoch;
+		m_currentBatchInEpoch = -1;
+	}
+
 	// callbacks:
 
 	@Override
@@ -0,0 +1,376 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.training;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidNetworkInputException;
+import org.knime.dl.core.DLNetworkFixedSizeInputPreparer;
+import org.knime.dl.core.DLSessionMonitor;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLWrappingDataBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+
+/**
+ * Converts the data of a {@link DLNetworkFixedSizeInputPreparer input preparer} once into a typed, columnar in-memory
+ * store (one store per tensor, laid out example by example) and prepares all subsequent batches by copying slices of
+ * that store into the batch tensors. If a random number generator is given, the examples are gathered according to an
+ * index permutation instead of shuffling the underlying table.
+ * <P>
+ * Like the uncached preparer, batches are read from a continuous stream of examples: an incomplete last batch of an
+ * epoch is filled up with the first examples of the next pass over the data and the next epoch continues after them.
+ * The permutation is reshuffled whenever a pass over the data is complete. The batch index passed to
+ * {@link #prepare(Map, long)} is therefore ignored, batches are prepared in the order in which they are requested.
+ * Validation data, on the other hand, is expected to yield the same batches in each validation phase. Preparers that
+ * are created for validation data therefore restart at the first example after filling up an incomplete batch, like
+ * the uncached validation preparer does.
+ * <P>
+ * The delegate preparer must provide the examples in table order and is only used to fill the store.
+ */
+public final class DLCachingNetworkInputPreparer implements DLNetworkFixedSizeInputPreparer {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLCachingNetworkInputPreparer.class);
+
+    /**
+     * Maximum number of buffer elements per chunk of a tensor store.
+     */
+    private static final int MAX_CHUNK_SIZE = 1 << 24;
+
+    private final DLNetworkFixedSizeInputPreparer m_delegate;
+
+    private final int m_numExamples;
+
+    private final int m_batchSize;
+
+    private final Random m_random;
+
+    private final boolean m_restartAfterPass;
+
+    private Map<DLTensorId, DLTensorStore> m_stores;
+
+    private int[] m_permutation;
+
+    /**
+     * The position of the next example in the current pass over the data.
+     */
+    private int m_position = 0;
+
+    private long m_currentBatch = 0;
+
+    /**
+     * @param delegate the preparer that provides the examples in table order, only used to fill the cache
+     * @param numExamples the number of examples (i.e. rows) provided by the delegate preparer
+     * @param batchSize the batch size of the tensors that will be prepared by this instance
+     * @param random the random number generator used to shuffle the examples before each pass over the data, may be
+     *            <code>null</code> in which case the examples are not shuffled
+     */
+    public DLCachingNetworkInputPreparer(final DLNetworkFixedSizeInputPreparer delegate, final long numExamples,
+        final int batchSize, final Random random) {
+        this(delegate, numExamples, batchSize, random, false);
+    }
+
+    /**
+     * @param delegate the preparer that provides the examples in table order, only used to fill the cache
+     * @param numExamples the number of examples (i.e. rows) provided by the delegate preparer
+     * @param batchSize the batch size of the tensors that will be prepared by this instance
+     * @param random the random number generator used to shuffle the examples before each pass over the data, may be
+     *            <code>null</code> in which case the examples are not shuffled
+     * @param isValidationData <code>true</code> if the same batches should be prepared in each pass over the data,
+     *            i.e. if preparation should restart at the first example after filling up an incomplete batch
+     */
+    public DLCachingNetworkInputPreparer(final DLNetworkFixedSizeInputPreparer delegate, final long numExamples,
+        final int batchSize, final Random random, final boolean isValidationData) {
+        checkArgument(numExamples > 0, "Number of examples must be greater than zero.");
+        checkArgument(numExamples <= Integer.MAX_VALUE,
+            "Caching supports at most " + Integer.MAX_VALUE + " examples, got " + numExamples + ".");
+        checkArgument(batchSize > 0, "Batch size must be greater than zero.");
+        m_delegate = checkNotNull(delegate);
+        m_numExamples = (int)numExamples;
+        m_batchSize = batchSize;
+        m_random = random;
+        m_restartAfterPass = isValidationData;
+    }
+
+    @Override
+    public long getNumBatches() {
+        return m_delegate.getNumBatches();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return m_currentBatch < getNumBatches();
+    }
+
+    @Override
+    public void prepareNext(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input)
+        throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+        prepare(input, m_currentBatch);
+        m_currentBatch++;
+    }
+
+    @Override
+    public boolean supportsSkippingEpochs() {
+        return true;
+    }
+
+    /**
+     * Advances the stream of examples by the given number of epochs, replaying the shuffles of completed passes. Does
+     * not touch the cache.
+     */
+    @Override
+    public void skipEpochs(final int numEpochs, final DLSessionMonitor monitor) throws DLCanceledExecutionException {
+        final long numExamplesToSkip = numEpochs * getNumBatches() * m_batchSize;
+        long remaining = numExamplesToSkip;
+        while (remaining > 0) {
+            monitor.checkCanceled();
+            final int numSkipped = (int)Math.min(remaining, m_numExamples - nextPosition());
+            m_position += numSkipped;
+            remaining -= numSkipped;
+            monitor.setProgress((numExamplesToSkip - remaining) / (double)numExamplesToSkip,
+                "Skipping the training data of " + numEpochs + " epochs to resume training...");
+        }
+    }
+
+    @Override
+    public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, final long batchIndex)
+        throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+        if (m_stores == null) {
+            fillStores(input);
+        }
+        final int[] examples = new int[m_batchSize];
+        // whether the batch was filled up with examples of the next pass
+        boolean filledUp = false;
+        for (int i = 0; i < m_batchSize; i++) {
+            filledUp |= i > 0 && m_position == m_numExamples;
+            final int position = nextPosition();
+            examples[i] = m_permutation != null ? m_permutation[position] : position;
+            m_position++;
+        }
+        if (m_restartAfterPass && filledUp) {
+            // the next batch begins a new pass
+            m_position = m_numExamples;
+        }
+        for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
+            final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
+            final DLTensorStore store = m_stores.get(entry.getKey());
+            if (store == null) {
+                throw new DLInvalidNetworkInputException(
+                    "No cached data available for network input/target '" + tensor.getSpec().getName() + "'.");
+            }
+            final Object destination =
+                getWrappingBuffer(tensor).getStorageForWriting(0, store.m_exampleSize * (long)m_batchSize);
+            for (int i = 0; i < m_batchSize; i++) {
+                store.read(examples[i], destination, i * store.m_exampleSize);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        m_stores = null;
+        m_permutation = null;
+        m_delegate.close();
+    }
+
+    private void fillStores(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input)
+        throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+        final Map<DLTensorId, DLTensorStore> stores = new HashMap<>(input.size());
+        final long numBatches = m_delegate.getNumBatches();
+        int numCached = 0;
+        for (long batchIndex = 0; batchIndex < numBatches; batchIndex++) {
+            resetBuffers(input);
+            m_delegate.prepare(input, batchIndex);
+            if (stores.isEmpty()) {
+                allocateStores(input, stores);
+            }
+            final int numExamples = Math.min(m_batchSize, m_numExamples - numCached);
+            for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
+                final DLTensorStore store = stores.get(entry.getKey());
+                final Object source = getWrappingBuffer(entry.getValue()).getStorageForReading(0,
+                    store.m_exampleSize * (long)numExamples);
+                for (int i = 0; i < numExamples; i++) {
+                    store.write(numCached + i, source, i * store.m_exampleSize);
+                }
+            }
+            numCached += numExamples;
+        }
+        resetBuffers(input);
+        m_stores = stores;
+    }
+
+    private void allocateStores(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input,
+        final Map<DLTensorId, DLTensorStore> stores) throws DLInvalidNetworkInputException {
+        long requiredBytes = 0;
+        for (final DLTensor<? extends DLWritableBuffer> tensor : input.values()) {
+            final Class<?> elementType =
+                getWrappingBuffer(tensor).getStorageForReading(0, 0).getClass().getComponentType();
+            requiredBytes += tensor.getExampleSize() * m_numExamples * getElementSizeInBytes(elementType);
+        }
+        final Runtime runtime = Runtime.getRuntime();
+        final long availableBytes = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        if (requiredBytes > availableBytes) {
+            throw new DLInvalidNetworkInputException("Caching the converted data requires about "
+                + (requiredBytes >> 20) + " MB of memory but only " + (availableBytes >> 20)
+                + " MB are available. Please disable caching or increase the memory available to KNIME.");
+        }
+        LOGGER.debug("Caching " + m_numExamples + " converted examples (about " + (requiredBytes >> 20) + " MB).");
+        for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
+            final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
+            final Class<?> elementType =
+                getWrappingBuffer(tensor).getStorageForReading(0, 0).getClass().getComponentType();
+            stores.put(entry.getKey(), new DLTensorStore(elementType, tensor.getExampleSize(), m_numExamples));
+        }
+    }
+
+    /**
+     * @return the position of the next example, begins a new (shuffled) pass over the data if the current one is
+     *         complete
+     */
+    private int nextPosition() {
+        if (m_position == m_numExamples) {
+            m_position = 0;
+            if (m_random != null) {
+                shuffle();
+            }
+        } else if (m_random != null && m_permutation == null) {
+            shuffle();
+        }
+        return m_position;
+    }
+
+    private void shuffle() {
+        if (m_permutation == null) {
+            m_permutation = new int[m_numExamples];
+            for (int i = 0; i < m_numExamples; i++) {
+                m_permutation[i] = i;
+            }
+        }
+        // Fisher-Yates
+        for (int i = m_numExamples - 1; i > 0; i--) {
+            final int j = m_random.nextInt(i + 1);
+            final int tmp = m_permutation[i];
+            m_permutation[i] = m_permutation[j];
+            m_permutation[j] = tmp;
+        }
+    }
+
+    private static void resetBuffers(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+        for (final DLTensor<? extends DLWritableBuffer> tensor : input.values()) {
+            tensor.getBuffer().reset();
+        }
+    }
+
+    private static DLWrappingDataBuffer<?> getWrappingBuffer(final DLTensor<? extends DLWritableBuffer> tensor)
+        throws DLInvalidNetworkInputException {
+        final DLWritableBuffer buffer = tensor.getBuffer();
+        if (!(buffer instanceof DLWrappingDataBuffer)) {
+            throw new DLInvalidNetworkInputException("Caching is not supported for the buffer type of network "
+                + "input/target '" + tensor.getSpec().getName() + "' (" + buffer.getClass().getSimpleName() + ").");
+        }
+        return (DLWrappingDataBuffer<?>)buffer;
+    }
+
+    private static long getElementSizeInBytes(final Class<?> elementType) {
+        if (elementType == double.class || elementType == long.class) {
+            return 8;
+        } else if (elementType == float.class || elementType == int.class) {
+            return 4;
+        } else if (elementType == short.class) {
+            return 2;
+        } else if (elementType == byte.class || elementType == boolean.class) {
+            return 1;
+        } else {
+            // object reference, the referenced objects are not taken into account
+            return 8;
+        }
+    }
+
+    /**
+     * Stores the examples of a single tensor in chunks of primitive (or object) arrays of the tensor buffer's storage
+     * type.
+     */
+    private static final class DLTensorStore {
+
+        private final int m_exampleSize;
+
+        private final int m_examplesPerChunk;
+
+        private final Object[] m_chunks;
+
+        private DLTensorStore(final Class<?> elementType, final long exampleSize, final int numExamples) {
+            checkArgument(exampleSize > 0 && exampleSize <= MAX_CHUNK_SIZE,
+                "Caching supports example sizes of up to " + MAX_CHUNK_SIZE + " elements, got " + exampleSize + ".");
+            m_exampleSize = (int)exampleSize;
+            m_examplesPerChunk = MAX_CHUNK_SIZE / m_exampleSize;
+            final int numChunks = (numExamples + m_examplesPerChunk - 1) / m_examplesPerChunk;
+            m_chunks = new Object[numChunks];
+            for (int i = 0; i < numChunks; i++) {
+                final int numChunkExamples = Math.min(m_examplesPerChunk, numExamples - i * m_examplesPerChunk);
+                m_chunks[i] = Array.newInstance(elementType, numChunkExamples * m_exampleSize);
+            }
+        }
+
+        private void write(final int example, final Object source, final int sourcePos) {
+            System.arraycopy(source, sourcePos, m_chunks[example / m_examplesPerChunk],
+                (example % m_examplesPerChunk) * m_exampleSize, m_exampleSize);
+        }
+
+        private void read(final int example, final Object destination, final int destinationPos) {
+            System.arraycopy(m_chunks[example / m_examplesPerChunk], (example % m_examplesPerChunk) * m_exampleSize,
+                destination, destinationPos, m_exampleSize);
+        }
+    }
+}
@@ -46,6 +46,7 @@
  */
 package org.knime.dl.core.training;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -54,6 +55,7 @@
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidNetworkInputException;
 import org.knime.dl.core.DLRowIterator;
+import org.knime.dl.core.DLSessionMonitor;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.data.DLWritableBuffer;
@@ -96,31 +98,66 @@ public long getNumBatches() {
 		return (long) Math.ceil(m_iterator.size() / (double) m_batchSize);
 	}
 
+	@Override
+	public boolean supportsSkippingEpochs() {
+		return true;
+	}
+
+	/**
+	 * Skips the rows of the given number of epochs. Reading the rows is required to reproduce the row order of
+	 * shuffling iterators.
+	 */
+	@Override
+	public void skipEpochs(final int numEpochs, final DLSessionMonitor monitor) throws DLCanceledExecutionException {
+		final long numBatches = numEpochs * getNumBatches();
+		for (long batch = 0; batch < numBatches; batch++) {
+			monitor.checkCanceled();
+			for (int i = 0; i < m_batchSize; i++) {
+				if (!m_iterator.hasNext()) {
+					// same as in prepare, the last batch of an epoch continues at the beginning of the table
+					m_iterator.reset();
+				}
+				m_iterator.next();
+			}
+			final long numSkipped = batch + 1;
+			monitor.setProgress(numSkipped / (double) numBatches,
+					() -> "Skipping batch " + numSkipped + " of " + numBatches + " to resume training...");
+		}
+	}
+
 	@Override
 	public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, final long batchIndex)
 			throws DLCanceledExecutionException, DLInvalidNetworkInputException {
-		for (long i = 0; i < m_batchSize; i++) {
-			if (!m_iterator.hasNext()) {
-				// continue at the beginning of the table to fill up incomplete batch
-				m_iterator.reset();
+		try {
+			for (int i = 0; i < m_batchSize; i++) {
+				if (!m_iterator.hasNext()) {
+					// continue at the beginning of the table to fill up incomplete batch
+					m_iterator.reset();
+				}
+				final DataRow row = m_iterator.next();
+				if (m_rowBuffer != null) {
+					m_rowBuffer[i] = row;
+				} else {
+					writeDataValuesInTensors(m_iterator.groupByTensor(row), input);
+				}
 			}
-			final DataRow row = m_iterator.next();
-			try {
-				writeDataValuesInTensors(m_iterator.groupByTensor(row), input);
-			} catch (final DLBufferOverflowExceptionForTensor ex) {
-				final DLTensor<?> tensor = ex.getTensor();
-				// must be present
-				final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
-				// must be present
-				final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
-				throw new DLInvalidNetworkInputException(
-						"Node training data size for input/target '" + tensor.getSpec().getName()
-								+ "' exceeds the expected size. Neuron count of this input/target is " + exampleSize
-								+ ", batch size is " + batchSize + ". Thus, expected training data size is "
-								+ exampleSize * batchSize + ". Please check the column selection for this input/target "
-								+ "and validate the node's training data.",
-						ex);
+			if (m_rowBuffer != null) {
+				writeRowsInTensors(m_rowBuffer, m_batchSize, input);
+				Arrays.fill(m_rowBuffer, null);
 			}
+		} catch (final DLBufferOverflowExceptionForTensor ex) {
+			final DLTensor<?> tensor = ex.getTensor();
+			// must be present
+			final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
+			// must be present
+			final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
+			throw new DLInvalidNetworkInputException(
+					"Node training data size for input/target '" + tensor.getSpec().getName()
+							+ "' exceeds the expected size. Neuron count of this input/target is " + exampleSize
+							+ ", batch size is " + batchSize + ". Thus, expected training data size is "
+							+ exampleSize * batchSize + ". Please check the column selection for this input/target "
+							+ "and validate the node's training data.",
+					ex);
 		}
 		// check if tensors were filled correctly
 		for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
@@ -46,6 +46,7 @@
  */
 package org.knime.dl.core.training;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -100,29 +101,37 @@ public long getNumBatches() {
 	public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, final long batchIndex)
 			throws DLCanceledExecutionException, DLInvalidNetworkInputException {
 		boolean reset = false;
-		for (long i = 0; i < m_batchSize; i++) {
-			if (!m_iterator.hasNext()) {
-				// continue at the beginning of the table to fill up incomplete batch
-				m_iterator.reset();
-				reset = true;
+		try {
+			for (int i = 0; i < m_batchSize; i++) {
+				if (!m_iterator.hasNext()) {
+					// continue at the beginning of the table to fill up incomplete batch
+					m_iterator.reset();
+					reset = true;
+				}
+				final DataRow row = m_iterator.next();
+				if (m_rowBuffer != null) {
+					m_rowBuffer[i] = row;
+				} else {
+					writeDataValuesInTensors(m_iterator.groupByTensor(row), input);
+				}
 			}
-			final DataRow row = m_iterator.next();
-			try {
-				writeDataValuesInTensors(m_iterator.groupByTensor(row), input);
-			} catch (final DLBufferOverflowExceptionForTensor ex) {
-				final DLTensor<?> tensor = ex.getTensor();
-				// must be present
-				final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
-				// must be present
-				final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
-				throw new DLInvalidNetworkInputException(
-						"Node validation data size for input/target '" + tensor.getSpec().getName()
-								+ "' exceeds the expected size. Neuron count of this input/target is " + exampleSize
-								+ ", batch size is " + batchSize + ". Thus, expected validation data size is "
-								+ exampleSize * batchSize + ". Please check the column selection for this input/target "
-								+ "and validate the node's validation data.",
-						ex);
+			if (m_rowBuffer != null) {
+				writeRowsInTensors(m_rowBuffer, m_batchSize, input);
+				Arrays.fill(m_rowBuffer, null);
 			}
+		} catch (final DLBufferOverflowExceptionForTensor ex) {
+			final DLTensor<?> tensor = ex.getTensor();
+			// must be present
+			final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
+			// must be present
+			final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
+			throw new DLInvalidNetworkInputException(
+					"Node validation data size for input/target '" + tensor.getSpec().getName()
+							+ "' exceeds the expected size. Neuron count of this input/target is " + exampleSize
+							+ ", batch size is " + batchSize + ". Thus, expected validation data size is "
+							+ exampleSize * batchSize + ". Please check the column selection for this input/target "
+							+ "and validate the node's validation data.",
+					ex);
 		}
 		if (reset) {
 			// Validation outcomes must be comparable. Each validation phase should be executed with the same set of
@@ -0,0 +1,286 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.training;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.util.ThreadUtils;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidNetworkInputException;
+import org.knime.dl.core.DLNetworkFixedSizeInputPreparer;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLWritableBuffer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Prepares upcoming batches of an {@link DLNetworkFixedSizeInputPreparer input preparer} on a background thread while
+ * the consumer is still busy with the current batch. Batches are prepared in order, starting at the first requested
+ * batch index and wrapping around at the end of the epoch, into a ring of preallocated tensor sets. Prefetching stops
+ * after the last batch of the last epoch. Epochs are counted by observing requests for a batch index that is not
+ * greater than the previously requested one.
+ * <P>
+ * A tensor set that is returned by {@link #get(long)} remains valid until the next call of {@link #get(long)}. If a
+ * batch other than the next one in order is requested, the prefetched batches are discarded and prefetching restarts
+ * at the requested batch.
+ */
+public final class DLNetworkInputPrefetcher implements AutoCloseable {
+
+    /**
+     * Interval in which the producer checks whether it should stop.
+     */
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final DLNetworkFixedSizeInputPreparer m_preparer;
+
+    private final int m_numEpochs;
+
+    private final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_free;
+
+    private final BlockingQueue<DLPrefetchedBatch> m_ready;
+
+    private final ExecutorService m_executor;
+
+    private Future<?> m_producer;
+
+    private volatile boolean m_stopProducer;
+
+    /**
+     * The epoch of the last requested batch.
+     */
+    private int m_epoch = 0;
+
+    private long m_lastBatchIndex = -1;
+
+    /**
+     * The tensor set that was returned by the last call of {@link #get(long)}.
+     */
+    private Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> m_current;
+
+    /**
+     * @param preparer the input preparer, is only accessed by the background thread once prefetching started
+     * @param tensorSets the preallocated tensor sets, the number of sets minus one is the number of batches that are
+     *            prepared ahead of time
+     * @param numEpochs the number of epochs, no batches are prefetched beyond the last epoch
+     */
+    public DLNetworkInputPrefetcher(final DLNetworkFixedSizeInputPreparer preparer,
+        final List<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> tensorSets, final int numEpochs) {
+        checkArgument(tensorSets.size() > 1, "Prefetching requires at least two tensor sets.");
+        checkArgument(numEpochs > 0, "Number of epochs must be greater than zero.");
+        m_preparer = preparer;
+        m_numEpochs = numEpochs;
+        m_free = new ArrayBlockingQueue<>(tensorSets.size(), false, tensorSets);
+        m_ready = new ArrayBlockingQueue<>(tensorSets.size());
+        m_executor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("KNIME-DL-Input-Prefetcher-%d").setDaemon(true).build());
+    }
+
+    /**
+     * @param batchIndex the index of the requested batch
+     * @return the tensor set that contains the requested batch
+     * @throws DLCanceledExecutionException if the calling thread was interrupted while waiting for the batch or if
+     *             preparing the batch was canceled
+     * @throws DLInvalidNetworkInputException if preparing the batch failed
+     */
+    public Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batchIndex)
+        throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+        if (m_current != null) {
+            m_free.add(m_current);
+            m_current = null;
+        }
+        if (m_lastBatchIndex >= 0 && batchIndex <= m_lastBatchIndex) {
+            m_epoch++;
+        }
+        m_lastBatchIndex = batchIndex;
+        if (m_producer == null) {
+            startProducer(batchIndex);
+        }
+        DLPrefetchedBatch batch = takeReady(batchIndex);
+        if (batch.m_batchIndex != batchIndex) {
+            m_free.add(batch.m_tensors);
+            stopProducer();
+            startProducer(batchIndex);
+            batch = takeReady(batchIndex);
+        }
+        if (batch.m_exception != null) {
+            m_free.add(batch.m_tensors);
+            // the producer terminated, restart it with the next request
+            m_producer = null;
+            if (batch.m_exception instanceof DLCanceledExecutionException) {
+                throw (DLCanceledExecutionException)batch.m_exception;
+            } else if (batch.m_exception instanceof DLInvalidNetworkInputException) {
+                throw (DLInvalidNetworkInputException)batch.m_exception;
+            } else {
+                throw new DLInvalidNetworkInputException(
+                    "An exception occurred while preparing the network input: " + batch.m_exception.getMessage(),
+                    batch.m_exception);
+            }
+        }
+        m_current = batch.m_tensors;
+        return m_current;
+    }
+
+    /**
+     * Stops prefetching and waits until the background thread terminated, i.e. until it does not access the tensors
+     * anymore. Does neither close the input preparer nor the tensors.
+     */
+    @Override
+    public void close() {
+        m_stopProducer = true;
+        m_executor.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (m_executor.awaitTermination(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+            } catch (final InterruptedException e) {
+                // the tensors must not be released while they are still being written
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void startProducer(final long startIndex) {
+        m_stopProducer = false;
+        // batches that are requested beyond the last epoch are prepared on demand
+        final long numBatchesToPrepare =
+            Math.max(1, (m_numEpochs - m_epoch) * m_preparer.getNumBatches() - startIndex);
+        m_producer =
+            m_executor.submit(ThreadUtils.runnableWithContext(() -> produce(startIndex, numBatchesToPrepare)));
+    }
+
+    private void stopProducer() throws DLCanceledExecutionException {
+        m_stopProducer = true;
+        try {
+            m_producer.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DLCanceledExecutionException("Waiting for the input preparation to stop was interrupted.");
+        } catch (final ExecutionException e) {
+            // Exceptions are reported via the ready queue.
+        }
+        m_producer = null;
+        DLPrefetchedBatch batch;
+        while ((batch = m_ready.poll()) != null) {
+            m_free.add(batch.m_tensors);
+        }
+    }
+
+    private DLPrefetchedBatch takeReady(final long batchIndex) throws DLCanceledExecutionException {
+        try {
+            DLPrefetchedBatch batch;
+            while ((batch = m_ready.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) == null) {
+                if (m_producer.isDone() && m_ready.isEmpty()) {
+                    // the producer stopped at the end of the last epoch but more batches are requested
+                    startProducer(batchIndex);
+                }
+            }
+            return batch;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DLCanceledExecutionException("Waiting for the next input batch was interrupted.");
+        }
+    }
+
+    private void produce(final long startIndex, final long numBatchesToPrepare) {
+        final long numBatches = m_preparer.getNumBatches();
+        long batchIndex = startIndex;
+        for (long i = 0; i < numBatchesToPrepare && !m_stopProducer;) {
+            final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors;
+            try {
+                tensors = m_free.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                return;
+            }
+            if (tensors == null) {
+                continue;
+            }
+            try {
+                for (final DLTensor<? extends DLWritableBuffer> tensor : tensors.values()) {
+                    tensor.getBuffer().reset();
+                }
+                m_preparer.prepare(tensors, batchIndex);
+                m_ready.add(new DLPrefetchedBatch(batchIndex, tensors, null));
+            } catch (final Exception e) {
+                m_ready.add(new DLPrefetchedBatch(batchIndex, tensors, e));
+                return;
+            }
+            batchIndex = (batchIndex + 1) % numBatches;
+            i++;
+        }
+    }
+
+    private static final class DLPrefetchedBatch {
+
+        private final long m_batchIndex;
+
+        private final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> m_tensors;
+
+        private final Exception m_exception;
+
+        private DLPrefetchedBatch(final long batchIndex,
+            final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors, final Exception exception) {
+            m_batchIndex = batchIndex;
+            m_tensors = tensors;
+            m_exception = exception;
+        }
+    }
+}
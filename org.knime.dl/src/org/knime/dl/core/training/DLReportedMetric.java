@@ -67,9 +67,11 @@ public static DLReportedMetric deserialize(final ObjectInput objIn) throws IOExc
 
 	private float m_value;
 
+	private float[] m_batchValues;
+
 	public DLReportedMetric(final String name, final float initialValue) {
 		m_name = name;
-		m_value = initialValue;
+		setValue(initialValue);
 	}
 
 	/**
@@ -82,12 +84,39 @@ public String getName() {
 		return m_name;
 	}
 
+	/**
+	 * @return the value of the metric, the value of the last batch if the metric was reported for several batches
+	 */
 	public float getValue() {
 		return m_value;
 	}
 
 	public void setValue(final float value) {
 		m_value = value;
+		m_batchValues = null;
+	}
+
+	/**
+	 * Sets the values of a metric that was reported for several batches at once. {@link #getValue()} returns the value
+	 * of the last of these batches afterwards.
+	 *
+	 * @param values the value of each batch, must not be empty
+	 * @since 4.5
+	 */
+	public void setBatchValues(final float[] values) {
+		m_value = values[values.length - 1];
+		m_batchValues = values;
+	}
+
+	/**
+	 * Batch values are not persisted, only the {@link #getValue() value} is available after deserialization.
+	 *
+	 * @return the value of each batch the metric was reported for, a single value if it was reported for a single
+	 *         batch
+	 * @since 4.5
+	 */
+	public float[] getBatchValues() {
+		return m_batchValues != null ? m_batchValues : new float[] { m_value };
 	}
 
 	@Override
@@ -99,6 +128,6 @@ public void writeExternal(final ObjectOutput objOut) throws IOException {
 	@Override
 	public void readExternal(final ObjectInput objIn) throws IOException, ClassNotFoundException {
 		m_name = objIn.readUTF();
-		m_value = objIn.readFloat();
+		setValue(objIn.readFloat());
 	}
 }
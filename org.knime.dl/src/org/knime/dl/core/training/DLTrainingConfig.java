@@ -68,4 +68,23 @@ public interface DLTrainingConfig {
 	 *         performing model evaluation during training.
 	 */
 	long getValidationBatchSize();
+
+	/**
+	 * @return the number of training data batches that are prepared ahead of time while the network is trained on the
+	 *         current batch, <code>0</code> if batches are prepared on request only
+	 * @since 4.5
+	 */
+	default int getPrefetchQueueSize() {
+		return 0;
+	}
+
+	/**
+	 * @return the minimum time in milliseconds between two reports of batch metrics during training. Metrics of the
+	 *         batches within that time are collected and reported at once. <code>0</code> if metrics are reported after
+	 *         each batch.
+	 * @since 4.5
+	 */
+	default int getMetricsReportInterval() {
+		return 0;
+	}
 }